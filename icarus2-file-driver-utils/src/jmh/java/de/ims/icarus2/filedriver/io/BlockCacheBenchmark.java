@@ -0,0 +1,247 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.filedriver.io;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.AuxCounters.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+
+import de.ims.icarus2.filedriver.io.BufferedIOResource.Block;
+import de.ims.icarus2.filedriver.io.BufferedIOResource.BlockCache;
+import de.ims.icarus2.test.JmhUtils;
+import de.ims.icarus2.test.random.RandomGenerator;
+
+/**
+ * Compares {@link BlockCache} implementations directly, without any I/O, under
+ * a mixed workload: {@value #HOT_PERCENT}% of all non-scan requests go to a hot
+ * set of half the cache capacity, while {@link #scanPercent} of all requests
+ * belong to a sequential scan over a key space many times larger than the cache.
+ * <p>
+ * Caches that are not thread-safe are guarded by a single monitor, mirroring the
+ * exclusive locking they require inside a {@link BufferedIOResource}. Thread-safe
+ * caches are accessed directly and only serialize the loading of missing blocks
+ * per id. Next to the raw throughput the benchmark reports {@link Counters#hits hits}
+ * and {@link Counters#misses misses} per iteration, so that hit ratios can be
+ * compared directly.
+ *
+ * @author Markus Gärtner
+ *
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations=5, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(value=1, jvmArgsAppend={"-Xmx2g", "-Xms2g"})
+public class BlockCacheBenchmark {
+
+	/** Number of lookups per benchmark invocation */
+	private static final int BATCH = 1024;
+
+	private static final int HOT_PERCENT = 90;
+
+	/** Size of the key space relative to the cache capacity */
+	private static final int KEY_SPACE_FACTOR = 64;
+
+	/** Number of monitors used to serialize loading of missing blocks */
+	private static final int LOAD_LOCKS = 64;
+
+	public enum CacheType {
+		LRU(RUBlockCache::newLeastRecentlyUsedCache, false),
+		TINY_LFU(TinyLfuBlockCache::new, true),
+		;
+
+		private final Supplier<BlockCache> source;
+		private final boolean threadSafe;
+
+		private CacheType(Supplier<BlockCache> source, boolean threadSafe) {
+			this.source = source;
+			this.threadSafe = threadSafe;
+		}
+	}
+
+	// Benchmark parameters
+
+	@Param({"LRU", "TINY_LFU"})
+	private CacheType cacheType;
+
+	@Param({"256", "4096"})
+	private int capacity;
+
+	@Param({"0", "25", "50"})
+	private int scanPercent;
+
+	// For benchmarking
+	private BlockCache cache;
+	private final Object[] loadLocks = new Object[LOAD_LOCKS];
+
+	/** Per-thread request sequence together with hit/miss counters. */
+	@State(Scope.Thread)
+	@AuxCounters(Type.EVENTS)
+	public static class Counters {
+		public long hits, misses;
+
+		int[] ids;
+		int cursor;
+
+		@Setup(Level.Trial)
+		public void prepareIds(BlockCacheBenchmark bench, ThreadParams threads) {
+			final RandomGenerator rand = RandomGenerator.forSeed(
+					bench.capacity * 31L + threads.getThreadIndex());
+
+			final int hotSize = bench.capacity/2;
+			final int keySpace = bench.capacity * KEY_SPACE_FACTOR;
+			// Each thread scans its own region of the cold key space
+			int scanId = hotSize + rand.random(0, keySpace-hotSize);
+
+			ids = new int[BATCH * 64];
+			for (int i = 0; i < ids.length; i++) {
+				if(rand.random(0, 100) < bench.scanPercent) {
+					ids[i] = scanId;
+					scanId = scanId+1 < keySpace ? scanId+1 : hotSize;
+				} else {
+					ids[i] = rand.random(0, 100) < HOT_PERCENT
+							? rand.random(0, hotSize) : rand.random(hotSize, keySpace);
+				}
+			}
+		}
+
+		@Setup(Level.Iteration)
+		public void resetCounters() {
+			hits = misses = 0;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void prepareCache() {
+		for (int i = 0; i < loadLocks.length; i++) {
+			loadLocks[i] = new Object();
+		}
+
+		cache = cacheType.source.get();
+		cache.open(capacity);
+
+		// Start out with a warm cache
+		for (int i = 0; i < capacity; i++) {
+			cache.addBlock(newBlock(i));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void cleanup() {
+		cache.close();
+	}
+
+	private static Block newBlock(int id) {
+		Block block = new Block(null);
+		block.setId(id);
+		return block;
+	}
+
+	private Block lookupSynchronized(int id, Counters counters) {
+		synchronized (cache) {
+			Block block = cache.getBlock(id);
+			if(block==null) {
+				counters.misses++;
+				block = newBlock(id);
+				cache.addBlock(block);
+			} else {
+				counters.hits++;
+			}
+			return block;
+		}
+	}
+
+	private Block lookupConcurrent(int id, Counters counters) {
+		Block block = cache.getBlock(id);
+		if(block!=null) {
+			counters.hits++;
+			return block;
+		}
+
+		counters.misses++;
+		synchronized (loadLocks[id & (LOAD_LOCKS-1)]) {
+			// Another thread might have loaded the block in the meantime
+			block = cache.getBlock(id);
+			if(block==null) {
+				block = newBlock(id);
+				cache.addBlock(block);
+			}
+		}
+		return block;
+	}
+
+	private void lookup(Counters counters, Blackhole bh) {
+		final int[] ids = counters.ids;
+		final boolean threadSafe = cacheType.threadSafe;
+		int offset = counters.cursor;
+		for (int i = 0; i < BATCH; i++) {
+			int id = ids[(offset+i) % ids.length];
+			bh.consume(threadSafe ? lookupConcurrent(id, counters) : lookupSynchronized(id, counters));
+		}
+		counters.cursor = (offset + BATCH) % ids.length;
+	}
+
+	@Benchmark
+	@Threads(1)
+	@OperationsPerInvocation(BATCH)
+	public void mixed_1Thread(Counters counters, Blackhole bh) {
+		lookup(counters, bh);
+	}
+
+	@Benchmark
+	@Threads(4)
+	@OperationsPerInvocation(BATCH)
+	public void mixed_4Threads(Counters counters, Blackhole bh) {
+		lookup(counters, bh);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		ChainedOptionsBuilder builder =
+				JmhUtils.jmhOptions(BlockCacheBenchmark.class, false, ResultFormatType.CSV)
+				.jvmArgsAppend("-Xmx2g", "-Xms2g")
+				.forks(1);
+
+		new Runner(builder.build()).run();
+	}
+}
@@ -0,0 +1,266 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.filedriver.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.AuxCounters.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+
+import de.ims.icarus2.filedriver.io.BufferedIOResource.Block;
+import de.ims.icarus2.filedriver.io.BufferedIOResource.BlockCache;
+import de.ims.icarus2.filedriver.io.BufferedIOResource.PayloadConverter;
+import de.ims.icarus2.filedriver.io.BufferedIOResource.ReadWriteAccessor;
+import de.ims.icarus2.filedriver.io.BufferedIOResource.StatField;
+import de.ims.icarus2.test.JmhUtils;
+import de.ims.icarus2.test.random.RandomGenerator;
+import de.ims.icarus2.util.Stats;
+import de.ims.icarus2.util.io.resource.FileResource;
+
+/**
+ * Measures block lookups on a {@link BufferedIOResource} that is backed by a
+ * temporary file on disk. Lookups follow either a sequential, uniformly random
+ * or skewed access pattern, the latter sending {@value #HOT_PERCENT}% of all
+ * requests to a hot set of {@value #HOT_FRACTION_PERCENT}% of the blocks.
+ * <p>
+ * Next to the raw throughput the benchmark reports the number of
+ * {@link #lookups() lookups}, {@link #cacheMisses() cache misses} and
+ * {@link #lastHits() last-block hits} per iteration, so that hit ratios of the
+ * different {@link BlockCache} implementations can be compared directly.
+ *
+ * @author Markus Gärtner
+ *
+ */
+@State(Scope.Thread)
+@AuxCounters(Type.EVENTS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations=5, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(value=1, jvmArgsAppend={"-Xmx2g", "-Xms2g"})
+public class BufferedIOResourceBenchmark {
+
+	/** Number of block lookups per benchmark invocation */
+	private static final int BATCH = 1024;
+
+	private static final int HOT_PERCENT = 90;
+	private static final int HOT_FRACTION_PERCENT = 10;
+
+	public enum CacheType {
+		LRU(RUBlockCache::newLeastRecentlyUsedCache),
+		MRU(RUBlockCache::newMostRecentlyUsedCache),
+		UNLIMITED(UnlimitedBlockCache::new),
+		TINY_LFU(TinyLfuBlockCache::new),
+		;
+
+		private final Supplier<BlockCache> source;
+
+		private CacheType(Supplier<BlockCache> source) {
+			this.source = source;
+		}
+	}
+
+	/** Stores raw bytes, so that the measurement focuses on caching and I/O. */
+	private static final PayloadConverter RAW = new PayloadConverter() {
+		@Override
+		public void write(Object source, ByteBuffer buffer, int length) throws IOException {
+			buffer.put((byte[]) source, 0, length);
+		}
+		@Override
+		public int read(Object target, ByteBuffer buffer) throws IOException {
+			int length = buffer.remaining();
+			if(length>0) {
+				buffer.get((byte[])target, 0, length);
+			}
+			return length;
+		}
+		@Override
+		public Object newBlockData(int bytesPerBlock) {
+			return new byte[bytesPerBlock];
+		}
+	};
+
+	// Benchmark parameters
+
+	@Param({"LRU", "MRU", "UNLIMITED", "TINY_LFU"})
+	private CacheType cacheType;
+
+	@Param({"32", "256", "2048"})
+	private int cacheSize;
+
+	@Param({"4096"})
+	private int bytesPerBlock;
+
+	@Param({"8192"})
+	private int blockCount;
+
+	// Utility
+	private Path file;
+	private int[] randomIds, skewedIds;
+	private int cursor;
+
+	// For benchmarking
+	private BufferedIOResource resource;
+	private ReadWriteAccessor accessor;
+
+	@Setup(Level.Trial)
+	public void prepareData() throws IOException {
+		final RandomGenerator rand = RandomGenerator.forSeed(blockCount);
+
+		file = Files.createTempFile("icarus2_bench_", ".blocks");
+		try(SeekableByteChannel ch = Files.newByteChannel(file, StandardOpenOption.WRITE)) {
+			ByteBuffer bb = ByteBuffer.allocate(bytesPerBlock);
+			for (int i = 0; i < blockCount; i++) {
+				rand.nextBytes(bb.array());
+				bb.clear();
+				ch.write(bb);
+			}
+		}
+
+		final int hotSize = Math.max(1, blockCount * HOT_FRACTION_PERCENT / 100);
+		randomIds = new int[BATCH * 16];
+		skewedIds = new int[randomIds.length];
+		for (int i = 0; i < randomIds.length; i++) {
+			randomIds[i] = rand.random(0, blockCount);
+			skewedIds[i] = rand.random(0, 100) < HOT_PERCENT
+					? rand.random(0, hotSize) : rand.random(hotSize, blockCount);
+		}
+
+		resource = BufferedIOResource.builder()
+				.resource(new FileResource(file))
+				.blockCache(cacheType.source.get())
+				.cacheSize(cacheSize)
+				.bytesPerBlock(bytesPerBlock)
+				.payloadConverter(RAW)
+				.collectStats(true)
+				.build();
+		accessor = resource.newAccessor(true);
+	}
+
+	@TearDown(Level.Trial)
+	public void cleanup() throws IOException {
+		accessor.close();
+		Files.deleteIfExists(file);
+	}
+
+	@Setup(Level.Iteration)
+	public void resetCounters() {
+		resource.resetStats();
+		cursor = 0;
+	}
+
+	// AUX COUNTERS
+
+	private long count(StatField field) {
+		Stats<StatField> stats = resource.getStats();
+		return stats.getCount(field);
+	}
+
+	public long lookups() {
+		return count(StatField.BLOCK_LOOKUP);
+	}
+
+	public long cacheMisses() {
+		return count(StatField.CACHE_MISS);
+	}
+
+	public long lastHits() {
+		return count(StatField.LAST_HIT);
+	}
+
+	// END AUX COUNTERS
+
+	private void lookup(int[] ids, Blackhole bh) {
+		accessor.begin();
+		try {
+			int offset = cursor;
+			for (int i = 0; i < BATCH; i++) {
+				Block block = accessor.getBlock(ids[(offset+i) % ids.length]);
+				bh.consume(block);
+			}
+			cursor = (offset + BATCH) % ids.length;
+		} finally {
+			accessor.end();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void sequential(Blackhole bh) {
+		accessor.begin();
+		try {
+			int id = cursor;
+			for (int i = 0; i < BATCH; i++) {
+				bh.consume(accessor.getBlock(id));
+				id = (id+1) % blockCount;
+			}
+			cursor = id;
+		} finally {
+			accessor.end();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void random(Blackhole bh) {
+		lookup(randomIds, bh);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void skewed(Blackhole bh) {
+		lookup(skewedIds, bh);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		ChainedOptionsBuilder builder =
+				JmhUtils.jmhOptions(BufferedIOResourceBenchmark.class, false, ResultFormatType.CSV)
+				.jvmArgsAppend("-Xmx2g", "-Xms2g")
+				.forks(1);
+
+		new Runner(builder.build()).run();
+	}
+}
@@ -0,0 +1,302 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.filedriver.mapping;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+
+import de.ims.icarus2.filedriver.io.RUBlockCache;
+import de.ims.icarus2.model.api.driver.Driver;
+import de.ims.icarus2.model.api.driver.indices.IndexValueType;
+import de.ims.icarus2.model.api.driver.mapping.MappingReader;
+import de.ims.icarus2.model.api.driver.mapping.MappingWriter;
+import de.ims.icarus2.model.api.driver.mapping.RequestSettings;
+import de.ims.icarus2.model.api.driver.mapping.WritableMapping;
+import de.ims.icarus2.model.manifest.api.ItemLayerManifestBase;
+import de.ims.icarus2.model.manifest.api.MappingManifest;
+import de.ims.icarus2.model.manifest.api.MappingManifest.Coverage;
+import de.ims.icarus2.model.manifest.api.MappingManifest.Relation;
+import de.ims.icarus2.test.JmhUtils;
+import de.ims.icarus2.test.random.RandomGenerator;
+import de.ims.icarus2.util.io.resource.FileResource;
+
+/**
+ * Measures lookups on the file-backed {@code MappingImpl*} implementations.
+ * The mappings model a corpus of sentences with a fixed number of tokens each
+ * and are written once per trial into temporary files. Every benchmark thread
+ * uses its own {@link MappingReader} on the shared mapping, so running the
+ * suite with different thread counts shows how well the readers scale under
+ * contention on the shared block cache.
+ * <p>
+ * Lookups are performed either sequentially or in random order and use
+ * {@link MappingReader#getBeginIndex(long, RequestSettings)} to avoid measuring
+ * the allocation of result buffers.
+ *
+ * @author Markus Gärtner
+ *
+ */
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations=5, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(value=1, jvmArgsAppend={"-Xmx2g", "-Xms2g"})
+public class MappingLookupBenchmark {
+
+	/** Number of lookups per benchmark invocation */
+	private static final int BATCH = 1024;
+
+	/** Number of tokens per sentence */
+	private static final int SENTENCE_LENGTH = 20;
+
+	public enum MappingType {
+		/** Token to token, e.g. between two tokenizations */
+		ONE_TO_ONE,
+		/** Sentence to the span of its tokens */
+		SPAN_ONE_TO_MANY,
+		/** Token to its surrounding sentence, resolved via an inverse mapping */
+		SPAN_MANY_TO_ONE,
+		;
+	}
+
+	@State(Scope.Benchmark)
+	public static class MappingState {
+
+		@Param({"ONE_TO_ONE", "SPAN_ONE_TO_MANY", "SPAN_MANY_TO_ONE"})
+		private MappingType mappingType;
+
+		/** Total number of tokens */
+		@Param({"1000000"})
+		private int tokenCount;
+
+		@Param({"32", "256", "4096"})
+		private int cacheSize;
+
+		@Param({"10"})
+		private int blockPower;
+
+		private final IndexValueType valueType = IndexValueType.INTEGER;
+
+		private Path tokenFile, sentenceFile;
+		private AbstractStoredMapping<?> mapping, inverse;
+		/** Number of valid source indices for lookups */
+		private int sourceCount;
+
+		private static MappingManifest manifest(Relation relation) {
+			MappingManifest manifest = mock(MappingManifest.class);
+			when(manifest.getCoverage()).thenReturn(Optional.of(Coverage.TOTAL_MONOTONIC));
+			when(manifest.getRelation()).thenReturn(Optional.of(relation));
+			return manifest;
+		}
+
+		private <B extends AbstractStoredMapping.AbstractStoredMappingBuilder<B, ?>> B prepare(
+				B builder, Path file, Relation relation) {
+			return builder.blockCache(RUBlockCache.newLeastRecentlyUsedCache())
+					.cacheSize(cacheSize)
+					.resource(new FileResource(file))
+					.driver(mock(Driver.class))
+					.manifest(manifest(relation))
+					.sourceLayer(mock(ItemLayerManifestBase.class))
+					.targetLayer(mock(ItemLayerManifestBase.class))
+					.valueType(valueType);
+		}
+
+		private static void write(WritableMapping mapping, MappingWriterTask task) {
+			try(MappingWriter writer = mapping.newWriter()) {
+				writer.begin();
+				try {
+					task.write(writer);
+				} finally {
+					writer.end();
+				}
+			}
+		}
+
+		@FunctionalInterface
+		private interface MappingWriterTask {
+			void write(MappingWriter writer);
+		}
+
+		@Setup(Level.Trial)
+		public void prepareMapping() throws IOException {
+			final int sentenceCount = tokenCount / SENTENCE_LENGTH;
+
+			tokenFile = Files.createTempFile("icarus2_bench_", ".map");
+
+			switch (mappingType) {
+			case ONE_TO_ONE: {
+				MappingImplOneToOne m = prepare(MappingImplOneToOne.builder(),
+						tokenFile, Relation.ONE_TO_ONE).blockPower(blockPower).build();
+				write(m, w -> {
+					for (int i = 0; i < tokenCount; i++) {
+						w.map(i, i);
+					}
+				});
+				mapping = m;
+				sourceCount = tokenCount;
+			} break;
+
+			case SPAN_ONE_TO_MANY: {
+				mapping = sentencesToTokens(tokenFile, sentenceCount);
+				sourceCount = sentenceCount;
+			} break;
+
+			case SPAN_MANY_TO_ONE: {
+				sentenceFile = Files.createTempFile("icarus2_bench_", ".map");
+				inverse = sentencesToTokens(sentenceFile, sentenceCount);
+				MappingImplSpanManyToOne m = prepare(MappingImplSpanManyToOne.builder(),
+						tokenFile, Relation.MANY_TO_ONE)
+						.blockPower(blockPower)
+						.inverseMapping(inverse)
+						.build();
+				write(m, w -> {
+					for (int s = 0; s < sentenceCount; s++) {
+						long begin = s * (long)SENTENCE_LENGTH;
+						w.map(begin, begin+SENTENCE_LENGTH-1, s, s);
+					}
+				});
+				mapping = m;
+				sourceCount = tokenCount;
+			} break;
+
+			default:
+				throw new IllegalStateException("Unknown mapping type: "+mappingType);
+			}
+		}
+
+		private MappingImplSpanOneToMany sentencesToTokens(Path file, int sentenceCount) {
+			MappingImplSpanOneToMany m = prepare(MappingImplSpanOneToMany.builder(),
+					file, Relation.ONE_TO_MANY).blockPower(blockPower).build();
+			write(m, w -> {
+				for (int s = 0; s < sentenceCount; s++) {
+					long begin = s * (long)SENTENCE_LENGTH;
+					w.map(s, s, begin, begin+SENTENCE_LENGTH-1);
+				}
+			});
+			return m;
+		}
+
+		@TearDown(Level.Trial)
+		public void cleanup() throws IOException {
+			mapping.close();
+			if(inverse!=null) {
+				inverse.close();
+			}
+			Files.deleteIfExists(tokenFile);
+			if(sentenceFile!=null) {
+				Files.deleteIfExists(sentenceFile);
+			}
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class ReaderState {
+
+		private MappingReader reader;
+		private long[] randomIndices;
+		private int cursor;
+		private int sourceCount;
+
+		@Setup(Level.Trial)
+		public void prepareReader(MappingState mappingState) {
+			sourceCount = mappingState.sourceCount;
+			reader = mappingState.mapping.newReader();
+
+			RandomGenerator rand = RandomGenerator.random();
+			randomIndices = rand.randomLongs(BATCH * 64, 0, sourceCount);
+		}
+
+		@TearDown(Level.Trial)
+		public void cleanup() {
+			reader.close();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void sequential(ReaderState state, Blackhole bh) throws InterruptedException {
+		final MappingReader reader = state.reader;
+		reader.begin();
+		try {
+			long index = state.cursor;
+			for (int i = 0; i < BATCH; i++) {
+				bh.consume(reader.getBeginIndex(index, RequestSettings.none()));
+				index = (index+1) % state.sourceCount;
+			}
+			state.cursor = (int) index;
+		} finally {
+			reader.end();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void random(ReaderState state, Blackhole bh) throws InterruptedException {
+		final MappingReader reader = state.reader;
+		final long[] indices = state.randomIndices;
+		reader.begin();
+		try {
+			int offset = state.cursor;
+			for (int i = 0; i < BATCH; i++) {
+				bh.consume(reader.getBeginIndex(indices[(offset+i) % indices.length], RequestSettings.none()));
+			}
+			state.cursor = (offset + BATCH) % indices.length;
+		} finally {
+			reader.end();
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		for(int threads : new int[] {1, 2, 4}) {
+			ChainedOptionsBuilder builder =
+					JmhUtils.jmhOptions(MappingLookupBenchmark.class, false, ResultFormatType.CSV)
+					.jvmArgsAppend("-Xmx2g", "-Xms2g")
+					.threads(threads)
+					.forks(1);
+
+			new Runner(builder.build()).run();
+		}
+	}
+}
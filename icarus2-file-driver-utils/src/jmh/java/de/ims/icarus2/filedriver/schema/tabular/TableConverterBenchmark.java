@@ -0,0 +1,255 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.filedriver.schema.tabular;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.AuxCounters.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+
+import de.ims.icarus2.filedriver.FileDriver;
+import de.ims.icarus2.model.api.corpus.Corpus;
+import de.ims.icarus2.model.api.registry.CorpusManager;
+import de.ims.icarus2.model.manifest.api.CorpusManifest;
+import de.ims.icarus2.model.manifest.api.ManifestLocation;
+import de.ims.icarus2.model.manifest.standard.DefaultManifestRegistry;
+import de.ims.icarus2.model.manifest.xml.ManifestXmlReader;
+import de.ims.icarus2.model.standard.io.DefaultFileManager;
+import de.ims.icarus2.model.standard.registry.DefaultCorpusManager;
+import de.ims.icarus2.model.standard.registry.metadata.VirtualMetadataRegistry;
+import de.ims.icarus2.test.JmhUtils;
+import de.ims.icarus2.test.random.RandomGenerator;
+import de.ims.icarus2.util.io.resource.FileResourceProvider;
+
+/**
+ * Measures the two expensive phases of a {@link FileDriver} backed by the
+ * {@link TableConverter}: the initial scan of a corpus file when connecting
+ * (which builds the chunk index and metadata) and the subsequent full load
+ * of all content. The corpus is a synthetic CoNLL-like file with
+ * {@code ID FORM LEMMA POS} columns, generated once per trial.
+ * <p>
+ * Every invocation uses a fresh {@link CorpusManager} with a virtual metadata
+ * registry, so that no scan results are reused between invocations. Auxiliary
+ * files such as the chunk index are written into a temporary folder.
+ *
+ * @author Markus Gärtner
+ *
+ */
+@State(Scope.Thread)
+@AuxCounters(Type.OPERATIONS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations=3, time=5)
+@Measurement(iterations=5, time=5)
+@Fork(value=1, jvmArgsAppend={"-Xmx4g", "-Xms4g"})
+public class TableConverterBenchmark {
+
+	private static final String MANIFEST_TEMPLATE = "bench_corpus.imf.xml";
+	private static final String CORPUS_ID = "benchCorpus";
+	private static final String FILE_PLACEHOLDER = "${corpusFile}";
+
+	private static final String[] POS_TAGS = {
+			"NN", "NE", "VVFIN", "ART", "ADJA", "APPR", "ADV", "$.", "$,", "KON",
+	};
+
+	@Param({"100000", "1000000"})
+	private int tokenCount;
+
+	/** Number of distinct word forms */
+	@Param({"5000"})
+	private int vocabularySize;
+
+	private Path workFolder, corpusFile, manifestFile;
+	private long corpusBytes;
+
+	private CorpusManager manager;
+	private Corpus corpus;
+
+	private long bytesProcessed, tokensProcessed;
+
+	/** Total amount of corpus data processed, in MiB */
+	public double megabytes() {
+		return bytesProcessed / (1024.0 * 1024.0);
+	}
+
+	/** Total number of tokens processed */
+	public long tokens() {
+		return tokensProcessed;
+	}
+
+	@Setup(Level.Trial)
+	public void prepareCorpus() throws IOException {
+		workFolder = Files.createTempDirectory("icarus2_bench_");
+		corpusFile = workFolder.resolve("corpus.txt");
+
+		RandomGenerator rand = RandomGenerator.forSeed(tokenCount);
+		String[] vocabulary = new String[vocabularySize];
+		for (int i = 0; i < vocabulary.length; i++) {
+			vocabulary[i] = rand.randomString(rand.random(2, 12));
+		}
+
+		try(BufferedWriter writer = Files.newBufferedWriter(corpusFile, StandardCharsets.UTF_8)) {
+			for (int i = 0; i < tokenCount; i++) {
+				String form = vocabulary[rand.random(0, vocabulary.length)];
+				writer.write(String.valueOf(i+1));
+				writer.write(' ');
+				writer.write(form);
+				writer.write(' ');
+				writer.write(form.toLowerCase());
+				writer.write(' ');
+				writer.write(POS_TAGS[rand.random(0, POS_TAGS.length)]);
+				writer.newLine();
+			}
+		}
+		corpusBytes = Files.size(corpusFile);
+
+		String template;
+		try(InputStream in = TableConverterBenchmark.class.getResourceAsStream(MANIFEST_TEMPLATE)) {
+			template = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		manifestFile = workFolder.resolve("corpus.imf.xml");
+		Files.writeString(manifestFile, template.replace(FILE_PLACEHOLDER,
+				corpusFile.toAbsolutePath().toString()), StandardCharsets.UTF_8);
+	}
+
+	@TearDown(Level.Trial)
+	public void cleanup() throws IOException {
+		try(Stream<Path> files = Files.walk(workFolder)) {
+			files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+		}
+	}
+
+	private CorpusManifest createManager() throws Exception {
+		manager = DefaultCorpusManager.builder()
+				.fileManager(new DefaultFileManager(workFolder))
+				.resourceProvider(new FileResourceProvider())
+				.metadataRegistry(new VirtualMetadataRegistry())
+				.manifestRegistry(new DefaultManifestRegistry())
+				.build();
+
+		ManifestXmlReader reader = ManifestXmlReader.builder()
+				.registry(manager.getManifestRegistry())
+				.useImplementationDefaults()
+				.build();
+		reader.addSource(new ManifestLocation.FileManifestLocation(manifestFile,
+				TableConverterBenchmark.class.getClassLoader(), true, false));
+		reader.readAndRegisterAll();
+
+		return manager.getManifestRegistry().getCorpusManifest(CORPUS_ID).get();
+	}
+
+	@State(Scope.Thread)
+	public static class ScanState {
+		private CorpusManifest manifest;
+
+		@Setup(Level.Invocation)
+		public void prepare(TableConverterBenchmark bench) throws Exception {
+			manifest = bench.createManager();
+		}
+
+		@TearDown(Level.Invocation)
+		public void shutdown(TableConverterBenchmark bench) throws Exception {
+			bench.shutdownManager();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class LoadState {
+		private FileDriver driver;
+
+		@Setup(Level.Invocation)
+		public void prepare(TableConverterBenchmark bench) throws Exception {
+			bench.corpus = bench.manager.connect(bench.createManager());
+			driver = (FileDriver) bench.corpus.getRootContext().getDriver();
+		}
+
+		@TearDown(Level.Invocation)
+		public void shutdown(TableConverterBenchmark bench) throws Exception {
+			bench.shutdownManager();
+		}
+	}
+
+	private void shutdownManager() throws Exception {
+		corpus = null;
+		if(manager!=null) {
+			manager.shutdown();
+			manager = null;
+		}
+	}
+
+	/**
+	 * Connects to the corpus, forcing a full scan of the corpus file
+	 * to create the chunk index.
+	 */
+	@Benchmark
+	public Corpus scan(ScanState state) throws Exception {
+		Corpus result = manager.connect(state.manifest);
+		bytesProcessed += corpusBytes;
+		tokensProcessed += tokenCount;
+		return result;
+	}
+
+	/**
+	 * Loads the entire content of an already scanned corpus.
+	 */
+	@Benchmark
+	public FileDriver load(LoadState state) throws Exception {
+		state.driver.loadAllFiles(null);
+		bytesProcessed += corpusBytes;
+		tokensProcessed += tokenCount;
+		return state.driver;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		ChainedOptionsBuilder builder =
+				JmhUtils.jmhOptions(TableConverterBenchmark.class, false, ResultFormatType.CSV)
+				.jvmArgsAppend("-Xmx4g", "-Xms4g")
+				.addProfiler(GCProfiler.class)
+				.forks(1);
+
+		new Runner(builder.build()).run();
+	}
+}
@@ -16,23 +16,36 @@
  */
 package de.ims.icarus2.filedriver;
 
+import static java.util.Objects.requireNonNull;
+
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Path;
 import java.util.UUID;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
 
 import de.ims.icarus2.util.io.resource.IOResource;
 import de.ims.icarus2.util.io.resource.ResourceProvider;
 
 /**
- * Implements a simple 16 bytes checksum to encapsulate the last modification time
- * and size of a file. Since reading in an entire file to compute an actual checksum
- * is way too expensive for large files, those 2 data points are considered enough
- * to make a very quick check whether or not a file has changed since the last time it
- * was accessed by the framework.
+ * Implements a simple 16 bytes checksum to track changes of a file. Depending on the
+ * {@link Mode} used for computation the checksum encapsulates either the last modification
+ * time and size of a file or its size and a hash of the file's content.
+ * <p>
+ * The {@link Mode#TIMESTAMP timestamp} variant is very cheap, but reacts to copying a corpus
+ * to another location (which changes timestamps) and is blind to edits that preserve size
+ * and timestamp. The {@link Mode#CONTENT content} variant reads the entire file, using
+ * two hardware accelerated CRC variants as hash. The {@link Mode#SAMPLED sampled} variant
+ * only hashes a fixed number of evenly distributed blocks for files larger than
+ * {@link #SAMPLING_THRESHOLD}.
  * <p>
  * The checksum internally uses an {@link UUID} object to simplify storage and serialization.
+ * Checksums not computed with the {@link Mode#TIMESTAMP timestamp} mode carry a prefix in
+ * their serialized form that denotes the mode.
  *
  * @author Markus Gärtner
  *
@@ -41,18 +54,131 @@ public class FileChecksum implements Serializable {
 
 	private static final long serialVersionUID = -2035971325487167347L;
 
+	/** Files larger than this are only hashed partially in {@link Mode#SAMPLED} mode. */
+	public static final long SAMPLING_THRESHOLD = 64L * 1024 * 1024;
+	/** Number of blocks to hash in {@link Mode#SAMPLED} mode */
+	static final int SAMPLE_COUNT = 64;
+	/** Size of individual blocks read for hashing */
+	static final int BLOCK_SIZE = 64 * 1024;
+
+	private static final char MODE_SEPARATOR = ':';
+
+	/**
+	 * Strategies for computing checksums.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	public enum Mode {
+		/** Last modification time and size of the file */
+		TIMESTAMP(null),
+		/** Size and a hash of the entire content of the file */
+		CONTENT("content"),
+		/** Size and a hash of the content, using sampled blocks for large files */
+		SAMPLED("sampled"),
+		;
+
+		private final String label;
+
+		private Mode(String label) {
+			this.label = label;
+		}
+
+		public String getLabel() {
+			return label;
+		}
+
+		public static Mode parseMode(String s) {
+			for(Mode mode : values()) {
+				if(mode.name().equalsIgnoreCase(s)) {
+					return mode;
+				}
+			}
+			throw new IllegalArgumentException("Unknown checksum mode: "+s); //$NON-NLS-1$
+		}
+
+		static Mode forLabel(String label) {
+			for(Mode mode : values()) {
+				if(label.equals(mode.label)) {
+					return mode;
+				}
+			}
+			throw new IllegalArgumentException("Unknown checksum mode label: "+label); //$NON-NLS-1$
+		}
+	}
+
 	public static FileChecksum compute(ResourceProvider resourceProvider, Path file) throws IOException {
+		return compute(resourceProvider, file, Mode.TIMESTAMP);
+	}
+
+	public static FileChecksum compute(ResourceProvider resourceProvider, Path file, Mode mode) throws IOException {
 		if (file == null)
 			throw new NullPointerException("Invalid file"); //$NON-NLS-1$
+		requireNonNull(mode);
 		if(!resourceProvider.exists(file))
 			throw new FileNotFoundException("File does not exist: "+file); //$NON-NLS-1$
 
 		IOResource resource = resourceProvider.getResource(file);
 
-		long timestamp = resource.getLastModifiedTime();
-		long size = resource.size();
+		if(mode==Mode.TIMESTAMP) {
+			long timestamp = resource.getLastModifiedTime();
+			long size = resource.size();
 
-		return new FileChecksum(timestamp, size);
+			return new FileChecksum(timestamp, size);
+		}
+
+		return computeContentHash(resource, mode==Mode.SAMPLED, mode);
+	}
+
+	/**
+	 * Streams the content of the given resource through two independent CRC functions
+	 * and combines them with the size of the resource. If {@code sample} is set and the
+	 * resource is larger than {@link #SAMPLING_THRESHOLD} only {@link #SAMPLE_COUNT} blocks
+	 * spread evenly across the resource (including the first and last block) are hashed.
+	 */
+	private static FileChecksum computeContentHash(IOResource resource, boolean sample, Mode mode) throws IOException {
+		CRC32C crc32c = new CRC32C();
+		CRC32 crc32 = new CRC32();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BLOCK_SIZE);
+
+		long size;
+		try(SeekableByteChannel channel = resource.getReadChannel()) {
+			size = channel.size();
+
+			if(sample && size>SAMPLING_THRESHOLD) {
+				long stride = (size-BLOCK_SIZE) / (SAMPLE_COUNT-1);
+				for (int i = 0; i < SAMPLE_COUNT; i++) {
+					channel.position(i*stride);
+					buffer.clear();
+					readBlock(channel, buffer);
+					update(buffer, crc32c, crc32);
+				}
+			} else {
+				buffer.clear();
+				while(channel.read(buffer)!=-1) {
+					if(!buffer.hasRemaining()) {
+						update(buffer, crc32c, crc32);
+						buffer.clear();
+					}
+				}
+				update(buffer, crc32c, crc32);
+			}
+		}
+
+		long hash = (crc32c.getValue() << 32) | crc32.getValue();
+		return new FileChecksum(new UUID(size, hash), mode);
+	}
+
+	private static void readBlock(SeekableByteChannel channel, ByteBuffer buffer) throws IOException {
+		while(buffer.hasRemaining() && channel.read(buffer)!=-1) {
+			// keep reading
+		}
+	}
+
+	private static void update(ByteBuffer buffer, CRC32C crc32c, CRC32 crc32) {
+		buffer.flip();
+		crc32c.update(buffer.duplicate());
+		crc32.update(buffer);
 	}
 
 	public static FileChecksum compute(long timestamp, long size) {
@@ -66,19 +192,39 @@ public class FileChecksum implements Serializable {
 
 	public static FileChecksum parse(String s) {
 
+		Mode mode = Mode.TIMESTAMP;
+		int sep = s.indexOf(MODE_SEPARATOR);
+		if(sep!=-1) {
+			mode = Mode.forLabel(s.substring(0, sep));
+			s = s.substring(sep+1);
+		}
+
 		UUID uuid = UUID.fromString(s);
 
-		return new FileChecksum(uuid);
+		return new FileChecksum(uuid, mode);
 	}
 
 	private final UUID uuid;
+	private final Mode mode;
 
-	private FileChecksum(UUID uuid) {
+	private FileChecksum(UUID uuid, Mode mode) {
 		this.uuid = uuid;
+		this.mode = mode;
 	}
 
 	private FileChecksum(long timestamp, long size) {
 		uuid = new UUID(timestamp, size);
+		mode = Mode.TIMESTAMP;
+	}
+
+	/**
+	 * Returns the strategy used to compute this checksum. Only checksums
+	 * of the same mode can be compared meaningfully.
+	 *
+	 * @return
+	 */
+	public Mode getMode() {
+		return mode;
 	}
 
 	/**
@@ -86,7 +232,7 @@ public class FileChecksum implements Serializable {
 	 */
 	@Override
 	public int hashCode() {
-		return uuid.hashCode();
+		return uuid.hashCode() * 31 + mode.ordinal();
 	}
 
 	/**
@@ -98,7 +244,7 @@ public class FileChecksum implements Serializable {
 			return true;
 		} if(obj instanceof FileChecksum) {
 			FileChecksum other = (FileChecksum)obj;
-			return uuid.equals(other.uuid);
+			return mode==other.mode && uuid.equals(other.uuid);
 		}
 		return false;
 	}
@@ -106,13 +252,15 @@ public class FileChecksum implements Serializable {
 	/**
 	 * Converts this checksum in a {@code String} representation by
 	 * delegating to {@link UUID#toString()} on the internal {@code uuid}
-	 * field.
+	 * field, prefixed by the {@link Mode#getLabel() label} of the mode
+	 * if it is not {@link Mode#TIMESTAMP}.
 	 *
 	 * @see java.lang.Object#toString()
 	 */
 	@Override
 	public String toString() {
-		return uuid.toString();
+		String s = uuid.toString();
+		return mode.label==null ? s : mode.label+MODE_SEPARATOR+s;
 	}
 
 
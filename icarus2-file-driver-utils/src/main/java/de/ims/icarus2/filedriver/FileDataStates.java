@@ -26,10 +26,12 @@ import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.ObjIntConsumer;
+import java.util.stream.Stream;
 
 import de.ims.icarus2.GlobalErrorCode;
 import de.ims.icarus2.filedriver.FileDriverMetadata.ChunkIndexKey;
@@ -39,6 +41,7 @@ import de.ims.icarus2.filedriver.FileDriverMetadata.DriverKey;
 import de.ims.icarus2.filedriver.FileDriverMetadata.FileKey;
 import de.ims.icarus2.filedriver.FileDriverMetadata.ItemLayerKey;
 import de.ims.icarus2.filedriver.FileDriverMetadata.StructureKey;
+import de.ims.icarus2.filedriver.TypedMetadata.FileEntries;
 import de.ims.icarus2.filedriver.io.sets.ResourceSet;
 import de.ims.icarus2.model.api.ModelException;
 import de.ims.icarus2.model.api.driver.indices.IndexValueType;
@@ -56,6 +59,7 @@ import de.ims.icarus2.model.manifest.api.ManifestException;
 import de.ims.icarus2.model.manifest.api.StructureLayerManifest;
 import de.ims.icarus2.model.manifest.api.StructureType;
 import de.ims.icarus2.model.manifest.util.ManifestUtils;
+import de.ims.icarus2.util.IcarusUtils;
 import de.ims.icarus2.util.LongCounter;
 import de.ims.icarus2.util.Syncable;
 import de.ims.icarus2.util.collections.CollectionUtils;
@@ -128,18 +132,30 @@ public class FileDataStates implements Syncable<MetadataRegistry> {
 		this.layers = CollectionUtils.toArray(layers, ItemLayerManifestBase[]::new);
 	}
 
+	/**
+	 * Writes all states to the given registry within a single
+	 * {@link MetadataRegistry#beginUpdate() update}, so that the registry
+	 * only needs to persist its content once.
+	 */
 	@Override
 	public void syncTo(MetadataRegistry registry) {
-		globalInfo.syncTo(registry);
-		fileInfos.forEach((index, info) -> info.syncTo(registry));
-		layerInfos.forEach((index, info) -> info.syncTo(registry));
-		chunkIndexInfos.forEach((index, info) -> info.syncTo(registry));
+		TypedMetadata metadata = new TypedMetadata(registry);
+		registry.beginUpdate();
+		try {
+			globalInfo.syncTo(registry);
+			fileInfos.forEach((index, info) -> info.syncTo(metadata));
+			layerInfos.forEach((index, info) -> info.syncTo(registry));
+			chunkIndexInfos.forEach((index, info) -> info.syncTo(registry));
+		} finally {
+			registry.endUpdate();
+		}
 	}
 
 	@Override
 	public void syncFrom(MetadataRegistry registry) {
+		TypedMetadata metadata = new TypedMetadata(registry);
 		globalInfo.syncFrom(registry);
-		fileInfos.forEach((index, info) -> info.syncFrom(registry));
+		fileInfos.forEach((index, info) -> info.syncFrom(metadata));
 		layerInfos.forEach((index, info) -> info.syncFrom(registry));
 		chunkIndexInfos.forEach((index, info) -> info.syncFrom(registry));
 	}
@@ -193,6 +209,54 @@ public class FileDataStates implements Syncable<MetadataRegistry> {
 		layerInfos.values().forEach(action);
 	}
 
+	/**
+	 * Discards the scan results of the specified file so that it will be
+	 * scanned again. Item counts of the file are subtracted from the totals
+	 * of the respective layers and the file's size is reset. Container stats
+	 * of the affected layers are {@link #refreshContainerStats(LayerInfo) rebuilt}
+	 * from the remaining files.
+	 * Metadata of other files is not affected.
+	 *
+	 * @param fileIndex
+	 */
+	public void invalidateFile(int fileIndex) {
+		FileInfo info = getFileInfo(fileIndex);
+
+		for (int i = 0; i < layers.length; i++) {
+			ItemLayerManifestBase<?> layer = layers[i];
+			long count = info.getItemCount(layer);
+			LayerInfo layerInfo = layerInfos.get(layer.getUID());
+			if(count!=UNSET_LONG && layerInfo!=null) {
+				layerInfo.setSize(Math.max(0, layerInfo.getSize()-count));
+			}
+			info.removeCoverage(layer);
+			if(info.clearContainerInfos(layer) && layerInfo!=null) {
+				refreshContainerStats(layerInfo);
+			}
+		}
+
+		info.setSize(UNSET_LONG);
+		info.unsetFlag(ElementFlag.SCANNED);
+		info.unsetFlag(ElementFlag.CORRUPTED);
+	}
+
+	/**
+	 * Recomputes the container stats of the given layer from the stats
+	 * of all individual files. Min and max values cannot be subtracted,
+	 * so this is required whenever the contribution of a file is removed.
+	 */
+	private void refreshContainerStats(LayerInfo layerInfo) {
+		layerInfo.containerInfos.forEach((uid, info) -> {
+			info.clear();
+			fileInfos.values().forEach(fileInfo -> {
+				ContainerInfo fileContainerInfo = fileInfo.containerInfos.get(uid.intValue());
+				if(fileContainerInfo!=null) {
+					info.add(fileContainerInfo);
+				}
+			});
+		});
+	}
+
 	private static boolean verify(MetadataRegistry registry, String key, long value) {
 		long savedValue = registry.getLongValue(key, UNSET_LONG);
 		return savedValue==UNSET_LONG || savedValue==value;
@@ -320,47 +384,63 @@ public class FileDataStates implements Syncable<MetadataRegistry> {
 
 		private Int2ObjectMap<LayerCoverage> stats = new Int2ObjectOpenHashMap<>();
 
+		/** Container stats for this file only, mapped by container UID */
+		private final Int2ObjectMap<ContainerInfo> containerInfos = new Int2ObjectOpenHashMap<>();
+
 		private FileInfo(int index) {
 			this.index = index;
 		}
 
 		@Override
 		public void syncTo(MetadataRegistry registry) {
-			registry.setValue(FileKey.PATH.getKey(index), path==null ? null : path.toString());
-			registry.setValue(FileKey.CHECKSUM.getKey(index), checksum==null ? null : checksum.toString());
-			registry.changeLongValue(FileKey.SIZE.getKey(index), size, UNSET_LONG);
-			registry.setBooleanValue(FileKey.SCANNED.getKey(index), isFlagSet(ElementFlag.SCANNED));
+			syncTo(new TypedMetadata(registry));
+		}
+
+		void syncTo(TypedMetadata metadata) {
+			metadata.setString(index, FileKey.PATH, path==null ? null : path.toString());
+			metadata.setString(index, FileKey.CHECKSUM, checksum==null ? null : checksum.toString());
+			metadata.setLong(index, FileKey.SIZE, size, UNSET_LONG);
+			metadata.setBoolean(index, FileKey.SCANNED, isFlagSet(ElementFlag.SCANNED));
 
 			for (int i = 0; i < layers.length; i++) {
 				ItemLayerManifestBase<?> layer = layers[i];
 				LayerCoverage coverage = getCoverage(layers[i], false);
 				if(coverage==null) {
-					registry.setValue(FileKey.ITEMS.getKey(index, layer), null);
-					registry.setValue(FileKey.BEGIN.getKey(index, layer), null);
-					registry.setValue(FileKey.END.getKey(index, layer), null);
+					metadata.remove(index, layer, FileKey.ITEMS);
+					metadata.remove(index, layer, FileKey.BEGIN);
+					metadata.remove(index, layer, FileKey.END);
 				} else {
-					registry.changeLongValue(FileKey.ITEMS.getKey(index, layer), coverage.count, UNSET_LONG);
-					registry.changeLongValue(FileKey.BEGIN.getKey(index, layer), coverage.first, UNSET_INT);
-					registry.changeLongValue(FileKey.END.getKey(index, layer), coverage.last, UNSET_INT);
+					metadata.setLong(index, layer, FileKey.ITEMS, coverage.count, UNSET_LONG);
+					metadata.setLong(index, layer, FileKey.BEGIN, coverage.first, UNSET_INT);
+					metadata.setLong(index, layer, FileKey.END, coverage.last, UNSET_INT);
 				}
 			}
+
+			containerInfos.values().forEach(info -> info.syncTo(metadata.getRegistry()));
 		}
 
 		@Override
 		public void syncFrom(MetadataRegistry registry) {
+			syncFrom(new TypedMetadata(registry));
+		}
+
+		void syncFrom(TypedMetadata metadata) {
 			path = null;
 			checksum = null;
 
-			Optional.ofNullable(registry.getValue(FileKey.PATH.getKey(index))).map(Paths::get).ifPresent(this::setPath);
-			Optional.ofNullable(registry.getValue(FileKey.CHECKSUM.getKey(index))).map(FileChecksum::parse).ifPresent(this::setChecksum);
-			setSize(registry.getLongValue(FileKey.SIZE.getKey(index), UNSET_LONG));
-			updateFlag(ElementFlag.SCANNED, registry.getBooleanValue(FileKey.SCANNED.getKey(index), false));
+			// Fetch all entries for this file at once
+			FileEntries entries = metadata.readFile(index, layers);
+
+			Optional.ofNullable(entries.getString(FileKey.PATH)).map(Paths::get).ifPresent(this::setPath);
+			Optional.ofNullable(entries.getString(FileKey.CHECKSUM)).map(FileChecksum::parse).ifPresent(this::setChecksum);
+			setSize(entries.getLong(FileKey.SIZE, UNSET_LONG));
+			updateFlag(ElementFlag.SCANNED, entries.getBoolean(FileKey.SCANNED, false));
 
 			for (int i = 0; i < layers.length; i++) {
 				ItemLayerManifestBase<?> layer = layers[i];
-				long count = registry.getLongValue(FileKey.ITEMS.getKey(index, layer), UNSET_LONG);
-				long first = registry.getLongValue(FileKey.BEGIN.getKey(index, layer), UNSET_LONG);
-				long last = registry.getLongValue(FileKey.END.getKey(index, layer), UNSET_LONG);
+				long count = entries.getLong(layer, FileKey.ITEMS, UNSET_LONG);
+				long first = entries.getLong(layer, FileKey.BEGIN, UNSET_LONG);
+				long last = entries.getLong(layer, FileKey.END, UNSET_LONG);
 
 				if(count==UNSET_LONG && first==UNSET_LONG && last==UNSET_LONG) {
 					removeCoverage(layers[i]);
@@ -371,6 +451,14 @@ public class FileDataStates implements Syncable<MetadataRegistry> {
 					coverage.last = last;
 				}
 			}
+
+			// Only scanned files can have container stats
+			if(isFlagSet(ElementFlag.SCANNED)) {
+				for (int i = 0; i < layers.length; i++) {
+					layerInfos.get(layers[i].getUID()).containerInfos.values().forEach(
+							info -> getContainerInfo(info.container).syncFrom(metadata.getRegistry()));
+				}
+			}
 		}
 
 		public int getIndex() {
@@ -453,6 +541,40 @@ public class FileDataStates implements Syncable<MetadataRegistry> {
 			coverage.first = firstIndex;
 			coverage.last = lastIndex;
 		}
+
+		/**
+		 * Fetches the stats of the given container that only cover the content of this file.
+		 * The stats of the entire layer are the {@link ContainerInfo#add(ContainerInfo) sum}
+		 * of the respective stats of all files.
+		 *
+		 * @param container
+		 * @return
+		 */
+		public ContainerInfo getContainerInfo(ContainerManifestBase<?> container) {
+			ContainerInfo info = containerInfos.get(container.getUID());
+			if(info==null) {
+				ItemLayerManifestBase<?> layer = ManifestUtils.requireHost(container);
+				int level = getLayerInfo(layer).getContainerInfo(container).level;
+				info = new ContainerInfo(container, level, FileKey.getPrefix(index));
+				containerInfos.put(container.getUID(), info);
+			}
+			return info;
+		}
+
+		/**
+		 * Clears the stats of all containers of the given layer.
+		 * Returns {@code true} if any stats have been present.
+		 */
+		private boolean clearContainerInfos(ItemLayerManifestBase<?> layer) {
+			boolean cleared = false;
+			for(ContainerInfo info : containerInfos.values()) {
+				if(ManifestUtils.requireHost(info.container)==layer && !info.isEmpty()) {
+					info.clear();
+					cleared = true;
+				}
+			}
+			return cleared;
+		}
 	}
 
 	private static class LayerCoverage {
@@ -552,6 +674,8 @@ public class FileDataStates implements Syncable<MetadataRegistry> {
 		private long min = UNSET_LONG;
 		private long max = UNSET_LONG;
 		private double avg = UNSET_DOUBLE;
+		private long sum = UNSET_LONG;
+		private long samples = UNSET_LONG;
 		public long getMin() {
 			return min;
 		}
@@ -570,20 +694,53 @@ public class FileDataStates implements Syncable<MetadataRegistry> {
 		public void setAvg(double avg) {
 			this.avg = avg;
 		}
+		/** Returns the sum of all values or {@link IcarusUtils#UNSET_LONG} if unknown */
+		public long getSum() {
+			return sum;
+		}
+		/** Returns the number of values or {@link IcarusUtils#UNSET_LONG} if unknown */
+		public long getSamples() {
+			return samples;
+		}
 		public void copyFrom(Histogram source) {
 			clear();
 			if(source.entries()>0L) {
 				min = source.min();
 				max = source.max();
 				avg = source.average();
+				sum = source.sum();
+				samples = source.entries();
+			}
+		}
+		/**
+		 * Merges the values of {@code other} into these stats. Stats without a
+		 * known number of samples are ignored. Since the average is computed from
+		 * the exact sum, the result does not depend on the order of merges.
+		 */
+		public void add(NumericalStats other) {
+			if(other.samples==UNSET_LONG || other.samples==0L) {
+				return;
+			}
+			if(samples==UNSET_LONG || samples==0L) {
+				min = other.min;
+				max = other.max;
+				sum = other.sum;
+				samples = other.samples;
+			} else {
+				min = Math.min(min, other.min);
+				max = Math.max(max, other.max);
+				sum += other.sum;
+				samples += other.samples;
 			}
+			avg = (double) sum / samples;
 		}
 		void clear() {
-			min = max = UNSET_LONG;
+			min = max = sum = samples = UNSET_LONG;
 			avg = UNSET_DOUBLE;
 		}
 		boolean isUndefined() {
-			return min==UNSET_LONG && max==UNSET_LONG && avg==UNSET_DOUBLE;
+			return min==UNSET_LONG && max==UNSET_LONG && avg==UNSET_DOUBLE
+					&& sum==UNSET_LONG && samples==UNSET_LONG;
 		}
 	}
 
@@ -591,6 +748,8 @@ public class FileDataStates implements Syncable<MetadataRegistry> {
 
 		private final ContainerManifestBase<?> container;
 		private final int level;
+		/** Prefix for all keys, used to store stats for individual files */
+		private final String keyPrefix;
 
 		private LongCounter<ContainerType> containerTypeCount;
 		private LongCounter<StructureType> structureTypeCount;
@@ -604,8 +763,13 @@ public class FileDataStates implements Syncable<MetadataRegistry> {
 		private NumericalStats roots;
 
 		public ContainerInfo(ContainerManifestBase<?> container, int level) {
+			this(container, level, "");
+		}
+
+		ContainerInfo(ContainerManifestBase<?> container, int level, String keyPrefix) {
 			this.container = container;
 			this.level = level;
+			this.keyPrefix = requireNonNull(keyPrefix);
 		}
 
 		@Override
@@ -613,39 +777,50 @@ public class FileDataStates implements Syncable<MetadataRegistry> {
 			ItemLayerManifestBase<?> layer = ManifestUtils.requireHost(container);
 
 			for (int i = 0; i < c_types.length; i++) {
-				registry.changeLongValue(ContainerKey.COUNT.getKey(layer, level, c_types[i]),
+				registry.changeLongValue(keyPrefix+ContainerKey.COUNT.getKey(layer, level, c_types[i]),
 						getCountForContainerType(c_types[i]), 0L);
 			}
 
-			syncStatsTo(registry, layer, itemCount, ContainerKey.MIN_ITEM_COUNT, ContainerKey.MAX_ITEM_COUNT, ContainerKey.AVG_ITEM_COUNT);
-			syncStatsTo(registry, layer, spanSize, ContainerKey.MIN_SPAN, ContainerKey.MAX_SPAN, ContainerKey.AVG_SPAN);
+			syncStatsTo(registry, layer, itemCount, ContainerKey.MIN_ITEM_COUNT, ContainerKey.MAX_ITEM_COUNT,
+					ContainerKey.AVG_ITEM_COUNT, ContainerKey.TOTAL_ITEM_COUNT, ContainerKey.ITEM_COUNT_SAMPLES);
+			syncStatsTo(registry, layer, spanSize, ContainerKey.MIN_SPAN, ContainerKey.MAX_SPAN,
+					ContainerKey.AVG_SPAN, ContainerKey.TOTAL_SPAN, ContainerKey.SPAN_SAMPLES);
 
 			if(ManifestUtils.isStructureLayerManifest(layer)) {
 				StructureLayerManifest s_layer = (StructureLayerManifest)layer;
 
 				for (int i = 0; i < s_types.length; i++) {
-					registry.changeLongValue(StructureKey.COUNT.getKey(s_layer, level, s_types[i]),
+					registry.changeLongValue(keyPrefix+StructureKey.COUNT.getKey(s_layer, level, s_types[i]),
 							getCountForStructureType(s_types[i]), 0L);
 				}
 
-				syncStatsTo(registry, s_layer, edgeCount, StructureKey.MIN_EDGE_COUNT, StructureKey.MAX_EDGE_COUNT, StructureKey.AVG_EDGE_COUNT);
-				syncStatsTo(registry, s_layer, height, StructureKey.MIN_HEIGHT, StructureKey.MAX_HEIGHT, StructureKey.AVG_HEIGHT);
-				syncStatsTo(registry, s_layer, branching, StructureKey.MIN_BRANCHING_FACTOR, StructureKey.MAX_BRANCHING_FACTOR, StructureKey.AVG_BRANCHING_FACTOR);
-				syncStatsTo(registry, s_layer, roots, StructureKey.MIN_ROOTS, StructureKey.MAX_ROOTS, StructureKey.AVG_ROOTS);
+				syncStatsTo(registry, s_layer, edgeCount, StructureKey.MIN_EDGE_COUNT, StructureKey.MAX_EDGE_COUNT,
+						StructureKey.AVG_EDGE_COUNT, StructureKey.TOTAL_EDGE_COUNT, StructureKey.EDGE_COUNT_SAMPLES);
+				syncStatsTo(registry, s_layer, height, StructureKey.MIN_HEIGHT, StructureKey.MAX_HEIGHT,
+						StructureKey.AVG_HEIGHT, StructureKey.TOTAL_HEIGHT, StructureKey.HEIGHT_SAMPLES);
+				syncStatsTo(registry, s_layer, branching, StructureKey.MIN_BRANCHING_FACTOR, StructureKey.MAX_BRANCHING_FACTOR,
+						StructureKey.AVG_BRANCHING_FACTOR, StructureKey.TOTAL_BRANCHING_FACTOR, StructureKey.BRANCHING_FACTOR_SAMPLES);
+				syncStatsTo(registry, s_layer, roots, StructureKey.MIN_ROOTS, StructureKey.MAX_ROOTS,
+						StructureKey.AVG_ROOTS, StructureKey.TOTAL_ROOTS, StructureKey.ROOTS_SAMPLES);
 			}
 		}
 
 		private <L extends ItemLayerManifestBase<?>> void syncStatsTo(MetadataRegistry registry,
 				L layer, NumericalStats stats,
-				ContainerKeyBase<L> MIN, ContainerKeyBase<L> MAX, ContainerKeyBase<L> AVG) {
+				ContainerKeyBase<L> MIN, ContainerKeyBase<L> MAX, ContainerKeyBase<L> AVG,
+				ContainerKeyBase<L> SUM, ContainerKeyBase<L> SAMPLES) {
 			if(stats==null || stats.isUndefined()) {
-				registry.setValue(MIN.getKey(layer, level), null);
-				registry.setValue(MAX.getKey(layer, level), null);
-				registry.setValue(AVG.getKey(layer, level), null);
+				registry.setValue(keyPrefix+MIN.getKey(layer, level), null);
+				registry.setValue(keyPrefix+MAX.getKey(layer, level), null);
+				registry.setValue(keyPrefix+AVG.getKey(layer, level), null);
+				registry.setValue(keyPrefix+SUM.getKey(layer, level), null);
+				registry.setValue(keyPrefix+SAMPLES.getKey(layer, level), null);
 			} else {
-				registry.changeLongValue(MIN.getKey(layer, level), stats.getMin(), UNSET_LONG);
-				registry.changeLongValue(MAX.getKey(layer, level), stats.getMax(), UNSET_LONG);
-				registry.changeDoubleValue(AVG.getKey(layer, level), stats.getAvg(), UNSET_DOUBLE);
+				registry.changeLongValue(keyPrefix+MIN.getKey(layer, level), stats.getMin(), UNSET_LONG);
+				registry.changeLongValue(keyPrefix+MAX.getKey(layer, level), stats.getMax(), UNSET_LONG);
+				registry.changeDoubleValue(keyPrefix+AVG.getKey(layer, level), stats.getAvg(), UNSET_DOUBLE);
+				registry.changeLongValue(keyPrefix+SUM.getKey(layer, level), stats.getSum(), UNSET_LONG);
+				registry.changeLongValue(keyPrefix+SAMPLES.getKey(layer, level), stats.getSamples(), UNSET_LONG);
 			}
 		}
 
@@ -654,33 +829,40 @@ public class FileDataStates implements Syncable<MetadataRegistry> {
 			ItemLayerManifestBase<?> layer = ManifestUtils.requireHost(container);
 
 			for (int i = 0; i < c_types.length; i++) {
-				setCountForContainerType(c_types[i], registry.getLongValue(ContainerKey.COUNT.getKey(layer, level, c_types[i]), 0));
+				setCountForContainerType(c_types[i], registry.getLongValue(keyPrefix+ContainerKey.COUNT.getKey(layer, level, c_types[i]), 0));
 			}
 
-			itemCount = syncStatsFrom(registry, layer, itemCount, ContainerKey.MIN_ITEM_COUNT, ContainerKey.MAX_ITEM_COUNT, ContainerKey.AVG_ITEM_COUNT);
-			spanSize = syncStatsFrom(registry, layer, spanSize, ContainerKey.MIN_SPAN, ContainerKey.MAX_SPAN, ContainerKey.AVG_SPAN);
+			itemCount = syncStatsFrom(registry, layer, itemCount, ContainerKey.MIN_ITEM_COUNT, ContainerKey.MAX_ITEM_COUNT,
+					ContainerKey.AVG_ITEM_COUNT, ContainerKey.TOTAL_ITEM_COUNT, ContainerKey.ITEM_COUNT_SAMPLES);
+			spanSize = syncStatsFrom(registry, layer, spanSize, ContainerKey.MIN_SPAN, ContainerKey.MAX_SPAN,
+					ContainerKey.AVG_SPAN, ContainerKey.TOTAL_SPAN, ContainerKey.SPAN_SAMPLES);
 
 			if(ManifestUtils.isStructureLayerManifest(layer)) {
 				StructureLayerManifest s_layer = (StructureLayerManifest)layer;
 
 				for (int i = 0; i < s_types.length; i++) {
-					setCountForStructureType(s_types[i], registry.getLongValue(StructureKey.COUNT.getKey(s_layer, level, s_types[i]), 0));
+					setCountForStructureType(s_types[i], registry.getLongValue(keyPrefix+StructureKey.COUNT.getKey(s_layer, level, s_types[i]), 0));
 				}
 
-				edgeCount = syncStatsFrom(registry, s_layer, edgeCount, StructureKey.MIN_EDGE_COUNT, StructureKey.MAX_EDGE_COUNT, StructureKey.AVG_EDGE_COUNT);
-				height = syncStatsFrom(registry, s_layer, height, StructureKey.MIN_HEIGHT, StructureKey.MAX_HEIGHT, StructureKey.AVG_HEIGHT);
-				branching = syncStatsFrom(registry, s_layer, branching, StructureKey.MIN_BRANCHING_FACTOR, StructureKey.MAX_BRANCHING_FACTOR, StructureKey.AVG_BRANCHING_FACTOR);
-				roots = syncStatsFrom(registry, s_layer, roots, StructureKey.MIN_ROOTS, StructureKey.MAX_ROOTS, StructureKey.AVG_ROOTS);
+				edgeCount = syncStatsFrom(registry, s_layer, edgeCount, StructureKey.MIN_EDGE_COUNT, StructureKey.MAX_EDGE_COUNT,
+						StructureKey.AVG_EDGE_COUNT, StructureKey.TOTAL_EDGE_COUNT, StructureKey.EDGE_COUNT_SAMPLES);
+				height = syncStatsFrom(registry, s_layer, height, StructureKey.MIN_HEIGHT, StructureKey.MAX_HEIGHT,
+						StructureKey.AVG_HEIGHT, StructureKey.TOTAL_HEIGHT, StructureKey.HEIGHT_SAMPLES);
+				branching = syncStatsFrom(registry, s_layer, branching, StructureKey.MIN_BRANCHING_FACTOR, StructureKey.MAX_BRANCHING_FACTOR,
+						StructureKey.AVG_BRANCHING_FACTOR, StructureKey.TOTAL_BRANCHING_FACTOR, StructureKey.BRANCHING_FACTOR_SAMPLES);
+				roots = syncStatsFrom(registry, s_layer, roots, StructureKey.MIN_ROOTS, StructureKey.MAX_ROOTS,
+						StructureKey.AVG_ROOTS, StructureKey.TOTAL_ROOTS, StructureKey.ROOTS_SAMPLES);
 			}
 
 		}
 
 		private <L extends ItemLayerManifestBase<?>> NumericalStats syncStatsFrom(MetadataRegistry registry,
 				L layer, NumericalStats stats,
-				ContainerKeyBase<L> MIN, ContainerKeyBase<L> MAX, ContainerKeyBase<L> AVG) {
-			long min = registry.getLongValue(MIN.getKey(layer, level), UNSET_LONG);
-			long max = registry.getLongValue(MAX.getKey(layer, level), UNSET_LONG);
-			double avg = registry.getDoubleValue(AVG.getKey(layer, level), UNSET_DOUBLE);
+				ContainerKeyBase<L> MIN, ContainerKeyBase<L> MAX, ContainerKeyBase<L> AVG,
+				ContainerKeyBase<L> SUM, ContainerKeyBase<L> SAMPLES) {
+			long min = registry.getLongValue(keyPrefix+MIN.getKey(layer, level), UNSET_LONG);
+			long max = registry.getLongValue(keyPrefix+MAX.getKey(layer, level), UNSET_LONG);
+			double avg = registry.getDoubleValue(keyPrefix+AVG.getKey(layer, level), UNSET_DOUBLE);
 
 			if(min!=UNSET_LONG || max!=UNSET_LONG || Double.compare(avg, UNSET_DOUBLE)!=0) {
 				if(stats==null) {
@@ -689,11 +871,51 @@ public class FileDataStates implements Syncable<MetadataRegistry> {
 				stats.min = min;
 				stats.max = max;
 				stats.avg = avg;
+				stats.sum = registry.getLongValue(keyPrefix+SUM.getKey(layer, level), UNSET_LONG);
+				stats.samples = registry.getLongValue(keyPrefix+SAMPLES.getKey(layer, level), UNSET_LONG);
+			} else if(stats!=null) {
+				stats.clear();
 			}
 
 			return stats;
 		}
 
+		/** Resets all counters and stats */
+		public void clear() {
+			containerTypeCount = null;
+			structureTypeCount = null;
+			Stream.of(itemCount, spanSize, edgeCount, height, branching, roots)
+				.filter(Objects::nonNull)
+				.forEach(NumericalStats::clear);
+		}
+
+		boolean isEmpty() {
+			return getEncounteredContainerTypes().isEmpty()
+					&& getEncounteredStructureTypes().isEmpty()
+					&& Stream.of(itemCount, spanSize, edgeCount, height, branching, roots)
+						.allMatch(stats -> stats==null || stats.isUndefined());
+		}
+
+		/**
+		 * Adds all counts and stats of {@code other} to this info.
+		 *
+		 * @see NumericalStats#add(NumericalStats)
+		 */
+		public void add(ContainerInfo other) {
+			if(other.containerTypeCount!=null) {
+				addCountsForContainerTypes(other.containerTypeCount);
+			}
+			if(other.structureTypeCount!=null) {
+				addCountsForStructureTypes(other.structureTypeCount);
+			}
+			if(other.itemCount!=null) getItemCountStats().add(other.itemCount);
+			if(other.spanSize!=null) getSpanSizeStats().add(other.spanSize);
+			if(other.edgeCount!=null) getEdgeCountStats().add(other.edgeCount);
+			if(other.height!=null) getHeightStats().add(other.height);
+			if(other.branching!=null) getBranchingStats().add(other.branching);
+			if(other.roots!=null) getRootStats().add(other.roots);
+		}
+
 		// CONTAINER TYPE
 
 		private LongCounter<ContainerType> containerTypeCount() {
@@ -753,7 +975,11 @@ public class FileDataStates implements Syncable<MetadataRegistry> {
 
 		public void setCountForStructureType(StructureType type, long count) {
 			requireNonNull(type);
-			structureTypeCount().setCount(type, count);
+			if(count<=0) {
+				structureTypeCount().remove(type);
+			} else {
+				structureTypeCount().setCount(type, count);
+			}
 		}
 
 		public void addCountForStructureType(StructureType type, long count) {
@@ -437,16 +437,30 @@ public class FileDriver extends AbstractDriver {
 			trackingMode = TrackingMode.NEVER;
 		}
 
+		// Optional upper bound for primary layer buffers
+		int limit = OptionKey.BUFFER_LIMIT.<Integer>getValue(getManifest())
+				.orElse(Integer.valueOf(BufferedItemManager.UNBOUNDED)).intValue();
+
 		for(LayerManifest<?> layerManifest : getContext().getManifest().getLayerManifests(ManifestUtils::isAnyItemLayerManifest)) {
 			ItemLayerManifestBase<?> itemLayerManifest = (ItemLayerManifestBase<?>) layerManifest;
 			//TODO add options to activate recycling and pooling of items
 			long layerSize = getItemCount(itemLayerManifest);
 
+			int capacity = -1;
 			// Restrict capacity to 100 millions for now
 			if(layerSize>0) {
 				@PreliminaryValue
 				int defaultMinCapacity = 100_000_000;
-				int capacity = (int)Math.min(defaultMinCapacity , layerSize);
+				capacity = (int)Math.min(defaultMinCapacity , layerSize);
+			}
+
+			if(limit>0 && itemLayerManifest.isPrimaryLayerManifest()) {
+				if(capacity>limit) {
+					capacity = limit;
+				}
+				builder.addBuffer(itemLayerManifest, trackingMode, capacity, limit,
+						BufferedItemManager.DEFAULT_DISPOSE_ACTION);
+			} else if(capacity>0) {
 				builder.addBuffer(itemLayerManifest, trackingMode, capacity);
 			} else {
 				builder.addBuffer(itemLayerManifest, trackingMode);
@@ -1818,6 +1832,33 @@ public class FileDriver extends AbstractDriver {
 		 * unload any corpus members that are no longer in active use.
 		 */
 		DISABLE_TRACKING("disableTracking", ValueType.BOOLEAN),
+
+		/**
+		 * Maximum number of items to keep in the buffer of a primary layer.
+		 * Once exceeded, items that are no longer in active use get evicted.
+		 * Has no effect if {@link #DISABLE_TRACKING tracking} is disabled.
+		 */
+		BUFFER_LIMIT("bufferLimit", ValueType.INTEGER),
+
+		/**
+		 * Name of the {@link FileChecksum.Mode} to be used for detecting changes
+		 * to data files. Files whose checksum changed since the last connection
+		 * get re-indexed while unchanged files keep their stored metadata.
+		 * <p>
+		 * Note that if no mode is specified the driver will use the cheap
+		 * {@link FileChecksum.Mode#TIMESTAMP timestamp} mode.
+		 */
+		CHECKSUM_MODE("checksumMode", ValueType.STRING),
+
+		/**
+		 * Maximum number of threads to be used for per-file work during
+		 * {@link StandardPreparationSteps preparation}, such as existence
+		 * checks or checksum computation.
+		 * <p>
+		 * Note that if no value is specified the driver will use the number
+		 * of available processors. A value of {@code 1} disables concurrency.
+		 */
+		PREPARATION_PARALLELISM("preparationParallelism", ValueType.INTEGER),
 		;
 
 		private final String key;
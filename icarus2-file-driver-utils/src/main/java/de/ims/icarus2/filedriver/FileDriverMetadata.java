@@ -17,10 +17,13 @@
 package de.ims.icarus2.filedriver;
 
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
 
 import de.ims.icarus2.GlobalErrorCode;
 import de.ims.icarus2.filedriver.io.BufferedIOResource.BlockCache;
 import de.ims.icarus2.filedriver.io.RUBlockCache;
+import de.ims.icarus2.filedriver.io.TinyLfuBlockCache;
 import de.ims.icarus2.filedriver.io.UnlimitedBlockCache;
 import de.ims.icarus2.filedriver.mapping.chunks.ChunkIndex;
 import de.ims.icarus2.model.api.ModelException;
@@ -397,6 +400,35 @@ public class FileDriverMetadata {
 		END("end", ValueType.LONG, true),
 		;
 
+		private static final Map<String, FileKey> suffixLookup = new HashMap<>();
+		static {
+			for(FileKey key : values()) {
+				suffixLookup.put(key.suffix, key);
+			}
+		}
+
+		/**
+		 * Returns the key that uses the given {@code suffix} or {@code null} if
+		 * no such key exists.
+		 *
+		 * @param suffix
+		 * @return
+		 */
+		public static FileKey forSuffix(String suffix) {
+			return suffixLookup.get(suffix);
+		}
+
+		/**
+		 * Returns the common prefix of all keys associated with the given file.
+		 * Can be used for {@link MetadataRegistry#forEachEntry(String, java.util.function.BiConsumer) range queries}.
+		 *
+		 * @param fileIndex
+		 * @return
+		 */
+		public static String getPrefix(int fileIndex) {
+			return getFileKey(fileIndex, "");
+		}
+
 		private final String suffix;
 		private final ValueType type;
 		private final boolean isLayerSubKey;
@@ -436,7 +468,7 @@ public class FileDriverMetadata {
 
 		public void deleteFileData(MetadataRegistry metadataRegistry, int fileIndex) {
 			// Use the SubRegistry mechanics to erase part of the given metadata registry
-			try(SubRegistry sub = new SubRegistry(metadataRegistry, getFileKey(fileIndex, ""))){
+			try(SubRegistry sub = new SubRegistry(metadataRegistry, getPrefix(fileIndex))){
 				sub.delete();
 			}
 		}
@@ -529,6 +561,7 @@ public class FileDriverMetadata {
 		 * <tr><td>{@link FileDriverUtils#HINT_LRU_CACHE LRU}</td><td>Hint to use a {@link RUBlockCache#newLeastRecentlyUsedCache() least recently used} caching strategy</td></tr>
 		 * <tr><td>{@link FileDriverUtils#HINT_MRU_CACHE MRU}</td><td>Hint to use a {@link RUBlockCache#newMostRecentlyUsedCache() most recently used} caching strategy</td></tr>
 		 * <tr><td>{@link FileDriverUtils#HINT_UNLIMITED_CACHE UNLIMITED}</td><td>Hint to use a cache that {@link UnlimitedBlockCache never} discards blocks</td></tr>
+		 * <tr><td>{@link FileDriverUtils#HINT_TINY_LFU_CACHE TINY_LFU}</td><td>Hint to use a thread-safe and scan resistant {@link TinyLfuBlockCache frequency based} caching strategy</td></tr>
 		 * <tr><td><i>Any other String</i></td><td>Interpreted as the fully qualified class name of the {@link BlockCache} implementation to be used</td></tr>
 		 * </table>
 		 */
@@ -626,6 +659,12 @@ public class FileDriverMetadata {
 		 */
 		AVG_ITEM_COUNT("avgItemCount", ValueType.DOUBLE, false),
 
+		/**
+		 * Number of containers in the current level that contributed to the
+		 * {@link Container#getItemCount() size} statistics
+		 */
+		ITEM_COUNT_SAMPLES("itemCountSamples", ValueType.LONG, false),
+
 		// Optional metadata
 
 		/**
@@ -654,6 +693,16 @@ public class FileDriverMetadata {
 		 * containers in the current level are of type {@link ContainerType#SPAN span}.
 		 */
 		AVG_SPAN("avgSpan", ValueType.DOUBLE, false),
+
+		/**
+		 * Sum of the number of continuous items of all containers in the current level.
+		 */
+		TOTAL_SPAN("totalSpan", ValueType.LONG, false),
+
+		/**
+		 * Number of containers in the current level that contributed to the span statistics.
+		 */
+		SPAN_SAMPLES("spanSamples", ValueType.LONG, false),
 		;
 
 		private final String suffix;
@@ -716,21 +765,28 @@ public class FileDriverMetadata {
 		MIN_EDGE_COUNT("minEdgeCount", ValueType.LONG, false),
 		MAX_EDGE_COUNT("maxEdgeCount", ValueType.LONG, false),
 		AVG_EDGE_COUNT("avgEdgeCount", ValueType.DOUBLE, false),
+		EDGE_COUNT_SAMPLES("edgeCountSamples", ValueType.LONG, false),
 		// Root counts
+		TOTAL_ROOTS("totalRoots", ValueType.LONG, false),
 		MIN_ROOTS("minRoots", ValueType.LONG, false),
 		MAX_ROOTS("maxRoots", ValueType.LONG, false),
 		AVG_ROOTS("avgRoots", ValueType.DOUBLE, false),
+		ROOTS_SAMPLES("rootsSamples", ValueType.LONG, false),
 
 		// Optional metadata
 
 		// Height
+		TOTAL_HEIGHT("totalHeight", ValueType.LONG, false),
 		MIN_HEIGHT("minHeight", ValueType.LONG, false),
 		MAX_HEIGHT("maxHeight", ValueType.LONG, false),
 		AVG_HEIGHT("avgHeight", ValueType.DOUBLE, false),
+		HEIGHT_SAMPLES("heightSamples", ValueType.LONG, false),
 		// Branching
-		MIN_BRANCHING_FACTOR("minEdgeCount", ValueType.LONG, false),
-		MAX_BRANCHING_FACTOR("maxEdgeCount", ValueType.LONG, false),
-		AVG_BRANCHING_FACTOR("avgEdgeCount", ValueType.DOUBLE, false),
+		TOTAL_BRANCHING_FACTOR("totalBranchingFactor", ValueType.LONG, false),
+		MIN_BRANCHING_FACTOR("minBranchingFactor", ValueType.LONG, false),
+		MAX_BRANCHING_FACTOR("maxBranchingFactor", ValueType.LONG, false),
+		AVG_BRANCHING_FACTOR("avgBranchingFactor", ValueType.DOUBLE, false),
+		BRANCHING_FACTOR_SAMPLES("branchingFactorSamples", ValueType.LONG, false),
 		;
 
 		private final String suffix;
@@ -825,20 +881,47 @@ public class FileDriverMetadata {
 		}
 	}
 
-	private static String id(Manifest manifest) {
+	static String id(Manifest manifest) {
 		return manifest.getId().orElseThrow(ManifestException.missing(manifest, "id"));
 	}
 
-	private static String getFileKey(int fileIndex, String suffix) {
+	static String getFileKey(int fileIndex, String suffix) {
 		return FILE_PREFIX+String.valueOf(fileIndex)+_SEP_+suffix;
 	}
 
 	private static String getFileKey(int fileIndex, ItemLayerManifestBase<?> layer, String suffix) {
-		return FILE_PREFIX+String.valueOf(fileIndex)+_SEP_+ID_PREFIX+id(layer)+_SEP_+suffix;
+		return getFileKey(fileIndex, id(layer), suffix);
+	}
+
+	static String getFileKey(int fileIndex, String layerId, String suffix) {
+		return FILE_PREFIX+String.valueOf(fileIndex)+_SEP_+ID_PREFIX+layerId+_SEP_+suffix;
 	}
 
 	private static String getLayerKey(ItemLayerManifestBase<?> layer, String suffix) {
-		return ID_PREFIX+id(layer)+_SEP_+suffix;
+		return getLayerKey(id(layer), suffix);
+	}
+
+	static String getLayerKey(String layerId, String suffix) {
+		return ID_PREFIX+layerId+_SEP_+suffix;
+	}
+
+	/**
+	 * Splits the remainder of a file key (i.e. the part following the
+	 * {@link FileKey#getPrefix(int) file prefix}) into layer id and suffix.
+	 * Returns {@code null} for the layer id if the key is not associated with any layer.
+	 *
+	 * @param remainder
+	 * @return a pair of layer id (or {@code null}) and suffix
+	 */
+	static String[] splitFileKey(String remainder) {
+		if(remainder.isEmpty() || remainder.charAt(0)!=ID_PREFIX) {
+			return new String[] {null, remainder};
+		}
+		int sep = remainder.lastIndexOf(_SEP_);
+		if(sep<1) {
+			return new String[] {null, remainder};
+		}
+		return new String[] {remainder.substring(1, sep), remainder.substring(sep+1)};
 	}
 
 	private static String getChunkIndexKey(ItemLayerManifestBase<?> layer, String suffix) {
@@ -23,6 +23,7 @@ import java.nio.file.Paths;
 import de.ims.icarus2.filedriver.FileDriverMetadata.MappingKey;
 import de.ims.icarus2.filedriver.io.BufferedIOResource.BlockCache;
 import de.ims.icarus2.filedriver.io.RUBlockCache;
+import de.ims.icarus2.filedriver.io.TinyLfuBlockCache;
 import de.ims.icarus2.filedriver.io.UnlimitedBlockCache;
 import de.ims.icarus2.filedriver.mapping.DefaultMappingFactory;
 import de.ims.icarus2.filedriver.mapping.MappingFactory;
@@ -149,6 +150,12 @@ public class FileDriverUtils {
 		 *
 		 */
 		GROUP_POWER("groupPower"),
+
+		/**
+		 * Either {@code true} or an explicit {@link IOResource} to let non-monotonic
+		 * {@link de.ims.icarus2.filedriver.mapping.MappingImplSpanOneToMany} instances maintain an inverse interval index.
+		 */
+		INVERSE_INDEX("inverseIndex"),
 		;
 
 		private final String[] keys;
@@ -189,6 +196,11 @@ public class FileDriverUtils {
 	 */
 	public static final String HINT_UNLIMITED_CACHE = "UNLIMITED";
 
+	/**
+	 * Constant identifying a {@link TinyLfuBlockCache} implementation.
+	 */
+	public static final String HINT_TINY_LFU_CACHE = "TINY_LFU";
+
 	/**
 	 * Instantiates and returns a new {@link BlockCache} object based on the given string {@code s}.
 	 * <p>
@@ -197,6 +209,7 @@ public class FileDriverUtils {
 	 * <li>If {@code s} equals {@link #HINT_LRU_CACHE} it will call {@link RUBlockCache#newLeastRecentlyUsedCache()}</li>
 	 * <li>If {@code s} equals {@link #HINT_MRU_CACHE} it will call {@link RUBlockCache#newMostRecentlyUsedCache()()}</li>
 	 * <li>If {@code s} equals {@link #HINT_UNLIMITED_CACHE} it will create a new instance of {@link UnlimitedBlockCache}</li>
+	 * <li>If {@code s} equals {@link #HINT_TINY_LFU_CACHE} it will create a new instance of {@link TinyLfuBlockCache}</li>
 	 * <li>Otherwise {@code s} is expected to be the fully qualified class name of a cache implementation</li>
 	 * </ol>
 	 *
@@ -216,6 +229,8 @@ public class FileDriverUtils {
 			return RUBlockCache.newMostRecentlyUsedCache();
 		} else if(HINT_UNLIMITED_CACHE.equals(s)) {
 			return new UnlimitedBlockCache();
+		} else if(HINT_TINY_LFU_CACHE.equals(s)) {
+			return new TinyLfuBlockCache();
 		} else {
 			try {
 				return (BlockCache) Class.forName(s).newInstance();
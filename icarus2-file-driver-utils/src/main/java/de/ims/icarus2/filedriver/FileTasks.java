@@ -0,0 +1,186 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.filedriver;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.ims.icarus2.GlobalErrorCode;
+import de.ims.icarus2.filedriver.FileDriver.OptionKey;
+import de.ims.icarus2.model.api.ModelException;
+
+/**
+ * Executes independent per-file tasks of the driver preparation concurrently.
+ * <p>
+ * Tasks must not modify shared state. Their results are collected per file index,
+ * so that callers can merge them into the {@link FileDataStates} and report
+ * sequentially in file order. This keeps the outcome (including which error is
+ * reported first) independent of the actual execution order.
+ *
+ * @author Markus Gärtner
+ *
+ */
+final class FileTasks {
+
+	private FileTasks() {
+		/* no-op */
+	}
+
+	/**
+	 * A unit of work for a single file.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 * @param <R> type of the result
+	 */
+	@FunctionalInterface
+	interface FileTask<R> {
+		R apply(int fileIndex) throws IOException;
+	}
+
+	/**
+	 * Result of a {@link FileTask} for a single file: either a value or an error.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 * @param <R> type of the result
+	 */
+	static final class Outcome<R> {
+		private final R value;
+		private final Throwable error;
+
+		private Outcome(R value, Throwable error) {
+			this.value = value;
+			this.error = error;
+		}
+
+		/**
+		 * Returns the result of the task or rethrows the error it failed with.
+		 * Unchecked exceptions are rethrown as they are, so callers observe
+		 * the same failures as when running the task directly.
+		 */
+		R get() throws IOException {
+			if(error==null) {
+				return value;
+			} else if(error instanceof IOException) {
+				throw (IOException) error;
+			} else if(error instanceof RuntimeException) {
+				throw (RuntimeException) error;
+			} else if(error instanceof Error) {
+				throw (Error) error;
+			}
+			throw new ModelException(GlobalErrorCode.INTERNAL_ERROR, "Unexpected task failure", error);
+		}
+	}
+
+	/**
+	 * Returns the number of threads to be used for per-file preparation work, as
+	 * defined by {@link OptionKey#PREPARATION_PARALLELISM} or the number of
+	 * available processors if the driver doesn't specify the option.
+	 */
+	static int getParallelism(FileDriver driver) {
+		return OptionKey.PREPARATION_PARALLELISM.<Integer>getValue(driver.getManifest())
+				.map(Integer::intValue)
+				.orElse(Integer.valueOf(Runtime.getRuntime().availableProcessors()))
+				.intValue();
+	}
+
+	/**
+	 * Applies {@code task} to all files in {@code [0, fileCount)}, using up to
+	 * {@code parallelism} threads. Workers fetch file indices from a shared counter,
+	 * so slow files don't hold up others.
+	 *
+	 * @return the outcomes, ordered by file index
+	 * @throws InterruptedException if the calling thread got interrupted while waiting
+	 */
+	static <R> List<Outcome<R>> run(int fileCount, int parallelism, FileTask<R> task) throws InterruptedException {
+		requireNonNull(task);
+
+		@SuppressWarnings("unchecked")
+		Outcome<R>[] outcomes = new Outcome[fileCount];
+
+		int threads = Math.max(1, Math.min(parallelism, fileCount));
+
+		if(threads==1) {
+			for (int fileIndex = 0; fileIndex < fileCount; fileIndex++) {
+				if(Thread.interrupted())
+					throw new InterruptedException();
+				outcomes[fileIndex] = execute(task, fileIndex);
+			}
+		} else {
+			AtomicInteger next = new AtomicInteger();
+			Callable<Void> worker = () -> {
+				int fileIndex;
+				while((fileIndex = next.getAndIncrement()) < fileCount) {
+					if(Thread.currentThread().isInterrupted()) {
+						break;
+					}
+					outcomes[fileIndex] = execute(task, fileIndex);
+				}
+				return null;
+			};
+
+			List<Callable<Void>> workers = new ArrayList<>(threads);
+			for (int i = 0; i < threads; i++) {
+				workers.add(worker);
+			}
+
+			ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+				Thread thread = new Thread(r, "file-preparation");
+				thread.setDaemon(true);
+				return thread;
+			});
+			try {
+				for(Future<Void> future : executor.invokeAll(workers)) {
+					try {
+						future.get();
+					} catch (ExecutionException e) {
+						// Workers catch all task failures, so this is a bug
+						throw new ModelException(GlobalErrorCode.INTERNAL_ERROR, "Preparation worker failed", e.getCause());
+					}
+				}
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+
+		List<Outcome<R>> result = new ArrayList<>(fileCount);
+		for (int fileIndex = 0; fileIndex < fileCount; fileIndex++) {
+			if(outcomes[fileIndex]==null)
+				throw new InterruptedException();
+			result.add(outcomes[fileIndex]);
+		}
+		return result;
+	}
+
+	private static <R> Outcome<R> execute(FileTask<R> task, int fileIndex) {
+		try {
+			return new Outcome<>(task.apply(fileIndex), null);
+		} catch (IOException | RuntimeException | Error e) {
+			return new Outcome<>(null, e);
+		}
+	}
+}
@@ -35,7 +35,9 @@ import de.ims.icarus2.filedriver.FileDataStates.ChunkIndexInfo;
 import de.ims.icarus2.filedriver.FileDataStates.FileInfo;
 import de.ims.icarus2.filedriver.FileDataStates.GlobalInfo;
 import de.ims.icarus2.filedriver.FileDataStates.LayerInfo;
+import de.ims.icarus2.filedriver.FileDriver.OptionKey;
 import de.ims.icarus2.filedriver.FileDriver.PreparationStep;
+import de.ims.icarus2.filedriver.FileTasks.Outcome;
 import de.ims.icarus2.filedriver.io.sets.ResourceSet;
 import de.ims.icarus2.model.api.ModelErrorCode;
 import de.ims.icarus2.model.api.driver.Driver;
@@ -130,11 +132,14 @@ public enum StandardPreparationSteps implements PreparationStep {
 	 * Verify that the physical corpus files exist.
 	 * <p>
 	 * If context is editable missing files will be created as empty ones.
+	 * Files are checked {@link OptionKey#PREPARATION_PARALLELISM concurrently},
+	 * but missing ones are created sequentially in file order, stopping at the
+	 * first file that cannot be created.
 	 */
 	CHECK_FILE_EXISTENCE {
 
 		@Override
-		public boolean apply(FileDriver driver, ReportBuilder<ReportItem> reportBuilder, Options env) throws IcarusApiException {
+		public boolean apply(FileDriver driver, ReportBuilder<ReportItem> reportBuilder, Options env) throws IcarusApiException, InterruptedException {
 
 			ResourceSet dataFiles = driver.getDataFiles();
 			ContextManifest manifest = getContextManifest(driver);
@@ -143,29 +148,37 @@ public enum StandardPreparationSteps implements PreparationStep {
 			int fileCount = dataFiles.getResourceCount();
 			int invalidFiles = 0;
 
+			Path[] paths = collectPaths(driver.getFileStates(), fileCount);
+			boolean editable = manifest.isEditable();
+
+			// Only lookups run concurrently, the provider might not support concurrent modifications
+			List<Outcome<Boolean>> outcomes = FileTasks.run(fileCount, FileTasks.getParallelism(driver),
+					fileIndex -> Boolean.valueOf(resourceProvider.exists(paths[fileIndex])));
+
 			for(int fileIndex = 0; fileIndex < fileCount; fileIndex++) {
 
 				FileInfo fileInfo = driver.getFileStates().getFileInfo(fileIndex);
-				Path path = fileInfo.getPath();
+				Path path = paths[fileIndex];
 
-//				state.setFormatted("fileConnector.checkFileExistence", fileIndex, fileCount, path.getFileName().toString());
-
-				if(!resourceProvider.exists(path)) {
+				boolean exists;
+				try {
+					exists = outcomes.get(fileIndex).get().booleanValue();
 
 					// If context is editable, we allow for missing files and create them here
-					if(manifest.isEditable()) {
-						try {
-							resourceProvider.create(path, false);
-						} catch (IOException e) {
-							throw new IcarusApiException(ModelErrorCode.DRIVER_RESOURCE, "Unable to create resource: "+path, e);
-						}
-					} else {
-						fileInfo.setFlag(ElementFlag.MISSING);
-						// Signal error, since non-editable data MUST be present
-						reportBuilder.addError(ModelErrorCode.DRIVER_METADATA_CORRUPTED,
-								"Missing file for index {}: {}", _int(fileIndex), path);
-						invalidFiles++;
+					if(!exists && editable) {
+						resourceProvider.create(path, false);
+						exists = true;
 					}
+				} catch (IOException e) {
+					throw new IcarusApiException(ModelErrorCode.DRIVER_RESOURCE, "Unable to create resource: "+path, e);
+				}
+
+				if(!exists) {
+					fileInfo.setFlag(ElementFlag.MISSING);
+					// Signal error, since non-editable data MUST be present
+					reportBuilder.addError(ModelErrorCode.DRIVER_METADATA_CORRUPTED,
+							"Missing file for index {}: {}", _int(fileIndex), path);
+					invalidFiles++;
 				}
 			}
 
@@ -182,33 +195,69 @@ public enum StandardPreparationSteps implements PreparationStep {
 	/**
 	 * Verify file integrity via {@link FileChecksum checksums}.
 	 * <p>
-	 * Since using "real" checksums that analyze the entire byte content
-	 * of a file we rather use a simplistic minimal checksum comprised of
-	 * size of the file and date of last change.
+	 * Per default we use a simplistic minimal checksum comprised of size of
+	 * the file and date of last change. The {@link OptionKey#CHECKSUM_MODE}
+	 * setting allows to switch to checksums based on the actual content, which
+	 * survive copying a corpus to another location. Checksums are computed
+	 * in parallel for all files.
+	 * <p>
+	 * Files whose checksum changed get {@link FileDataStates#invalidateFile(int) invalidated},
+	 * so that only they will be re-indexed by {@link #SCAN_FILES} while all other files
+	 * keep their stored metadata.
+	 * Checksums are computed {@link OptionKey#PREPARATION_PARALLELISM concurrently}.
 	 */
 	CHECK_FILE_CHECKSUM {
 
 		@Override
-		public boolean apply(FileDriver driver, ReportBuilder<ReportItem> reportBuilder, Options env) throws IcarusApiException {
+		public boolean apply(FileDriver driver, ReportBuilder<ReportItem> reportBuilder, Options env) throws IcarusApiException, InterruptedException {
 
-			MetadataRegistry metadataRegistry = driver.getMetadataRegistry();
 			ResourceSet dataFiles = driver.getDataFiles();
 			ResourceProvider resourceProvider = driver.getResourceProvider();
+			FileDataStates states = driver.getFileStates();
+			FileChecksum.Mode mode = OptionKey.CHECKSUM_MODE.<String>getValue(driver.getManifest())
+					.map(FileChecksum.Mode::parseMode)
+					.orElse(FileChecksum.Mode.TIMESTAMP);
 
 			int fileCount = dataFiles.getResourceCount();
 			int invalidFiles = 0;
+			int changedFiles = 0;
 
+			Path[] paths = collectPaths(states, fileCount);
+			FileChecksum[] savedChecksums = new FileChecksum[fileCount];
 			for(int fileIndex = 0; fileIndex < fileCount; fileIndex++) {
+				savedChecksums[fileIndex] = states.getFileInfo(fileIndex).getChecksum();
+			}
+			FileChecksum[] checksums = new FileChecksum[fileCount];
 
-				FileInfo fileInfo = driver.getFileStates().getFileInfo(fileIndex);
-				Path path = fileInfo.getPath();
+			// Each task computes the new checksum and reports whether the file changed
+			List<Outcome<Boolean>> outcomes = FileTasks.run(fileCount, FileTasks.getParallelism(driver), fileIndex -> {
+				Path path = paths[fileIndex];
+				FileChecksum savedChecksum = savedChecksums[fileIndex];
+
+				FileChecksum checksum = FileChecksum.compute(resourceProvider, path, mode);
+				checksums[fileIndex] = checksum;
+
+				if(savedChecksum==null) {
+					return Boolean.FALSE;
+				}
+
+				FileChecksum reference = checksum;
+				// Stored checksum uses another mode, so we need to compare with that mode first
+				if(savedChecksum.getMode()!=mode) {
+					reference = FileChecksum.compute(resourceProvider, path, savedChecksum.getMode());
+				}
+
+				return Boolean.valueOf(!savedChecksum.equals(reference));
+			});
 
-//				state.setFormatted("fileConnector.checkFileChecksum", fileIndex, fileCount, path.getFileName().toString());
+			for(int fileIndex = 0; fileIndex < fileCount; fileIndex++) {
 
-				FileChecksum checksum;
+				FileInfo fileInfo = states.getFileInfo(fileIndex);
+				Path path = paths[fileIndex];
 
+				boolean changed;
 				try {
-					checksum = FileChecksum.compute(resourceProvider, path);
+					changed = outcomes.get(fileIndex).get().booleanValue();
 				} catch (IOException e) {
 					reportBuilder.addError(GlobalErrorCode.IO_ERROR,
 							"Failed to compute checksum for file at index {} : {}", _int(fileIndex), path, e);
@@ -216,18 +265,20 @@ public enum StandardPreparationSteps implements PreparationStep {
 					continue;
 				}
 
-				FileChecksum savedChecksum = fileInfo.getChecksum();
-
-				if(savedChecksum!=null && !savedChecksum.equals(checksum)) {
-					reportBuilder.addError(ModelErrorCode.DRIVER_METADATA_CORRUPTED,
-							"Invalid checksum stored for file index {}: expected '{}' - got '{}'",
-							_int(fileIndex), checksum, savedChecksum);
-					fileInfo.setFlag(ElementFlag.CORRUPTED);
-					invalidFiles++;
+				if(changed) {
+					reportBuilder.addInfo("Content of file at index {} changed - scheduled for re-indexing: {}",
+							_int(fileIndex), path);
+					states.invalidateFile(fileIndex);
+					changedFiles++;
 				}
 
 				// Refresh 'checksum' metadata
-				fileInfo.setChecksum(checksum);
+				fileInfo.setChecksum(checksums[fileIndex]);
+			}
+
+			// Total size will be recomputed from the individual files
+			if(changedFiles>0) {
+				states.getGlobalInfo().setSize(UNSET_LONG);
 			}
 
 			return invalidFiles==0;
@@ -242,13 +293,13 @@ public enum StandardPreparationSteps implements PreparationStep {
 
 	/**
 	 * Verify total and individual byte size of all files that are managed by the driver.
+	 * File sizes are fetched {@link OptionKey#PREPARATION_PARALLELISM concurrently}.
 	 */
 	CHECK_TOTAL_SIZE {
 
 		@Override
-		public boolean apply(FileDriver driver, ReportBuilder<ReportItem> reportBuilder, Options env) throws IcarusApiException {
+		public boolean apply(FileDriver driver, ReportBuilder<ReportItem> reportBuilder, Options env) throws IcarusApiException, InterruptedException {
 
-			MetadataRegistry metadataRegistry = driver.getMetadataRegistry();
 			ResourceSet dataFiles = driver.getDataFiles();
 			ResourceProvider resourceProvider = driver.getResourceProvider();
 
@@ -257,15 +308,19 @@ public enum StandardPreparationSteps implements PreparationStep {
 
 			long totalBytes = 0L;
 
+			Path[] paths = collectPaths(driver.getFileStates(), fileCount);
+			List<Outcome<Long>> outcomes = FileTasks.run(fileCount, FileTasks.getParallelism(driver),
+					fileIndex -> Long.valueOf(resourceProvider.getResource(paths[fileIndex]).size()));
+
 			for(int fileIndex = 0; fileIndex < fileCount; fileIndex++) {
 
 				FileInfo fileInfo = driver.getFileStates().getFileInfo(fileIndex);
-				Path path = fileInfo.getPath();
+				Path path = paths[fileIndex];
 
 				long fileBytes = 0L;
 
 				try {
-					fileBytes = resourceProvider.getResource(path).size();
+					fileBytes = outcomes.get(fileIndex).get().longValue();
 				} catch (IOException e) {
 					reportBuilder.addError(GlobalErrorCode.IO_ERROR,
 							"Failed to fetch size for file at index {} : {}", _int(fileIndex), path, e);
@@ -412,6 +467,7 @@ public enum StandardPreparationSteps implements PreparationStep {
 			MetadataRegistry metadataRegistry = driver.getMetadataRegistry();
 			ContextManifest manifest = getContextManifest(driver);
 			ResourceSet dataFiles = driver.getDataFiles();
+			List<ItemLayerManifestBase<?>> itemLayers = manifest.getLayerManifests(ModelUtils::isAnyItemLayer);
 
 			int fileCount = dataFiles.getResourceCount();
 			int invalidFiles = 0;
@@ -438,6 +494,11 @@ public enum StandardPreparationSteps implements PreparationStep {
 						invalidFiles++;
 						break;
 					}
+
+					// A re-indexed file might have changed its item count, shifting all following index ranges
+					if(fileIndex<fileCount-1) {
+						invalidateIfDisplaced(driver.getFileStates(), fileIndex, itemLayers);
+					}
 				}
 			}
 
@@ -619,6 +680,37 @@ public enum StandardPreparationSteps implements PreparationStep {
 
 	;
 
+	private static Path[] collectPaths(FileDataStates states, int fileCount) {
+		Path[] paths = new Path[fileCount];
+		for(int fileIndex = 0; fileIndex < fileCount; fileIndex++) {
+			paths[fileIndex] = states.getFileInfo(fileIndex).getPath();
+		}
+		return paths;
+	}
+
+	/**
+	 * Invalidates the file following {@code fileIndex} if its stored index ranges
+	 * no longer continue directly after those of the given file.
+	 */
+	private static void invalidateIfDisplaced(FileDataStates states, int fileIndex,
+			List<ItemLayerManifestBase<?>> layers) {
+		FileInfo current = states.getFileInfo(fileIndex);
+		FileInfo next = states.getFileInfo(fileIndex+1);
+
+		if(!next.isFlagSet(ElementFlag.SCANNED)) {
+			return;
+		}
+
+		for(ItemLayerManifestBase<?> layer : layers) {
+			long lastIndex = current.getLastIndex(layer);
+			long nextFirstIndex = next.getFirstIndex(layer);
+			if(lastIndex!=UNSET_LONG && nextFirstIndex!=UNSET_LONG && nextFirstIndex!=lastIndex+1) {
+				states.invalidateFile(fileIndex+1);
+				return;
+			}
+		}
+	}
+
 	private static ContextManifest getContextManifest(Driver driver) {
 		return driver.getManifest().getContextManifest()
 				.orElseThrow(ManifestException.noHost(driver.getManifest()));
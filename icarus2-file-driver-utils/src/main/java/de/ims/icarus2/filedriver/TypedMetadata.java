@@ -0,0 +1,372 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.filedriver;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import de.ims.icarus2.GlobalErrorCode;
+import de.ims.icarus2.filedriver.FileDriverMetadata.DriverKey;
+import de.ims.icarus2.filedriver.FileDriverMetadata.FileKey;
+import de.ims.icarus2.filedriver.FileDriverMetadata.ItemLayerKey;
+import de.ims.icarus2.filedriver.FileDriverMetadata.MetadataKey;
+import de.ims.icarus2.model.api.ModelErrorCode;
+import de.ims.icarus2.model.api.ModelException;
+import de.ims.icarus2.model.api.registry.MetadataRegistry;
+import de.ims.icarus2.model.manifest.api.ItemLayerManifestBase;
+import de.ims.icarus2.model.manifest.types.ValueType;
+
+/**
+ * Typed access to the {@link FileDriverMetadata} entries stored in a {@link MetadataRegistry}.
+ * <p>
+ * Values are read and written as primitives and checked against the declared
+ * {@link MetadataKey#getType() type} of their keys. Layer ids used for key construction
+ * are resolved only once per layer. Entries of a single file can be fetched in bulk
+ * via {@link #readFile(int, ItemLayerManifestBase[])}, which uses a single
+ * {@link MetadataRegistry#forEachEntry(String, java.util.function.BiConsumer) prefix query}
+ * if the underlying registry is {@link MetadataRegistry#isPrefixIndexed() prefix indexed}
+ * and falls back to individual lookups otherwise. The underlying storage remains plain
+ * string-based, so existing registries can be used without any conversion.
+ * <p>
+ * Note that this class is not thread-safe. It is meant to be used for a single
+ * synchronization run and then discarded.
+ *
+ * @author Markus Gärtner
+ *
+ */
+public class TypedMetadata {
+
+	private final MetadataRegistry registry;
+	private final boolean prefixIndexed;
+
+	/** Resolved layer ids, so we don't need to unwrap the Optional for every key */
+	private final Map<ItemLayerManifestBase<?>, String> layerIds = new IdentityHashMap<>();
+
+	public TypedMetadata(MetadataRegistry registry) {
+		this.registry = requireNonNull(registry);
+		prefixIndexed = registry.isPrefixIndexed();
+	}
+
+	public MetadataRegistry getRegistry() {
+		return registry;
+	}
+
+	public boolean isPrefixIndexed() {
+		return prefixIndexed;
+	}
+
+	public String layerId(ItemLayerManifestBase<?> layer) {
+		String id = layerIds.get(layer);
+		if(id==null) {
+			id = FileDriverMetadata.id(layer);
+			layerIds.put(layer, id);
+		}
+		return id;
+	}
+
+	public void beginUpdate() {
+		registry.beginUpdate();
+	}
+
+	public void endUpdate() {
+		registry.endUpdate();
+	}
+
+	// Type handling
+
+	private static void checkType(MetadataKey key, ValueType type) {
+		if(key.getType()!=type)
+			throw new ModelException(GlobalErrorCode.INVALID_INPUT, String.format(
+					"Type mismatch for key %s: expected %s - got %s", key.name(), type, key.getType()));
+	}
+
+	private static void checkIntegral(MetadataKey key) {
+		if(key.getType()!=ValueType.LONG && key.getType()!=ValueType.INTEGER)
+			throw new ModelException(GlobalErrorCode.INVALID_INPUT, String.format(
+					"Type mismatch for key %s: expected integral type - got %s", key.name(), key.getType()));
+	}
+
+	private static long parseLong(String key, String value, long noEntryValue) {
+		if(value==null) {
+			return noEntryValue;
+		}
+		try {
+			return Long.parseLong(value);
+		} catch(NumberFormatException e) {
+			throw new ModelException(ModelErrorCode.DRIVER_METADATA_CORRUPTED,
+					"Not a valid integral value for key '"+key+"': "+value, e);
+		}
+	}
+
+	private static int parseInt(String key, String value, int noEntryValue) {
+		if(value==null) {
+			return noEntryValue;
+		}
+		try {
+			return Integer.parseInt(value);
+		} catch(NumberFormatException e) {
+			throw new ModelException(ModelErrorCode.DRIVER_METADATA_CORRUPTED,
+					"Not a valid integer value for key '"+key+"': "+value, e);
+		}
+	}
+
+	private static boolean parseBoolean(String value, boolean noEntryValue) {
+		return value==null ? noEntryValue : Boolean.parseBoolean(value);
+	}
+
+	private void changeLong(String key, long value, long noEntryValue) {
+		registry.setValue(key, value==noEntryValue ? null : String.valueOf(value));
+	}
+
+	// Driver keys
+
+	public long getLong(DriverKey key, long noEntryValue) {
+		checkIntegral(key);
+		String k = key.getKey();
+		return parseLong(k, registry.getValue(k), noEntryValue);
+	}
+
+	public int getInt(DriverKey key, int noEntryValue) {
+		checkType(key, ValueType.INTEGER);
+		String k = key.getKey();
+		return parseInt(k, registry.getValue(k), noEntryValue);
+	}
+
+	public void setLong(DriverKey key, long value, long noEntryValue) {
+		checkIntegral(key);
+		changeLong(key.getKey(), value, noEntryValue);
+	}
+
+	// File keys
+
+	private static String fileKey(int fileIndex, FileKey key) {
+		if(key.isLayerSubKey())
+			throw new ModelException(GlobalErrorCode.UNSUPPORTED_OPERATION,
+					"Key requires layer context: "+key.getSuffix());
+		return FileDriverMetadata.getFileKey(fileIndex, key.getSuffix());
+	}
+
+	private String fileKey(int fileIndex, ItemLayerManifestBase<?> layer, FileKey key) {
+		if(!key.isLayerSubKey())
+			throw new ModelException(GlobalErrorCode.UNSUPPORTED_OPERATION,
+					"Key does not allow layer context: "+key.getSuffix());
+		return FileDriverMetadata.getFileKey(fileIndex, layerId(layer), key.getSuffix());
+	}
+
+	public String getString(int fileIndex, FileKey key) {
+		checkType(key, ValueType.STRING);
+		return registry.getValue(fileKey(fileIndex, key));
+	}
+
+	public long getLong(int fileIndex, FileKey key, long noEntryValue) {
+		checkIntegral(key);
+		String k = fileKey(fileIndex, key);
+		return parseLong(k, registry.getValue(k), noEntryValue);
+	}
+
+	public boolean getBoolean(int fileIndex, FileKey key, boolean noEntryValue) {
+		checkType(key, ValueType.BOOLEAN);
+		return parseBoolean(registry.getValue(fileKey(fileIndex, key)), noEntryValue);
+	}
+
+	public long getLong(int fileIndex, ItemLayerManifestBase<?> layer, FileKey key, long noEntryValue) {
+		checkIntegral(key);
+		String k = fileKey(fileIndex, layer, key);
+		return parseLong(k, registry.getValue(k), noEntryValue);
+	}
+
+	public void setString(int fileIndex, FileKey key, String value) {
+		checkType(key, ValueType.STRING);
+		registry.setValue(fileKey(fileIndex, key), value);
+	}
+
+	public void setLong(int fileIndex, FileKey key, long value, long noEntryValue) {
+		checkIntegral(key);
+		changeLong(fileKey(fileIndex, key), value, noEntryValue);
+	}
+
+	public void setBoolean(int fileIndex, FileKey key, boolean value) {
+		checkType(key, ValueType.BOOLEAN);
+		registry.setValue(fileKey(fileIndex, key), String.valueOf(value));
+	}
+
+	public void setLong(int fileIndex, ItemLayerManifestBase<?> layer, FileKey key, long value, long noEntryValue) {
+		checkIntegral(key);
+		changeLong(fileKey(fileIndex, layer, key), value, noEntryValue);
+	}
+
+	public void remove(int fileIndex, ItemLayerManifestBase<?> layer, FileKey key) {
+		registry.setValue(fileKey(fileIndex, layer, key), null);
+	}
+
+	/**
+	 * Visits all known {@link FileKey} entries stored for the given file with a single
+	 * prefix query. Entries with unknown suffixes (e.g. defined by subclasses of the
+	 * driver) are ignored.
+	 *
+	 * @param fileIndex
+	 * @param action
+	 */
+	public void forEachFileEntry(int fileIndex, FileEntryConsumer action) {
+		requireNonNull(action);
+		String prefix = FileKey.getPrefix(fileIndex);
+		int offset = prefix.length();
+		registry.forEachEntry(prefix, (k, value) -> {
+			String[] parts = FileDriverMetadata.splitFileKey(k.substring(offset));
+			FileKey key = FileKey.forSuffix(parts[1]);
+			if(key!=null && key.isLayerSubKey()==(parts[0]!=null)) {
+				action.accept(key, parts[0], value);
+			}
+		});
+	}
+
+	/**
+	 * Fetches all {@link FileKey} entries of the given file. If the backing registry
+	 * is not {@link MetadataRegistry#isPrefixIndexed() prefix indexed}, a prefix query
+	 * would amount to a full scan, so in that case the entries are looked up one by one
+	 * for the given {@code layers}.
+	 *
+	 * @param fileIndex
+	 * @param layers
+	 * @return
+	 */
+	public FileEntries readFile(int fileIndex, ItemLayerManifestBase<?>[] layers) {
+		FileEntries entries = new FileEntries(fileIndex);
+		if(prefixIndexed) {
+			forEachFileEntry(fileIndex, entries::put);
+		} else {
+			for(FileKey key : FileKey.values()) {
+				if(key.isLayerSubKey()) {
+					for(ItemLayerManifestBase<?> layer : layers) {
+						String layerId = layerId(layer);
+						entries.put(key, layerId, registry.getValue(
+								FileDriverMetadata.getFileKey(fileIndex, layerId, key.getSuffix())));
+					}
+				} else {
+					entries.put(key, null, registry.getValue(
+							FileDriverMetadata.getFileKey(fileIndex, key.getSuffix())));
+				}
+			}
+		}
+		return entries;
+	}
+
+	// Layer keys
+
+	private String layerKey(ItemLayerManifestBase<?> layer, ItemLayerKey key) {
+		return FileDriverMetadata.getLayerKey(layerId(layer), key.getSuffix());
+	}
+
+	public long getLong(ItemLayerManifestBase<?> layer, ItemLayerKey key, long noEntryValue) {
+		checkIntegral(key);
+		String k = layerKey(layer, key);
+		return parseLong(k, registry.getValue(k), noEntryValue);
+	}
+
+	public boolean getBoolean(ItemLayerManifestBase<?> layer, ItemLayerKey key, boolean noEntryValue) {
+		checkType(key, ValueType.BOOLEAN);
+		return parseBoolean(registry.getValue(layerKey(layer, key)), noEntryValue);
+	}
+
+	public void setLong(ItemLayerManifestBase<?> layer, ItemLayerKey key, long value, long noEntryValue) {
+		checkIntegral(key);
+		changeLong(layerKey(layer, key), value, noEntryValue);
+	}
+
+	public void setBoolean(ItemLayerManifestBase<?> layer, ItemLayerKey key, boolean value) {
+		checkType(key, ValueType.BOOLEAN);
+		registry.setValue(layerKey(layer, key), String.valueOf(value));
+	}
+
+	/**
+	 * Receives decoded {@link FileKey} entries.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	@FunctionalInterface
+	public interface FileEntryConsumer {
+		/**
+		 * @param key the decoded key
+		 * @param layerId id of the associated layer or {@code null} if the key is not a
+		 * {@link FileKey#isLayerSubKey() layer sub key}
+		 * @param value the raw stored value
+		 */
+		void accept(FileKey key, String layerId, String value);
+	}
+
+	/**
+	 * Snapshot of all {@link FileKey} entries of a single file.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	public final class FileEntries {
+
+		private final int fileIndex;
+		private final Map<FileKey, String> values = new EnumMap<>(FileKey.class);
+		private final Map<String, Map<FileKey, String>> layerValues = new HashMap<>();
+
+		private FileEntries(int fileIndex) {
+			this.fileIndex = fileIndex;
+		}
+
+		private void put(FileKey key, String layerId, String value) {
+			if(value==null) {
+				return;
+			}
+			if(layerId==null) {
+				values.put(key, value);
+			} else {
+				layerValues.computeIfAbsent(layerId, k -> new EnumMap<>(FileKey.class)).put(key, value);
+			}
+		}
+
+		public int getFileIndex() {
+			return fileIndex;
+		}
+
+		private String get(ItemLayerManifestBase<?> layer, FileKey key) {
+			Map<FileKey, String> map = layerValues.get(layerId(layer));
+			return map==null ? null : map.get(key);
+		}
+
+		public String getString(FileKey key) {
+			checkType(key, ValueType.STRING);
+			return values.get(key);
+		}
+
+		public long getLong(FileKey key, long noEntryValue) {
+			checkIntegral(key);
+			return parseLong(key.getSuffix(), values.get(key), noEntryValue);
+		}
+
+		public boolean getBoolean(FileKey key, boolean noEntryValue) {
+			checkType(key, ValueType.BOOLEAN);
+			return parseBoolean(values.get(key), noEntryValue);
+		}
+
+		public long getLong(ItemLayerManifestBase<?> layer, FileKey key, long noEntryValue) {
+			checkIntegral(key);
+			return parseLong(key.getSuffix(), get(layer, key), noEntryValue);
+		}
+	}
+}
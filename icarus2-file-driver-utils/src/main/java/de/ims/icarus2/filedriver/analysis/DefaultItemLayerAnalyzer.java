@@ -166,10 +166,17 @@ public class DefaultItemLayerAnalyzer extends AbstractFileDriverAnalyzer impleme
 
 		fileInfo.setCoverage(layerManifest, elementCount, firstIndex, lastIndex);
 
+		/*
+		 *  Stats are first stored for the current file only and then merged
+		 *  into the layer totals. This way a later re-scan of the file can
+		 *  remove its old contribution instead of overwriting the totals.
+		 */
 		for (int i = 0; i < stats.length; i++) {
 			ContainerStats cs = stats[i];
-			ContainerInfo ci = layerInfo.getContainerInfo(cs.manifest);
-			writeContainerStats(cs, ci);
+			ContainerInfo fileCi = fileInfo.getContainerInfo(cs.manifest);
+			fileCi.clear();
+			writeContainerStats(cs, fileCi);
+			layerInfo.getContainerInfo(cs.manifest).add(fileCi);
 		}
 	}
 
@@ -0,0 +1,493 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.filedriver.compiled;
+
+import static de.ims.icarus2.util.Conditions.checkArgument;
+import static de.ims.icarus2.util.Conditions.checkNotEmpty;
+import static de.ims.icarus2.util.Conditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.ims.icarus2.IcarusApiException;
+import de.ims.icarus2.Report;
+import de.ims.icarus2.Report.ReportItem;
+import de.ims.icarus2.filedriver.AbstractConverter;
+import de.ims.icarus2.filedriver.Converter;
+import de.ims.icarus2.filedriver.FileDataStates.FileInfo;
+import de.ims.icarus2.filedriver.FileDriver;
+import de.ims.icarus2.filedriver.compiled.CompiledCorpusReader.Scanner;
+import de.ims.icarus2.filedriver.schema.tabular.TableConverter.AnnotationCleaner;
+import de.ims.icarus2.model.api.ModelErrorCode;
+import de.ims.icarus2.model.api.ModelException;
+import de.ims.icarus2.model.api.corpus.Context;
+import de.ims.icarus2.model.api.driver.ChunkState;
+import de.ims.icarus2.model.api.driver.Driver;
+import de.ims.icarus2.model.api.driver.mods.ModuleMonitor;
+import de.ims.icarus2.model.api.layer.AnnotationLayer;
+import de.ims.icarus2.model.api.layer.ItemLayer;
+import de.ims.icarus2.model.api.layer.annotation.AnnotationStorage;
+import de.ims.icarus2.model.api.members.container.Container;
+import de.ims.icarus2.model.api.members.item.Item;
+import de.ims.icarus2.model.api.members.item.Item.ManagedItem;
+import de.ims.icarus2.model.api.registry.LayerMemberFactory;
+import de.ims.icarus2.model.manifest.api.AnnotationManifest;
+import de.ims.icarus2.model.manifest.api.ContainerManifestBase;
+import de.ims.icarus2.model.manifest.api.DriverManifest.ModuleManifest;
+import de.ims.icarus2.model.manifest.api.ItemLayerManifestBase;
+import de.ims.icarus2.model.manifest.api.ManifestException;
+import de.ims.icarus2.model.manifest.types.ValueType;
+import de.ims.icarus2.model.standard.driver.BufferedItemManager.InputCache;
+import de.ims.icarus2.model.standard.driver.ChunkConsumer;
+import de.ims.icarus2.model.standard.members.container.FlyweightContainer;
+import de.ims.icarus2.model.util.ModelUtils;
+import de.ims.icarus2.util.AbstractBuilder;
+import de.ims.icarus2.util.collections.set.DataSet;
+import de.ims.icarus2.util.collections.set.DataSets;
+import de.ims.icarus2.util.io.resource.IOResource;
+import de.ims.icarus2.util.io.resource.ResourceProvider;
+
+/**
+ * A {@link Converter} that keeps a {@link CompiledCorpusFormat compiled} copy
+ * next to every data file and serves {@link #loadFile(int, ChunkConsumer) loading}
+ * from that copy instead of parsing the original data again.
+ * <p>
+ * All format specific work is delegated to a {@link Builder#source(Converter) source}
+ * converter: {@link #scanFile(int) scanning} a file first lets the source do its
+ * regular scan and afterwards feeds the file once more through the source into a
+ * {@link CompiledCorpusWriter}, storing the result as a sibling of the data file
+ * with the configured {@link Builder#suffix(String) suffix}. Subsequent loads only
+ * read the compiled copy via a {@link CompiledCorpusReader.Scanner scanner} and create
+ * the containers, items and annotation values directly from its columns. If the
+ * compiled copy is missing or does not match the {@link FileInfo metadata} of the
+ * file, loading falls back to the source converter.
+ * <p>
+ * The compiled format only covers flat corpora: a single
+ * {@link Builder#containerLayer(String) container layer} on top of one item layer
+ * and any number of {@link Builder#annotation(String, String, String) annotations}
+ * on those items. Structures and other layers are <b>not</b> materialized, drivers
+ * for corpora that need them should use the source converter directly.
+ * Since no chunk index is maintained, all loading happens on the file level.
+ *
+ * @author Markus Gärtner
+ *
+ */
+public class CompiledCorpusConverter extends AbstractConverter {
+
+	private static final Logger log = LoggerFactory.getLogger(CompiledCorpusConverter.class);
+
+	/** Default suffix appended to the name of a data file to locate its compiled copy */
+	public static final String DEFAULT_SUFFIX = ".icc";
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	private final Converter source;
+	private final String containerLayerId;
+	private final List<AnnotationDef> annotationDefs;
+	private final String suffix;
+
+	// Resolved when added to a driver
+	private ItemLayer containerLayer, itemLayer;
+	private ContainerManifestBase<?> containerManifest;
+	private LayerMemberFactory memberFactory;
+	private final List<AnnotationBinding> annotations = new ArrayList<>();
+
+	private CompiledCorpusConverter(Builder builder) {
+		source = builder.source;
+		containerLayerId = builder.containerLayerId;
+		annotationDefs = new ArrayList<>(builder.annotations);
+		suffix = builder.suffix==null ? DEFAULT_SUFFIX : builder.suffix;
+	}
+
+	public Converter getSource() {
+		return source;
+	}
+
+	public String getSuffix() {
+		return suffix;
+	}
+
+	/**
+	 * @see de.ims.icarus2.filedriver.AbstractConverter#addNotify(de.ims.icarus2.model.api.driver.Driver)
+	 */
+	@Override
+	public void addNotify(Driver owner) {
+		super.addNotify(owner);
+		source.addNotify(owner);
+
+		FileDriver driver = getDriver();
+		Context context = driver.getContext();
+		checkState("no context", context!=null);
+
+		containerLayer = context.getLayer(containerLayerId);
+		DataSet<ItemLayer> baseLayers = containerLayer.getBaseLayers();
+		checkState("Container layer must have exactly one base layer: "+containerLayerId,
+				baseLayers.entryCount()==1);
+		itemLayer = baseLayers.entryAt(0);
+
+		ItemLayerManifestBase<?> layerManifest = containerLayer.getManifest();
+		containerManifest = layerManifest.getRootContainerManifest().orElseThrow(
+				ManifestException.missing(layerManifest, "root container"));
+
+		for (AnnotationDef def : annotationDefs) {
+			AnnotationLayer layer = context.getLayer(def.layerId);
+			AnnotationManifest manifest = layer.getManifest().getAnnotationManifest(def.key).orElseThrow(
+					ManifestException.missing(layer.getManifest(), "annotation for key "+def.key));
+			annotations.add(new AnnotationBinding(def.name, layer.getAnnotationStorage(),
+					def.key, manifest.getValueType()));
+		}
+
+		memberFactory = driver.newMemberFactory();
+	}
+
+	/**
+	 * @see de.ims.icarus2.filedriver.AbstractConverter#removeNotify(de.ims.icarus2.model.api.driver.Driver)
+	 */
+	@Override
+	public void removeNotify(Driver owner) {
+		containerLayer = itemLayer = null;
+		containerManifest = null;
+		memberFactory = null;
+		annotations.clear();
+
+		try {
+			source.removeNotify(owner);
+		} finally {
+			super.removeNotify(owner);
+		}
+	}
+
+	@Override
+	protected boolean doPrepare(ModuleManifest manifest, ModuleMonitor monitor) throws InterruptedException {
+		source.prepare(manifest, monitor);
+		return source.isReady();
+	}
+
+	@Override
+	protected boolean doReset(ModuleMonitor monitor) throws InterruptedException {
+		source.reset(monitor);
+		return true;
+	}
+
+	@Override
+	protected void doCancel() {
+		if(source.isBusy()) {
+			source.cancel();
+		}
+	}
+
+	/**
+	 * Chunk indices are never provided, since all loading happens per file.
+	 *
+	 * @see de.ims.icarus2.filedriver.Converter#getPropertyValue(de.ims.icarus2.filedriver.Converter.ConverterProperty)
+	 */
+	@Override
+	public Object getPropertyValue(ConverterProperty property) {
+		if(property==ConverterProperty.CHUNK_INDEX_SUPPORTED) {
+			return Boolean.FALSE;
+		}
+		return source.getPropertyValue(property);
+	}
+
+	/**
+	 * Lets the source converter scan the file and then compiles it, unless the
+	 * scan reported errors.
+	 *
+	 * @see de.ims.icarus2.filedriver.Converter#scanFile(int)
+	 */
+	@Override
+	public Report<ReportItem> scanFile(int fileIndex) throws IOException, InterruptedException, IcarusApiException {
+		checkAdded();
+
+		Report<ReportItem> report = source.scanFile(fileIndex);
+		if(!report.hasErrors()) {
+			compile(fileIndex);
+		}
+		return report;
+	}
+
+	private void compile(int fileIndex) throws IOException, InterruptedException, IcarusApiException {
+		CompiledCorpusWriter.Builder builder = CompiledCorpusWriter.builder();
+		for (AnnotationBinding annotation : annotations) {
+			builder.annotation(annotation.name, annotation.storage, annotation.key, annotation.valueType);
+		}
+		CompiledCorpusWriter writer = builder.build();
+
+		// We only need the content for the writer, so don't keep anything in the caches
+		source.loadFile(fileIndex, writer).discard();
+
+		writer.writeTo(getCompiledResource(fileIndex, true));
+	}
+
+	/**
+	 * Returns the resource for the compiled copy of the specified file or
+	 * {@code null} if there is no such copy and {@code create} is {@code false}.
+	 */
+	@Nullable
+	protected IOResource getCompiledResource(int fileIndex, boolean create) throws IOException {
+		FileDriver driver = getDriver();
+		ResourceProvider resourceProvider = driver.getResourceProvider();
+		Path file = driver.getDataFiles().getResourceAt(fileIndex).getPath();
+		Path path = file.resolveSibling(file.getFileName().toString()+suffix);
+
+		if(!resourceProvider.exists(path)) {
+			if(!create) {
+				return null;
+			}
+			resourceProvider.create(path, false);
+		}
+
+		return resourceProvider.getResource(path);
+	}
+
+	/**
+	 * Loads the specified file from its compiled copy if available and
+	 * consistent with the stored metadata, otherwise delegates to the
+	 * source converter.
+	 *
+	 * @see de.ims.icarus2.filedriver.Converter#loadFile(int, de.ims.icarus2.model.standard.driver.ChunkConsumer)
+	 */
+	@Override
+	public LoadResult loadFile(int fileIndex, @Nullable ChunkConsumer action)
+			throws IOException, InterruptedException, IcarusApiException {
+		checkAdded();
+
+		IOResource resource = getCompiledResource(fileIndex, false);
+		if(resource!=null) {
+			try(CompiledCorpusReader reader = CompiledCorpusReader.open(resource)) {
+				if(isCompatible(reader, fileIndex)) {
+					return load(reader, action);
+				}
+			} catch(ModelException e) {
+				// Corrupted or outdated copy: let the source do the work
+				log.warn("Unable to use compiled copy of file {}", Integer.valueOf(fileIndex), e);
+			}
+		}
+
+		return source.loadFile(fileIndex, action);
+	}
+
+	private boolean isCompatible(CompiledCorpusReader reader, int fileIndex) {
+		FileInfo info = getDriver().getFileStates().getFileInfo(fileIndex);
+		ItemLayerManifestBase<?> layerManifest = containerLayer.getManifest();
+		long count = reader.getContainerCount();
+		if(count!=info.getItemCount(layerManifest)) {
+			return false;
+		}
+		if(count>0 && reader.getContainerIndex(0)!=info.getFirstIndex(layerManifest)) {
+			return false;
+		}
+		return annotations.stream().allMatch(a -> reader.getAnnotationNames().contains(a.name));
+	}
+
+	private LoadResult load(CompiledCorpusReader reader, @Nullable ChunkConsumer action)
+			throws InterruptedException {
+		final FileDriver driver = getDriver();
+		final AnnotationCleaner cleaner = new AnnotationCleaner();
+		annotations.forEach(a -> cleaner.addStorage(a.storage));
+
+		final InputCache containerCache = driver.getLayerBuffer(containerLayer).newCache(cleaner, true);
+		final InputCache itemCache = driver.getLayerBuffer(itemLayer).newCache(cleaner, true);
+		final DynamicLoadResult loadResult = new SimpleLoadResult(Arrays.asList(containerCache, itemCache));
+
+		final Container containerHost = containerLayer.getProxyContainer();
+		final Container itemHost = itemLayer.getProxyContainer();
+		final DataSet<Container> baseContainers = DataSets.createDataSet(itemHost);
+
+		final FlyweightContainer view = new FlyweightContainer(containerManifest, containerHost, itemHost);
+		final Scanner scanner = reader.newScanner(view);
+		for (int slot = 0; slot < annotations.size(); slot++) {
+			scanner.column(annotations.get(slot).name, slot);
+		}
+
+		final long containerCount = reader.getContainerCount();
+		for (long c = 0; c < containerCount; c++) {
+			checkInterrupted();
+
+			scanner.load(c);
+			long index = view.getIndex();
+
+			Container container = makeAlive(memberFactory.newContainer(
+					containerManifest, containerHost, baseContainers, null, index));
+			containerCache.offer(container, index);
+
+			int size = (int) view.getItemCount();
+			for (int i = 0; i < size; i++) {
+				long itemIndex = view.indexAt(i);
+				Item item = makeAlive(memberFactory.newItem(itemHost, itemIndex));
+				itemCache.offer(item, itemIndex);
+				container.addItem(item);
+
+				for (int slot = 0; slot < annotations.size(); slot++) {
+					annotations.get(slot).restore(item, view, slot, i);
+				}
+			}
+
+			loadResult.accept(index, container, ChunkState.VALID);
+			if(action!=null) {
+				action.accept(index, container, ChunkState.VALID);
+			}
+		}
+
+		return loadResult;
+	}
+
+	private static <T extends Item> T makeAlive(T item) {
+		if(item instanceof ManagedItem) {
+			((ManagedItem)item).setAlive(true);
+		}
+		return item;
+	}
+
+	/**
+	 * Not supported, since this converter never creates cursors.
+	 *
+	 * @see de.ims.icarus2.filedriver.AbstractConverter#createDelegatingCursor(int, de.ims.icarus2.model.api.layer.ItemLayer)
+	 */
+	@Override
+	protected DelegatingCursor<?> createDelegatingCursor(int fileIndex, ItemLayer layer) {
+		return null;
+	}
+
+	/**
+	 * @see de.ims.icarus2.filedriver.AbstractConverter#readItemFromCursor(de.ims.icarus2.filedriver.AbstractConverter.DelegatingCursor)
+	 */
+	@Override
+	protected Item readItemFromCursor(DelegatingCursor<?> cursor)
+			throws IOException, InterruptedException, IcarusApiException {
+		throw new ModelException(getDriver().getCorpus(), ModelErrorCode.DRIVER_ERROR,
+				"Compiled converter does not support cursors: "+ModelUtils.getUniqueId(cursor.getLayer()));
+	}
+
+	private static class AnnotationDef {
+		final String name, layerId, key;
+
+		AnnotationDef(String name, String layerId, String key) {
+			this.name = name;
+			this.layerId = layerId;
+			this.key = key;
+		}
+	}
+
+	private static class AnnotationBinding {
+		final String name;
+		final AnnotationStorage storage;
+		final String key;
+		final ValueType valueType;
+
+		AnnotationBinding(String name, AnnotationStorage storage, String key, ValueType valueType) {
+			this.name = name;
+			this.storage = storage;
+			this.key = key;
+			this.valueType = valueType;
+		}
+
+		/** Copies the value at {@code position} in the given column of the view back into the storage */
+		void restore(Item item, FlyweightContainer view, int slot, int position) {
+			if(valueType==ValueType.INTEGER) {
+				storage.setInteger(item, key, (int) view.getLong(slot, position));
+			} else if(valueType==ValueType.LONG) {
+				storage.setLong(item, key, view.getLong(slot, position));
+			} else if(valueType==ValueType.FLOAT) {
+				storage.setFloat(item, key, (float) view.getDouble(slot, position));
+			} else if(valueType==ValueType.DOUBLE) {
+				storage.setDouble(item, key, view.getDouble(slot, position));
+			} else if(valueType==ValueType.BOOLEAN) {
+				storage.setBoolean(item, key, view.getBoolean(slot, position));
+			} else {
+				Object value = view.getValue(slot, position);
+				if(value!=null) {
+					storage.setValue(item, key, value);
+				}
+			}
+		}
+	}
+
+	public static class Builder extends AbstractBuilder<Builder, CompiledCorpusConverter> {
+		private Converter source;
+		private String containerLayerId;
+		private String suffix;
+		private final List<AnnotationDef> annotations = new ArrayList<>();
+
+		private Builder() {
+			// no-op
+		}
+
+		/** Defines the converter that handles the actual data format */
+		public Builder source(Converter source) {
+			requireNonNull(source);
+			checkState("Source already set", this.source==null);
+			this.source = source;
+			return thisAsCast();
+		}
+
+		/** Defines the layer that hosts the top-level containers of every file */
+		public Builder containerLayer(String containerLayerId) {
+			checkNotEmpty(containerLayerId);
+			checkState("Container layer already set", this.containerLayerId==null);
+			this.containerLayerId = containerLayerId;
+			return thisAsCast();
+		}
+
+		/**
+		 * Defines the suffix appended to the name of data files to locate
+		 * their compiled copies. Defaults to {@link CompiledCorpusConverter#DEFAULT_SUFFIX}.
+		 */
+		public Builder suffix(String suffix) {
+			checkNotEmpty(suffix);
+			checkState("Suffix already set", this.suffix==null);
+			this.suffix = suffix;
+			return thisAsCast();
+		}
+
+		/**
+		 * Registers an annotation to be stored under the given name in the compiled
+		 * copies. The value type is taken from the manifest of the annotation layer.
+		 */
+		public Builder annotation(String name, String annotationLayerId, String key) {
+			checkNotEmpty(name);
+			checkNotEmpty(annotationLayerId);
+			checkNotEmpty(key);
+			checkArgument("Duplicate annotation name: "+name,
+					annotations.stream().noneMatch(a -> a.name.equals(name)));
+			annotations.add(new AnnotationDef(name, annotationLayerId, key));
+			return thisAsCast();
+		}
+
+		@Override
+		protected void validate() {
+			checkState("Missing source converter", source!=null);
+			checkState("Missing container layer", containerLayerId!=null);
+		}
+
+		@Override
+		protected CompiledCorpusConverter create() {
+			return new CompiledCorpusConverter(this);
+		}
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.filedriver.compiled;
+
+import java.nio.ByteOrder;
+
+import de.ims.icarus2.model.manifest.types.ValueType;
+
+/**
+ * Constants describing the binary layout of a <i>compiled</i> corpus file.
+ * <p>
+ * A compiled corpus stores the content of a single corpus file in a columnar
+ * form that can be memory-mapped and served without any further parsing.
+ * The file consists of a fixed size header, a sequence of data blocks and a
+ * trailing directory:
+ *
+ * <pre>
+ * header    := MAGIC, VERSION, containerCount (long), itemCount (long),
+ *              directoryOffset (long), blockCount (int), reserved (int)
+ * block     := raw data, starting at a position aligned to {@link #ALIGNMENT}
+ * directory := entry*
+ * entry     := type (int), offset (long), length (long), nameLength (int), name (UTF-8)
+ * </pre>
+ *
+ * All numerical values are stored in {@link #BYTE_ORDER little endian} order.
+ * The content of the individual blocks is defined by their {@link BlockType type}.
+ * <p>
+ * Annotations are stored according to their {@link ValueType value type}:
+ * {@link ValueType#INTEGER integer}, {@link ValueType#LONG long},
+ * {@link ValueType#FLOAT float}, {@link ValueType#DOUBLE double} and
+ * {@link ValueType#BOOLEAN boolean} values are encoded natively in a single
+ * value block per annotation, with float values widened to double. All other
+ * types are dictionary-encoded, using their {@link ValueType#toChars(Object) textual}
+ * form, and get parsed back into the respective value type when the file is read.
+ *
+ * @author Markus Gärtner
+ *
+ */
+public final class CompiledCorpusFormat {
+
+	private CompiledCorpusFormat() {
+		// no-op
+	}
+
+	/** Marker at the beginning of every compiled corpus file: {@code "ICCF"} */
+	public static final int MAGIC = 0x49434346;
+
+	/** Current version of the binary format */
+	public static final int VERSION = 2;
+
+	/** Byte order used for all numerical values */
+	public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+	/** Alignment in bytes for the beginning of data blocks */
+	public static final int ALIGNMENT = Long.BYTES;
+
+	/** Size of the fixed header in bytes */
+	public static final int HEADER_SIZE = 40;
+
+	/** Marker for missing heads or annotation values */
+	public static final int NO_VALUE = -1;
+
+	/**
+	 * Types of data blocks in a compiled corpus file.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	public enum BlockType {
+		/** Global indices of all top-level containers, {@code long[containerCount]} */
+		CONTAINER_INDICES(1),
+		/**
+		 * Begin positions of all containers within the item columns plus a final
+		 * entry denoting the total number of items, {@code long[containerCount+1]}
+		 */
+		CONTAINER_BOUNDARIES(2),
+		/** Global indices of all items in container order, {@code long[itemCount]} */
+		ITEM_INDICES(3),
+		/**
+		 * Position of the head of each item relative to its container or
+		 * {@link CompiledCorpusFormat#NO_VALUE}, {@code int[itemCount]}
+		 */
+		HEADS(4),
+		/**
+		 * Distinct values of an annotation: the length of the UTF-8 encoded
+		 * {@link ValueType#getStringValue() label} of the annotation's value type,
+		 * the label itself, the number of entries, followed by {@code entryCount+1}
+		 * byte offsets and the UTF-8 encoded values
+		 */
+		DICTIONARY(5),
+		/**
+		 * Dictionary codes of an annotation for each item or
+		 * {@link CompiledCorpusFormat#NO_VALUE}, {@code int[itemCount]}
+		 */
+		CODES(6),
+		/** Native values of an {@link ValueType#INTEGER integer} annotation, {@code int[itemCount]} */
+		INTEGER_VALUES(7),
+		/** Native values of a {@link ValueType#LONG long} annotation, {@code long[itemCount]} */
+		LONG_VALUES(8),
+		/**
+		 * Native values of a {@link ValueType#DOUBLE double} or {@link ValueType#FLOAT float}
+		 * annotation, {@code double[itemCount]}
+		 */
+		DOUBLE_VALUES(9),
+		/** Native values of a {@link ValueType#BOOLEAN boolean} annotation, one byte per item */
+		BOOLEAN_VALUES(10),
+		;
+
+		private final int id;
+
+		private BlockType(int id) {
+			this.id = id;
+		}
+
+		public int getId() {
+			return id;
+		}
+
+		private static final BlockType[] values = values();
+
+		public static BlockType forId(int id) {
+			for (BlockType type : values) {
+				if(type.id==id) {
+					return type;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Returns the type of block used to store values of the given type
+		 * natively or {@code null} if such values need to be dictionary-encoded.
+		 */
+		public static BlockType forValueType(ValueType valueType) {
+			if(valueType==ValueType.INTEGER) {
+				return INTEGER_VALUES;
+			} else if(valueType==ValueType.LONG) {
+				return LONG_VALUES;
+			} else if(valueType==ValueType.DOUBLE || valueType==ValueType.FLOAT) {
+				return DOUBLE_VALUES;
+			} else if(valueType==ValueType.BOOLEAN) {
+				return BOOLEAN_VALUES;
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,652 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.filedriver.compiled;
+
+import static de.ims.icarus2.util.Conditions.checkArgument;
+import static de.ims.icarus2.util.Conditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.ims.icarus2.filedriver.compiled.CompiledCorpusFormat.BlockType;
+import de.ims.icarus2.model.api.ModelErrorCode;
+import de.ims.icarus2.model.api.ModelException;
+import de.ims.icarus2.model.manifest.types.ValueConversionException;
+import de.ims.icarus2.model.manifest.types.ValueType;
+import de.ims.icarus2.model.manifest.util.Messages;
+import de.ims.icarus2.model.standard.members.container.FlyweightContainer;
+import de.ims.icarus2.util.collections.CollectionUtils;
+import de.ims.icarus2.util.io.resource.IOResource;
+
+/**
+ * Provides read access to a file in the {@link CompiledCorpusFormat compiled corpus format}.
+ * <p>
+ * If the underlying {@link IOResource resource} is backed by a {@link FileChannel}
+ * all data blocks get memory-mapped, so opening a compiled corpus only requires
+ * reading the header, the directory and the annotation dictionaries. Dictionary
+ * entries are parsed back into their {@link ValueType value type} when the file
+ * is opened, natively encoded annotations are served as primitive arrays. For other
+ * resources the blocks are read into heap buffers instead. Individual blocks are
+ * limited to {@link Integer#MAX_VALUE} bytes.
+ * <p>
+ * Containers are best accessed through a {@link Scanner} that repositions a
+ * {@link FlyweightContainer} for every container and fills its head and
+ * annotation columns directly from the compiled data.
+ * <p>
+ * A reader is immutable after construction and can be shared between threads,
+ * scanners on the other hand are not thread-safe.
+ *
+ * @author Markus Gärtner
+ *
+ */
+public class CompiledCorpusReader implements AutoCloseable {
+
+	/**
+	 * Opens the compiled corpus stored in the given resource.
+	 */
+	public static CompiledCorpusReader open(IOResource resource) throws IOException {
+		requireNonNull(resource);
+		resource.prepare();
+
+		try(SeekableByteChannel channel = resource.getReadChannel()) {
+			return new CompiledCorpusReader(channel);
+		}
+	}
+
+	private final long containerCount;
+	private final long itemCount;
+
+	private final LongBuffer containerIndices;
+	private final LongBuffer boundaries;
+	private final LongBuffer itemIndices;
+
+	private final Map<String, IntBuffer> heads = new LinkedHashMap<>();
+	private final Map<String, AnnotationData> annotations = new LinkedHashMap<>();
+
+	private volatile boolean closed = false;
+
+	private CompiledCorpusReader(SeekableByteChannel channel) throws IOException {
+		ByteBuffer header = read(channel, 0, CompiledCorpusFormat.HEADER_SIZE);
+		int magic = header.getInt();
+		if(magic!=CompiledCorpusFormat.MAGIC)
+			throw new ModelException(ModelErrorCode.DRIVER_INVALID_CONTENT,
+					"Not a compiled corpus file - unexpected magic number: "+Integer.toHexString(magic));
+		int version = header.getInt();
+		if(version!=CompiledCorpusFormat.VERSION)
+			throw new ModelException(ModelErrorCode.DRIVER_INVALID_CONTENT,
+					"Unsupported version of compiled corpus format: "+version);
+
+		containerCount = header.getLong();
+		itemCount = header.getLong();
+		long directoryOffset = header.getLong();
+		int blockCount = header.getInt();
+
+		ByteBuffer directory = read(channel, directoryOffset, channel.size()-directoryOffset);
+
+		LongBuffer containerIndices = null, boundaries = null, itemIndices = null;
+
+		Map<String, Dictionary> dictionaries = new LinkedHashMap<>();
+		Map<String, IntBuffer> codes = new LinkedHashMap<>();
+
+		for (int i = 0; i < blockCount; i++) {
+			BlockType type = BlockType.forId(directory.getInt());
+			long offset = directory.getLong();
+			long length = directory.getLong();
+			byte[] rawName = new byte[directory.getInt()];
+			directory.get(rawName);
+			String name = new String(rawName, StandardCharsets.UTF_8);
+
+			if(type==null)
+				throw new ModelException(ModelErrorCode.DRIVER_INVALID_CONTENT,
+						"Unknown block type in compiled corpus file at offset "+offset);
+
+			ByteBuffer data = map(channel, offset, length);
+
+			switch (type) {
+			case CONTAINER_INDICES: containerIndices = data.asLongBuffer(); break;
+			case CONTAINER_BOUNDARIES: boundaries = data.asLongBuffer(); break;
+			case ITEM_INDICES: itemIndices = data.asLongBuffer(); break;
+			case HEADS: heads.put(name, data.asIntBuffer()); break;
+			case DICTIONARY: dictionaries.put(name, decodeDictionary(data)); break;
+			case CODES: codes.put(name, data.asIntBuffer()); break;
+			case INTEGER_VALUES: addAnnotation(name, new IntegerData(data.asIntBuffer())); break;
+			case LONG_VALUES: addAnnotation(name, new LongData(data.asLongBuffer())); break;
+			case DOUBLE_VALUES: addAnnotation(name, new DoubleData(data.asDoubleBuffer())); break;
+			case BOOLEAN_VALUES: addAnnotation(name, new BooleanData(data)); break;
+
+			default:
+				throw new ModelException(ModelErrorCode.DRIVER_INVALID_CONTENT,
+						"Unsupported block type: "+type);
+			}
+		}
+
+		if(containerIndices==null || boundaries==null || itemIndices==null)
+			throw new ModelException(ModelErrorCode.DRIVER_INVALID_CONTENT,
+					"Compiled corpus file is missing mandatory blocks");
+		if(containerIndices.capacity()!=containerCount || itemIndices.capacity()!=itemCount
+				|| boundaries.capacity()!=containerCount+1)
+			throw new ModelException(ModelErrorCode.DRIVER_INVALID_CONTENT,
+					"Inconsistent block sizes in compiled corpus file");
+		if(!dictionaries.keySet().equals(codes.keySet()))
+			throw new ModelException(ModelErrorCode.DRIVER_INVALID_CONTENT,
+					"Incomplete annotation data in compiled corpus file");
+		for (Map.Entry<String, Dictionary> entry : dictionaries.entrySet()) {
+			String name = entry.getKey();
+			addAnnotation(name, new DictionaryData(entry.getValue(), codes.get(name)));
+		}
+		for (AnnotationData annotation : annotations.values()) {
+			if(annotation.size()!=itemCount)
+				throw new ModelException(ModelErrorCode.DRIVER_INVALID_CONTENT,
+						"Inconsistent annotation block sizes in compiled corpus file");
+		}
+
+		this.containerIndices = containerIndices;
+		this.boundaries = boundaries;
+		this.itemIndices = itemIndices;
+	}
+
+	private static void checkBlockSize(long length) {
+		if(length<0 || length>Integer.MAX_VALUE)
+			throw new ModelException(ModelErrorCode.DRIVER_INVALID_CONTENT,
+					"Unsupported block size in compiled corpus file: "+length);
+	}
+
+	private static ByteBuffer read(SeekableByteChannel channel, long offset, long length) throws IOException {
+		checkBlockSize(length);
+		ByteBuffer buffer = ByteBuffer.allocate((int)length);
+		channel.position(offset);
+		while(buffer.hasRemaining()) {
+			if(channel.read(buffer)==-1)
+				throw new EOFException("Unexpected end of compiled corpus file");
+		}
+		buffer.flip();
+		return buffer.order(CompiledCorpusFormat.BYTE_ORDER);
+	}
+
+	private static ByteBuffer map(SeekableByteChannel channel, long offset, long length) throws IOException {
+		if(channel instanceof FileChannel) {
+			checkBlockSize(length);
+			// Mappings stay valid after the channel gets closed
+			return ((FileChannel)channel).map(MapMode.READ_ONLY, offset, length)
+					.order(CompiledCorpusFormat.BYTE_ORDER);
+		}
+		return read(channel, offset, length);
+	}
+
+	private void addAnnotation(String name, AnnotationData annotation) {
+		if(annotations.putIfAbsent(name, annotation)!=null)
+			throw new ModelException(ModelErrorCode.DRIVER_INVALID_CONTENT,
+					"Duplicate annotation in compiled corpus file: "+name);
+	}
+
+	private static String decodeString(ByteBuffer data, int length) {
+		byte[] raw = new byte[length];
+		data.get(raw);
+		return new String(raw, StandardCharsets.UTF_8);
+	}
+
+	private static Dictionary decodeDictionary(ByteBuffer data) {
+		String label = decodeString(data, data.getInt());
+		ValueType valueType = ValueType.parseValueType(label);
+		if(BlockType.forValueType(valueType)!=null)
+			throw new ModelException(ModelErrorCode.DRIVER_INVALID_CONTENT,
+					"Primitive annotation stored as dictionary: "+label);
+
+		int count = data.getInt();
+		int[] offsets = new int[count+1];
+		for (int i = 0; i <= count; i++) {
+			offsets[i] = data.getInt();
+		}
+		int base = data.position();
+		Object[] entries = new Object[count];
+		ClassLoader classLoader = CompiledCorpusReader.class.getClassLoader();
+		for (int i = 0; i < count; i++) {
+			data.position(base+offsets[i]);
+			String s = decodeString(data, offsets[i+1]-offsets[i]);
+			if(valueType==ValueType.STRING) {
+				entries[i] = s;
+			} else {
+				try {
+					entries[i] = valueType.parseAndPersist(s, classLoader);
+				} catch (ValueConversionException e) {
+					throw new ModelException(ModelErrorCode.DRIVER_INVALID_CONTENT,
+							"Failed to parse dictionary entry of type '"+label+"': "+s, e);
+				}
+			}
+		}
+		return new Dictionary(valueType, entries);
+	}
+
+	private void checkOpen() {
+		checkState("Reader already closed", !closed);
+	}
+
+	private void checkContainer(long container) {
+		if(container<0 || container>=containerCount)
+			throw new ModelException(ModelErrorCode.MODEL_INDEX_OUT_OF_BOUNDS,
+					Messages.indexOutOfBounds(null, 0, containerCount-1, container));
+	}
+
+	public long getContainerCount() {
+		return containerCount;
+	}
+
+	public long getItemCount() {
+		return itemCount;
+	}
+
+	/** Returns the global index of the container at the given position in this file */
+	public long getContainerIndex(long container) {
+		checkOpen();
+		checkContainer(container);
+		return containerIndices.get((int)container);
+	}
+
+	/** Returns the number of items in the container at the given position in this file */
+	public int getContainerSize(long container) {
+		checkOpen();
+		checkContainer(container);
+		return (int)(boundaries.get((int)container+1)-boundaries.get((int)container));
+	}
+
+	/** Returns the names of all structures for which heads are stored */
+	public Set<String> getStructureNames() {
+		return Collections.unmodifiableSet(heads.keySet());
+	}
+
+	/** Returns the names of all stored annotations */
+	public Set<String> getAnnotationNames() {
+		return Collections.unmodifiableSet(annotations.keySet());
+	}
+
+	/**
+	 * Returns the value type of the given annotation. Note that {@link ValueType#FLOAT float}
+	 * annotations are reported as {@link ValueType#DOUBLE double} ones, since their values
+	 * get widened when compiled.
+	 */
+	public ValueType getValueType(String annotation) {
+		return annotation(annotation).getValueType();
+	}
+
+	/**
+	 * Returns the distinct values of the given dictionary-encoded annotation,
+	 * indexed by their codes.
+	 *
+	 * @throws IllegalArgumentException if the annotation is unknown or stored natively
+	 */
+	public List<Object> getDictionary(String annotation) {
+		AnnotationData data = annotation(annotation);
+		checkArgument("Annotation is not dictionary-encoded: "+annotation, data instanceof DictionaryData);
+		return Collections.unmodifiableList(Arrays.asList(((DictionaryData)data).dictionary.entries));
+	}
+
+	private AnnotationData annotation(String annotation) {
+		AnnotationData data = annotations.get(requireNonNull(annotation));
+		checkArgument("Unknown annotation: "+annotation, data!=null);
+		return data;
+	}
+
+	/**
+	 * Creates a new scanner that will use the given {@code view} to expose
+	 * the content of containers.
+	 */
+	public Scanner newScanner(FlyweightContainer view) {
+		checkOpen();
+		return new Scanner(view);
+	}
+
+	/**
+	 * Releases all buffers. Memory-mapped regions get unmapped once they
+	 * become unreachable.
+	 *
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		heads.clear();
+		annotations.clear();
+	}
+
+	/**
+	 * Sequential or random-access reader for individual containers that
+	 * repositions a single {@link FlyweightContainer} on every {@link #load(long) load}.
+	 * Buffers for item indices, heads and annotation values are reused between
+	 * calls, so the content of the view is only valid until the next call to
+	 * {@link #load(long)}.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	public final class Scanner {
+
+		private final FlyweightContainer view;
+
+		private IntBuffer headSource;
+		private int[] headBuffer = new int[0];
+
+		private final List<ColumnBinding> columns = new ArrayList<>();
+
+		private long[] indexBuffer = new long[0];
+
+		Scanner(FlyweightContainer view) {
+			this.view = requireNonNull(view);
+		}
+
+		/** Fills the head column of the view from the given structure */
+		public Scanner heads(String structure) {
+			requireNonNull(structure);
+			checkState("Heads already defined", headSource==null);
+			IntBuffer source = heads.get(structure);
+			checkArgument("Unknown structure: "+structure, source!=null);
+			headSource = source;
+			return this;
+		}
+
+		/** Fills the given slot of the view with values of the specified annotation */
+		public Scanner column(String annotation, int slot) {
+			checkArgument("Slot must not be negative", slot>=0);
+			columns.add(annotation(annotation).bind(slot));
+			return this;
+		}
+
+		public FlyweightContainer getView() {
+			return view;
+		}
+
+		/**
+		 * Positions the view on the container at the given position in this file.
+		 */
+		public FlyweightContainer load(long container) {
+			checkOpen();
+			checkContainer(container);
+
+			final int begin = (int) boundaries.get((int)container);
+			final int size = (int) (boundaries.get((int)container+1)-begin);
+			final long index = containerIndices.get((int)container);
+
+			if(indexBuffer.length<size) {
+				indexBuffer = new long[CollectionUtils.growSize(indexBuffer.length, size)];
+			}
+
+			boolean contiguous = true;
+			for (int i = 0; i < size; i++) {
+				indexBuffer[i] = itemIndices.get(begin+i);
+				contiguous &= i==0 || indexBuffer[i]==indexBuffer[i-1]+1;
+			}
+
+			if(contiguous) {
+				view.reset(index, size==0 ? 0 : indexBuffer[0], size);
+			} else {
+				view.reset(index, indexBuffer, size);
+			}
+
+			if(headSource!=null) {
+				if(headBuffer.length<size) {
+					headBuffer = new int[CollectionUtils.growSize(headBuffer.length, size)];
+				}
+				for (int i = 0; i < size; i++) {
+					headBuffer[i] = headSource.get(begin+i);
+				}
+				view.setHeads(headBuffer);
+			}
+
+			for (ColumnBinding binding : columns) {
+				view.setColumn(binding.slot, binding.fill(begin, size));
+			}
+
+			return view;
+		}
+	}
+
+	private static final class Dictionary {
+		final ValueType valueType;
+		final Object[] entries;
+
+		Dictionary(ValueType valueType, Object[] entries) {
+			this.valueType = valueType;
+			this.entries = entries;
+		}
+	}
+
+	/**
+	 * Stored values of a single annotation.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	private static abstract class AnnotationData {
+
+		abstract ValueType getValueType();
+
+		/** Number of stored values */
+		abstract int size();
+
+		abstract ColumnBinding bind(int slot);
+	}
+
+	private static final class DictionaryData extends AnnotationData {
+		final Dictionary dictionary;
+		final IntBuffer codes;
+
+		DictionaryData(Dictionary dictionary, IntBuffer codes) {
+			this.dictionary = dictionary;
+			this.codes = codes;
+		}
+
+		@Override
+		ValueType getValueType() {
+			return dictionary.valueType;
+		}
+
+		@Override
+		int size() {
+			return codes.capacity();
+		}
+
+		@Override
+		ColumnBinding bind(int slot) {
+			return new ColumnBinding(slot) {
+				Object[] buffer = new Object[0];
+
+				@Override
+				Object fill(int begin, int size) {
+					if(buffer.length<size) {
+						buffer = new Object[CollectionUtils.growSize(buffer.length, size)];
+					}
+					for (int i = 0; i < size; i++) {
+						int code = codes.get(begin+i);
+						buffer[i] = code==CompiledCorpusFormat.NO_VALUE ? null : dictionary.entries[code];
+					}
+					return buffer;
+				}
+			};
+		}
+	}
+
+	private static final class IntegerData extends AnnotationData {
+		final IntBuffer values;
+
+		IntegerData(IntBuffer values) {
+			this.values = values;
+		}
+
+		@Override
+		ValueType getValueType() {
+			return ValueType.INTEGER;
+		}
+
+		@Override
+		int size() {
+			return values.capacity();
+		}
+
+		@Override
+		ColumnBinding bind(int slot) {
+			return new ColumnBinding(slot) {
+				int[] buffer = new int[0];
+
+				@Override
+				Object fill(int begin, int size) {
+					if(buffer.length<size) {
+						buffer = new int[CollectionUtils.growSize(buffer.length, size)];
+					}
+					values.get(begin, buffer, 0, size);
+					return buffer;
+				}
+			};
+		}
+	}
+
+	private static final class LongData extends AnnotationData {
+		final LongBuffer values;
+
+		LongData(LongBuffer values) {
+			this.values = values;
+		}
+
+		@Override
+		ValueType getValueType() {
+			return ValueType.LONG;
+		}
+
+		@Override
+		int size() {
+			return values.capacity();
+		}
+
+		@Override
+		ColumnBinding bind(int slot) {
+			return new ColumnBinding(slot) {
+				long[] buffer = new long[0];
+
+				@Override
+				Object fill(int begin, int size) {
+					if(buffer.length<size) {
+						buffer = new long[CollectionUtils.growSize(buffer.length, size)];
+					}
+					values.get(begin, buffer, 0, size);
+					return buffer;
+				}
+			};
+		}
+	}
+
+	private static final class DoubleData extends AnnotationData {
+		final DoubleBuffer values;
+
+		DoubleData(DoubleBuffer values) {
+			this.values = values;
+		}
+
+		@Override
+		ValueType getValueType() {
+			return ValueType.DOUBLE;
+		}
+
+		@Override
+		int size() {
+			return values.capacity();
+		}
+
+		@Override
+		ColumnBinding bind(int slot) {
+			return new ColumnBinding(slot) {
+				double[] buffer = new double[0];
+
+				@Override
+				Object fill(int begin, int size) {
+					if(buffer.length<size) {
+						buffer = new double[CollectionUtils.growSize(buffer.length, size)];
+					}
+					values.get(begin, buffer, 0, size);
+					return buffer;
+				}
+			};
+		}
+	}
+
+	private static final class BooleanData extends AnnotationData {
+		final ByteBuffer values;
+
+		BooleanData(ByteBuffer values) {
+			this.values = values;
+		}
+
+		@Override
+		ValueType getValueType() {
+			return ValueType.BOOLEAN;
+		}
+
+		@Override
+		int size() {
+			return values.capacity();
+		}
+
+		@Override
+		ColumnBinding bind(int slot) {
+			return new ColumnBinding(slot) {
+				boolean[] buffer = new boolean[0];
+
+				@Override
+				Object fill(int begin, int size) {
+					if(buffer.length<size) {
+						buffer = new boolean[CollectionUtils.growSize(buffer.length, size)];
+					}
+					for (int i = 0; i < size; i++) {
+						buffer[i] = values.get(begin+i)!=0;
+					}
+					return buffer;
+				}
+			};
+		}
+	}
+
+	/**
+	 * Links a stored annotation to a slot of the view and keeps the
+	 * reusable buffer for its values.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	private static abstract class ColumnBinding {
+		final int slot;
+
+		ColumnBinding(int slot) {
+			this.slot = slot;
+		}
+
+		/** Copies the values of the given range into the buffer and returns it */
+		abstract Object fill(int begin, int size);
+	}
+}
@@ -0,0 +1,614 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.filedriver.compiled;
+
+import static de.ims.icarus2.util.Conditions.checkArgument;
+import static de.ims.icarus2.util.Conditions.checkNotEmpty;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+import de.ims.icarus2.filedriver.Converter;
+import de.ims.icarus2.filedriver.compiled.CompiledCorpusFormat.BlockType;
+import de.ims.icarus2.model.api.ModelErrorCode;
+import de.ims.icarus2.model.api.ModelException;
+import de.ims.icarus2.model.api.driver.ChunkState;
+import de.ims.icarus2.model.api.layer.annotation.AnnotationStorage;
+import de.ims.icarus2.model.api.members.container.Container;
+import de.ims.icarus2.model.api.members.item.Item;
+import de.ims.icarus2.model.api.members.structure.Structure;
+import de.ims.icarus2.model.manifest.types.ValueConversionException;
+import de.ims.icarus2.model.manifest.types.ValueType;
+import de.ims.icarus2.model.standard.driver.ChunkConsumer;
+import de.ims.icarus2.util.AbstractBuilder;
+import de.ims.icarus2.util.io.IOUtil;
+import de.ims.icarus2.util.io.resource.IOResource;
+import it.unimi.dsi.fastutil.booleans.BooleanArrayList;
+import it.unimi.dsi.fastutil.booleans.BooleanList;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.doubles.DoubleList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+
+/**
+ * Collects the content of top-level containers and stores it in the
+ * {@link CompiledCorpusFormat compiled corpus format}.
+ * <p>
+ * The writer is a {@link ChunkConsumer} and as such can be handed directly
+ * to {@link Converter#loadFile(int, ChunkConsumer)} of any existing converter.
+ * For every {@link ChunkState#VALID valid} container it records the global
+ * indices of the container and its items, the heads of all registered
+ * {@link Builder#structure(String, LongFunction) structures} and the
+ * values of all registered
+ * {@link Builder#annotation(String, AnnotationStorage, String, ValueType) annotations}.
+ * Annotations of primitive {@link ValueType value types} are stored natively,
+ * all others get dictionary-encoded. Once loading is done, {@link #writeTo(IOResource)} produces the
+ * actual file which can later be opened via {@link CompiledCorpusReader}.
+ * <p>
+ * Note that all data is buffered in primitive collections until it gets
+ * written, so the memory footprint grows linearly with the size of the file
+ * being compiled.
+ *
+ * @author Markus Gärtner
+ *
+ */
+public class CompiledCorpusWriter implements ChunkConsumer {
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	private final List<StructureColumn> structures = new ArrayList<>();
+	private final List<AnnotationColumn> annotations = new ArrayList<>();
+
+	private final LongList containerIndices = new LongArrayList();
+	private final LongList boundaries = new LongArrayList();
+	private final LongList itemIndices = new LongArrayList();
+
+	private long skippedCount = 0;
+
+	private CompiledCorpusWriter(Builder builder) {
+		// Columns in the builder only serve as templates
+		for (StructureColumn structure : builder.structures) {
+			structures.add(new StructureColumn(structure.name, structure.lookup));
+		}
+		for (AnnotationColumn annotation : builder.annotations) {
+			annotations.add(annotation.copy());
+		}
+		boundaries.add(0L);
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.standard.driver.ChunkConsumer#accept(long, de.ims.icarus2.model.api.members.item.Item, de.ims.icarus2.model.api.driver.ChunkState)
+	 */
+	@Override
+	public void accept(long index, Item item, ChunkState state) {
+		if(state!=ChunkState.VALID) {
+			skippedCount++;
+			return;
+		}
+		if(!(item instanceof Container))
+			throw new ModelException(ModelErrorCode.DRIVER_INVALID_CONTENT,
+					"Compiled corpus format requires containers as top-level members: "+item);
+
+		Container container = (Container) item;
+		long size = container.getItemCount();
+		checkArgument("Container too large for compiled format: "+size, size<=Integer.MAX_VALUE);
+
+		containerIndices.add(index);
+		for (int i = 0; i < size; i++) {
+			Item member = container.getItemAt(i);
+			itemIndices.add(member.getIndex());
+			for (AnnotationColumn annotation : annotations) {
+				annotation.add(member);
+			}
+		}
+		for (StructureColumn structure : structures) {
+			structure.add(index, container);
+		}
+		boundaries.add(itemIndices.size());
+	}
+
+	/** Returns the number of containers collected so far */
+	public long getContainerCount() {
+		return containerIndices.size();
+	}
+
+	/** Returns the number of items collected so far */
+	public long getItemCount() {
+		return itemIndices.size();
+	}
+
+	/** Returns the number of chunks that were ignored due to not being valid */
+	public long getSkippedCount() {
+		return skippedCount;
+	}
+
+	/**
+	 * Writes all collected data to the given resource, replacing any
+	 * previous content.
+	 */
+	public void writeTo(IOResource resource) throws IOException {
+		requireNonNull(resource);
+
+		resource.prepare();
+		try(SeekableByteChannel channel = resource.getWriteChannel()) {
+			BlockOutput out = new BlockOutput(channel);
+
+			// Reserve space for header
+			out.position(CompiledCorpusFormat.HEADER_SIZE);
+
+			List<BlockEntry> blocks = new ArrayList<>();
+
+			blocks.add(out.writeLongs(BlockType.CONTAINER_INDICES, "", containerIndices));
+			blocks.add(out.writeLongs(BlockType.CONTAINER_BOUNDARIES, "", boundaries));
+			blocks.add(out.writeLongs(BlockType.ITEM_INDICES, "", itemIndices));
+
+			for (StructureColumn structure : structures) {
+				blocks.add(out.writeInts(BlockType.HEADS, structure.name, structure.heads));
+			}
+
+			for (AnnotationColumn annotation : annotations) {
+				annotation.write(out, blocks);
+			}
+
+			// Directory
+			out.align();
+			long directoryOffset = out.position();
+			for (BlockEntry block : blocks) {
+				byte[] name = block.name.getBytes(StandardCharsets.UTF_8);
+				out.putInt(block.type.getId());
+				out.putLong(block.offset);
+				out.putLong(block.length);
+				out.putInt(name.length);
+				out.putBytes(name);
+			}
+			long size = out.position();
+			out.flush();
+
+			// Now go back and finalize header
+			out.position(0);
+			out.putInt(CompiledCorpusFormat.MAGIC);
+			out.putInt(CompiledCorpusFormat.VERSION);
+			out.putLong(getContainerCount());
+			out.putLong(getItemCount());
+			out.putLong(directoryOffset);
+			out.putInt(blocks.size());
+			out.putInt(0);
+			out.flush();
+
+			channel.truncate(size);
+		}
+	}
+
+	private static class BlockEntry {
+		final BlockType type;
+		final String name;
+		final long offset, length;
+
+		BlockEntry(BlockType type, String name, long offset, long length) {
+			this.type = type;
+			this.name = name;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * Buffered output that keeps track of the absolute position in the
+	 * underlying channel.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	private static class BlockOutput {
+		private final SeekableByteChannel channel;
+		private final ByteBuffer buffer;
+		private long position;
+
+		BlockOutput(SeekableByteChannel channel) {
+			this.channel = channel;
+			buffer = ByteBuffer.allocate(IOUtil.DEFAULT_BUFFER_SIZE);
+			buffer.order(CompiledCorpusFormat.BYTE_ORDER);
+		}
+
+		long position() {
+			return position;
+		}
+
+		void position(long position) throws IOException {
+			flush();
+			channel.position(position);
+			this.position = position;
+		}
+
+		void flush() throws IOException {
+			buffer.flip();
+			while(buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+
+		private void ensureRemaining(int bytes) throws IOException {
+			if(buffer.remaining()<bytes) {
+				flush();
+			}
+		}
+
+		void putInt(int value) throws IOException {
+			ensureRemaining(Integer.BYTES);
+			buffer.putInt(value);
+			position += Integer.BYTES;
+		}
+
+		void putLong(long value) throws IOException {
+			ensureRemaining(Long.BYTES);
+			buffer.putLong(value);
+			position += Long.BYTES;
+		}
+
+		void putBytes(byte[] bytes) throws IOException {
+			int offset = 0;
+			while(offset<bytes.length) {
+				if(!buffer.hasRemaining()) {
+					flush();
+				}
+				int len = Math.min(buffer.remaining(), bytes.length-offset);
+				buffer.put(bytes, offset, len);
+				offset += len;
+			}
+			position += bytes.length;
+		}
+
+		void align() throws IOException {
+			while(position % CompiledCorpusFormat.ALIGNMENT != 0) {
+				ensureRemaining(1);
+				buffer.put((byte)0);
+				position++;
+			}
+		}
+
+		BlockEntry writeLongs(BlockType type, String name, LongList values) throws IOException {
+			align();
+			long offset = position;
+			for (int i = 0; i < values.size(); i++) {
+				putLong(values.getLong(i));
+			}
+			return new BlockEntry(type, name, offset, position-offset);
+		}
+
+		BlockEntry writeInts(BlockType type, String name, IntList values) throws IOException {
+			align();
+			long offset = position;
+			for (int i = 0; i < values.size(); i++) {
+				putInt(values.getInt(i));
+			}
+			return new BlockEntry(type, name, offset, position-offset);
+		}
+
+		BlockEntry writeDoubles(BlockType type, String name, DoubleList values) throws IOException {
+			align();
+			long offset = position;
+			for (int i = 0; i < values.size(); i++) {
+				putLong(Double.doubleToRawLongBits(values.getDouble(i)));
+			}
+			return new BlockEntry(type, name, offset, position-offset);
+		}
+
+		BlockEntry writeBooleans(BlockType type, String name, BooleanList values) throws IOException {
+			align();
+			long offset = position;
+			for (int i = 0; i < values.size(); i++) {
+				ensureRemaining(1);
+				buffer.put(values.getBoolean(i) ? (byte)1 : (byte)0);
+				position++;
+			}
+			return new BlockEntry(type, name, offset, position-offset);
+		}
+
+		BlockEntry writeDictionary(String name, ValueType valueType, List<String> entries) throws IOException {
+			align();
+			long offset = position;
+
+			byte[] label = valueType.getStringValue().getBytes(StandardCharsets.UTF_8);
+			putInt(label.length);
+			putBytes(label);
+
+			int count = entries.size();
+			byte[][] encoded = new byte[count][];
+			putInt(count);
+			int dataOffset = 0;
+			for (int i = 0; i < count; i++) {
+				encoded[i] = entries.get(i).getBytes(StandardCharsets.UTF_8);
+				putInt(dataOffset);
+				dataOffset += encoded[i].length;
+			}
+			putInt(dataOffset);
+			for (int i = 0; i < count; i++) {
+				putBytes(encoded[i]);
+			}
+
+			return new BlockEntry(BlockType.DICTIONARY, name, offset, position-offset);
+		}
+	}
+
+	private static class StructureColumn {
+		final String name;
+		final LongFunction<? extends Structure> lookup;
+		final IntList heads = new IntArrayList();
+		/** Positions of the items in the current container, reused across containers */
+		final Reference2IntMap<Item> positions = new Reference2IntOpenHashMap<>();
+
+		StructureColumn(String name, LongFunction<? extends Structure> lookup) {
+			this.name = name;
+			this.lookup = lookup;
+			positions.defaultReturnValue(CompiledCorpusFormat.NO_VALUE);
+		}
+
+		void add(long index, Container container) {
+			Structure structure = lookup.apply(index);
+			int size = (int) container.getItemCount();
+			if(structure==null) {
+				for (int i = 0; i < size; i++) {
+					heads.add(CompiledCorpusFormat.NO_VALUE);
+				}
+				return;
+			}
+
+			// Avoid linear indexOfItem() lookups for every single item
+			positions.clear();
+			for (int i = 0; i < size; i++) {
+				positions.put(container.getItemAt(i), i);
+			}
+
+			Item root = structure.getVirtualRoot();
+			for (int i = 0; i < size; i++) {
+				Item parent = structure.getParent(container.getItemAt(i));
+				int head = CompiledCorpusFormat.NO_VALUE;
+				if(parent!=null && parent!=root) {
+					head = positions.getInt(parent);
+				}
+				heads.add(head);
+			}
+		}
+	}
+
+	private static abstract class AnnotationColumn {
+		final String name;
+		final AnnotationStorage storage;
+		final String key;
+		final ValueType valueType;
+
+		AnnotationColumn(String name, AnnotationStorage storage, String key, ValueType valueType) {
+			this.name = name;
+			this.storage = storage;
+			this.key = key;
+			this.valueType = valueType;
+		}
+
+		static AnnotationColumn forType(String name, AnnotationStorage storage, String key, ValueType valueType) {
+			BlockType type = BlockType.forValueType(valueType);
+			if(type==null) {
+				return new DictionaryColumn(name, storage, key, valueType);
+			}
+			switch (type) {
+			case INTEGER_VALUES: return new IntegerColumn(name, storage, key, valueType);
+			case LONG_VALUES: return new LongColumn(name, storage, key, valueType);
+			case DOUBLE_VALUES: return new DoubleColumn(name, storage, key, valueType);
+			case BOOLEAN_VALUES: return new BooleanColumn(name, storage, key, valueType);
+
+			default:
+				throw new IllegalStateException("Unsupported value block: "+type);
+			}
+		}
+
+		/** Creates a fresh and empty column with the same configuration */
+		AnnotationColumn copy() {
+			return forType(name, storage, key, valueType);
+		}
+
+		abstract void add(Item item);
+
+		abstract void write(BlockOutput out, List<BlockEntry> blocks) throws IOException;
+	}
+
+	private static class DictionaryColumn extends AnnotationColumn {
+		final Object2IntMap<String> dictionary = new Object2IntOpenHashMap<>();
+		final List<String> entries = new ArrayList<>();
+		final IntList codes = new IntArrayList();
+
+		DictionaryColumn(String name, AnnotationStorage storage, String key, ValueType valueType) {
+			super(name, storage, key, valueType);
+			dictionary.defaultReturnValue(CompiledCorpusFormat.NO_VALUE);
+		}
+
+		@Override
+		void add(Item item) {
+			Object value = storage.getValue(item, key);
+			int code = CompiledCorpusFormat.NO_VALUE;
+			if(value!=null) {
+				String s;
+				try {
+					s = valueType.toChars(value).toString();
+				} catch (ValueConversionException e) {
+					throw new ModelException(ModelErrorCode.DRIVER_INVALID_CONTENT,
+							"Failed to serialize value of annotation '"+name+"': "+value, e);
+				}
+				code = dictionary.getInt(s);
+				if(code==CompiledCorpusFormat.NO_VALUE) {
+					code = entries.size();
+					entries.add(s);
+					dictionary.put(s, code);
+				}
+			}
+			codes.add(code);
+		}
+
+		@Override
+		void write(BlockOutput out, List<BlockEntry> blocks) throws IOException {
+			blocks.add(out.writeDictionary(name, valueType, entries));
+			blocks.add(out.writeInts(BlockType.CODES, name, codes));
+		}
+	}
+
+	private static class IntegerColumn extends AnnotationColumn {
+		final IntList values = new IntArrayList();
+
+		IntegerColumn(String name, AnnotationStorage storage, String key, ValueType valueType) {
+			super(name, storage, key, valueType);
+		}
+
+		@Override
+		void add(Item item) {
+			values.add(storage.getInteger(item, key));
+		}
+
+		@Override
+		void write(BlockOutput out, List<BlockEntry> blocks) throws IOException {
+			blocks.add(out.writeInts(BlockType.INTEGER_VALUES, name, values));
+		}
+	}
+
+	private static class LongColumn extends AnnotationColumn {
+		final LongList values = new LongArrayList();
+
+		LongColumn(String name, AnnotationStorage storage, String key, ValueType valueType) {
+			super(name, storage, key, valueType);
+		}
+
+		@Override
+		void add(Item item) {
+			values.add(storage.getLong(item, key));
+		}
+
+		@Override
+		void write(BlockOutput out, List<BlockEntry> blocks) throws IOException {
+			blocks.add(out.writeLongs(BlockType.LONG_VALUES, name, values));
+		}
+	}
+
+	private static class DoubleColumn extends AnnotationColumn {
+		final DoubleList values = new DoubleArrayList();
+
+		DoubleColumn(String name, AnnotationStorage storage, String key, ValueType valueType) {
+			super(name, storage, key, valueType);
+		}
+
+		@Override
+		void add(Item item) {
+			values.add(valueType==ValueType.FLOAT ? storage.getFloat(item, key) : storage.getDouble(item, key));
+		}
+
+		@Override
+		void write(BlockOutput out, List<BlockEntry> blocks) throws IOException {
+			blocks.add(out.writeDoubles(BlockType.DOUBLE_VALUES, name, values));
+		}
+	}
+
+	private static class BooleanColumn extends AnnotationColumn {
+		final BooleanList values = new BooleanArrayList();
+
+		BooleanColumn(String name, AnnotationStorage storage, String key, ValueType valueType) {
+			super(name, storage, key, valueType);
+		}
+
+		@Override
+		void add(Item item) {
+			values.add(storage.getBoolean(item, key));
+		}
+
+		@Override
+		void write(BlockOutput out, List<BlockEntry> blocks) throws IOException {
+			blocks.add(out.writeBooleans(BlockType.BOOLEAN_VALUES, name, values));
+		}
+	}
+
+	public static class Builder extends AbstractBuilder<Builder, CompiledCorpusWriter> {
+
+		private final List<StructureColumn> structures = new ArrayList<>();
+		private final List<AnnotationColumn> annotations = new ArrayList<>();
+
+		private Builder() {
+			// no-op
+		}
+
+		private void checkName(String name) {
+			checkNotEmpty(name);
+			checkArgument("Duplicate structure name: "+name,
+					structures.stream().noneMatch(s -> s.name.equals(name)));
+			checkArgument("Duplicate annotation name: "+name,
+					annotations.stream().noneMatch(a -> a.name.equals(name)));
+		}
+
+		/**
+		 * Registers a structure whose heads should be stored under the given name.
+		 * The {@code lookup} function receives the index of a top-level container
+		 * and is expected to return the structure defined on that container or
+		 * {@code null} if there is none.
+		 */
+		public Builder structure(String name, LongFunction<? extends Structure> lookup) {
+			checkName(name);
+			requireNonNull(lookup);
+			structures.add(new StructureColumn(name, lookup));
+			return thisAsCast();
+		}
+
+		/**
+		 * Registers an annotation whose values should be stored under the given name.
+		 * Values of primitive types are read via the respective primitive getters of
+		 * the {@code storage}, so missing entries are stored as the storage's
+		 * no-entry value. All other values are stored in the textual form defined
+		 * by their {@code valueType}.
+		 */
+		public Builder annotation(String name, AnnotationStorage storage, String key, ValueType valueType) {
+			checkName(name);
+			requireNonNull(storage);
+			checkNotEmpty(key);
+			requireNonNull(valueType);
+			annotations.add(AnnotationColumn.forType(name, storage, key, valueType));
+			return thisAsCast();
+		}
+
+		/**
+		 * Registers a {@link ValueType#STRING string} annotation whose values should
+		 * be stored under the given name.
+		 *
+		 * @see #annotation(String, AnnotationStorage, String, ValueType)
+		 */
+		public Builder annotation(String name, AnnotationStorage storage, String key) {
+			return annotation(name, storage, key, ValueType.STRING);
+		}
+
+		@Override
+		protected CompiledCorpusWriter create() {
+			return new CompiledCorpusWriter(this);
+		}
+	}
+}
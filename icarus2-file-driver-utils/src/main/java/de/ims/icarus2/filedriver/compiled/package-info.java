@@ -0,0 +1,32 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ * Compiled columnar storage for the content of individual corpus files.
+ * <p>
+ * The package defines the binary {@link de.ims.icarus2.filedriver.compiled.CompiledCorpusFormat format},
+ * a {@link de.ims.icarus2.filedriver.compiled.CompiledCorpusWriter writer} that can be fed by
+ * any existing {@link de.ims.icarus2.filedriver.Converter converter} and a memory-mapped
+ * {@link de.ims.icarus2.filedriver.compiled.CompiledCorpusReader reader} that exposes the
+ * stored containers through {@link de.ims.icarus2.model.standard.members.container.FlyweightContainer flyweight}
+ * views. The {@link de.ims.icarus2.filedriver.compiled.CompiledCorpusConverter converter}
+ * wires the format into a {@link de.ims.icarus2.filedriver.FileDriver}: it compiles
+ * every file while scanning it and afterwards loads files from their compiled copies.
+ *
+ * @author Markus Gärtner
+ *
+ */
+package de.ims.icarus2.filedriver.compiled;
@@ -417,18 +417,30 @@ public class BufferedIOResource implements Flushable {
 		}
 	}
 
-	private void incrementUseCount() {
-		// Previous use count
-		int count = useCount.getAndIncrement();
+	/*
+	 *  Transitions between 0 and 1 only happen under write lock, so that
+	 *  no accessor can get hold of a resource that is still being opened
+	 *  or already being closed by another thread.
+	 */
 
-		if(count==0) {
-			try {
-				syncWrite(this::openUnsafe);
-			} catch (IOException e) {
-				throw new ModelException(ModelErrorCode.DRIVER_INDEX_IO,
-						"Failed to open managed resource", e);
+	private void incrementUseCount() {
+		for(int count = useCount.get(); count>0; count = useCount.get()) {
+			if(useCount.compareAndSet(count, count+1)) {
+				return;
 			}
 		}
+
+		try {
+			syncWrite(() -> {
+				if(useCount.get()==0) {
+					openUnsafe();
+				}
+				useCount.incrementAndGet();
+			});
+		} catch (IOException e) {
+			throw new ModelException(ModelErrorCode.DRIVER_INDEX_IO,
+					"Failed to open managed resource", e);
+		}
 	}
 
 	private void openUnsafe() throws IOException {
@@ -441,17 +453,22 @@ public class BufferedIOResource implements Flushable {
 	}
 
 	private void decrementUseCount() {
-		// New use count
-		int count = useCount.decrementAndGet();
-
-		if(count==0) {
-			try {
-				syncWrite(this::closeUnsafe);
-			} catch (IOException e) {
-				throw new ModelException(ModelErrorCode.DRIVER_INDEX_IO,
-						"Failed to close managed resource", e);
+		for(int count = useCount.get(); count>1; count = useCount.get()) {
+			if(useCount.compareAndSet(count, count-1)) {
+				return;
 			}
 		}
+
+		try {
+			syncWrite(() -> {
+				if(useCount.decrementAndGet()==0) {
+					closeUnsafe();
+				}
+			});
+		} catch (IOException e) {
+			throw new ModelException(ModelErrorCode.DRIVER_INDEX_IO,
+					"Failed to close managed resource", e);
+		}
 	}
 
 	private void closeUnsafe() throws IOException {
@@ -841,10 +858,9 @@ public class BufferedIOResource implements Flushable {
 
 		/**
 		 * Fetches a block from the cache, loading a new block if required.
-		 * Note that this method will temporarily elevate the lock held by this
-		 * accessor to a full write lock if needed (this is the case if this
-		 * accessor only holds a read lock, but the method has to load a new block
-		 * and therefore structurally modify internal buffer data).
+		 * Note that this method serializes access to the cache among accessors
+		 * that only hold a read lock, since any lookup might have to load a new
+		 * block and therefore structurally modify internal buffer data.
 		 * <p>
 		 * This method must be called inside a {@link #begin()} ... {@link #end()} block!
 		 *
@@ -853,6 +869,16 @@ public class BufferedIOResource implements Flushable {
 		 */
 		public Block getBlock(int id) {
 			record(StatField.BLOCK_LOOKUP);
+			/*
+			 *  Converting our read lock into a write lock fails as soon as other
+			 *  readers are active, so we use the cache as monitor instead.
+			 */
+			synchronized (cache) {
+				return getBlockUnsafe(id);
+			}
+		}
+
+		private Block getBlockUnsafe(int id) {
 			// Cheap effort at MRU caching
 			Block lastBlock = lastReturnedBlock;
 			if(lastBlock!=null && lastBlock.getId()==id) {
@@ -864,46 +890,35 @@ public class BufferedIOResource implements Flushable {
 
 			if(block==null) {
 				record(StatField.CACHE_MISS);
-				// Upgrade the lock to write lock if needed
-				stamp = getLock().tryConvertToWriteLock(stamp);
-				assert stamp!=0L;
-				try {
-					// Byte offset of the beginning of the block to be read
-					long offset = offsetForBlock(id);
-
-					try {
-						boolean exists = resource.size()>offset;
+				// Byte offset of the beginning of the block to be read
+				long offset = offsetForBlock(id);
 
-						// We can abort lookup if our desired offset is outside the channel bounds
-						// and all we want to do is read data
-						if(!exists && readOnly) {
-							return null;
-						}
+				try {
+					boolean exists = resource.size()>offset;
 
-						if(tmpBlock==null || tmpBlock.isLocked()) { // Technically it should never happen to have a block locked at this point
-							tmpBlock = new Block(payloadConverter.newBlockData(bytesPerBlock));
-						}
+					// We can abort lookup if our desired offset is outside the channel bounds
+					// and all we want to do is read data
+					if(!exists && readOnly) {
+						return null;
+					}
 
-						block = tmpBlock;
+					if(tmpBlock==null || tmpBlock.isLocked()) { // Technically it should never happen to have a block locked at this point
+						tmpBlock = new Block(payloadConverter.newBlockData(bytesPerBlock));
+					}
 
-						// Empty data -> bail
-						if(exists && !readBlockUnsafe(block, offset)) {
-							return null;
-						}
+					block = tmpBlock;
 
-						// Properly loaded data -> update id and cache it
-						block.setId(id);
-						tmpBlock = cache.addBlock(block);
-					} catch(IOException e) {
-						throw new ModelException(ModelErrorCode.DRIVER_INDEX_IO,
-								"Failed to read block "+id+" in resource "+resource, e); //$NON-NLS-2$
-					}
-				} finally {
-					// If this accessor is read-only, downgrade the lock again
-					if(readOnly) {
-						stamp = getLock().tryConvertToReadLock(stamp);
-						assert stamp!=0L;
+					// Empty data -> bail
+					if(exists && !readBlockUnsafe(block, offset)) {
+						return null;
 					}
+
+					// Properly loaded data -> update id and cache it
+					block.setId(id);
+					tmpBlock = cache.addBlock(block);
+				} catch(IOException e) {
+					throw new ModelException(ModelErrorCode.DRIVER_INDEX_IO,
+							"Failed to read block "+id+" in resource "+resource, e); //$NON-NLS-2$
 				}
 			}
 
@@ -1007,6 +1022,8 @@ public class BufferedIOResource implements Flushable {
 		public void updateTargetIndex(long value) { target.update(value); }
 		/** Increase size by {@code 1} */
 		public void growSize() { size++; }
+		/** Returns the number of entries that have been added so far */
+		public long getSize() { return size; }
 
 		// CHECK USAGE
 		public boolean isUsedIndex(long value) { return used.contains(value); }
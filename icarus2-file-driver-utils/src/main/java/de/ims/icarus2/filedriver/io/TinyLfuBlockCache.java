@@ -0,0 +1,625 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.filedriver.io;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import de.ims.icarus2.filedriver.io.BufferedIOResource.Block;
+import de.ims.icarus2.filedriver.io.BufferedIOResource.BlockCache;
+import de.ims.icarus2.util.strings.ToStringBuilder;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+
+/**
+ * Implements a thread-safe cache that uses the <i>Window TinyLFU</i> policy to decide
+ * which blocks to keep. New blocks always enter a small LRU <i>window</i>. Blocks
+ * leaving the window become candidates for the <i>main</i> area and are only admitted
+ * if they have been requested more often than the block that would have to be evicted
+ * in their place. Access frequencies are approximated by a compact count-min sketch
+ * with 4-bit counters that get halved periodically, so that old popularity fades over
+ * time. The main area itself is split into a <i>probation</i> and a <i>protected</i>
+ * segment: blocks are promoted to the latter on their second hit.
+ * <p>
+ * Compared to {@link RUBlockCache} this makes the cache resistant to scans. A query
+ * that touches every block of a large file exactly once will only ever compete for
+ * the window and the probation segment, but cannot flush a frequently used working
+ * set out of the protected segment.
+ * <p>
+ * Lookups are spread over a number of independently locked <i>stripes</i>, each of
+ * which holds a part of the hash table and a small buffer of recent hits. Hits only
+ * lock their stripe and record the accessed entry in that buffer. The actual reordering
+ * of the policy queues is deferred until a buffer fills up and the policy lock can be
+ * acquired without blocking, or until the next {@link #addBlock(Block) insertion}.
+ * Buffered hits are dropped when a buffer is full and the policy is busy, which only
+ * affects the precision of the policy, never the correctness of lookups.
+ * <p>
+ * Just as for {@link RUBlockCache}, {@link Block#isLocked() locked} blocks are never
+ * evicted. The cache keeps track of the number of hits, misses and evictions which
+ * can be used to compare different cache configurations.
+ *
+ * @author Markus Gärtner
+ *
+ */
+public class TinyLfuBlockCache implements BlockCache {
+
+	/** Share of the total capacity reserved for the admission window in percent */
+	private static final int WINDOW_PERCENT = 1;
+	/** Share of the main area reserved for the protected segment in percent */
+	private static final int PROTECTED_PERCENT = 80;
+	/** Number of hits each stripe can buffer before the policy needs to catch up */
+	private static final int READ_BUFFER_SIZE = 16;
+	/** Number of lock stripes, scaled to the available cores */
+	private static final int STRIPE_COUNT = Math.min(64,
+			HashCommon.nextPowerOfTwo(Runtime.getRuntime().availableProcessors()*2));
+
+	private static final byte WINDOW = 0;
+	private static final byte PROBATION = 1;
+	private static final byte PROTECTED = 2;
+	private static final byte REMOVED = 3;
+
+	/** Partitions of the lookup table, {@code null} while the cache is closed */
+	private volatile Stripe[] stripes;
+
+	/** Guards the policy queues, the sketch and all the size information */
+	private final ReentrantLock policyLock = new ReentrantLock();
+
+	private final Queue window = new Queue();
+	private final Queue probation = new Queue();
+	private final Queue protect = new Queue();
+	private final Node[] drainBuffer = new Node[READ_BUFFER_SIZE];
+
+	private FrequencySketch sketch;
+
+	/** Upper limit of allowed blocks. Eviction will occur beyond that point. */
+	private int capacity;
+	private int maxWindow;
+	private int maxProtected;
+	/** Number of currently cached blocks */
+	private int count;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Entry in the lookup table that is also linked into exactly one of
+	 * the policy queues. All fields except the final ones are only accessed
+	 * while holding the policy lock.
+	 */
+	private static final class Node {
+		final int key;
+		final Block block;
+
+		Node _previous, _next;
+		byte queue;
+
+		Node(int key, Block block) {
+			this.key = key;
+			this.block = block;
+		}
+	}
+
+	/** Doubly linked list of entries with a sentinel, the head being the most recently used one. */
+	private static final class Queue {
+		final Node root = new Node(0, null);
+		int size;
+
+		Queue() {
+			clear();
+		}
+
+		void addFirst(Node e) {
+			e._previous = root;
+			e._next = root._next;
+			root._next._previous = e;
+			root._next = e;
+			size++;
+		}
+
+		void remove(Node e) {
+			e._previous._next = e._next;
+			e._next._previous = e._previous;
+			e._previous = e._next = null;
+			size--;
+		}
+
+		void moveToFirst(Node e) {
+			remove(e);
+			addFirst(e);
+		}
+
+		/**
+		 * Returns the least recently used entry that is neither locked
+		 * nor {@code exclude}, or {@code null} if no such entry exists.
+		 */
+		Node lastUnlocked(Node exclude) {
+			Node e = root._previous;
+			while(e!=root && (e==exclude || e.block.isLocked())) {
+				e = e._previous;
+			}
+			return e==root ? null : e;
+		}
+
+		void clear() {
+			root._next = root._previous = root;
+			size = 0;
+		}
+	}
+
+	/** Part of the lookup table together with a lossy buffer of recent hits. */
+	private static final class Stripe {
+		final Int2ObjectOpenHashMap<Node> map;
+		final Node[] buffer = new Node[READ_BUFFER_SIZE];
+		int buffered;
+
+		Stripe(int expected) {
+			map = new Int2ObjectOpenHashMap<>(expected);
+		}
+
+		/** Records a hit and returns {@code true} if the buffer is full. */
+		boolean record(Node node) {
+			if(buffered<buffer.length) {
+				buffer[buffered++] = node;
+			}
+			return buffered==buffer.length;
+		}
+	}
+
+	/**
+	 * Approximates access frequencies with a count-min sketch of depth 4 that
+	 * packs sixteen 4-bit counters into each {@code long}. Once the number of
+	 * recorded accesses reaches ten times the cache capacity all counters are
+	 * halved, so that the sketch only reflects recent popularity.
+	 */
+	@VisibleForTesting
+	static final class FrequencySketch {
+		private static final long[] SEED = {
+				0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+		private static final long RESET_MASK = 0x7777777777777777L;
+		private static final long ONE_MASK = 0x1111111111111111L;
+
+		private final long[] table;
+		private final int tableMask;
+		private final int sampleSize;
+		private int additions;
+
+		FrequencySketch(int capacity) {
+			int n = HashCommon.nextPowerOfTwo(Math.max(capacity, 8));
+			table = new long[n];
+			tableMask = n-1;
+			sampleSize = 10*capacity;
+		}
+
+		/** Returns the estimated number of accesses to {@code key}, capped at {@code 15}. */
+		int frequency(int key) {
+			int hash = spread(key);
+			int start = (hash & 3) << 2;
+			int frequency = Integer.MAX_VALUE;
+			for (int i = 0; i < 4; i++) {
+				int offset = (start + i) << 2;
+				int counter = (int) ((table[indexOf(hash, i)] >>> offset) & 0xfL);
+				frequency = Math.min(frequency, counter);
+			}
+			return frequency;
+		}
+
+		void increment(int key) {
+			int hash = spread(key);
+			int start = (hash & 3) << 2;
+			boolean added = false;
+			for (int i = 0; i < 4; i++) {
+				added |= incrementAt(indexOf(hash, i), start + i);
+			}
+			if(added && ++additions==sampleSize) {
+				reset();
+			}
+		}
+
+		private boolean incrementAt(int index, int counter) {
+			int offset = counter << 2;
+			long mask = 0xfL << offset;
+			if((table[index] & mask) != mask) {
+				table[index] += 1L << offset;
+				return true;
+			}
+			return false;
+		}
+
+		/** Halves all counters and corrects the addition count for truncated odd values. */
+		private void reset() {
+			int odd = 0;
+			for (int i = 0; i < table.length; i++) {
+				odd += Long.bitCount(table[i] & ONE_MASK);
+				table[i] = (table[i] >>> 1) & RESET_MASK;
+			}
+			additions = (additions - (odd >>> 2)) >>> 1;
+		}
+
+		private int indexOf(int hash, int depth) {
+			long h = (hash + SEED[depth]) * SEED[depth];
+			h += h >>> 32;
+			return ((int) h) & tableMask;
+		}
+
+		private static int spread(int x) {
+			x = ((x >>> 16) ^ x) * 0x45d9f3b;
+			x = ((x >>> 16) ^ x) * 0x45d9f3b;
+			return (x >>> 16) ^ x;
+		}
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return ToStringBuilder.create(this)
+			.add("capacity", capacity)
+			.add("size", count)
+			.add("hits", hits.sum())
+			.add("misses", misses.sum())
+			.add("evictions", evictions.sum())
+			.build();
+	}
+
+	private Stripe[] checkOpen() {
+		Stripe[] stripes = this.stripes;
+		if(stripes==null)
+			throw new IllegalStateException("Cache not open");
+		return stripes;
+	}
+
+	private static Stripe stripeFor(Stripe[] stripes, int id) {
+		return stripes[HashCommon.mix(id) & (stripes.length-1)];
+	}
+
+	/**
+	 * Looks up the entry associated with the specified {@code id}. The hit is only
+	 * recorded in the buffer of the respective stripe, so concurrent lookups for
+	 * different blocks rarely contend with each other.
+	 *
+	 * @see de.ims.icarus2.filedriver.io.BufferedIOResource.BlockCache#getBlock(int)
+	 */
+	@Override
+	public Block getBlock(int id) {
+		Stripe stripe = stripeFor(checkOpen(), id);
+		Node node;
+		boolean drain;
+		synchronized (stripe) {
+			node = stripe.map.get(id);
+			drain = node!=null && stripe.record(node);
+		}
+
+		if(node==null) {
+			misses.increment();
+			return null;
+		}
+
+		hits.increment();
+
+		if(drain && policyLock.tryLock()) {
+			try {
+				drainReadBuffers();
+			} finally {
+				policyLock.unlock();
+			}
+		}
+
+		return node.block;
+	}
+
+	/**
+	 * Adds the given block to the admission window. If this exceeds the capacity
+	 * of the cache, either the block that got pushed out of the window or the least
+	 * recently used block of the probation segment is evicted and returned, depending
+	 * on which of the two has been accessed less frequently.
+	 *
+	 * @see de.ims.icarus2.filedriver.io.BufferedIOResource.BlockCache#addBlock(de.ims.icarus2.filedriver.io.BufferedIOResource.Block)
+	 */
+	@Override
+	public Block addBlock(Block block) {
+		int id = block.getId();
+		Stripe stripe = stripeFor(checkOpen(), id);
+
+		policyLock.lock();
+		try {
+			drainReadBuffers();
+
+			Node existing;
+			synchronized (stripe) {
+				existing = stripe.map.get(id);
+			}
+			if(existing!=null) {
+				// Do nothing if the block is already present
+				if(existing.block==block) {
+					return null;
+				}
+
+				// Otherwise report corrupted state
+				throw new IllegalStateException("Cannot add block to cache - id already in use: "+id);
+			}
+
+			Node node = new Node(id, block);
+			node.queue = WINDOW;
+			window.addFirst(node);
+			synchronized (stripe) {
+				stripe.map.put(id, node);
+			}
+			count++;
+			sketch.increment(id);
+
+			// Blocks pushed out of the window become candidates for the main area
+			Node candidate = null;
+			while(window.size>maxWindow) {
+				candidate = window.root._previous;
+				window.remove(candidate);
+				candidate.queue = PROBATION;
+				probation.addFirst(candidate);
+			}
+
+			if(count<=capacity) {
+				return null;
+			}
+
+			Node evicted = selectVictim(candidate, node);
+			if(evicted==null) {
+				unlink(node);
+				throw new IllegalStateException("No unlocked entry found that could be removed to make room for new block - size: "+count);
+			}
+
+			unlink(evicted);
+			evictions.increment();
+
+			return evicted.block;
+		} finally {
+			policyLock.unlock();
+		}
+	}
+
+	/**
+	 * Lets the {@code candidate} that just left the window compete against the
+	 * least recently used unlocked block of the main area. Falls back to the
+	 * window if the entire main area is locked, but never evicts {@code fresh}.
+	 */
+	private Node selectVictim(Node candidate, Node fresh) {
+		if(candidate!=null && candidate.block.isLocked()) {
+			candidate = null;
+		}
+
+		Node victim = probation.lastUnlocked(candidate);
+		if(victim==null) {
+			victim = protect.lastUnlocked(null);
+		}
+
+		if(victim==null) {
+			return candidate!=null ? candidate : window.lastUnlocked(fresh);
+		} else if(candidate==null) {
+			return victim;
+		}
+
+		return sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate;
+	}
+
+	/** Removes the given node from its queue and the lookup table. */
+	private void unlink(Node node) {
+		switch (node.queue) {
+		case WINDOW: window.remove(node); break;
+		case PROBATION: probation.remove(node); break;
+		case PROTECTED: protect.remove(node); break;
+		default:
+			throw new IllegalStateException("Entry already removed: "+node.key);
+		}
+		node.queue = REMOVED;
+
+		Stripe stripe = stripeFor(stripes, node.key);
+		synchronized (stripe) {
+			stripe.map.remove(node.key);
+		}
+		count--;
+	}
+
+	/** Replays all buffered hits against the policy. Requires the policy lock. */
+	private void drainReadBuffers() {
+		final Node[] nodes = drainBuffer;
+		for (Stripe stripe : stripes) {
+			int buffered;
+			synchronized (stripe) {
+				buffered = stripe.buffered;
+				if(buffered==0) {
+					continue;
+				}
+				System.arraycopy(stripe.buffer, 0, nodes, 0, buffered);
+				Arrays.fill(stripe.buffer, 0, buffered, null);
+				stripe.buffered = 0;
+			}
+
+			for (int i = 0; i < buffered; i++) {
+				onAccess(nodes[i]);
+				nodes[i] = null;
+			}
+		}
+	}
+
+	private void onAccess(Node node) {
+		// Entry got evicted after the hit had been recorded
+		if(node.queue==REMOVED) {
+			return;
+		}
+
+		sketch.increment(node.key);
+
+		switch (node.queue) {
+		case WINDOW:
+			window.moveToFirst(node);
+			break;
+
+		case PROBATION:
+			probation.remove(node);
+			node.queue = PROTECTED;
+			protect.addFirst(node);
+
+			// Demote overflow from the protected segment back into probation
+			while(protect.size>maxProtected) {
+				Node demoted = protect.root._previous;
+				protect.remove(demoted);
+				demoted.queue = PROBATION;
+				probation.addFirst(demoted);
+			}
+			break;
+
+		case PROTECTED:
+			protect.moveToFirst(node);
+			break;
+
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Removes the block with the given {@code id} from the cache without counting
+	 * it as an eviction.
+	 *
+	 * @param id
+	 * @return the removed block or {@code null} if no block was cached for {@code id}
+	 */
+	public Block removeBlock(int id) {
+		Stripe stripe = stripeFor(checkOpen(), id);
+
+		policyLock.lock();
+		try {
+			drainReadBuffers();
+
+			Node node;
+			synchronized (stripe) {
+				node = stripe.map.get(id);
+			}
+			if(node==null) {
+				return null;
+			}
+			unlink(node);
+			return node.block;
+		} finally {
+			policyLock.unlock();
+		}
+	}
+
+	/**
+	 * @see de.ims.icarus2.filedriver.io.BufferedIOResource.BlockCache#open(int)
+	 */
+	@Override
+	public void open(int capacity) {
+		if(capacity<MIN_CAPACITY)
+			throw new IllegalArgumentException("Capacity below required minimum: "+capacity);
+
+		policyLock.lock();
+		try {
+			this.capacity = capacity;
+			maxWindow = Math.max(1, capacity*WINDOW_PERCENT/100);
+			maxProtected = (capacity-maxWindow)*PROTECTED_PERCENT/100;
+			count = 0;
+			sketch = new FrequencySketch(capacity);
+			window.clear();
+			probation.clear();
+			protect.clear();
+			resetCounters();
+
+			int expected = Math.max(capacity/STRIPE_COUNT, 4);
+			Stripe[] stripes = new Stripe[STRIPE_COUNT];
+			for (int i = 0; i < stripes.length; i++) {
+				stripes[i] = new Stripe(expected);
+			}
+			this.stripes = stripes;
+		} finally {
+			policyLock.unlock();
+		}
+	}
+
+	/**
+	 * @see de.ims.icarus2.filedriver.io.BufferedIOResource.BlockCache#close()
+	 */
+	@Override
+	public void close() {
+		policyLock.lock();
+		try {
+			stripes = null;
+			sketch = null;
+			count = 0;
+			window.clear();
+			probation.clear();
+			protect.clear();
+		} finally {
+			policyLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of successful lookups since this cache was last
+	 * {@link #open(int) opened} or its counters {@link #resetCounters() reset}.
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the number of failed lookups since this cache was last
+	 * {@link #open(int) opened} or its counters {@link #resetCounters() reset}.
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the number of blocks that had to be discarded to make room for
+	 * new ones since this cache was last {@link #open(int) opened} or its
+	 * counters {@link #resetCounters() reset}.
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Returns the ratio of hits to total lookups or {@code 0} if no lookups
+	 * have been performed yet.
+	 */
+	public double getHitRate() {
+		long hits = this.hits.sum();
+		long total = hits + misses.sum();
+		return total==0 ? 0D : (double)hits/total;
+	}
+
+	public void resetCounters() {
+		hits.reset();
+		misses.reset();
+		evictions.reset();
+	}
+
+	/** Open for package-private reading for tests */
+	@VisibleForTesting
+	int size() {
+		policyLock.lock();
+		try {
+			return count;
+		} finally {
+			policyLock.unlock();
+		}
+	}
+}
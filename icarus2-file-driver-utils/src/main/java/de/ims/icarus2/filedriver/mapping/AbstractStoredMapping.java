@@ -187,11 +187,26 @@ public abstract class AbstractStoredMapping<H extends Header>
 		}
 
 		/**
+		 * Allows subclasses to release additional resources after the
+		 * associated {@link ReadWriteAccessor} has been closed.
+		 */
+		protected void closeHook() {
+			//no -op
+		}
+
+		/**
+		 * Closes the associated {@link ReadWriteAccessor} and then calls
+		 * {@link #closeHook()}, even if closing the accessor failed.
+		 *
 		 * @see de.ims.icarus2.model.api.io.SynchronizedAccessor#close()
 		 */
 		@Override
 		public final void close() {
-			delegateAccessor.close();
+			try {
+				delegateAccessor.close();
+			} finally {
+				closeHook();
+			}
 		}
 
 		protected final Block getBlock(int id) {
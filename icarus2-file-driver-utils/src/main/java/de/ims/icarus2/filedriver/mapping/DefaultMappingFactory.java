@@ -62,6 +62,7 @@ import de.ims.icarus2.util.lang.ClassUtils;
  * <tr><td>blockPower</td><td>-</td><td>exponent to be used for calculating the number of data points in a single storage block</td></tr>
  * <tr><td>groupPower</td><td>-</td><td>exponent to be used for calculating the number of index values that should be grouped together for inverse mappings like {@link MappingImplSpanManyToOne}</td></tr>
  * <tr><td>inverseMapping</td><td>-</td><td>An existing {@link Mapping} implementation that should be used as inverse mapping</td></tr>
+ * <tr><td>inverseIndex</td><td>-</td><td>{@code true} or an {@link IOResource} to store an inverse interval index for non-monotonic {@link MappingImplSpanOneToMany} mappings</td></tr>
  * </table>
  *
  * @author Markus Gärtner
@@ -183,6 +184,26 @@ public class DefaultMappingFactory implements MappingFactory {
 		return (IOResource) resource;
 	}
 
+	/**
+	 * Returns the resource for an inverse index if the {@code inverseIndex} property
+	 * is set, or {@code null} otherwise.
+	 */
+	protected IOResource getInverseResource(String uid, Options options) {
+		Object resource = FileDriverUtils.MappingProperty.INVERSE_INDEX.getValue(options);
+
+		if(resource==null || IOResource.class.isInstance(resource)) {
+			return (IOResource) resource;
+		}
+
+		if(!Boolean.parseBoolean(String.valueOf(resource))) {
+			return null;
+		}
+
+		int capacity = options.getInteger(FileDriverUtils.MappingProperty.CAPACITY.key(), 1024*1024);
+
+		return new VirtualIOResource(Paths.get(uid+".inverse"), capacity);
+	}
+
 	protected Mapping createOneToOneMapping(MappingManifest manifest, Options options) {
 		Coverage coverage = manifest.getCoverage().orElseThrow(ManifestException.missing(manifest, "coverage"));
 		if(coverage.isTotal() && coverage.isMonotonic()) {
@@ -306,6 +327,15 @@ public class DefaultMappingFactory implements MappingFactory {
 			builder.blockPower(blockPower);
 		}
 
+		// Monotonic mappings already support binary search for reverse lookups
+		Coverage coverage = manifest.getCoverage().orElseThrow(ManifestException.missing(manifest, "coverage"));
+		if(!coverage.isMonotonic()) {
+			IOResource inverseResource = getInverseResource(ManifestUtils.idToPath(manifest.getUniqueId()), options);
+			if(inverseResource!=null) {
+				builder.inverseResource(inverseResource);
+			}
+		}
+
 		return builder.build();
 	}
 
@@ -28,6 +28,10 @@ import static de.ims.icarus2.util.IcarusUtils.UNSET_INT;
 import static de.ims.icarus2.util.IcarusUtils.UNSET_LONG;
 import static java.util.Objects.requireNonNull;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.LongConsumer;
+
 import javax.annotation.Nullable;
 
 import de.ims.icarus2.GlobalErrorCode;
@@ -37,14 +41,20 @@ import de.ims.icarus2.apiguard.Guarded;
 import de.ims.icarus2.apiguard.Guarded.MethodType;
 import de.ims.icarus2.filedriver.io.BufferedIOResource;
 import de.ims.icarus2.filedriver.io.BufferedIOResource.Block;
+import de.ims.icarus2.filedriver.io.BufferedIOResource.BlockCache;
+import de.ims.icarus2.filedriver.io.BufferedIOResource.Header;
 import de.ims.icarus2.filedriver.io.BufferedIOResource.PayloadConverter;
+import de.ims.icarus2.filedriver.io.BufferedIOResource.ReadWriteAccessor;
 import de.ims.icarus2.filedriver.io.BufferedIOResource.SimpleHeader;
+import de.ims.icarus2.filedriver.io.RUBlockCache;
 import de.ims.icarus2.filedriver.io.Range;
+import de.ims.icarus2.model.api.ModelErrorCode;
 import de.ims.icarus2.model.api.ModelException;
 import de.ims.icarus2.model.api.driver.indices.IndexCollector;
 import de.ims.icarus2.model.api.driver.indices.IndexSet;
 import de.ims.icarus2.model.api.driver.indices.IndexUtils;
 import de.ims.icarus2.model.api.driver.indices.IndexUtils.SpanProcedure;
+import de.ims.icarus2.model.api.driver.indices.IndexValueType;
 import de.ims.icarus2.model.api.driver.mapping.Mapping;
 import de.ims.icarus2.model.api.driver.mapping.MappingReader;
 import de.ims.icarus2.model.api.driver.mapping.MappingWriter;
@@ -55,7 +65,11 @@ import de.ims.icarus2.model.manifest.api.MappingManifest;
 import de.ims.icarus2.model.manifest.api.MappingManifest.Coverage;
 import de.ims.icarus2.model.manifest.util.ManifestUtils;
 import de.ims.icarus2.util.IcarusUtils;
+import de.ims.icarus2.util.io.resource.IOResource;
 import de.ims.icarus2.util.strings.ToStringBuilder;
+import it.unimi.dsi.fastutil.Arrays;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrays;
 
 /**
  * Implements a one-to-many mapping for containers of type {@link ContainerType#SPAN}.
@@ -74,6 +88,19 @@ import de.ims.icarus2.util.strings.ToStringBuilder;
  * For reverse lookups the two {@code find} methods of the {@code MappingReader} interface are
  * implemented to use binary search in order to pin down source spans in a predefined range.
  * <p>
+ * Non-monotonic mappings offer no such guarantees and reverse lookups would have to scan
+ * the entire source range. For those mappings an additional
+ * {@link Builder#inverseResource(IOResource) inverse resource} can be configured, in which
+ * case the mapping maintains a sorted interval index: All spans are ordered by their begin
+ * index and arranged as an implicit binary search tree in which every node also stores
+ * the largest end index found in its subtree. The index is rebuilt by a {@link Writer}
+ * that {@link Writer#end() ends} after having modified the mapping (or explicitly via
+ * {@link #optimize()}) and lets the {@code find} methods answer queries in
+ * {@code O(log n + k)} steps for {@code k} matching spans. As long as the index is
+ * outdated, readers fall back to the linear search. A writer marks the stored index as
+ * outdated with its first modification, so an index that failed to get rebuilt is never
+ * used for modified data, not even after reopening the mapping.
+ * <p>
  * The file based storage is organized in blocks with <tt>2^{@value #DEFAULT_BLOCK_POWER}</tt>
  * entries each.
  *
@@ -98,6 +125,15 @@ public class MappingImplSpanOneToMany extends AbstractStoredMapping<SimpleHeader
 	private final int blockMask;
 	private final int entriesPerBlock;
 
+	/** Optional storage for the inverse interval index, can be {@code null} */
+	private final BufferedIOResource inverseResource;
+	private final IndexBlockStorage inverseStorage;
+
+	/** Number of modifications done by writers, only ever changed under write lock */
+	private volatile long changeCount = 0L;
+	/** Value of {@link #changeCount} the inverse index has last been built for */
+	private volatile long inverseChangeCount = 0L;
+
 	protected MappingImplSpanOneToMany(Builder builder) {
 		super(builder);
 
@@ -105,6 +141,8 @@ public class MappingImplSpanOneToMany extends AbstractStoredMapping<SimpleHeader
 		blockMask = builder.getBlockMask();
 		entriesPerBlock = builder.getEntriesPerBlock();
 		blockStorage = builder.getBlockStorage();
+		inverseResource = builder.createInverseBufferedIOResource();
+		inverseStorage = inverseResource==null ? null : builder.getInverseBlockStorage();
 	}
 
 	@Override
@@ -112,13 +150,226 @@ public class MappingImplSpanOneToMany extends AbstractStoredMapping<SimpleHeader
 		sb.add("blockPower", blockPower)
 		.add("blockMask", Integer.toBinaryString(blockMask))
 		.add("entriesPerBlock", entriesPerBlock)
-		.add("blockStorage", blockStorage);
+		.add("blockStorage", blockStorage)
+		.add("inverseStorage", inverseStorage);
 	}
 
 	public IndexBlockStorage getBlockStorage() {
 		return blockStorage;
 	}
 
+	/** Returns whether this mapping maintains an inverse interval index */
+	public boolean hasInverseIndex() {
+		return inverseResource!=null;
+	}
+
+	@Nullable
+	public BufferedIOResource getInverseResource() {
+		return inverseResource;
+	}
+
+	/**
+	 * Deletes the main resource and the optional inverse resource.
+	 *
+	 * @see de.ims.icarus2.filedriver.mapping.AbstractStoredMapping#delete()
+	 */
+	@Override
+	public void delete() throws IOException {
+		try {
+			super.delete();
+		} finally {
+			if(inverseResource!=null) {
+				inverseResource.delete();
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds the inverse interval index if this mapping has been configured
+	 * to use one.
+	 *
+	 * @see de.ims.icarus2.filedriver.mapping.AbstractStoredMapping#optimize()
+	 */
+	@Override
+	public void optimize() throws IOException, InterruptedException {
+		checkInterrupted();
+		if(inverseResource!=null) {
+			buildInverseIndex();
+		}
+	}
+
+	/**
+	 * Returns whether the inverse index reflects the current content of the mapping.
+	 * Must only be called while holding locks on both the main and inverse resource.
+	 * <p>
+	 * Whenever both locks are held at the same time, the lock on the main resource
+	 * is acquired first, so that readers and writers cannot deadlock.
+	 */
+	private boolean isInverseIndexCurrent() {
+		return changeCount==inverseChangeCount
+				&& ((InverseHeader)inverseResource.getHeader()).isValidFor(getHeader());
+	}
+
+	/**
+	 * Collects all spans currently stored in the mapping, sorts them by
+	 * (begin, end, source) and stores them as an implicit binary search tree
+	 * augmented with the maximum end index of every subtree in the inverse
+	 * resource. Every entry occupies two span slots: The first one holds the
+	 * target span and the second one the source index and the subtree maximum.
+	 * <p>
+	 * The main resource is only held under read lock while collecting the spans
+	 * and not while writing the inverse index. If a writer modified the mapping in
+	 * between, the written index is left invalid.
+	 */
+	private void buildInverseIndex() {
+		LongArrayList begins = new LongArrayList();
+		LongArrayList ends = new LongArrayList();
+		LongArrayList sources = new LongArrayList();
+		InverseHeader snapshot = new InverseHeader();
+		long stamp;
+
+		ReadWriteAccessor reader = getBufferedResource().newAccessor(true);
+		try {
+			reader.begin();
+			try {
+				stamp = changeCount;
+				SimpleHeader header = getHeader();
+				snapshot.capture(header);
+
+				long firstSource = header.getSmallestUsedIndex();
+				long lastSource = header.getLargestUsedIndex();
+				if(firstSource!=UNSET_LONG) {
+					for(int id = id(firstSource), lastId = id(lastSource); id<=lastId; id++) {
+						Block block = reader.getBlock(id);
+						if(block==null) {
+							continue;
+						}
+						Object data = block.getData();
+						for(int localIndex = 0, size = block.getSize(); localIndex<size; localIndex++) {
+							long begin = blockStorage.getSpanBegin(data, localIndex);
+							long source = (long)id*entriesPerBlock + localIndex;
+							if(begin==UNSET_LONG || source<firstSource || source>lastSource) {
+								continue;
+							}
+
+							begins.add(begin);
+							ends.add(blockStorage.getSpanEnd(data, localIndex));
+							sources.add(inverseStorage.checkValue(source));
+						}
+					}
+				}
+			} finally {
+				reader.end();
+			}
+		} finally {
+			reader.close();
+		}
+
+		final int size = begins.size();
+		final long[] b = begins.elements(), e = ends.elements(), s = sources.elements();
+		Arrays.quickSort(0, size, (i0, i1) -> {
+			int result = Long.compare(b[i0], b[i1]);
+			if(result==0) {
+				result = Long.compare(e[i0], e[i1]);
+			}
+			if(result==0) {
+				result = Long.compare(s[i0], s[i1]);
+			}
+			return result;
+		}, (i0, i1) -> {
+			LongArrays.swap(b, i0, i1);
+			LongArrays.swap(e, i0, i1);
+			LongArrays.swap(s, i0, i1);
+		});
+
+		long[] maxEnds = new long[size];
+		computeMaxEnds(e, maxEnds, 0, size);
+
+		InverseHeader header = (InverseHeader) inverseResource.getHeader();
+		ReadWriteAccessor writer = inverseResource.newAccessor(false);
+		try {
+			writer.begin();
+			try {
+				// Make sure a partially written index never gets used
+				header.invalidate();
+
+				for (int i = 0; i < size; i++) {
+					Block block = writer.getBlock(id(i));
+					assert block!=null : "missing inverse block for entry "+i;
+					Object data = block.getData();
+					int slot = localIndex(i)<<1;
+
+					inverseStorage.setSpanBegin(data, slot, b[i]);
+					inverseStorage.setSpanEnd(data, slot, e[i]);
+					inverseStorage.setSpanBegin(data, slot+1, s[i]);
+					inverseStorage.setSpanEnd(data, slot+1, maxEnds[i]);
+
+					writer.lockBlock(block, slot+2);
+				}
+
+				/*
+				 *  Writers count their changes before invalidating the index under
+				 *  the inverse lock, so a stale snapshot is always detected here.
+				 */
+				if(changeCount==stamp) {
+					header.update(size, snapshot);
+					inverseChangeCount = stamp;
+				}
+				writer.flush();
+			} catch (IOException ex) {
+				throw new ModelException(ModelErrorCode.DRIVER_INDEX_IO,
+						"Failed to write inverse index", ex);
+			} finally {
+				writer.end();
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Marks the inverse index as outdated and immediately persists that state.
+	 * The in-memory {@link #changeCount} is lost when the mapping gets reopened,
+	 * so this is what prevents an index from being used for modified data in
+	 * case the writer fails to rebuild it.
+	 */
+	private void invalidateInverseIndex() {
+		InverseHeader header = (InverseHeader) inverseResource.getHeader();
+		ReadWriteAccessor writer = inverseResource.newAccessor(false);
+		try {
+			writer.begin();
+			try {
+				if(header.getEntryCount()!=UNSET_LONG) {
+					header.invalidate();
+					writer.flush();
+				}
+			} catch (IOException ex) {
+				throw new ModelException(ModelErrorCode.DRIVER_INDEX_IO,
+						"Failed to invalidate inverse index", ex);
+			} finally {
+				writer.end();
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Stores for every node in the implicit search tree over {@code [lo,hi)} the
+	 * maximum end index of its subtree and returns the maximum for the entire range.
+	 */
+	private static long computeMaxEnds(long[] ends, long[] maxEnds, int lo, int hi) {
+		if(lo>=hi) {
+			return UNSET_LONG;
+		}
+		int mid = (lo+hi)>>>1;
+		long max = Math.max(ends[mid], Math.max(
+				computeMaxEnds(ends, maxEnds, lo, mid),
+				computeMaxEnds(ends, maxEnds, mid+1, hi)));
+		maxEnds[mid] = max;
+		return max;
+	}
+
 	public int getEntriesPerBlock() {
 		return entriesPerBlock;
 	}
@@ -170,6 +421,97 @@ public class MappingImplSpanOneToMany extends AbstractStoredMapping<SimpleHeader
 		private final Coverage coverage = ManifestUtils.require(
 				getManifest(), MappingManifest::getCoverage, "coverage");
 
+		/** Accessor for the inverse index, {@code null} if the mapping has no such index */
+		private final ReadWriteAccessor inverseAccessor = inverseResource==null ?
+				null : inverseResource.newAccessor(true);
+		/** Whether this reader currently holds the read lock of the inverse index */
+		private boolean inverseLocked = false;
+
+		/** Smallest source index found by the current single value search */
+		private long minSource;
+		private final LongConsumer minSourceAction = source -> minSource = Math.min(minSource, source);
+
+		/**
+		 * Releases the read lock of the inverse index if it has been acquired
+		 * during the current {@link #begin()} ... {@link #end()} block.
+		 */
+		@Override
+		protected void endHook() {
+			if(inverseLocked) {
+				inverseLocked = false;
+				inverseAccessor.end();
+			}
+		}
+
+		@Override
+		protected void closeHook() {
+			if(inverseAccessor!=null) {
+				inverseAccessor.close();
+			}
+		}
+
+		/**
+		 * Returns {@code true} if the mapping is not monotonic and an up-to-date
+		 * inverse index is available.
+		 */
+		private boolean canUseInverseIndex() {
+			if(inverseAccessor==null || coverage.isMonotonic()) {
+				return false;
+			}
+			// Lock lazily, as we already hold the main lock at this point
+			if(!inverseLocked) {
+				inverseAccessor.begin();
+				inverseLocked = true;
+			}
+			return isInverseIndexCurrent();
+		}
+
+		private long inverseEntryCount() {
+			return ((InverseHeader)inverseResource.getHeader()).getEntryCount();
+		}
+
+		/**
+		 * Reports to {@code action} the source indices within {@code [fromSource,toSource]}
+		 * of all entries in the inverse index range {@code [lo,hi)} whose spans overlap
+		 * the target interval {@code [targetFrom,targetTo]}. Subtrees are skipped when
+		 * their maximum end index lies before {@code targetFrom} and right subtrees are
+		 * skipped once a span begins after {@code targetTo}.
+		 */
+		private void findOverlapping(long lo, long hi, long targetFrom, long targetTo,
+				long fromSource, long toSource, LongConsumer action) {
+			while(lo<hi) {
+				long mid = (lo+hi)>>>1;
+
+				Block block = inverseAccessor.getBlock(id(mid));
+				if(block==null)
+					throw new ModelException(ModelErrorCode.MODEL_CORRUPTED_STATE,
+							"Missing block in inverse index for entry "+mid);
+				Object data = block.getData();
+				int slot = localIndex(mid)<<1;
+
+				if(inverseStorage.getSpanEnd(data, slot+1)<targetFrom) {
+					return;
+				}
+
+				// Read node before descending, as the block might get evicted meanwhile
+				long begin = inverseStorage.getSpanBegin(data, slot);
+				long end = inverseStorage.getSpanEnd(data, slot);
+				long source = inverseStorage.getSpanBegin(data, slot+1);
+
+				findOverlapping(lo, mid, targetFrom, targetTo, fromSource, toSource, action);
+
+				if(begin>targetTo) {
+					return;
+				}
+
+				if(end>=targetFrom && source>=fromSource && source<=toSource) {
+					action.accept(source);
+				}
+
+				lo = mid+1;
+			}
+		}
+
 		/**
 		 * @see de.ims.icarus2.model.api.driver.mapping.MappingReader#getIndicesCount(long, de.ims.icarus2.model.api.driver.mapping.RequestSettings)
 		 */
@@ -449,6 +791,14 @@ public class MappingImplSpanOneToMany extends AbstractStoredMapping<SimpleHeader
 				return UNSET_LONG;
 			}
 
+			if(canUseInverseIndex()) {
+				// The minimal source index matches what a linear search would report first
+				minSource = Long.MAX_VALUE;
+				findOverlapping(0, inverseEntryCount(), targetIndex, targetIndex,
+						sourceRange.getMin(), sourceRange.getMax(), minSourceAction);
+				return minSource==Long.MAX_VALUE ? UNSET_LONG : minSource;
+			}
+
 			int idFrom = id(sourceRange.getMin());
 			int idTo = id(sourceRange.getMax());
 			int localFrom = localIndex(sourceRange.getMin());
@@ -675,6 +1025,10 @@ public class MappingImplSpanOneToMany extends AbstractStoredMapping<SimpleHeader
 		}
 
 		/**
+		 * If an up-to-date inverse index is available for a non-monotonic mapping,
+		 * this method reports <b>all</b> source indices whose spans overlap any of the
+		 * given target indices, in ascending order and without duplicates.
+		 *
 		 * @return
 		 * @see de.ims.icarus2.model.api.driver.mapping.MappingReader#find(long, long, de.ims.icarus2.model.api.driver.indices.IndexSet[], de.ims.icarus2.model.api.driver.indices.IndexCollector, RequestSettings)
 		 */
@@ -694,6 +1048,10 @@ public class MappingImplSpanOneToMany extends AbstractStoredMapping<SimpleHeader
 				return false;
 			}
 
+			if(canUseInverseIndex()) {
+				return findInverse(sourceRange, targetIndices, collector);
+			}
+
 			SpanSearch search = coverage.isMonotonic() ?
 					new MonotonicSpanSearch(sourceRange, collector, lastIndex(targetIndices), toSource)
 					: new PoorSpanSearch(sourceRange, collector);
@@ -703,6 +1061,41 @@ public class MappingImplSpanOneToMany extends AbstractStoredMapping<SimpleHeader
 			return search.found;
 		}
 
+		private boolean findInverse(Range sourceRange, IndexSet[] targetIndices,
+				IndexCollector collector) throws InterruptedException {
+			final long entryCount = inverseEntryCount();
+			final long fromSource = sourceRange.getMin();
+			final long toSource = sourceRange.getMax();
+			final LongArrayList buffer = new LongArrayList();
+
+			IndexUtils.forEachSpan(targetIndices, (from, to) -> {
+				checkInterrupted();
+				findOverlapping(0, entryCount, from, to, fromSource, toSource, buffer::add);
+				return true;
+			});
+
+			if(buffer.isEmpty()) {
+				return false;
+			}
+
+			// Spans can overlap multiple target intervals, so sort and merge the results
+			long[] sources = buffer.elements();
+			int size = buffer.size();
+			LongArrays.quickSort(sources, 0, size);
+
+			long begin = sources[0], end = begin;
+			for (int i = 1; i < size; i++) {
+				long source = sources[i];
+				if(source>end+1) {
+					collector.add(begin, end);
+					begin = source;
+				}
+				end = source;
+			}
+			collector.add(begin, end);
+
+			return true;
+		}
 	}
 
 	/**
@@ -716,6 +1109,20 @@ public class MappingImplSpanOneToMany extends AbstractStoredMapping<SimpleHeader
 			super(false);
 		}
 
+		/** Signals that this writer modified the mapping since it last ended */
+		private boolean changed = false;
+
+		/**
+		 * Rebuilds the inverse index if this writer modified the mapping.
+		 */
+		@Override
+		protected void endHook() {
+			if(changed && inverseResource!=null) {
+				changed = false;
+				buildInverseIndex();
+			}
+		}
+
 		/**
 		 * @see de.ims.icarus2.model.api.driver.mapping.MappingWriter#map(long, long, long)
 		 */
@@ -739,8 +1146,18 @@ public class MappingImplSpanOneToMany extends AbstractStoredMapping<SimpleHeader
 				return;
 			}
 
+			// Counted before invalidating, so that a concurrent rebuild notices the change
+			changeCount++;
+
+			// Must be persisted before any modified block can be flushed
+			if(!changed && inverseResource!=null) {
+				invalidateInverseIndex();
+			}
+
 			lockBlock(block, localIndex);
 
+			changed = true;
+
 			SimpleHeader header = getHeader();
 			if(oldBegin==UNSET_LONG) {
 				header.growSize();
@@ -798,6 +1215,9 @@ public class MappingImplSpanOneToMany extends AbstractStoredMapping<SimpleHeader
 	public static class Builder extends AbstractStoredMappingBuilder<Builder, MappingImplSpanOneToMany> {
 
 		private Integer blockPower;
+		private IOResource inverseResource;
+		private BlockCache inverseBlockCache;
+		private IndexValueType inverseValueType;
 
 		protected Builder() {
 			// no-op
@@ -826,6 +1246,74 @@ public class MappingImplSpanOneToMany extends AbstractStoredMapping<SimpleHeader
 			return (1<<getBlockPower());
 		}
 
+		/**
+		 * Sets the resource used to store an inverse interval index for
+		 * reverse lookups on non-monotonic mappings. If no resource is set,
+		 * the mapping will not maintain such an index.
+		 */
+		@Guarded(methodType=MethodType.BUILDER)
+		public Builder inverseResource(IOResource inverseResource) {
+			requireNonNull(inverseResource);
+			checkState(this.inverseResource==null);
+
+			this.inverseResource = inverseResource;
+
+			return thisAsCast();
+		}
+
+		@Guarded(methodType=MethodType.GETTER)
+		@Nullable
+		public IOResource getInverseResource() {
+			return inverseResource;
+		}
+
+		/**
+		 * Sets the cache to be used for the inverse index. If not set,
+		 * a {@link RUBlockCache#newLeastRecentlyUsedCache() LRU cache} will be used.
+		 */
+		@Guarded(methodType=MethodType.BUILDER)
+		public Builder inverseBlockCache(BlockCache inverseBlockCache) {
+			requireNonNull(inverseBlockCache);
+			checkState(this.inverseBlockCache==null);
+
+			this.inverseBlockCache = inverseBlockCache;
+
+			return thisAsCast();
+		}
+
+		@Guarded(methodType=MethodType.GETTER)
+		@Nullable
+		public BlockCache getInverseBlockCache() {
+			return inverseBlockCache;
+		}
+
+		/**
+		 * Sets the value type for the inverse index. Since the index stores
+		 * source indices alongside target spans, the type must be able to
+		 * hold values of both index spaces. If not set, the
+		 * {@link #getValueType() value type} of the mapping will be used.
+		 */
+		@Guarded(methodType=MethodType.BUILDER)
+		public Builder inverseValueType(IndexValueType inverseValueType) {
+			requireNonNull(inverseValueType);
+			checkState(this.inverseValueType==null);
+
+			this.inverseValueType = inverseValueType;
+
+			return thisAsCast();
+		}
+
+		@Guarded(methodType=MethodType.GETTER)
+		@Nullable
+		public IndexValueType getInverseValueType() {
+			return inverseValueType;
+		}
+
+		public IndexBlockStorage getInverseBlockStorage() {
+			return inverseValueType==null ? getBlockStorage()
+					: IndexBlockStorage.forValueType(inverseValueType);
+		}
+
 		/**
 		 * @see de.ims.icarus2.filedriver.mapping.AbstractStoredMapping.AbstractStoredMappingBuilder#createBufferedIOResource()
 		 */
@@ -845,10 +1333,141 @@ public class MappingImplSpanOneToMany extends AbstractStoredMapping<SimpleHeader
 				.build();
 		}
 
+		/**
+		 * Creates the resource for the inverse index, with every entry taking
+		 * up two spans. Returns {@code null} if no
+		 * {@link #inverseResource(IOResource) inverse resource} has been set.
+		 */
+		@Nullable
+		public BufferedIOResource createInverseBufferedIOResource() {
+			if(inverseResource==null) {
+				return null;
+			}
+
+			IndexBlockStorage blockStorage = getInverseBlockStorage();
+			int bytesPerBlock = getEntriesPerBlock()*blockStorage.spanSize()*2;
+			PayloadConverter payloadConverter = new SpanConverter(blockStorage);
+			BlockCache blockCache = inverseBlockCache==null ?
+					RUBlockCache.newLeastRecentlyUsedCache() : inverseBlockCache;
+
+			return BufferedIOResource.builder()
+				.resource(inverseResource)
+				.blockCache(blockCache)
+				.cacheSize(getCacheSize())
+				.header(new InverseHeader())
+				.bytesPerBlock(bytesPerBlock)
+				.payloadConverter(payloadConverter)
+				.build();
+		}
+
+		@Override
+		protected void validate() {
+			super.validate();
+			checkState("Inverse resource must differ from main resource",
+					inverseResource==null || inverseResource!=getResource());
+		}
+
 		@Override
 		protected MappingImplSpanOneToMany create() {
 			return new MappingImplSpanOneToMany(this);
 		}
 
 	}
+
+	/**
+	 * Header of the inverse index. Besides the number of stored entries it
+	 * keeps a copy of the essential information of the mapping's main header
+	 * at the time the index has been built. Writers persist an invalidated
+	 * header before their first modification, so that an outdated index is
+	 * detected even after reopening the mapping, including modifications
+	 * that leave the main header unchanged.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	static final class InverseHeader extends Header {
+
+		public static final int RESERVED_SIZE = 64;
+
+		private static final byte VERSION = 1;
+
+		private static final int USED_SIZE = Byte.BYTES+6*Long.BYTES;
+
+		static {
+			assert USED_SIZE<=RESERVED_SIZE;
+		}
+
+		/** Number of entries in the index or {@code -1} if no valid index is stored */
+		private long entryCount = UNSET_LONG;
+
+		// State of the main header the index has been built for
+		private long size = UNSET_LONG;
+		private long usedMin = UNSET_LONG, usedMax = UNSET_LONG;
+		private long targetMin = UNSET_LONG, targetMax = UNSET_LONG;
+
+		InverseHeader() {
+			super(RESERVED_SIZE);
+		}
+
+		@Override
+		protected void load(ByteBuffer source) {
+			byte version = source.get();
+			entryCount = source.getLong();
+			size = source.getLong();
+			usedMin = source.getLong();
+			usedMax = source.getLong();
+			targetMin = source.getLong();
+			targetMax = source.getLong();
+
+			// Unknown formats are treated like an outdated index that needs rebuilding
+			if(version!=VERSION) {
+				entryCount = UNSET_LONG;
+			}
+		}
+
+		@Override
+		protected void save(ByteBuffer dest) {
+			dest.put(VERSION);
+			dest.putLong(entryCount);
+			dest.putLong(size);
+			dest.putLong(usedMin);
+			dest.putLong(usedMax);
+			dest.putLong(targetMin);
+			dest.putLong(targetMax);
+		}
+
+		long getEntryCount() {
+			return entryCount;
+		}
+
+		void capture(SimpleHeader header) {
+			size = header.getSize();
+			usedMin = header.getSmallestUsedIndex();
+			usedMax = header.getLargestUsedIndex();
+			targetMin = header.getSmallestTargetIndex();
+			targetMax = header.getLargestTargetIndex();
+		}
+
+		void update(long entryCount, InverseHeader state) {
+			size = state.size;
+			usedMin = state.usedMin;
+			usedMax = state.usedMax;
+			targetMin = state.targetMin;
+			targetMax = state.targetMax;
+			this.entryCount = entryCount;
+		}
+
+		void invalidate() {
+			entryCount = UNSET_LONG;
+		}
+
+		boolean isValidFor(SimpleHeader header) {
+			return entryCount!=UNSET_LONG
+					&& size==header.getSize()
+					&& usedMin==header.getSmallestUsedIndex()
+					&& usedMax==header.getLargestUsedIndex()
+					&& targetMin==header.getSmallestTargetIndex()
+					&& targetMax==header.getLargestTargetIndex();
+		}
+	}
 }
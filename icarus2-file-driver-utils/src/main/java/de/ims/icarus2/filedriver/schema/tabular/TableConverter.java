@@ -355,7 +355,7 @@ public class TableConverter extends AbstractConverter implements SchemaBasedConv
 
 		try(ReadableByteChannel channel = fileObject.getResource().getReadChannel()) {
 
-			LineIterator lines = new BufferedLineIterator(channel, encoding, characterChunkSize);
+			LineIterator lines = createLineIterator(channel);
 
 			/*
 			 *  Continue as long as there's still content in the file.
@@ -543,7 +543,7 @@ public class TableConverter extends AbstractConverter implements SchemaBasedConv
 
 		try(ReadableByteChannel channel = fileObject.getResource().getReadChannel()) {
 
-			LineIterator lines = new BufferedLineIterator(channel, encoding, characterChunkSize);
+			LineIterator lines = createLineIterator(channel);
 
 			/*
 			 *  Continue as long as there's still content in the file.
@@ -629,6 +629,18 @@ public class TableConverter extends AbstractConverter implements SchemaBasedConv
 		return getDriver().getContext().getLayer(layerId);
 	}
 
+	/**
+	 * Creates the line iterator for reading an entire file. For UTF-8 input we use a
+	 * byte-level implementation that avoids decoding unless non-ASCII content is
+	 * encountered, for all other encodings the decoding iterator is used.
+	 */
+	private LineIterator createLineIterator(ReadableByteChannel channel) {
+		if(Utf8LineIterator.isApplicable(encoding)) {
+			return new Utf8LineIterator(channel, characterChunkSize);
+		}
+		return new BufferedLineIterator(channel, encoding, characterChunkSize);
+	}
+
 	private static void advanceLine(LineIterator lines, InputResolverContext context) {
 		if(!lines.next())
 			throw new ModelException(ModelErrorCode.DRIVER_INVALID_CONTENT, "Unexpected end of input");
@@ -3298,7 +3310,19 @@ public class TableConverter extends AbstractConverter implements SchemaBasedConv
 			int columnCount = 0;
 			int begin = regionBegin;
 
-			if(separatorMatcher==null) {
+			if(separatorMatcher==null && separatorChar<0x80
+					&& content instanceof Utf8LineIterator.Line
+					&& ((Utf8LineIterator.Line)content).isAscii()) {
+				// Byte-level search directly on the raw input
+				final Utf8LineIterator.Line line = (Utf8LineIterator.Line) content;
+				int offset;
+				while((offset = line.indexOf(separatorChar, begin, regionEnd))!=-1) {
+					saveColumnOffsets(columnCount, begin, offset-1);
+					begin = offset+1;
+
+					columnCount++;
+				}
+			} else if(separatorMatcher==null) {
 				int offset;
 				while((offset = StringUtil.indexOf(content, separatorChar, begin, regionEnd))!=-1) {
 					saveColumnOffsets(columnCount, begin, offset-1);
@@ -0,0 +1,416 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.filedriver.schema.tabular;
+
+import static de.ims.icarus2.util.Conditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import de.ims.icarus2.GlobalErrorCode;
+import de.ims.icarus2.filedriver.schema.tabular.TableConverter.LineIterator;
+import de.ims.icarus2.model.api.ModelErrorCode;
+import de.ims.icarus2.model.api.ModelException;
+import de.ims.icarus2.util.collections.CollectionUtils;
+import de.ims.icarus2.util.io.IOUtil;
+
+/**
+ * {@link LineIterator} for UTF-8 (or plain ASCII) input that works directly
+ * on the raw bytes read from the channel.
+ * <p>
+ * Line breaks are located by scanning 8 bytes at a time (SWAR) and the
+ * same pass detects whether a line contains any non-ASCII bytes. Pure ASCII
+ * lines are exposed as a {@link CharSequence} view on the byte buffer, so no
+ * decoding takes place until a consumer actually requests characters or
+ * {@link Object#toString() strings} for individual columns. Only lines
+ * containing multi-byte sequences get decoded as a whole into a reusable
+ * character buffer.
+ * <p>
+ * Note that a line break is either {@code \n} or {@code \r\n}. Unlike the
+ * decoding line iterator, a carriage return that is not followed by a line
+ * feed is treated as regular content of the line.
+ *
+ * @author Markus Gärtner
+ *
+ */
+class Utf8LineIterator implements LineIterator {
+
+	/** Returns whether this iterator can be used for input in the given encoding */
+	static boolean isApplicable(Charset encoding) {
+		return StandardCharsets.UTF_8.equals(encoding) || StandardCharsets.US_ASCII.equals(encoding);
+	}
+
+	private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(
+			long[].class, ByteOrder.LITTLE_ENDIAN);
+
+	private static final long ONES = 0x0101010101010101L;
+	private static final long HIGH_BITS = 0x8080808080808080L;
+
+	/** Broadcast the given byte to all 8 lanes of a long */
+	static long pattern(byte b) {
+		return (b & 0xFFL) * ONES;
+	}
+
+	/**
+	 * Returns the index of the first byte in {@code word} that is zero
+	 * or {@code 8} if there is none. Lanes above the first match may yield
+	 * false positives, which does not matter as only the lowest lane is used.
+	 */
+	static int firstZeroByte(long word) {
+		long t = (word - ONES) & ~word & HIGH_BITS;
+		return Long.numberOfTrailingZeros(t) >>> 3;
+	}
+
+	/**
+	 * Returns the position of the first occurrence of {@code b} within the
+	 * range {@code from} to {@code to} (inclusive) of the given array or
+	 * {@code -1} if the byte does not occur within that range.
+	 */
+	static int indexOf(byte[] data, byte b, int from, int to) {
+		final long pattern = pattern(b);
+		int i = from;
+		// Process 8 bytes per step
+		while(i+Long.BYTES-1<=to) {
+			long word = (long) LONG_VIEW.get(data, i) ^ pattern;
+			int lane = firstZeroByte(word);
+			if(lane<Long.BYTES) {
+				return i+lane;
+			}
+			i += Long.BYTES;
+		}
+		// Remaining tail
+		for (; i <= to; i++) {
+			if(data[i]==b) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/** Returns a mask covering the lowest {@code lanes} bytes of a long */
+	static long lowLanes(int lanes) {
+		return lanes==0 ? 0L : -1L >>> (Long.SIZE - (lanes<<3));
+	}
+
+	/**
+	 * Keeps track of number of read lines.
+	 * Will be incremented every time we scan over a line break.
+	 */
+	private long lineNumber = -1L;
+
+	private final ReadableByteChannel channel;
+
+	/** Raw input, valid between {@code 0} and {@link #limit} */
+	private byte[] buffer;
+	/** Number of valid bytes in buffer */
+	private int limit = 0;
+	/** Begin of the next line to be scanned */
+	private int position = 0;
+
+	/** Flag to signal end the end of underlying channel */
+	private boolean eos = false;
+
+	/** Flag to signal the end of input character sequence */
+	private boolean endOfInput = false;
+
+	/** Flag to tell the {@link #hasLine()} method whether a line is ready */
+	private boolean lineReady = false;
+
+	/** Number of characters used to signal the last line-break. */
+	private int lineBreakCharacterCount;
+
+	/** Accumulated raw bytes of the current line, used to detect non-ASCII content */
+	private long lineBits;
+
+	private final Line line = new Line();
+
+	/** Lazily created decoding facilities for non-ASCII lines */
+	private CharsetDecoder decoder;
+	private CharBuffer charBuffer;
+
+	Utf8LineIterator(ReadableByteChannel channel, int byteChunkSize) {
+		requireNonNull(channel);
+		checkArgument(byteChunkSize>0);
+
+		this.channel = channel;
+		buffer = new byte[Math.max(byteChunkSize, IOUtil.DEFAULT_BUFFER_SIZE)];
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName()+"@[line="+lineNumber+"]";
+	}
+
+	/**
+	 * @see de.ims.icarus2.filedriver.schema.tabular.TableConverter.LineIterator#getLineNumber()
+	 */
+	@Override
+	public long getLineNumber() {
+		return lineNumber==-1L ? -1L : lineNumber+1;
+	}
+
+	@Override
+	public int getLineBreakCharacterCount() {
+		return lineBreakCharacterCount;
+	}
+
+	/**
+	 * Moves unread content to the beginning of the buffer, grows it if
+	 * needed and reads more data from the channel.
+	 *
+	 * @return {@code false} if no more data could be read
+	 */
+	private boolean fill() {
+		if(eos) {
+			return false;
+		}
+
+		if(position>0) {
+			System.arraycopy(buffer, position, buffer, 0, limit-position);
+			limit -= position;
+			position = 0;
+		}
+		if(limit==buffer.length) {
+			buffer = Arrays.copyOf(buffer, CollectionUtils.growSize(buffer.length));
+		}
+
+		try {
+			int read = channel.read(ByteBuffer.wrap(buffer, limit, buffer.length-limit));
+			if(read==-1) {
+				eos = true;
+				return false;
+			}
+			limit += read;
+		} catch (IOException e) {
+			throw new ModelException(GlobalErrorCode.IO_ERROR, "Failed to read from channel", e);
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the position of the first line feed within the range {@code from}
+	 * to {@code to} (inclusive) or {@code -1} if there is none. All bytes in front
+	 * of the line feed are accumulated in {@link #lineBits}, so the search also
+	 * determines whether the line contains non-ASCII bytes.
+	 */
+	private int scanLineFeed(int from, int to) {
+		final long pattern = pattern((byte)'\n');
+		final byte[] data = buffer;
+		long bits = lineBits;
+		int i = from;
+		int lf = -1;
+		// Process 8 bytes per step
+		while(i+Long.BYTES-1<=to) {
+			long word = (long) LONG_VIEW.get(data, i);
+			int lane = firstZeroByte(word ^ pattern);
+			if(lane<Long.BYTES) {
+				// Ignore bytes behind the line feed, they belong to the next line
+				bits |= word & lowLanes(lane);
+				lf = i+lane;
+				break;
+			}
+			bits |= word;
+			i += Long.BYTES;
+		}
+		// Remaining tail
+		if(lf==-1) {
+			for (; i <= to; i++) {
+				if(data[i]=='\n') {
+					lf = i;
+					break;
+				}
+				bits |= data[i];
+			}
+		}
+		lineBits = bits;
+		return lf;
+	}
+
+	/**
+	 * Locates the next line-break and prepares the {@link Line} view for
+	 * the content in front of it. Line break and non-ASCII content are
+	 * detected in a single pass over the raw bytes.
+	 */
+	private void scan() {
+		lineBreakCharacterCount = 0;
+		lineBits = 0L;
+
+		int searchFrom = position;
+		int lf;
+		for(;;) {
+			lf = limit>searchFrom ? scanLineFeed(searchFrom, limit-1) : -1;
+			if(lf!=-1) {
+				break;
+			}
+			int scanned = limit-position;
+			if(!fill()) {
+				break;
+			}
+			// Don't scan the same bytes twice (position might have been reset to 0)
+			searchFrom = position+scanned;
+		}
+
+		int begin = position;
+		int end; // exclusive
+		if(lf!=-1) {
+			lineBreakCharacterCount = 1;
+			end = lf;
+			position = lf+1;
+		} else {
+			end = limit;
+			position = limit;
+		}
+		if(end>begin && buffer[end-1]=='\r') {
+			lineBreakCharacterCount++;
+			end--;
+		}
+
+		// To allow empty lines we check for the total number of bytes we saw
+		if(end-begin+lineBreakCharacterCount>0) {
+			line.set(begin, end-begin, (lineBits & HIGH_BITS) == 0);
+			lineReady = true;
+			lineNumber++;
+		} else {
+			endOfInput = true;
+		}
+	}
+
+	private void decode(int begin, int length) {
+		if(decoder==null) {
+			decoder = StandardCharsets.UTF_8.newDecoder();
+		}
+		if(charBuffer==null || charBuffer.capacity()<length) {
+			charBuffer = CharBuffer.allocate(Math.max(length, IOUtil.DEFAULT_BUFFER_SIZE));
+		}
+
+		decoder.reset();
+		charBuffer.clear();
+		ByteBuffer in = ByteBuffer.wrap(buffer, begin, length);
+		CoderResult result = decoder.decode(in, charBuffer, true);
+		if(!result.isError()) {
+			result = decoder.flush(charBuffer);
+		}
+		if(result.isError())
+			throw new ModelException(ModelErrorCode.DRIVER_INVALID_CONTENT,
+					"Malformed UTF-8 input in line "+getLineNumber());
+		charBuffer.flip();
+	}
+
+	/**
+	 * @see de.ims.icarus2.filedriver.schema.tabular.TableConverter.LineIterator#hasLine()
+	 */
+	@Override
+	public boolean hasLine() {
+		return !endOfInput && lineReady;
+	}
+
+	@Override
+	public CharSequence getLine() {
+		if(endOfInput || !lineReady)
+			throw new ModelException(GlobalErrorCode.ILLEGAL_STATE,
+					"End of input reached or cursor not advanced previously");
+
+		return line;
+	}
+
+	@Override
+	public boolean next() {
+		if(!endOfInput) {
+			scan();
+		}
+
+		return !endOfInput;
+	}
+
+	/**
+	 * View on the current line. For ASCII content characters are taken
+	 * directly from the byte buffer, otherwise from the decoded character
+	 * buffer.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	final class Line implements CharSequence {
+
+		private int offset, length;
+		private boolean ascii;
+
+		void set(int offset, int length, boolean ascii) {
+			this.offset = offset;
+			this.ascii = ascii;
+			if(ascii) {
+				this.length = length;
+			} else {
+				decode(offset, length);
+				this.length = charBuffer.remaining();
+			}
+		}
+
+		/** Returns whether the line consists of ASCII characters only */
+		boolean isAscii() {
+			return ascii;
+		}
+
+		/**
+		 * Returns the index of the first occurrence of the given ASCII
+		 * character within {@code from} and {@code to} (inclusive). Only
+		 * valid if this line is {@link #isAscii() ASCII}.
+		 */
+		int indexOf(char c, int from, int to) {
+			assert ascii;
+			if(from>to) {
+				return -1;
+			}
+			int index = Utf8LineIterator.indexOf(buffer, (byte)c, offset+from, offset+to);
+			return index==-1 ? -1 : index-offset;
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if(index<0 || index>=length)
+				throw new IndexOutOfBoundsException("Index "+index+" out of bounds for length "+length);
+			return ascii ? (char)buffer[offset+index] : charBuffer.get(index);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return toString().subSequence(start, end);
+		}
+
+		@Override
+		public String toString() {
+			return ascii ? new String(buffer, offset, length, StandardCharsets.ISO_8859_1)
+					: charBuffer.toString();
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.filedriver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import de.ims.icarus2.filedriver.FileChecksum.Mode;
+import de.ims.icarus2.util.io.resource.VirtualIOResource;
+import de.ims.icarus2.util.io.resource.VirtualResourceProvider;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class FileChecksumTest {
+
+	private static final Path FILE = Paths.get("test.txt");
+
+	private static VirtualResourceProvider provider(String content) throws IOException {
+		VirtualResourceProvider provider = new VirtualResourceProvider();
+		provider.create(FILE, false);
+		VirtualIOResource resource = provider.getResource(FILE);
+		resource.prepare();
+		try(SeekableByteChannel channel = resource.getWriteChannel()) {
+			channel.write(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+		}
+		return provider;
+	}
+
+	@Test
+	void testParseTimestamp() {
+		FileChecksum checksum = FileChecksum.compute(1234L, 5678L);
+		FileChecksum parsed = FileChecksum.parse(checksum.toString());
+		assertEquals(Mode.TIMESTAMP, parsed.getMode());
+		assertEquals(checksum, parsed);
+	}
+
+	@ParameterizedTest
+	@EnumSource(value=Mode.class, names={"CONTENT", "SAMPLED"})
+	void testParseContent(Mode mode) throws IOException {
+		FileChecksum checksum = FileChecksum.compute(provider("some content"), FILE, mode);
+		assertEquals(mode, checksum.getMode());
+
+		FileChecksum parsed = FileChecksum.parse(checksum.toString());
+		assertEquals(mode, parsed.getMode());
+		assertEquals(checksum, parsed);
+	}
+
+	@ParameterizedTest
+	@EnumSource(value=Mode.class, names={"CONTENT", "SAMPLED"})
+	void testSameContent(Mode mode) throws IOException {
+		assertEquals(
+				FileChecksum.compute(provider("some content"), FILE, mode),
+				FileChecksum.compute(provider("some content"), FILE, mode));
+	}
+
+	@ParameterizedTest
+	@EnumSource(value=Mode.class, names={"CONTENT", "SAMPLED"})
+	void testChangedContentSameSize(Mode mode) throws IOException {
+		assertNotEquals(
+				FileChecksum.compute(provider("some content"), FILE, mode),
+				FileChecksum.compute(provider("some c0ntent"), FILE, mode));
+	}
+
+	@Test
+	void testModesNotEqual() throws IOException {
+		VirtualResourceProvider provider = provider("some content");
+		assertNotEquals(
+				FileChecksum.compute(provider, FILE, Mode.CONTENT),
+				FileChecksum.compute(provider, FILE, Mode.SAMPLED));
+	}
+
+	@Test
+	void testParseMode() {
+		assertEquals(Mode.CONTENT, Mode.parseMode("content"));
+		assertEquals(Mode.SAMPLED, Mode.parseMode("SAMPLED"));
+		assertThrows(IllegalArgumentException.class, () -> Mode.parseMode("xyz"));
+	}
+}
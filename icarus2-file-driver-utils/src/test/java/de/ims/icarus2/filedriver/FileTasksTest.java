@@ -0,0 +1,88 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.filedriver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import de.ims.icarus2.filedriver.FileTasks.Outcome;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class FileTasksTest {
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 2, 4, 16})
+	void testOrderedResults(int parallelism) throws Exception {
+		int fileCount = 1000;
+		List<Outcome<Integer>> outcomes = FileTasks.run(fileCount, parallelism,
+				fileIndex -> Integer.valueOf(fileIndex*2));
+
+		assertEquals(fileCount, outcomes.size());
+		for (int i = 0; i < fileCount; i++) {
+			assertEquals(i*2, outcomes.get(i).get().intValue());
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 4})
+	void testAllFilesVisitedOnce(int parallelism) throws Exception {
+		int fileCount = 500;
+		Set<Integer> visited = ConcurrentHashMap.newKeySet();
+		FileTasks.run(fileCount, parallelism, fileIndex -> {
+			assertTrue(visited.add(Integer.valueOf(fileIndex)));
+			return null;
+		});
+		assertEquals(fileCount, visited.size());
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 4})
+	void testErrorsPerFile(int parallelism) throws Exception {
+		IOException ioError = new IOException("file 3");
+		IllegalStateException runtimeError = new IllegalStateException("file 5");
+
+		List<Outcome<String>> outcomes = FileTasks.run(8, parallelism, fileIndex -> {
+			if(fileIndex==3)
+				throw ioError;
+			if(fileIndex==5)
+				throw runtimeError;
+			return "file"+fileIndex;
+		});
+
+		assertEquals("file2", outcomes.get(2).get());
+		assertSame(ioError, assertThrows(IOException.class, () -> outcomes.get(3).get()));
+		assertEquals("file4", outcomes.get(4).get());
+		assertSame(runtimeError, assertThrows(IllegalStateException.class, () -> outcomes.get(5).get()));
+		assertEquals("file7", outcomes.get(7).get());
+	}
+}
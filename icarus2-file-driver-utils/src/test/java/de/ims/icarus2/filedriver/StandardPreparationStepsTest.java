@@ -0,0 +1,443 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.filedriver;
+
+import static de.ims.icarus2.util.IcarusUtils.UNSET_LONG;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.ims.icarus2.IcarusApiException;
+import de.ims.icarus2.Report.ReportItem;
+import de.ims.icarus2.ReportBuilder;
+import de.ims.icarus2.filedriver.FileDataStates.ContainerInfo;
+import de.ims.icarus2.filedriver.FileDataStates.FileInfo;
+import de.ims.icarus2.filedriver.FileDriver.OptionKey;
+import de.ims.icarus2.filedriver.analysis.DefaultItemLayerAnalyzer;
+import de.ims.icarus2.filedriver.io.sets.ResourceSet;
+import de.ims.icarus2.model.api.ModelErrorCode;
+import de.ims.icarus2.model.api.layer.ItemLayer;
+import de.ims.icarus2.model.api.members.MemberType;
+import de.ims.icarus2.model.api.members.container.Container;
+import de.ims.icarus2.model.manifest.api.ContainerManifest;
+import de.ims.icarus2.model.manifest.api.ContainerManifestBase;
+import de.ims.icarus2.model.manifest.api.ContainerType;
+import de.ims.icarus2.model.manifest.api.ContextManifest;
+import de.ims.icarus2.model.manifest.api.DriverManifest;
+import de.ims.icarus2.model.manifest.api.Hierarchy;
+import de.ims.icarus2.model.manifest.api.ItemLayerManifest;
+import de.ims.icarus2.model.manifest.api.LayerManifest;
+import de.ims.icarus2.model.manifest.api.ManifestType;
+import de.ims.icarus2.model.manifest.api.MemberManifest.Property;
+import de.ims.icarus2.model.manifest.types.ValueType;
+import de.ims.icarus2.model.standard.registry.metadata.VirtualMetadataRegistry;
+import de.ims.icarus2.util.Options;
+import de.ims.icarus2.util.io.resource.VirtualIOResource;
+import de.ims.icarus2.util.io.resource.VirtualResourceProvider;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class StandardPreparationStepsTest {
+
+	private ItemLayerManifest layer;
+	private VirtualResourceProvider resourceProvider;
+	/** Number of items in each file, maintained alongside the file content */
+	private int[] itemCounts;
+	/** Token used for each file, its length defines the size of the file's containers */
+	private String[] tokens;
+
+	@SuppressWarnings("unchecked")
+	@BeforeEach
+	void setUp() {
+		layer = mock(ItemLayerManifest.class);
+		when(layer.getManifestType()).thenReturn(ManifestType.ITEM_LAYER_MANIFEST);
+		when(layer.getUID()).thenReturn(1);
+		when(layer.getId()).thenReturn(Optional.of("token"));
+
+		ContainerManifest container = mock(ContainerManifest.class);
+		when(container.getManifestType()).thenReturn(ManifestType.CONTAINER_MANIFEST);
+		when(container.getUID()).thenReturn(2);
+		doReturn(Optional.of(layer)).when(container).getHost();
+
+		Hierarchy<ContainerManifestBase<?>> hierarchy = mock(Hierarchy.class);
+		when(hierarchy.getDepth()).thenReturn(1);
+		doReturn(container).when(hierarchy).getRoot();
+		doReturn(container).when(hierarchy).atLevel(0);
+		when(hierarchy.isEmpty()).thenCallRealMethod();
+		doCallRealMethod().when(hierarchy).forEachItem(any());
+		doReturn(Optional.of(hierarchy)).when(layer).getContainerHierarchy();
+
+		resourceProvider = new VirtualResourceProvider();
+	}
+
+	private static Property property(ValueType valueType, Object value) {
+		Property property = mock(Property.class);
+		when(property.getValueType()).thenReturn(valueType);
+		doReturn(Optional.of(value)).when(property).getValue();
+		return property;
+	}
+
+	private static Path path(int fileIndex) {
+		return Paths.get("file"+fileIndex+".txt");
+	}
+
+	/**
+	 * Creates a driver for {@code fileCount} files with a single item layer. Scanning a
+	 * file feeds one container per line into a {@link DefaultItemLayerAnalyzer}, which
+	 * assigns the file's items the index range directly following the previous file
+	 * and adds them and their container stats to the layer's totals.
+	 */
+	private FileDriver driver(int fileCount, boolean editable) throws Exception {
+		ContextManifest contextManifest = mock(ContextManifest.class);
+		when(contextManifest.isEditable()).thenReturn(editable);
+		doAnswer(invocation -> {
+			Consumer<? super LayerManifest<?>> action = invocation.getArgument(0);
+			action.accept(layer);
+			return null;
+		}).when(contextManifest).forEachLayerManifest(any());
+		when(contextManifest.getLayerManifests()).thenCallRealMethod();
+		when(contextManifest.getLayerManifests(any())).thenCallRealMethod();
+
+		DriverManifest driverManifest = mock(DriverManifest.class);
+		doReturn(Optional.of(contextManifest)).when(driverManifest).getHost();
+		doReturn(Optional.of(contextManifest)).when(driverManifest).getContextManifest();
+		doReturn(Optional.of(property(ValueType.STRING, "content")))
+				.when(driverManifest).getProperty(OptionKey.CHECKSUM_MODE.getKey());
+		doReturn(Optional.of(property(ValueType.INTEGER, Integer.valueOf(4))))
+				.when(driverManifest).getProperty(OptionKey.PREPARATION_PARALLELISM.getKey());
+
+		ResourceSet dataFiles = mock(ResourceSet.class);
+		when(dataFiles.getResourceCount()).thenReturn(fileCount);
+
+		FileDriver driver = mock(FileDriver.class);
+		when(driver.getManifest()).thenReturn(driverManifest);
+		when(driver.getDataFiles()).thenReturn(dataFiles);
+		when(driver.getResourceProvider()).thenReturn(resourceProvider);
+
+		FileDataStates states = new FileDataStates(driver);
+		when(driver.getFileStates()).thenReturn(states);
+		for (int i = 0; i < fileCount; i++) {
+			states.getFileInfo(i).setPath(path(i));
+		}
+
+		ItemLayer itemLayer = mock(ItemLayer.class);
+		doReturn(layer).when(itemLayer).getManifest();
+
+		itemCounts = new int[fileCount];
+		tokens = new String[fileCount];
+		doAnswer(invocation -> {
+			int fileIndex = invocation.getArgument(0);
+			long begin = fileIndex==0 ? 0 : states.getFileInfo(fileIndex-1).getLastIndex(layer)+1;
+			Container container = container(tokens[fileIndex].length());
+			DefaultItemLayerAnalyzer analyzer = new DefaultItemLayerAnalyzer(states, itemLayer, fileIndex);
+			analyzer.init(ReportBuilder.builder());
+			for (int i = 0; i < itemCounts[fileIndex]; i++) {
+				analyzer.accept(container, begin+i);
+			}
+			analyzer.finish();
+			return Boolean.TRUE;
+		}).when(driver).scanFile(anyInt());
+
+		return driver;
+	}
+
+	/** Writes {@code items} lines of {@code token} as content for the specified file */
+	private void write(int fileIndex, int items, String token) throws IOException {
+		Path path = path(fileIndex);
+		resourceProvider.create(path, false);
+		VirtualIOResource resource = resourceProvider.getResource(path);
+		resource.prepare();
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < items; i++) {
+			sb.append(token).append('\n');
+		}
+		try(SeekableByteChannel channel = resource.getWriteChannel()) {
+			channel.truncate(0);
+			channel.write(ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8)));
+		}
+		itemCounts[fileIndex] = items;
+		tokens[fileIndex] = token;
+	}
+
+	private static Container container(long size) {
+		Container container = mock(Container.class);
+		when(container.getMemberType()).thenReturn(MemberType.CONTAINER);
+		when(container.getContainerType()).thenReturn(ContainerType.LIST);
+		when(container.getItemCount()).thenReturn(size);
+		when(container.getSpan()).thenReturn(size);
+		return container;
+	}
+
+	private static Map<String, String> entries(FileDataStates states) {
+		VirtualMetadataRegistry registry = new VirtualMetadataRegistry();
+		states.syncTo(registry);
+		Map<String, String> entries = new TreeMap<>();
+		registry.forEachEntry(entries::put);
+		return entries;
+	}
+
+	private static boolean apply(StandardPreparationSteps step, FileDriver driver) throws Exception {
+		ReportBuilder<ReportItem> reportBuilder = ReportBuilder.builder();
+		return step.apply(driver, reportBuilder, new Options());
+	}
+
+	/** Runs the initial checksum computation and scan for all files */
+	private FileDataStates prepare(FileDriver driver) throws Exception {
+		assertTrue(apply(StandardPreparationSteps.CHECK_FILE_CHECKSUM, driver));
+		assertTrue(apply(StandardPreparationSteps.SCAN_FILES, driver));
+		clearInvocations(driver);
+		return driver.getFileStates();
+	}
+
+	private void assertContinuous(FileDataStates states, int fileCount) {
+		long next = 0;
+		for (int i = 0; i < fileCount; i++) {
+			FileInfo info = states.getFileInfo(i);
+			assertTrue(info.isFlagSet(ElementFlag.SCANNED));
+			assertEquals(itemCounts[i], info.getItemCount(layer));
+			assertEquals(next, info.getFirstIndex(layer));
+			assertEquals(next+itemCounts[i]-1, info.getLastIndex(layer));
+			next += itemCounts[i];
+		}
+		assertEquals(next, states.getLayerInfo(layer).getSize());
+	}
+
+	@Test
+	void testInvalidateFile() throws Exception {
+		FileDriver driver = driver(3, false);
+		write(0, 10, "a");
+		write(1, 20, "b");
+		write(2, 30, "c");
+		FileDataStates states = prepare(driver);
+		states.getFileInfo(1).setSize(100);
+
+		states.invalidateFile(1);
+
+		FileInfo info = states.getFileInfo(1);
+		assertFalse(info.isFlagSet(ElementFlag.SCANNED));
+		assertEquals(UNSET_LONG, info.getSize());
+		assertEquals(UNSET_LONG, info.getItemCount(layer));
+		assertEquals(UNSET_LONG, info.getFirstIndex(layer));
+		assertEquals(UNSET_LONG, info.getLastIndex(layer));
+		assertEquals(40, states.getLayerInfo(layer).getSize());
+
+		// Other files keep their metadata
+		assertTrue(states.getFileInfo(0).isFlagSet(ElementFlag.SCANNED));
+		assertEquals(9, states.getFileInfo(0).getLastIndex(layer));
+		assertTrue(states.getFileInfo(2).isFlagSet(ElementFlag.SCANNED));
+		assertEquals(30, states.getFileInfo(2).getFirstIndex(layer));
+		assertEquals(59, states.getFileInfo(2).getLastIndex(layer));
+	}
+
+	@Test
+	void testIncrementalScanMatchesFullScan() throws Exception {
+		FileDriver driver = driver(4, false);
+		write(0, 10, "a");
+		write(1, 12, "bbbbbbb");
+		write(2, 14, "cc");
+		write(3, 16, "ddd");
+		FileDataStates states = prepare(driver);
+
+		// Shrink file containing the largest containers and add new smallest ones
+		write(1, 5, "");
+		assertTrue(apply(StandardPreparationSteps.CHECK_FILE_CHECKSUM, driver));
+		assertTrue(apply(StandardPreparationSteps.SCAN_FILES, driver));
+		verify(driver, never()).scanFile(0);
+
+		FileDriver fullDriver = driver(4, false);
+		write(0, 10, "a");
+		write(1, 5, "");
+		write(2, 14, "cc");
+		write(3, 16, "ddd");
+		FileDataStates fullStates = prepare(fullDriver);
+
+		ContainerInfo info = states.getLayerInfo(layer).getRootContainerInfo();
+		assertEquals(0, info.getItemCountStats().getMin());
+		assertEquals(3, info.getItemCountStats().getMax());
+		assertEquals(45, info.getCountForContainerType(ContainerType.LIST));
+
+		assertEquals(entries(fullStates), entries(states));
+	}
+
+	@Test
+	void testChangedFileWithSameItemCount() throws Exception {
+		FileDriver driver = driver(4, false);
+		for (int i = 0; i < 4; i++) {
+			write(i, 10, "a");
+		}
+		FileDataStates states = prepare(driver);
+		FileChecksum checksum0 = states.getFileInfo(0).getChecksum();
+		FileChecksum checksum1 = states.getFileInfo(1).getChecksum();
+
+		write(1, 10, "b");
+		assertTrue(apply(StandardPreparationSteps.CHECK_FILE_CHECKSUM, driver));
+
+		assertTrue(states.getFileInfo(0).isFlagSet(ElementFlag.SCANNED));
+		assertFalse(states.getFileInfo(1).isFlagSet(ElementFlag.SCANNED));
+		assertTrue(states.getFileInfo(2).isFlagSet(ElementFlag.SCANNED));
+		assertEquals(checksum0, states.getFileInfo(0).getChecksum());
+		assertNotEquals(checksum1, states.getFileInfo(1).getChecksum());
+
+		assertTrue(apply(StandardPreparationSteps.SCAN_FILES, driver));
+
+		// Only the changed file gets re-analyzed, its successors still fit
+		verify(driver).scanFile(1);
+		verify(driver, never()).scanFile(0);
+		verify(driver, never()).scanFile(2);
+		verify(driver, never()).scanFile(3);
+		assertContinuous(states, 4);
+	}
+
+	@Test
+	void testChangedFileDisplacesFollowingFiles() throws Exception {
+		FileDriver driver = driver(4, false);
+		for (int i = 0; i < 4; i++) {
+			write(i, 10, "a");
+		}
+		FileDataStates states = prepare(driver);
+
+		write(1, 15, "a");
+		assertTrue(apply(StandardPreparationSteps.CHECK_FILE_CHECKSUM, driver));
+		assertTrue(apply(StandardPreparationSteps.SCAN_FILES, driver));
+
+		// Index ranges of all following files got regenerated
+		verify(driver, never()).scanFile(0);
+		verify(driver).scanFile(1);
+		verify(driver).scanFile(2);
+		verify(driver).scanFile(3);
+		assertContinuous(states, 4);
+		assertEquals(0, states.getFileInfo(0).getFirstIndex(layer));
+		assertEquals(9, states.getFileInfo(0).getLastIndex(layer));
+		assertEquals(25, states.getFileInfo(2).getFirstIndex(layer));
+	}
+
+	@Test
+	void testUnchangedFiles() throws Exception {
+		FileDriver driver = driver(4, false);
+		for (int i = 0; i < 4; i++) {
+			write(i, 10+i, "a");
+		}
+		FileDataStates states = prepare(driver);
+
+		assertTrue(apply(StandardPreparationSteps.CHECK_FILE_CHECKSUM, driver));
+		assertTrue(apply(StandardPreparationSteps.SCAN_FILES, driver));
+
+		verify(driver, never()).scanFile(anyInt());
+		assertContinuous(states, 4);
+	}
+
+	@Test
+	void testCreateMissingFiles() throws Exception {
+		int fileCount = 500;
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		resourceProvider = new VirtualResourceProvider() {
+			@Override
+			public boolean create(Path path, boolean directory) throws IOException {
+				threads.add(Thread.currentThread());
+				return super.create(path, directory);
+			}
+		};
+		FileDriver driver = driver(fileCount, true);
+		for (int i = 0; i < fileCount; i += 3) {
+			write(i, 1, "a");
+		}
+		threads.clear();
+
+		assertTrue(apply(StandardPreparationSteps.CHECK_FILE_EXISTENCE, driver));
+
+		assertEquals(fileCount, resourceProvider.getPaths().size());
+		for (int i = 0; i < fileCount; i++) {
+			assertTrue(resourceProvider.exists(path(i)));
+			assertFalse(driver.getFileStates().getFileInfo(i).isFlagSet(ElementFlag.MISSING));
+		}
+		// Only lookups are allowed to happen on worker threads
+		assertEquals(Collections.singleton(Thread.currentThread()), threads);
+	}
+
+	@Test
+	void testMissingFiles() throws Exception {
+		int fileCount = 500;
+		FileDriver driver = driver(fileCount, false);
+		for (int i = 0; i < fileCount; i += 2) {
+			write(i, 1, "a");
+		}
+
+		assertFalse(apply(StandardPreparationSteps.CHECK_FILE_EXISTENCE, driver));
+
+		assertEquals(fileCount/2, resourceProvider.getPaths().size());
+		for (int i = 0; i < fileCount; i++) {
+			assertEquals(i%2==1, driver.getFileStates().getFileInfo(i).isFlagSet(ElementFlag.MISSING));
+		}
+	}
+
+	@Test
+	void testCreationStopsAtFirstFailure() throws Exception {
+		int fileCount = 500;
+		Path failing = path(10);
+		resourceProvider = new VirtualResourceProvider() {
+			@Override
+			public boolean create(Path path, boolean directory) throws IOException {
+				if(failing.equals(path))
+					throw new IOException("Cannot create "+path);
+				return super.create(path, directory);
+			}
+		};
+		FileDriver driver = driver(fileCount, true);
+
+		IcarusApiException ex = assertThrows(IcarusApiException.class,
+				() -> apply(StandardPreparationSteps.CHECK_FILE_EXISTENCE, driver));
+		assertEquals(ModelErrorCode.DRIVER_RESOURCE, ex.getErrorCode());
+
+		// Files after the failing one are left untouched
+		assertEquals(10, resourceProvider.getPaths().size());
+		assertFalse(resourceProvider.exists(path(11)));
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.filedriver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.ims.icarus2.filedriver.FileDriverMetadata.FileKey;
+import de.ims.icarus2.filedriver.FileDriverMetadata.ItemLayerKey;
+import de.ims.icarus2.filedriver.TypedMetadata.FileEntries;
+import de.ims.icarus2.model.api.ModelException;
+import de.ims.icarus2.model.api.registry.MetadataRegistry;
+import de.ims.icarus2.model.manifest.api.ItemLayerManifestBase;
+import de.ims.icarus2.model.standard.registry.metadata.VirtualMetadataRegistry;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class TypedMetadataTest {
+
+	private ItemLayerManifestBase<?> layer1, layer2;
+
+	private static ItemLayerManifestBase<?> layer(String id) {
+		ItemLayerManifestBase<?> layer = mock(ItemLayerManifestBase.class);
+		when(layer.getId()).thenReturn(Optional.of(id));
+		return layer;
+	}
+
+	@BeforeEach
+	void setUp() {
+		layer1 = layer("layer1");
+		layer2 = layer("layer2");
+	}
+
+	private void fill(TypedMetadata metadata) {
+		for (int i = 0; i < 12; i++) {
+			metadata.setString(i, FileKey.PATH, "file"+i);
+			metadata.setLong(i, FileKey.SIZE, 1000L+i, -1L);
+			metadata.setBoolean(i, FileKey.SCANNED, i%2==0);
+			metadata.setLong(i, layer1, FileKey.ITEMS, 10L*i, -1L);
+			metadata.setLong(i, layer2, FileKey.BEGIN, 20L*i, -1L);
+		}
+	}
+
+	private void assertFile(FileEntries entries, int i) {
+		assertEquals(i, entries.getFileIndex());
+		assertEquals("file"+i, entries.getString(FileKey.PATH));
+		assertEquals(1000L+i, entries.getLong(FileKey.SIZE, -1L));
+		assertEquals(i%2==0, entries.getBoolean(FileKey.SCANNED, false));
+		assertEquals(10L*i, entries.getLong(layer1, FileKey.ITEMS, -1L));
+		assertEquals(20L*i, entries.getLong(layer2, FileKey.BEGIN, -1L));
+		assertEquals(-1L, entries.getLong(layer1, FileKey.BEGIN, -1L));
+		assertNull(entries.getString(FileKey.CHECKSUM));
+	}
+
+	@Test
+	void testRoundTrip() {
+		TypedMetadata metadata = new TypedMetadata(new VirtualMetadataRegistry());
+		fill(metadata);
+
+		assertEquals("file3", metadata.getString(3, FileKey.PATH));
+		assertEquals(1003L, metadata.getLong(3, FileKey.SIZE, -1L));
+		assertFalse(metadata.getBoolean(3, FileKey.SCANNED, true));
+		assertEquals(30L, metadata.getLong(3, layer1, FileKey.ITEMS, -1L));
+		assertEquals(-1L, metadata.getLong(3, layer2, FileKey.ITEMS, -1L));
+	}
+
+	@Test
+	void testStringCompatibility() {
+		MetadataRegistry registry = new VirtualMetadataRegistry();
+		registry.setValue(FileKey.SIZE.getKey(5), "42");
+		registry.setValue(FileKey.ITEMS.getKey(5, layer1), "7");
+		registry.setValue(ItemLayerKey.SCANNED.getKey(layer1), "true");
+
+		TypedMetadata metadata = new TypedMetadata(registry);
+		assertEquals(42L, metadata.getLong(5, FileKey.SIZE, -1L));
+		assertEquals(7L, metadata.getLong(5, layer1, FileKey.ITEMS, -1L));
+		assertTrue(metadata.getBoolean(layer1, ItemLayerKey.SCANNED, false));
+
+		metadata.setLong(5, FileKey.SIZE, 43L, -1L);
+		assertEquals("43", registry.getValue(FileKey.SIZE.getKey(5)));
+
+		// Writing the "no entry" value removes the entry
+		metadata.setLong(5, FileKey.SIZE, -1L, -1L);
+		assertNull(registry.getValue(FileKey.SIZE.getKey(5)));
+	}
+
+	@Test
+	void testTypeMismatch() {
+		TypedMetadata metadata = new TypedMetadata(new VirtualMetadataRegistry());
+		assertThrows(ModelException.class, () -> metadata.getLong(0, FileKey.PATH, -1L));
+		assertThrows(ModelException.class, () -> metadata.getString(0, FileKey.SIZE));
+		assertThrows(ModelException.class, () -> metadata.getLong(0, FileKey.ITEMS, -1L));
+		assertThrows(ModelException.class, () -> metadata.getLong(0, layer1, FileKey.SIZE, -1L));
+	}
+
+	@Test
+	void testCorruptedValue() {
+		MetadataRegistry registry = new VirtualMetadataRegistry();
+		registry.setValue(FileKey.SIZE.getKey(0), "xyz");
+		assertThrows(ModelException.class, () -> new TypedMetadata(registry).getLong(0, FileKey.SIZE, -1L));
+	}
+
+	@Test
+	void testForEachFileEntry() {
+		TypedMetadata metadata = new TypedMetadata(new VirtualMetadataRegistry());
+		fill(metadata);
+
+		List<String> visited = new ArrayList<>();
+		metadata.forEachFileEntry(1, (key, layerId, value) -> visited.add(key+"/"+layerId+"/"+value));
+
+		// Must not include entries of file 10 or 11
+		assertThat(visited).containsExactlyInAnyOrder(
+				"PATH/null/file1",
+				"SIZE/null/1001",
+				"SCANNED/null/false",
+				"ITEMS/layer1/10",
+				"BEGIN/layer2/20");
+	}
+
+	@Test
+	void testReadFileIndexed() {
+		TypedMetadata metadata = new TypedMetadata(new VirtualMetadataRegistry());
+		assertTrue(metadata.isPrefixIndexed());
+		fill(metadata);
+
+		for (int i = 0; i < 12; i++) {
+			assertFile(metadata.readFile(i, new ItemLayerManifestBase<?>[] {layer1, layer2}), i);
+		}
+	}
+
+	@Test
+	void testReadFileFallback() {
+		TypedMetadata metadata = new TypedMetadata(new VirtualMetadataRegistry() {
+			@Override
+			public boolean isPrefixIndexed() {
+				return false;
+			}
+		});
+		assertFalse(metadata.isPrefixIndexed());
+		fill(metadata);
+
+		for (int i = 0; i < 12; i++) {
+			assertFile(metadata.readFile(i, new ItemLayerManifestBase<?>[] {layer1, layer2}), i);
+		}
+	}
+}
@@ -0,0 +1,261 @@
+/**
+ *
+ */
+package de.ims.icarus2.filedriver.compiled;
+
+import static de.ims.icarus2.model.api.ModelTestUtils.mockContainer;
+import static de.ims.icarus2.model.api.ModelTestUtils.mockItem;
+import static de.ims.icarus2.model.api.ModelTestUtils.stubIndex;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.ims.icarus2.Report;
+import de.ims.icarus2.Report.ReportItem;
+import de.ims.icarus2.filedriver.Converter;
+import de.ims.icarus2.filedriver.Converter.LoadResult;
+import de.ims.icarus2.filedriver.FileDataStates;
+import de.ims.icarus2.filedriver.FileDataStates.FileInfo;
+import de.ims.icarus2.filedriver.FileDriver;
+import de.ims.icarus2.filedriver.io.sets.ResourceSet;
+import de.ims.icarus2.model.api.corpus.Context;
+import de.ims.icarus2.model.api.driver.ChunkState;
+import de.ims.icarus2.model.api.layer.AnnotationLayer;
+import de.ims.icarus2.model.api.layer.ItemLayer;
+import de.ims.icarus2.model.api.layer.annotation.AnnotationStorage;
+import de.ims.icarus2.model.api.members.container.Container;
+import de.ims.icarus2.model.api.members.item.Item;
+import de.ims.icarus2.model.api.registry.LayerMemberFactory;
+import de.ims.icarus2.model.manifest.api.AnnotationLayerManifest;
+import de.ims.icarus2.model.manifest.api.AnnotationManifest;
+import de.ims.icarus2.model.manifest.api.ContainerManifest;
+import de.ims.icarus2.model.manifest.api.ItemLayerManifest;
+import de.ims.icarus2.model.manifest.types.ValueType;
+import de.ims.icarus2.model.standard.driver.BufferedItemManager.InputCache;
+import de.ims.icarus2.model.standard.driver.BufferedItemManager.LayerBuffer;
+import de.ims.icarus2.model.standard.driver.ChunkConsumer;
+import de.ims.icarus2.util.collections.set.DataSets;
+import de.ims.icarus2.util.io.resource.IOResource;
+import de.ims.icarus2.util.io.resource.VirtualResourceProvider;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class CompiledCorpusConverterTest {
+
+	private static final Path FILE = Paths.get("data", "corpus.txt");
+	private static final String KEY = "pos";
+
+	private VirtualResourceProvider resourceProvider;
+	private Converter source;
+	private FileInfo fileInfo;
+	private LayerMemberFactory memberFactory;
+	private ItemLayerManifest containerLayerManifest;
+
+	/** Storage content, shared by source items and loaded items */
+	private Map<Item, Object> annotations;
+
+	private CompiledCorpusConverter converter;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		annotations = new HashMap<>();
+		resourceProvider = new VirtualResourceProvider();
+		resourceProvider.create(FILE.getParent(), true);
+
+		AnnotationStorage storage = mock(AnnotationStorage.class);
+		when(storage.getValue(any(), anyString())).thenAnswer(
+				invoc -> annotations.get(invoc.getArgument(0)));
+		doAnswer(invoc -> annotations.put(invoc.getArgument(0), invoc.getArgument(2)))
+				.when(storage).setValue(any(), anyString(), any());
+
+		AnnotationManifest annotationManifest = mock(AnnotationManifest.class);
+		when(annotationManifest.getValueType()).thenReturn(ValueType.STRING);
+		AnnotationLayerManifest annotationLayerManifest = mock(AnnotationLayerManifest.class);
+		when(annotationLayerManifest.getAnnotationManifest(KEY)).thenReturn(Optional.of(annotationManifest));
+		AnnotationLayer annotationLayer = mock(AnnotationLayer.class);
+		when(annotationLayer.getManifest()).thenReturn(annotationLayerManifest);
+		when(annotationLayer.getAnnotationStorage()).thenReturn(storage);
+
+		ItemLayer tokenLayer = mock(ItemLayer.class);
+		when(tokenLayer.getProxyContainer()).thenReturn(mockContainer());
+
+		containerLayerManifest = mock(ItemLayerManifest.class);
+		doReturn(Optional.of(mock(ContainerManifest.class))).when(containerLayerManifest).getRootContainerManifest();
+		ItemLayer sentenceLayer = mock(ItemLayer.class);
+		doReturn(containerLayerManifest).when(sentenceLayer).getManifest();
+		when(sentenceLayer.getBaseLayers()).thenReturn(DataSets.createDataSet(tokenLayer));
+		when(sentenceLayer.getProxyContainer()).thenReturn(mockContainer());
+
+		Context context = mock(Context.class);
+		doReturn(sentenceLayer).when(context).getLayer("sentence");
+		doReturn(annotationLayer).when(context).getLayer("anno");
+
+		fileInfo = mock(FileInfo.class);
+		when(fileInfo.getItemCount(containerLayerManifest)).thenReturn(2L);
+		when(fileInfo.getFirstIndex(containerLayerManifest)).thenReturn(10L);
+		FileDataStates states = mock(FileDataStates.class);
+		when(states.getFileInfo(0)).thenReturn(fileInfo);
+
+		IOResource dataFile = mock(IOResource.class);
+		when(dataFile.getPath()).thenReturn(FILE);
+		ResourceSet dataFiles = mock(ResourceSet.class);
+		when(dataFiles.getResourceAt(0)).thenReturn(dataFile);
+
+		LayerBuffer layerBuffer = mock(LayerBuffer.class);
+		when(layerBuffer.newCache(any(), eq(true))).thenAnswer(invoc -> mock(InputCache.class));
+
+		memberFactory = mock(LayerMemberFactory.class);
+		when(memberFactory.newContainer(any(), any(), any(), any(), anyLong())).thenAnswer(
+				invoc -> stubIndex(mockContainer(), invoc.getArgument(4)));
+		when(memberFactory.newItem(any(), anyLong())).thenAnswer(
+				invoc -> stubIndex(mockItem(), invoc.getArgument(1)));
+
+		FileDriver driver = mock(FileDriver.class);
+		when(driver.getContext()).thenReturn(context);
+		when(driver.getResourceProvider()).thenReturn(resourceProvider);
+		when(driver.getDataFiles()).thenReturn(dataFiles);
+		when(driver.getFileStates()).thenReturn(states);
+		when(driver.getLayerBuffer(any())).thenReturn(layerBuffer);
+		when(driver.newMemberFactory()).thenReturn(memberFactory);
+
+		source = mock(Converter.class);
+		when(source.scanFile(0)).thenReturn(mock(Report.class));
+		when(source.loadFile(eq(0), any())).thenAnswer(invoc -> {
+			ChunkConsumer action = invoc.getArgument(1);
+			if(action!=null) {
+				action.accept(10, sentence(new long[] {0, 1, 2}, "DT", "NN", "VB"), ChunkState.VALID);
+				action.accept(11, sentence(new long[] {3, 4}, "NN", null), ChunkState.VALID);
+			}
+			return mock(LoadResult.class);
+		});
+
+		converter = CompiledCorpusConverter.builder()
+				.source(source)
+				.containerLayer("sentence")
+				.annotation("pos", "anno", KEY)
+				.build();
+		converter.addNotify(driver);
+	}
+
+	private Container sentence(long[] indices, String...tags) {
+		Item[] items = new Item[indices.length];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = stubIndex(mockItem(), indices[i]);
+			if(tags[i]!=null) {
+				annotations.put(items[i], tags[i]);
+			}
+		}
+		return mockContainer(items);
+	}
+
+	private Path compiledPath() {
+		return FILE.resolveSibling("corpus.txt"+CompiledCorpusConverter.DEFAULT_SUFFIX);
+	}
+
+	@Test
+	void testScanCompilesFile() throws Exception {
+		@SuppressWarnings("unchecked")
+		Report<ReportItem> report = mock(Report.class);
+		when(source.scanFile(0)).thenReturn(report);
+
+		assertSame(report, converter.scanFile(0));
+
+		verify(source).scanFile(0);
+		verify(source).loadFile(eq(0), any(CompiledCorpusWriter.class));
+		assertTrue(resourceProvider.exists(compiledPath()));
+
+		try(CompiledCorpusReader reader = CompiledCorpusReader.open(resourceProvider.getResource(compiledPath()))) {
+			assertEquals(2, reader.getContainerCount());
+			assertEquals(5, reader.getItemCount());
+			assertThat(reader.getDictionary("pos")).containsExactly("DT", "NN", "VB");
+		}
+	}
+
+	@Test
+	void testScanWithErrorsSkipsCompilation() throws Exception {
+		@SuppressWarnings("unchecked")
+		Report<ReportItem> report = mock(Report.class);
+		when(report.hasErrors()).thenReturn(Boolean.TRUE);
+		when(source.scanFile(0)).thenReturn(report);
+
+		converter.scanFile(0);
+
+		verify(source, never()).loadFile(eq(0), any());
+		assertFalse(resourceProvider.exists(compiledPath()));
+	}
+
+	@Test
+	void testLoadFromCompiledCopy() throws Exception {
+		converter.scanFile(0);
+		annotations.clear();
+
+		List<Container> containers = new ArrayList<>();
+		LoadResult result = converter.loadFile(0, (index, item, state) -> {
+			assertEquals(ChunkState.VALID, state);
+			assertEquals(index, item.getIndex());
+			containers.add((Container) item);
+		});
+
+		// Only the initial compilation used the source
+		verify(source, times(1)).loadFile(eq(0), any());
+
+		assertEquals(2, result.loadedChunkCount());
+		assertEquals(2, result.chunkCount(ChunkState.VALID));
+		assertThat(containers).extracting(Item::getIndex).containsExactly(10L, 11L);
+
+		verify(memberFactory, times(5)).newItem(any(), anyLong());
+		assertThat(annotations.values()).containsExactlyInAnyOrder("DT", "NN", "VB", "NN");
+		for(Map.Entry<Item, Object> entry : annotations.entrySet()) {
+			Item item = entry.getKey();
+			Container host = item.getIndex()<3 ? containers.get(0) : containers.get(1);
+			verify(host).addItem(item);
+		}
+	}
+
+	@Test
+	void testLoadWithoutCompiledCopyUsesSource() throws Exception {
+		ChunkConsumer action = mock(ChunkConsumer.class);
+		converter.loadFile(0, action);
+
+		verify(source).loadFile(0, action);
+		verify(memberFactory, never()).newItem(any(), anyLong());
+	}
+
+	@Test
+	void testLoadWithOutdatedCompiledCopyUsesSource() throws Exception {
+		converter.scanFile(0);
+		when(fileInfo.getItemCount(containerLayerManifest)).thenReturn(3L);
+
+		ChunkConsumer action = mock(ChunkConsumer.class);
+		converter.loadFile(0, action);
+
+		verify(source).loadFile(0, action);
+		verify(memberFactory, never()).newItem(any(), anyLong());
+	}
+}
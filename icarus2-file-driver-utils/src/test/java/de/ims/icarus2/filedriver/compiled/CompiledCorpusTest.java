@@ -0,0 +1,306 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.filedriver.compiled;
+
+import static de.ims.icarus2.model.api.ModelTestUtils.mockContainer;
+import static de.ims.icarus2.model.api.ModelTestUtils.mockItem;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import de.ims.icarus2.model.api.ModelException;
+import de.ims.icarus2.model.api.driver.ChunkState;
+import de.ims.icarus2.model.api.layer.annotation.AnnotationStorage;
+import de.ims.icarus2.model.api.members.container.Container;
+import de.ims.icarus2.model.api.members.item.Item;
+import de.ims.icarus2.model.api.members.structure.Structure;
+import de.ims.icarus2.model.manifest.api.ContainerManifest;
+import de.ims.icarus2.model.manifest.types.ValueType;
+import de.ims.icarus2.model.standard.members.container.FlyweightContainer;
+import de.ims.icarus2.util.io.resource.VirtualIOResource;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class CompiledCorpusTest {
+
+	private static final Path DEFAULT_PATH = Paths.get(".");
+
+	private static final String KEY = "pos";
+
+	private Map<Item, Object> annotations;
+	private Map<Long, Structure> structures;
+	private AnnotationStorage storage;
+
+	@BeforeEach
+	void setUp() {
+		annotations = new HashMap<>();
+		structures = new HashMap<>();
+		storage = mock(AnnotationStorage.class);
+		when(storage.getValue(any(), anyString())).thenAnswer(
+				invoc -> annotations.get(invoc.getArgument(0)));
+	}
+
+	@SuppressWarnings("boxing")
+	private Container sentence(long index, long[] itemIndices, int[] heads, String[] tags) {
+		Item[] items = new Item[itemIndices.length];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = mockItem();
+			when(items[i].getIndex()).thenReturn(itemIndices[i]);
+			annotations.put(items[i], tags[i]);
+		}
+		Container container = mockContainer(items);
+		when(container.indexOfItem(any())).thenAnswer(
+				invoc -> (long) Arrays.asList(items).indexOf(invoc.getArgument(0)));
+
+		Structure structure = mock(Structure.class);
+		Item root = mockItem();
+		when(structure.getVirtualRoot()).thenReturn(root);
+		for (int i = 0; i < items.length; i++) {
+			when(structure.getParent(items[i])).thenReturn(heads[i]==-1 ? root : items[heads[i]]);
+		}
+		structures.put(index, structure);
+
+		return container;
+	}
+
+	private CompiledCorpusWriter writer() {
+		return CompiledCorpusWriter.builder()
+				.structure("syntax", structures::get)
+				.annotation("pos", storage, KEY)
+				.build();
+	}
+
+	private VirtualIOResource compile(CompiledCorpusWriter writer) throws IOException {
+		VirtualIOResource resource = new VirtualIOResource(DEFAULT_PATH);
+		writer.writeTo(resource);
+		return resource;
+	}
+
+	@Test
+	void testEmpty() throws IOException {
+		VirtualIOResource resource = compile(writer());
+		try(CompiledCorpusReader reader = CompiledCorpusReader.open(resource)) {
+			assertEquals(0, reader.getContainerCount());
+			assertEquals(0, reader.getItemCount());
+			assertThat(reader.getStructureNames()).containsExactly("syntax");
+			assertThat(reader.getAnnotationNames()).containsExactly("pos");
+			assertThat(reader.getDictionary("pos")).isEmpty();
+		}
+	}
+
+	@Test
+	void testInvalidFile() throws IOException {
+		VirtualIOResource resource = new VirtualIOResource(DEFAULT_PATH);
+		resource.prepare();
+		resource.getBuffer().write(0, ByteBuffer.wrap(new byte[CompiledCorpusFormat.HEADER_SIZE]));
+		assertThrows(ModelException.class, () -> CompiledCorpusReader.open(resource));
+	}
+
+	@Nested
+	class WithContent {
+
+		private VirtualIOResource resource;
+		private CompiledCorpusWriter writer;
+
+		@BeforeEach
+		void setUp() throws IOException {
+			writer = writer();
+			writer.accept(10, sentence(10, new long[] {0, 1, 2},
+					new int[] {1, -1, 1}, new String[] {"DT", "NN", "VB"}), ChunkState.VALID);
+			writer.accept(11, null, ChunkState.CORRUPTED);
+			writer.accept(12, sentence(12, new long[] {3, 5},
+					new int[] {-1, 0}, new String[] {"NN", null}), ChunkState.VALID);
+			resource = compile(writer);
+		}
+
+		@Test
+		void testCounts() throws IOException {
+			assertEquals(2, writer.getContainerCount());
+			assertEquals(5, writer.getItemCount());
+			assertEquals(1, writer.getSkippedCount());
+
+			try(CompiledCorpusReader reader = CompiledCorpusReader.open(resource)) {
+				assertEquals(2, reader.getContainerCount());
+				assertEquals(5, reader.getItemCount());
+				assertEquals(10, reader.getContainerIndex(0));
+				assertEquals(12, reader.getContainerIndex(1));
+				assertEquals(3, reader.getContainerSize(0));
+				assertEquals(2, reader.getContainerSize(1));
+				assertThat(reader.getDictionary("pos")).containsExactly("DT", "NN", "VB");
+			}
+		}
+
+		@Test
+		void testScan() throws IOException {
+			try(CompiledCorpusReader reader = CompiledCorpusReader.open(resource)) {
+				FlyweightContainer view = new FlyweightContainer(
+						mock(ContainerManifest.class), null, null);
+				CompiledCorpusReader.Scanner scanner = reader.newScanner(view)
+						.heads("syntax")
+						.column("pos", 0);
+
+				assertSame(view, scanner.load(0));
+				assertEquals(10, view.getIndex());
+				assertEquals(3, view.getItemCount());
+				assertEquals(0, view.getItemAt(0).getIndex());
+				assertEquals(2, view.getItemAt(2).getIndex());
+				assertEquals(1, view.getHead(0));
+				assertEquals(-1, view.getHead(1));
+				assertEquals("DT", view.getValue(0, 0));
+				assertEquals("VB", view.getValue(0, 2));
+
+				scanner.load(1);
+				assertEquals(12, view.getIndex());
+				assertEquals(2, view.getItemCount());
+				assertEquals(3, view.getItemAt(0).getIndex());
+				assertEquals(5, view.getItemAt(1).getIndex());
+				assertEquals(-1, view.getHead(0));
+				assertEquals(0, view.getHead(1));
+				assertEquals("NN", view.getValue(0, 0));
+				assertNull(view.getValue(0, 1));
+			}
+		}
+
+		@Test
+		void testUnknownNames() throws IOException {
+			try(CompiledCorpusReader reader = CompiledCorpusReader.open(resource)) {
+				CompiledCorpusReader.Scanner scanner = reader.newScanner(new FlyweightContainer(
+						mock(ContainerManifest.class), null, null));
+				assertThrows(IllegalArgumentException.class, () -> scanner.heads("unknown"));
+				assertThrows(IllegalArgumentException.class, () -> scanner.column("unknown", 0));
+			}
+		}
+
+		@Test
+		void testValueTypes() throws IOException {
+			try(CompiledCorpusReader reader = CompiledCorpusReader.open(resource)) {
+				assertSame(ValueType.STRING, reader.getValueType("pos"));
+			}
+		}
+
+		@Test
+		void testClose() throws IOException {
+			CompiledCorpusReader reader = CompiledCorpusReader.open(resource);
+			reader.close();
+			assertThat(reader.getAnnotationNames()).isEmpty();
+			assertFalse(reader.getStructureNames().contains("syntax"));
+			assertEquals(2, reader.getContainerCount());
+		}
+	}
+
+	@Nested
+	class TypedColumns {
+
+		private VirtualIOResource resource;
+
+		@SuppressWarnings("boxing")
+		@BeforeEach
+		void setUp() throws IOException {
+			Item[] items = new Item[3];
+			for (int i = 0; i < items.length; i++) {
+				items[i] = mockItem();
+				when(items[i].getIndex()).thenReturn((long) i);
+				when(storage.getInteger(items[i], "len")).thenReturn(i*10);
+				when(storage.getLong(items[i], "freq")).thenReturn(Long.MAX_VALUE-i);
+				when(storage.getDouble(items[i], "score")).thenReturn(i+0.5);
+				when(storage.getFloat(items[i], "weight")).thenReturn(i+0.25F);
+				when(storage.getBoolean(items[i], "flag")).thenReturn(i%2==0);
+			}
+			when(storage.getValue(eq(items[0]), eq("link"))).thenReturn(URI.create("http://example.org/a"));
+			when(storage.getValue(eq(items[2]), eq("link"))).thenReturn(URI.create("http://example.org/b"));
+
+			CompiledCorpusWriter writer = CompiledCorpusWriter.builder()
+					.annotation("len", storage, "len", ValueType.INTEGER)
+					.annotation("freq", storage, "freq", ValueType.LONG)
+					.annotation("score", storage, "score", ValueType.DOUBLE)
+					.annotation("weight", storage, "weight", ValueType.FLOAT)
+					.annotation("flag", storage, "flag", ValueType.BOOLEAN)
+					.annotation("link", storage, "link", ValueType.URI)
+					.build();
+			writer.accept(0, mockContainer(items), ChunkState.VALID);
+			resource = compile(writer);
+		}
+
+		@Test
+		void testValueTypes() throws IOException {
+			try(CompiledCorpusReader reader = CompiledCorpusReader.open(resource)) {
+				assertSame(ValueType.INTEGER, reader.getValueType("len"));
+				assertSame(ValueType.LONG, reader.getValueType("freq"));
+				assertSame(ValueType.DOUBLE, reader.getValueType("score"));
+				assertSame(ValueType.DOUBLE, reader.getValueType("weight"));
+				assertSame(ValueType.BOOLEAN, reader.getValueType("flag"));
+				assertSame(ValueType.URI, reader.getValueType("link"));
+
+				assertThat(reader.getDictionary("link")).containsExactly(
+						URI.create("http://example.org/a"), URI.create("http://example.org/b"));
+				assertThrows(IllegalArgumentException.class, () -> reader.getDictionary("len"));
+			}
+		}
+
+		@Test
+		void testNativeColumns() throws IOException {
+			try(CompiledCorpusReader reader = CompiledCorpusReader.open(resource)) {
+				FlyweightContainer view = new FlyweightContainer(
+						mock(ContainerManifest.class), null, null);
+				reader.newScanner(view)
+						.column("len", 0)
+						.column("freq", 1)
+						.column("score", 2)
+						.column("weight", 3)
+						.column("flag", 4)
+						.column("link", 5)
+						.load(0);
+
+				for (int i = 0; i < 3; i++) {
+					assertEquals(i*10, view.getLong(0, i));
+					assertEquals(Long.MAX_VALUE-i, view.getLong(1, i));
+					assertEquals(i+0.5, view.getDouble(2, i));
+					assertEquals(i+0.25, view.getDouble(3, i));
+					assertEquals(i%2==0, view.getBoolean(4, i));
+				}
+
+				assertEquals(URI.create("http://example.org/a"), view.getValue(5, 0));
+				assertNull(view.getValue(5, 1));
+				assertTrue(view.getValue(5, 2) instanceof URI);
+			}
+		}
+	}
+}
@@ -0,0 +1,469 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.filedriver.io;
+
+import static de.ims.icarus2.filedriver.io.FileDriverTestUtils.block;
+import static de.ims.icarus2.test.TestUtils.RUNS;
+import static de.ims.icarus2.test.TestUtils.assertIAE;
+import static de.ims.icarus2.test.TestUtils.assertISE;
+import static de.ims.icarus2.util.IcarusUtils.MAX_INTEGER_INDEX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import de.ims.icarus2.filedriver.io.BufferedIOResource.Block;
+import de.ims.icarus2.filedriver.io.BufferedIOResource.BlockCache;
+import de.ims.icarus2.filedriver.io.TinyLfuBlockCache.FrequencySketch;
+import de.ims.icarus2.test.ApiGuardedTest;
+import de.ims.icarus2.test.TestSettings;
+import de.ims.icarus2.test.annotations.RandomizedTest;
+import de.ims.icarus2.test.guard.ApiGuard;
+import de.ims.icarus2.test.random.RandomGenerator;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class TinyLfuBlockCacheTest implements ApiGuardedTest<TinyLfuBlockCache> {
+
+	/**
+	 * @see de.ims.icarus2.test.TargetedTest#getTestTargetClass()
+	 */
+	@Override
+	public Class<?> getTestTargetClass() {
+		return TinyLfuBlockCache.class;
+	}
+
+	/**
+	 * @see de.ims.icarus2.test.GenericTest#createTestInstance(de.ims.icarus2.test.TestSettings)
+	 */
+	@Override
+	public TinyLfuBlockCache createTestInstance(TestSettings settings) {
+		return settings.process(new TinyLfuBlockCache());
+	}
+
+	/**
+	 * @see de.ims.icarus2.test.ApiGuardedTest#configureApiGuard(de.ims.icarus2.test.guard.ApiGuard)
+	 */
+	@Override
+	public void configureApiGuard(ApiGuard<TinyLfuBlockCache> apiGuard) {
+		ApiGuardedTest.super.configureApiGuard(apiGuard);
+
+		apiGuard.parameterResolver(Block.class, cache -> block());
+	}
+
+	/**
+	 * Test method for {@link de.ims.icarus2.filedriver.io.TinyLfuBlockCache#getBlock(int)}.
+	 */
+	@Test
+	void testGetBlockBlank() {
+		try(TinyLfuBlockCache cache = create()) {
+			assertThrows(RuntimeException.class, () -> cache.getBlock(10));
+		}
+	}
+
+	/**
+	 * Test method for {@link de.ims.icarus2.filedriver.io.TinyLfuBlockCache#getBlock(int)}.
+	 */
+	@Test
+	void testGetBlockEmpty() {
+		try(TinyLfuBlockCache cache = create()) {
+			cache.open(100);
+			assertNull(cache.getBlock(10));
+			assertEquals(1, cache.getMissCount());
+		}
+	}
+
+	/**
+	 * Test method for {@link de.ims.icarus2.filedriver.io.TinyLfuBlockCache#getBlock(int)}.
+	 */
+	@Test
+	@RandomizedTest
+	void testGetBlockForeign(RandomGenerator rand) {
+		try(TinyLfuBlockCache cache = create()) {
+			cache.open(200);
+			IntStream.generate(() -> rand.random(0, 100))
+				.distinct()
+				.limit(RUNS)
+				.forEach(id -> assertNull(cache.addBlock(block(id))));
+			assertNull(cache.getBlock(101));
+		}
+	}
+
+	/**
+	 * Test method for {@link de.ims.icarus2.filedriver.io.TinyLfuBlockCache#getBlock(int)}.
+	 */
+	@Test
+	void testGetBlock() {
+		try(TinyLfuBlockCache cache = create()) {
+			cache.open(100);
+			int id = 10;
+			Block block = block(id);
+
+			assertNull(cache.addBlock(block));
+			assertSame(block, cache.getBlock(id));
+			assertEquals(1, cache.getHitCount());
+			assertEquals(0, cache.getMissCount());
+		}
+	}
+
+	/**
+	 * Test method for {@link de.ims.icarus2.filedriver.io.TinyLfuBlockCache#addBlock(Block)}.
+	 */
+	@Test
+	void testAddBlockBlank() {
+		try(TinyLfuBlockCache cache = create()) {
+			assertThrows(RuntimeException.class, () -> cache.addBlock(block()));
+		}
+	}
+
+	/**
+	 * Test method for {@link de.ims.icarus2.filedriver.io.TinyLfuBlockCache#addBlock(Block)}.
+	 */
+	@Test
+	void testAddBlockDublicate() {
+		try(TinyLfuBlockCache cache = create()) {
+			cache.open(100);
+			Block block = block(10);
+
+			assertNull(cache.addBlock(block));
+			assertNull(cache.addBlock(block));
+			assertEquals(1, cache.size());
+		}
+	}
+
+	/**
+	 * Test method for {@link de.ims.icarus2.filedriver.io.TinyLfuBlockCache#addBlock(Block)}.
+	 */
+	@Test
+	void testAddBlockDublicateId() {
+		try(TinyLfuBlockCache cache = create()) {
+			cache.open(100);
+			Block block = block(10);
+
+			assertNull(cache.addBlock(block));
+			assertISE(() -> cache.addBlock(block(block.getId())));
+		}
+	}
+
+	/**
+	 * Test method for {@link de.ims.icarus2.filedriver.io.TinyLfuBlockCache#addBlock(Block)}.
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {BlockCache.MIN_CAPACITY, BlockCache.MIN_CAPACITY*2, 1024})
+	void testAddBlockOverflow(int capacity) {
+		try(TinyLfuBlockCache cache = create()) {
+			cache.open(capacity);
+			for (int i = 0; i < capacity; i++) {
+				assertNull(cache.addBlock(block(i)));
+			}
+
+			Block block = block(MAX_INTEGER_INDEX);
+			Block overflow = cache.addBlock(block);
+			assertNotNull(overflow);
+			assertTrue(overflow!=block);
+			assertNull(cache.getBlock(overflow.getId()));
+			assertSame(block, cache.getBlock(MAX_INTEGER_INDEX));
+			assertEquals(capacity, cache.size());
+			assertEquals(1, cache.getEvictionCount());
+		}
+	}
+
+	/**
+	 * Test method for {@link de.ims.icarus2.filedriver.io.TinyLfuBlockCache#addBlock(Block)}.
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {BlockCache.MIN_CAPACITY, BlockCache.MIN_CAPACITY*2, 1024})
+	void testAddBlockLockedOverflow(int capacity) {
+		try(TinyLfuBlockCache cache = create()) {
+			cache.open(capacity);
+			Block[] blocks = new Block[capacity];
+			for (int i = 0; i < capacity; i++) {
+				Block block = blocks[i] = block(i);
+				assertNull(cache.addBlock(block));
+			}
+
+			// Now lock all blocks
+			for (int i = 0; i < blocks.length; i++) {
+				blocks[i].lock();
+			}
+
+			assertISE(() -> cache.addBlock(block(MAX_INTEGER_INDEX)));
+
+			// Failed insertion must leave the cache untouched
+			assertNull(cache.getBlock(MAX_INTEGER_INDEX));
+			assertEquals(capacity, cache.size());
+			for (int i = 0; i < blocks.length; i++) {
+				assertSame(blocks[i], cache.getBlock(i));
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link de.ims.icarus2.filedriver.io.TinyLfuBlockCache#addBlock(Block)}.
+	 */
+	@Test
+	void testAddBlockKeepsLocked() {
+		try(TinyLfuBlockCache cache = create()) {
+			int capacity = BlockCache.MIN_CAPACITY;
+			cache.open(capacity);
+			Block locked = block(0);
+			locked.lock();
+			assertNull(cache.addBlock(locked));
+
+			for (int i = 1; i < capacity*10; i++) {
+				assertTrue(cache.addBlock(block(i))!=locked);
+			}
+
+			assertSame(locked, cache.getBlock(0));
+		}
+	}
+
+	/**
+	 * A hot working set that has been accessed repeatedly must largely survive
+	 * a scan over many blocks that are each accessed only once. Hot blocks that
+	 * still reside in the admission window when the scan starts compete with
+	 * scanned blocks on estimated frequencies only, so a few of them may get lost.
+	 * A plain LRU cache loses the entire working set in the same scenario.
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {BlockCache.MIN_CAPACITY*4, 1024})
+	void testScanResistance(int capacity) {
+		try(TinyLfuBlockCache cache = create();
+				RUBlockCache lru = RUBlockCache.newLeastRecentlyUsedCache()) {
+			lru.open(capacity);
+			cache.open(capacity);
+			int hotSize = capacity/2;
+			Block[] hot = new Block[hotSize];
+			for (int i = 0; i < hotSize; i++) {
+				assertNull(cache.addBlock(hot[i] = block(i)));
+				assertNull(lru.addBlock(hot[i]));
+			}
+			for (int round = 0; round < 3; round++) {
+				for (int i = 0; i < hotSize; i++) {
+					assertSame(hot[i], cache.getBlock(i));
+					assertSame(hot[i], lru.getBlock(i));
+				}
+			}
+
+			for (int i = hotSize; i < hotSize+capacity*10; i++) {
+				cache.addBlock(block(i));
+				lru.addBlock(block(i));
+			}
+
+			int retained = 0, retainedLru = 0;
+			for (int i = 0; i < hotSize; i++) {
+				if(cache.getBlock(i)==hot[i]) retained++;
+				if(lru.getBlock(i)==hot[i]) retainedLru++;
+			}
+			assertTrue(retained>=hotSize*9/10, "retained only "+retained+" of "+hotSize);
+			assertEquals(0, retainedLru);
+			assertEquals(capacity, cache.size());
+		}
+	}
+
+	/**
+	 * Test method for {@link de.ims.icarus2.filedriver.io.TinyLfuBlockCache#removeBlock(int)}.
+	 */
+	@Test
+	void testRemoveBlock() {
+		try(TinyLfuBlockCache cache = create()) {
+			cache.open(100);
+			int id = 10;
+			Block block = block(id);
+			cache.addBlock(block);
+
+			assertNull(cache.removeBlock(id+1));
+			assertSame(block, cache.getBlock(id));
+			assertSame(block, cache.removeBlock(id));
+			assertNull(cache.getBlock(id));
+			assertEquals(0, cache.size());
+			assertEquals(0, cache.getEvictionCount());
+		}
+	}
+
+	/**
+	 * Test method for {@link de.ims.icarus2.filedriver.io.TinyLfuBlockCache#getHitRate()}.
+	 */
+	@Test
+	void testCounters() {
+		try(TinyLfuBlockCache cache = create()) {
+			cache.open(100);
+			assertEquals(0D, cache.getHitRate());
+
+			cache.addBlock(block(1));
+			cache.getBlock(1);
+			cache.getBlock(1);
+			cache.getBlock(1);
+			cache.getBlock(2);
+
+			assertEquals(3, cache.getHitCount());
+			assertEquals(1, cache.getMissCount());
+			assertEquals(0.75D, cache.getHitRate());
+
+			cache.resetCounters();
+			assertEquals(0, cache.getHitCount());
+			assertEquals(0, cache.getMissCount());
+		}
+	}
+
+	/**
+	 * Test method for {@link de.ims.icarus2.filedriver.io.TinyLfuBlockCache#open(int)}.
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {0, -1, BlockCache.MIN_CAPACITY-1})
+	void testOpenInvalidCapacity(int capacity) {
+		try(TinyLfuBlockCache cache = create()) {
+			assertIAE(() -> cache.open(capacity));
+		}
+	}
+
+	/**
+	 * Test method for {@link de.ims.icarus2.filedriver.io.TinyLfuBlockCache#close()}.
+	 * Test method for {@link de.ims.icarus2.filedriver.io.TinyLfuBlockCache#open(int)}.
+	 */
+	@Test
+	void testReopen() {
+		@SuppressWarnings("resource")
+		TinyLfuBlockCache cache = create();
+		cache.open(100);
+		int id = 10;
+		cache.addBlock(block(id));
+		assertNotNull(cache.getBlock(id));
+
+		cache.close();
+
+		assertThrows(RuntimeException.class, () -> cache.getBlock(id));
+		assertThrows(RuntimeException.class, () -> cache.addBlock(block(id)));
+		assertThrows(RuntimeException.class, () -> cache.removeBlock(id));
+
+		cache.open(200);
+		assertNull(cache.getBlock(id));
+
+		cache.addBlock(block(id));
+		assertNotNull(cache.getBlock(id));
+	}
+
+	/**
+	 * Lets several readers hammer a shared hot set while one writer keeps
+	 * inserting new blocks. Every lookup must either miss or return the
+	 * block for the requested id.
+	 */
+	@Test
+	@RandomizedTest
+	void testConcurrentAccess(RandomGenerator rand) throws Exception {
+		int capacity = 256;
+		int hotSize = 64;
+		int readers = 4;
+		long seed = rand.nextLong();
+
+		try(TinyLfuBlockCache cache = create()) {
+			cache.open(capacity);
+			for (int i = 0; i < hotSize; i++) {
+				cache.addBlock(block(i));
+			}
+
+			ExecutorService executor = Executors.newFixedThreadPool(readers+1);
+			try {
+				List<Future<?>> futures = new ArrayList<>();
+				for (int r = 0; r < readers; r++) {
+					RandomGenerator local = RandomGenerator.forSeed(seed+r);
+					futures.add(executor.submit(() -> {
+						for (int i = 0; i < 100_000; i++) {
+							int id = local.random(0, hotSize*2);
+							Block block = cache.getBlock(id);
+							if(block!=null) {
+								assertEquals(id, block.getId());
+							}
+						}
+					}));
+				}
+				futures.add(executor.submit(() -> {
+					for (int id = hotSize; id < hotSize+10_000; id++) {
+						if(cache.getBlock(id)==null) {
+							cache.addBlock(block(id));
+						}
+					}
+				}));
+
+				for (Future<?> future : futures) {
+					future.get(30, TimeUnit.SECONDS);
+				}
+			} finally {
+				executor.shutdownNow();
+			}
+
+			assertEquals(capacity, cache.size());
+			assertTrue(cache.getHitCount()>0);
+		}
+	}
+
+	@Nested
+	class ForFrequencySketch {
+
+		@Test
+		void testIncrement() {
+			FrequencySketch sketch = new FrequencySketch(512);
+			assertEquals(0, sketch.frequency(42));
+			for (int i = 1; i <= 15; i++) {
+				sketch.increment(42);
+				assertEquals(i, sketch.frequency(42));
+			}
+		}
+
+		@Test
+		void testSaturation() {
+			FrequencySketch sketch = new FrequencySketch(512);
+			for (int i = 0; i < 100; i++) {
+				sketch.increment(42);
+			}
+			assertEquals(15, sketch.frequency(42));
+		}
+
+		@Test
+		void testAging() {
+			int capacity = 64;
+			FrequencySketch sketch = new FrequencySketch(capacity);
+			for (int i = 0; i < 8; i++) {
+				sketch.increment(-1);
+			}
+			assertEquals(8, sketch.frequency(-1));
+
+			// Enough distinct additions to trigger at least one reset
+			for (int i = 0; i < capacity*10; i++) {
+				sketch.increment(i);
+			}
+			assertTrue(sketch.frequency(-1)<8);
+		}
+	}
+}
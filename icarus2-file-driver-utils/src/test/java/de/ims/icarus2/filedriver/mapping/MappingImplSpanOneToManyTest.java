@@ -24,15 +24,23 @@ import static de.ims.icarus2.test.util.Triple.triple;
 import static de.ims.icarus2.util.collections.CollectionUtils.list;
 import static de.ims.icarus2.util.lang.Primitives._int;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.IntStream;
@@ -52,6 +60,7 @@ import de.ims.icarus2.filedriver.io.RUBlockCache;
 import de.ims.icarus2.filedriver.io.UnlimitedBlockCache;
 import de.ims.icarus2.filedriver.mapping.MappingImplSpanOneToMany.Builder;
 import de.ims.icarus2.filedriver.mapping.StoredMappingTest.AbstractConfig;
+import de.ims.icarus2.model.api.ModelException;
 import de.ims.icarus2.model.api.driver.Driver;
 import de.ims.icarus2.model.api.driver.indices.IndexSet;
 import de.ims.icarus2.model.api.driver.indices.IndexUtils;
@@ -479,6 +488,264 @@ class MappingImplSpanOneToManyTest implements WritableMappingTest<MappingImplSpa
 		}
 	}
 
+	/** Overlapping spans for a non-monotonic mapping, source index 4 stays unmapped */
+	private static final long[][] OVERLAPPING_SPANS = {
+		{10, 20},
+		{0, 5},
+		{15, 30},
+		{3, 12},
+		null,
+		{25, 25},
+		{40, 50},
+		{0, 100},
+	};
+
+	private static ConfigImpl inverseConfig() {
+		ConfigImpl config = config(IndexValueType.INTEGER, 2,
+				UnlimitedBlockCache::new, "unlimited", 128);
+		config.inverseResourceGen = () -> new VirtualIOResource(DEFAULT_PATH);
+		config.prepareManifest(Coverage.PARTIAL);
+		return config;
+	}
+
+	private static void mapSpans(MappingImplSpanOneToMany mapping, long[][] spans) {
+		try(MappingWriter writer = mapping.newWriter()) {
+			writer.begin();
+			try {
+				for (int i = 0; i < spans.length; i++) {
+					if(spans[i]!=null) {
+						writer.map(i, i, spans[i][0], spans[i][1]);
+					}
+				}
+			} finally {
+				writer.end();
+			}
+		}
+	}
+
+	@Nested
+	class InverseIndex {
+
+		@ParameterizedTest
+		@CsvSource({
+			"0, 7,   4,  1",
+			"0, 7,  17,  0",
+			"1, 6,  17,  2",
+			"0, 6,  35, -1",
+			"0, 7,  35,  7",
+			"0, 7,  25,  2",
+			"3, 6,  25,  5",
+			"0, 7, 101, -1",
+		})
+		@DisplayName("test the find() method for single target values on overlapping spans")
+		void testFindSingle(long fromSource, long toSource, long targetIndex, long expected) throws Exception {
+			try(MappingImplSpanOneToMany mapping = inverseConfig().create()) {
+				assertThat(mapping.hasInverseIndex()).isTrue();
+				mapSpans(mapping, OVERLAPPING_SPANS);
+
+				try(MappingReader reader = mapping.newReader()) {
+					reader.begin();
+					try {
+						assertThat(reader.find(fromSource, toSource, targetIndex, RequestSettings.none()))
+							.isEqualTo(expected);
+					} finally {
+						reader.end();
+					}
+				}
+			}
+		}
+
+		@ParameterizedTest
+		@CsvSource({
+			"0, 7,  4,  4, 45, 46, '1,3,6,7'",
+			"0, 7, 21, 24, 90, 95, '2,7'",
+			"0, 6, 21, 24, 90, 95, '2'",
+			"0, 3, 13, 14, 31, 39, '0'",
+		})
+		@DisplayName("test the find() method for multiple sets of target values on overlapping spans")
+		void testFindMulti(long fromSource, long toSource, long from1, long to1,
+				long from2, long to2, String expected) throws Exception {
+			try(MappingImplSpanOneToMany mapping = inverseConfig().create()) {
+				mapSpans(mapping, OVERLAPPING_SPANS);
+
+				try(MappingReader reader = mapping.newReader()) {
+					reader.begin();
+					try {
+						IndexSet[] target = new IndexSet[] {
+								IndexUtils.span(from1, to1), IndexUtils.span(from2, to2)};
+						IndexBuffer buffer = new IndexBuffer(IndexValueType.INTEGER, OVERLAPPING_SPANS.length);
+						assertThat(reader.find(fromSource, toSource, target, buffer, RequestSettings.none())).isTrue();
+						assertThat(buffer).containsExactlyIndices(
+								Stream.of(expected.split(",")).mapToLong(Long::parseLong).toArray());
+					} finally {
+						reader.end();
+					}
+				}
+			}
+		}
+
+		@Test
+		void testIndexRebuiltAfterWrite() throws Exception {
+			try(MappingImplSpanOneToMany mapping = inverseConfig().create()) {
+				mapSpans(mapping, OVERLAPPING_SPANS);
+				// Move span 1 and add new span 8
+				mapSpans(mapping, new long[][] {null, {60, 61}, null, null, null, null, null, null, {200, 210}});
+
+				try(MappingReader reader = mapping.newReader()) {
+					reader.begin();
+					try {
+						assertThat(reader.find(0, 6, 4, RequestSettings.none())).isEqualTo(3);
+						assertThat(reader.find(0, 6, 60, RequestSettings.none())).isEqualTo(1);
+						assertThat(reader.find(0, 10, 205, RequestSettings.none())).isEqualTo(8);
+					} finally {
+						reader.end();
+					}
+				}
+			}
+		}
+
+		@Test
+		void testOptimize() throws Exception {
+			try(MappingImplSpanOneToMany mapping = inverseConfig().create()) {
+				mapSpans(mapping, OVERLAPPING_SPANS);
+				mapping.optimize();
+
+				try(MappingReader reader = mapping.newReader()) {
+					reader.begin();
+					try {
+						assertThat(reader.find(0, 7, 17, RequestSettings.none())).isEqualTo(0);
+					} finally {
+						reader.end();
+					}
+				}
+			}
+		}
+
+		/**
+		 * Lets writers keep moving span 1 between two target ranges outside all
+		 * other spans while readers check that exactly one of them is reported.
+		 * Readers and writers acquire the main and inverse locks in the same order
+		 * and readers may only use the inverse index if it matches the data.
+		 */
+		@Test
+		void testConcurrentReadersAndWriters() throws Exception {
+			int writers = 2;
+			int readers = 4;
+
+			try(MappingImplSpanOneToMany mapping = inverseConfig().create()) {
+				mapSpans(mapping, OVERLAPPING_SPANS);
+
+				ExecutorService executor = Executors.newFixedThreadPool(writers+readers);
+				try {
+					List<Future<?>> futures = new ArrayList<>();
+					for (int w = 0; w < writers; w++) {
+						int offset = w;
+						futures.add(executor.submit(() -> {
+							for (int i = 0; i < 500; i++) {
+								long begin = (i+offset)%2==0 ? 120 : 130;
+								mapSpans(mapping, new long[][] {null, {begin, begin+1}});
+							}
+						}));
+					}
+					for (int r = 0; r < readers; r++) {
+						futures.add(executor.submit(() -> {
+							for (int i = 0; i < 2_000; i++) {
+								try(MappingReader reader = mapping.newReader()) {
+									reader.begin();
+									try {
+										long first = reader.find(0, 7, 120, RequestSettings.none());
+										long second = reader.find(0, 7, 130, RequestSettings.none());
+										assertThat(Math.min(first, second)).isEqualTo(-1);
+										assertThat(Math.max(first, second)).isEqualTo(1);
+									} finally {
+										reader.end();
+									}
+								}
+							}
+						}));
+					}
+
+					for (Future<?> future : futures) {
+						future.get(30, TimeUnit.SECONDS);
+					}
+				} finally {
+					executor.shutdownNow();
+				}
+
+				mapping.optimize();
+
+				try(MappingReader reader = mapping.newReader()) {
+					reader.begin();
+					try {
+						long first = reader.find(0, 7, 121, RequestSettings.none());
+						long second = reader.find(0, 7, 131, RequestSettings.none());
+						assertThat(Math.min(first, second)).isEqualTo(-1);
+						assertThat(Math.max(first, second)).isEqualTo(1);
+						assertThat(reader.find(0, 7, 17, RequestSettings.none())).isEqualTo(0);
+					} finally {
+						reader.end();
+					}
+				}
+			}
+		}
+
+		@Test
+		void testReopenAfterFailedRebuild() throws Exception {
+			VirtualIOResource resource = new VirtualIOResource(DEFAULT_PATH);
+			boolean[] failWrites = {false};
+			VirtualIOResource inverseResource = new VirtualIOResource(DEFAULT_PATH) {
+				@Override
+				public SeekableByteChannel getWriteChannel() throws IOException {
+					if(failWrites[0])
+						throw new IOException("Simulated write failure");
+					return super.getWriteChannel();
+				}
+			};
+
+			ConfigImpl config = inverseConfig();
+			config.resourceGen = () -> resource;
+			config.inverseResourceGen = () -> inverseResource;
+
+			try(MappingImplSpanOneToMany mapping = config.create()) {
+				mapSpans(mapping, OVERLAPPING_SPANS);
+
+				// Moving span 1 leaves the main header unchanged
+				failWrites[0] = true;
+				try(MappingWriter writer = mapping.newWriter()) {
+					writer.begin();
+					writer.map(1, 1, 60, 61);
+					assertThatExceptionOfType(ModelException.class).isThrownBy(writer::end);
+				}
+				failWrites[0] = false;
+			}
+
+			try(MappingImplSpanOneToMany mapping = config.create()) {
+				try(MappingReader reader = mapping.newReader()) {
+					reader.begin();
+					try {
+						// Outdated index would still report span 1
+						assertThat(reader.find(0, 6, 4, RequestSettings.none())).isEqualTo(3);
+						assertThat(reader.find(0, 6, 60, RequestSettings.none())).isEqualTo(1);
+					} finally {
+						reader.end();
+					}
+				}
+
+				mapping.optimize();
+
+				try(MappingReader reader = mapping.newReader()) {
+					reader.begin();
+					try {
+						assertThat(reader.find(0, 6, 4, RequestSettings.none())).isEqualTo(3);
+						assertThat(reader.find(0, 6, 60, RequestSettings.none())).isEqualTo(1);
+					} finally {
+						reader.end();
+					}
+				}
+			}
+		}
+	}
+
 	@Nested
 	class Internals {
 
@@ -611,6 +878,7 @@ class MappingImplSpanOneToManyTest implements WritableMappingTest<MappingImplSpa
 	static class ConfigImpl extends AbstractConfig<MappingImplSpanOneToMany> {
 
 		public int blockPower;
+		public Supplier<IOResource> inverseResourceGen;
 
 		@Override
 		protected Relation relation() { return Relation.ONE_TO_MANY; }
@@ -620,7 +888,11 @@ class MappingImplSpanOneToManyTest implements WritableMappingTest<MappingImplSpa
 		 */
 		@Override
 		public MappingImplSpanOneToMany create() {
-			return MappingImplSpanOneToMany.builder()
+			Builder builder = MappingImplSpanOneToMany.builder();
+			if(inverseResourceGen!=null) {
+				builder.inverseResource(inverseResourceGen.get());
+			}
+			return builder
 					.blockPower(blockPower)
 					.cacheSize(cacheSize)
 					.driver(driver)
@@ -0,0 +1,226 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.filedriver.schema.tabular;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import de.ims.icarus2.util.strings.StringUtil;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class Utf8LineIteratorTest {
+
+	private static ReadableByteChannel channel(String text) {
+		return Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/** Channel that only delivers a few bytes per read */
+	private static ReadableByteChannel slowChannel(String text, int chunk) {
+		ByteBuffer data = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+		return new ReadableByteChannel() {
+			@Override
+			public boolean isOpen() { return true; }
+			@Override
+			public void close() { /* no-op */ }
+			@Override
+			public int read(ByteBuffer dst) {
+				if(!data.hasRemaining()) {
+					return -1;
+				}
+				int count = Math.min(chunk, Math.min(dst.remaining(), data.remaining()));
+				for (int i = 0; i < count; i++) {
+					dst.put(data.get());
+				}
+				return count;
+			}
+		};
+	}
+
+	private static List<String> lines(ReadableByteChannel channel) {
+		Utf8LineIterator iterator = new Utf8LineIterator(channel, 16);
+		List<String> lines = new ArrayList<>();
+		while(iterator.next()) {
+			assertTrue(iterator.hasLine());
+			lines.add(iterator.getLine().toString());
+		}
+		assertFalse(iterator.hasLine());
+		return lines;
+	}
+
+	@Test
+	void testEmpty() {
+		assertTrue(lines(channel("")).isEmpty());
+	}
+
+	@Test
+	void testLineBreaks() {
+		assertEquals(List.of("a", "", "bc", "d"), lines(channel("a\n\nbc\r\nd")));
+	}
+
+	@Test
+	void testTrailingLineBreak() {
+		assertEquals(List.of("a", "b"), lines(channel("a\nb\n")));
+	}
+
+	@Test
+	void testLineNumbersAndBreakCount() {
+		Utf8LineIterator iterator = new Utf8LineIterator(channel("x\r\ny\nz"), 16);
+		assertEquals(-1L, iterator.getLineNumber());
+		assertTrue(iterator.next());
+		assertEquals(1L, iterator.getLineNumber());
+		assertEquals(2, iterator.getLineBreakCharacterCount());
+		assertTrue(iterator.next());
+		assertEquals(1, iterator.getLineBreakCharacterCount());
+		assertTrue(iterator.next());
+		assertEquals(3L, iterator.getLineNumber());
+		assertEquals(0, iterator.getLineBreakCharacterCount());
+		assertFalse(iterator.next());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"Grüße\tan\talle",
+		"日本語\tテキスト",
+		"mixed ascii and ü",
+	})
+	void testNonAscii(String line) {
+		assertEquals(List.of(line, "plain"), lines(channel(line+"\nplain")));
+	}
+
+	@Test
+	void testSlowChannel() {
+		String text = "first line\nsecond\tline\r\nthird ü line\n\nlast";
+		assertEquals(lines(channel(text)), lines(slowChannel(text, 3)));
+	}
+
+	@Test
+	void testLongLine() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 200_000; i++) {
+			sb.append((char)('a'+(i%26)));
+		}
+		String longLine = sb.toString();
+		assertEquals(List.of("x", longLine, "y"), lines(channel("x\n"+longLine+"\ny")));
+	}
+
+	@Nested
+	class ForLine {
+
+		@Test
+		void testAsciiView() {
+			Utf8LineIterator iterator = new Utf8LineIterator(channel("ab\tcd\tef"), 16);
+			assertTrue(iterator.next());
+			Utf8LineIterator.Line line = (Utf8LineIterator.Line) iterator.getLine();
+			assertTrue(line.isAscii());
+			assertEquals(8, line.length());
+			assertEquals('c', line.charAt(3));
+			assertEquals(2, line.indexOf('\t', 0, 7));
+			assertEquals(5, line.indexOf('\t', 3, 7));
+			assertEquals(-1, line.indexOf('\t', 6, 7));
+			assertTrue(StringUtil.equals("ab\tcd\tef", line));
+		}
+
+		@Test
+		void testDecodedView() {
+			Utf8LineIterator iterator = new Utf8LineIterator(channel("äb\tc"), 16);
+			assertTrue(iterator.next());
+			Utf8LineIterator.Line line = (Utf8LineIterator.Line) iterator.getLine();
+			assertFalse(line.isAscii());
+			assertEquals(4, line.length());
+			assertEquals('ä', line.charAt(0));
+			assertEquals("b\t", line.subSequence(1, 3).toString());
+		}
+
+		private List<Boolean> asciiFlags(ReadableByteChannel channel) {
+			Utf8LineIterator iterator = new Utf8LineIterator(channel, 16);
+			List<Boolean> flags = new ArrayList<>();
+			while(iterator.next()) {
+				flags.add(Boolean.valueOf(((Utf8LineIterator.Line) iterator.getLine()).isAscii()));
+			}
+			return flags;
+		}
+
+		@Test
+		void testNonAsciiBehindLineBreak() {
+			// Non-ASCII bytes within the same 8-byte word as the preceding line feed
+			assertEquals(List.of(Boolean.TRUE, Boolean.FALSE, Boolean.TRUE),
+					asciiFlags(channel("ab\nüc\nxyz")));
+		}
+
+		@Test
+		void testNonAsciiInTail() {
+			assertEquals(List.of(Boolean.TRUE, Boolean.FALSE),
+					asciiFlags(channel("0123456789\n012345678ü")));
+		}
+
+		@Test
+		void testNonAsciiAcrossReads() {
+			String text = "ü0123456789abcdefghijklmnopqrstuvwxyz\n0123456789abcdefghijklmnopqrstuvwxyz";
+			for (int chunk = 1; chunk < 10; chunk++) {
+				assertEquals(List.of(Boolean.FALSE, Boolean.TRUE),
+						asciiFlags(slowChannel(text, chunk)), "chunk size "+chunk);
+			}
+		}
+	}
+
+	@Nested
+	class Swar {
+
+		@Test
+		void testIndexOf() {
+			byte[] data = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+			for (int i = 0; i < data.length; i++) {
+				assertEquals(i, Utf8LineIterator.indexOf(data, data[i], 0, data.length-1));
+				assertEquals(-1, Utf8LineIterator.indexOf(data, data[i], i+1, data.length-1));
+			}
+			assertEquals(-1, Utf8LineIterator.indexOf(data, (byte)'z', 0, data.length-1));
+		}
+
+		@Test
+		void testIndexOfHighBytes() {
+			byte[] data = {(byte)0xC3, (byte)0xBC, 1, 0, (byte)0x81, (byte)0x80, 0x0A, 0, 0x0A};
+			assertEquals(6, Utf8LineIterator.indexOf(data, (byte)0x0A, 0, data.length-1));
+			assertEquals(3, Utf8LineIterator.indexOf(data, (byte)0, 0, data.length-1));
+			assertEquals(5, Utf8LineIterator.indexOf(data, (byte)0x80, 0, data.length-1));
+		}
+
+		@Test
+		void testLowLanes() {
+			assertEquals(0L, Utf8LineIterator.lowLanes(0));
+			assertEquals(0xFFL, Utf8LineIterator.lowLanes(1));
+			assertEquals(0xFFFFFFFFFFFFFFL, Utf8LineIterator.lowLanes(7));
+			assertEquals(-1L, Utf8LineIterator.lowLanes(8));
+		}
+	}
+}
@@ -78,6 +78,23 @@ public interface ManifestRegistry extends EventManager {
 	 */
 	void resetUIDs();
 
+	/**
+	 * Returns a counter that changes whenever templates, layer types or corpora
+	 * are added to or removed from this registry, or when a change to one of the
+	 * registered corpora is {@link #corpusManifestChanged(CorpusManifest) reported}.
+	 * Clients can use this value to detect stale results derived from the registry
+	 * content, such as {@link de.ims.icarus2.model.manifest.util.ManifestUtils#flattenCorpus(CorpusManifest) flattened}
+	 * corpus manifests.
+	 * <p>
+	 * The default implementation returns {@code -1} to signal that the registry
+	 * does not support versioning.
+	 *
+	 * @return
+	 */
+	default long getVersion() {
+		return -1L;
+	}
+
 	/**
 	 *
 	 * @return the {@link VariableResolver} assigned to this registry to be used for
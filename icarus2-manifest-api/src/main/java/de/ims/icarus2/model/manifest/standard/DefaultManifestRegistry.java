@@ -19,12 +19,14 @@ package de.ims.icarus2.model.manifest.standard;
 import static java.util.Objects.requireNonNull;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 import de.ims.icarus2.GlobalErrorCode;
@@ -49,15 +51,28 @@ import de.ims.icarus2.util.lang.ResourceResolver;
 import de.ims.icarus2.util.strings.VariableResolver;
 
 /**
+ * Default registry implementation. All lookups operate on immutable snapshots
+ * of the internal storage and therefore never block. Modifications are
+ * serialized and publish a fresh copy of the affected storage (copy-on-write),
+ * which is the appropriate trade-off given that registrations are rare compared
+ * to lookups.
+ *
  * @author Markus Gärtner
  *
  */
 public final class DefaultManifestRegistry implements ManifestRegistry {
 
-	private final Map<String, Manifest> templates = new LinkedHashMap<>();
-	private final Map<String, LayerType> layerTypes = new LinkedHashMap<>();
+	/*
+	 *  Immutable snapshots, only ever replaced while holding 'lock'.
+	 *  Insertion order is preserved for the forEachXXX methods.
+	 */
+	private volatile Map<String, Manifest> templates = Collections.emptyMap();
+	private volatile Map<String, LayerType> layerTypes = Collections.emptyMap();
+
+	private volatile Map<String, CorpusManifest> corpora = Collections.emptyMap();
 
-	private final Map<String, CorpusManifest> corpora = new LinkedHashMap<>();
+	/** Incremented after every modification of the registry content */
+	private final AtomicLong version = new AtomicLong(0);
 
 	private final EventSource eventSource = new WeakEventSource(this);
 
@@ -78,6 +93,30 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 		eventSource.fireEvent(event);
 	}
 
+	/** Creates a modifiable copy of the given snapshot. */
+	private static <V> Map<String, V> copy(Map<String, V> map) {
+		return new LinkedHashMap<>(map);
+	}
+
+	/** Wraps a modified copy so that it can be published as new snapshot. */
+	private static <V> Map<String, V> freeze(Map<String, V> map) {
+		return Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * This implementation increments the version for every addition or removal
+	 * and for every change notification received via {@link #corpusManifestChanged(CorpusManifest)}
+	 * or {@link #contextManifestChanged(ContextManifest)}.
+	 *
+	 * @see de.ims.icarus2.model.manifest.api.ManifestRegistry#getVersion()
+	 */
+	@Override
+	public long getVersion() {
+		return version.get();
+	}
+
 	/**
 	 * @return the variableResolver
 	 */
@@ -128,8 +167,9 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 					.mapToInt(CorpusManifest::getUID)
 					.max()
 					.orElse(minUid);
+
+			uidGenerator.set(minUid+1);
 		}
-		uidGenerator.set(minUid+1);
 	}
 
 	@Override
@@ -139,23 +179,17 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 
 	@Override
 	public Set<ManifestLocation> getTemplateSources() {
+		Map<String, Manifest> templates = this.templates;
 		Set<ManifestLocation> result = new HashSet<>(templates.size());
-
-		synchronized (lock) {
-			templates.forEach((s, m) -> result.add(m.getManifestLocation()));
-		}
-
+		templates.forEach((s, m) -> result.add(m.getManifestLocation()));
 		return result;
 	}
 
 	@Override
 	public Set<ManifestLocation> getCorpusSources() {
+		Map<String, CorpusManifest> corpora = this.corpora;
 		Set<ManifestLocation> result = new HashSet<>(corpora.size());
-
-		synchronized (lock) {
-			corpora.values().forEach(m -> result.add(m.getManifestLocation()));
-		}
-
+		corpora.values().forEach(m -> result.add(m.getManifestLocation()));
 		return result;
 	}
 
@@ -164,13 +198,11 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 	public Optional<LayerType> getLayerType(String name) {
 		requireNonNull(name);
 
-		synchronized (lock) {
-			LayerType type = layerTypes.get(name);
-			if(type!=null) {
-				return Optional.of(type);
-			}
-			return (Optional<LayerType>) DefaultLayerType.forId(name);
+		LayerType type = layerTypes.get(name);
+		if(type!=null) {
+			return Optional.of(type);
 		}
+		return (Optional<LayerType>) DefaultLayerType.forId(name);
 	}
 
 	@Override
@@ -189,7 +221,10 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 				throw new ManifestException(ManifestErrorCode.MANIFEST_DUPLICATE_ID,
 						"Type id already in use: "+id); //$NON-NLS-1$
 
+			Map<String, LayerType> layerTypes = copy(this.layerTypes);
 			layerTypes.put(id, layerType);
+			this.layerTypes = freeze(layerTypes);
+			version.incrementAndGet();
 		}
 
 		fireEvent(new EventObject(ManifestEvents.ADDED_LAYER_TYPE, "layerType", layerType)); //$NON-NLS-1$
@@ -211,6 +246,7 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 					"Cannot remove layer type while underlying manifest is locked");
 
 		synchronized (lock) {
+			Map<String, LayerType> layerTypes = copy(this.layerTypes);
 			if(!layerTypes.containsKey(id))
 				throw new ManifestException(ManifestErrorCode.MANIFEST_UNKNOWN_ID,
 						"Unknown layer type id: "+id); //$NON-NLS-1$
@@ -218,6 +254,9 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 			if(!layerTypes.remove(id, layerType))
 				throw new ManifestException(ManifestErrorCode.MANIFEST_DUPLICATE_ID,
 						"Removal failed - specified layer type id is assigned to another type");
+
+			this.layerTypes = freeze(layerTypes);
+			version.incrementAndGet();
 		}
 
 		fireEvent(new EventObject(ManifestEvents.REMOVED_LAYER_TYPE, "layerType", layerType)); //$NON-NLS-1$
@@ -225,9 +264,7 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 
 	@Override
 	public void forEachLayerType(Consumer<? super LayerType> action) {
-		synchronized (lock) {
-			layerTypes.values().forEach(action);
-		}
+		layerTypes.values().forEach(action);
 	}
 
 	@Override
@@ -245,9 +282,13 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 				throw new ManifestException(ManifestErrorCode.MANIFEST_DUPLICATE_ID,
 						"Corpus id already in use: "+id); //$NON-NLS-1$
 
+			Map<String, CorpusManifest> corpora = copy(this.corpora);
 			corpora.put(id, manifest);
 
 			templateManifestLock.lockTemplates(manifest);
+
+			this.corpora = freeze(corpora);
+			version.incrementAndGet();
 		}
 
 		fireEvent(new EventObject(ManifestEvents.ADDED_CORPUS, "corpus", manifest)); //$NON-NLS-1$
@@ -262,6 +303,7 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 		fireEvent(new EventObject(ManifestEvents.REMOVE_CORPUS, "corpus", manifest)); //$NON-NLS-1$
 
 		synchronized (lock) {
+			Map<String, CorpusManifest> corpora = copy(this.corpora);
 			if(!corpora.containsKey(id))
 				throw new ManifestException(ManifestErrorCode.MANIFEST_UNKNOWN_ID,
 						"Unknown corpus id: "+id); //$NON-NLS-1$
@@ -271,6 +313,9 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 						"Removal failed - specified corpus id is assigned to another manifest");
 
 			templateManifestLock.unlockTemplates(manifest);
+
+			this.corpora = freeze(corpora);
+			version.incrementAndGet();
 		}
 
 		fireEvent(new EventObject(ManifestEvents.REMOVED_CORPUS, "corpus", manifest)); //$NON-NLS-1$
@@ -280,32 +325,24 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 	public Optional<CorpusManifest> getCorpusManifest(String id) {
 		requireNonNull(id);
 
-		synchronized (lock) {
-			return Optional.ofNullable(corpora.get(id));
-		}
+		return Optional.ofNullable(corpora.get(id));
 	}
 
 	@Override
 	public void forEachCorpus(Consumer<? super CorpusManifest> action) {
-		synchronized (lock) {
-			corpora.values().forEach(action);
-		}
+		corpora.values().forEach(action);
 	}
 
 	@Override
 	public boolean hasTemplate(String id) {
 		requireNonNull(id);
 
-		synchronized (lock) {
-			return templates.containsKey(id);
-		}
+		return templates.containsKey(id);
 	}
 
 	@Override
 	public void forEachTemplate(Consumer<? super Manifest> action) {
-		synchronized (lock) {
-			templates.values().forEach(action);
-		}
+		templates.values().forEach(action);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -313,10 +350,7 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 	public <M extends Manifest> Optional<M> getTemplate(String id) {
 		requireNonNull(id);
 
-		Optional<M> template;
-		synchronized (lock) {
-			template = Optional.ofNullable((M)templates.get(id));
-		}
+		Optional<M> template = Optional.ofNullable((M)templates.get(id));
 
 		// Sanity check against external modifications of the template manifest
 		if(template.isPresent()) {
@@ -334,6 +368,8 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 	public void corpusManifestChanged(CorpusManifest corpus) {
 		requireNonNull(corpus);
 
+		version.incrementAndGet();
+
 		fireEvent(new EventObject(ManifestEvents.CHANGED_CORPUS,
 				"corpus", corpus)); //$NON-NLS-1$
 	}
@@ -342,13 +378,15 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 	public void contextManifestChanged(ContextManifest context) {
 		requireNonNull(context);
 
+		version.incrementAndGet();
+
 		fireEvent(new EventObject(ManifestEvents.CHANGED_CONTEXT,
 				"corpus", context.getCorpusManifest().orElse(null), //$NON-NLS-1$
 				"context", context)); //$NON-NLS-1$
 	}
 
 	/**
-	 * Must be called under 'templates' lock!
+	 * Must be called under 'lock'!
 	 *
 	 * Verifies that given {@link Manifest} is a template and has a valid id
 	 * and
@@ -377,9 +415,13 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 		synchronized (lock) {
 			checkTemplate(template);
 			// Above check makes sure that the template has a proper id
+			Map<String, Manifest> templates = copy(this.templates);
 			templates.put(template.getId().get(), template);
 
 			templateManifestLock.lockTemplates(template);
+
+			this.templates = freeze(templates);
+			version.incrementAndGet();
 		}
 
 		fireEvent(new EventObject(ManifestEvents.ADDED_TEMPLATE, "template", template)); //$NON-NLS-1$
@@ -401,14 +443,18 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 			}
 
 			// Second pass: add templates (valid ids are ensured by above chek)
+			Map<String, Manifest> newTemplates = copy(this.templates);
 			for(Manifest template : templates) {
-				this.templates.put(template.getId().get(), template);
+				newTemplates.put(template.getId().get(), template);
 			}
 
 			// Third pass: update locks
 			for(Manifest template : templates) {
 				templateManifestLock.lockTemplates(template);
 			}
+
+			this.templates = freeze(newTemplates);
+			version.incrementAndGet();
 		}
 
 		fireEvent(new EventObject(ManifestEvents.ADDED_TEMPLATES, "templates", templatesArray)); //$NON-NLS-1$
@@ -433,6 +479,7 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 		fireEvent(new EventObject(ManifestEvents.REMOVE_TEMPLATE, "template", template)); //$NON-NLS-1$
 
 		synchronized (lock) {
+			Map<String, Manifest> templates = copy(this.templates);
 			if(!templates.containsKey(id))
 				throw new ManifestException(ManifestErrorCode.MANIFEST_UNKNOWN_ID,
 						"Unknown template id: "+id); //$NON-NLS-1$
@@ -442,6 +489,9 @@ public final class DefaultManifestRegistry implements ManifestRegistry {
 						"Removal failed - specified template id is assigned to another manifest");
 
 			templateManifestLock.unlockTemplates(template);
+
+			this.templates = freeze(templates);
+			version.incrementAndGet();
 		}
 
 		fireEvent(new EventObject(ManifestEvents.REMOVED_TEMPLATE, "template", template)); //$NON-NLS-1$
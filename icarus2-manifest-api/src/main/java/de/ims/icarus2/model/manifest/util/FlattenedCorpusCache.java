@@ -0,0 +1,101 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.model.manifest.util;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.ims.icarus2.model.manifest.api.CorpusManifest;
+import de.ims.icarus2.model.manifest.api.ManifestRegistry;
+
+/**
+ * Caches {@link ManifestUtils#flattenCorpus(CorpusManifest) flattened} versions
+ * of corpus manifests so that repeated or concurrent connections to the same
+ * corpus can share a single resolved manifest tree instead of cloning it each time.
+ * <p>
+ * Entries are keyed by the identity of the source manifest and the
+ * {@link ManifestRegistry#getVersion() version} of its registry at the time
+ * of flattening. Any modification of the registry therefore invalidates
+ * previously cached results. If the registry does not support versioning,
+ * no caching takes place and every call produces a fresh clone.
+ * <p>
+ * Concurrent requests for the same corpus are serialized, so that only one
+ * of them performs the actual flattening.
+ *
+ * @author Markus Gärtner
+ *
+ */
+public final class FlattenedCorpusCache {
+
+	/** Maps from corpus id to the last flattened version of that corpus */
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns a flattened version of the given {@code source} manifest, either
+	 * from the cache or by creating and caching a new one.
+	 *
+	 * @param source
+	 * @return
+	 */
+	public CorpusManifest getFlattened(CorpusManifest source) {
+		requireNonNull(source);
+
+		final long version = source.getRegistry().getVersion();
+		if(version<0) {
+			return ManifestUtils.flattenCorpus(source);
+		}
+
+		final String id = ManifestUtils.requireId(source);
+		return entries.compute(id, (k, entry) -> {
+			if(entry!=null && entry.source==source && entry.version==version) {
+				return entry;
+			}
+			return new Entry(source, version, ManifestUtils.flattenCorpus(source));
+		}).flattened;
+	}
+
+	/** Discards the cached version of the corpus with given id, if present. */
+	public void invalidate(String corpusId) {
+		entries.remove(requireNonNull(corpusId));
+	}
+
+	/** Discards all cached manifests. */
+	public void clear() {
+		entries.clear();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	private static final class Entry {
+		final CorpusManifest source;
+		final long version;
+		final CorpusManifest flattened;
+
+		Entry(CorpusManifest source, long version, CorpusManifest flattened) {
+			this.source = source;
+			this.version = version;
+			this.flattened = flattened;
+		}
+	}
+}
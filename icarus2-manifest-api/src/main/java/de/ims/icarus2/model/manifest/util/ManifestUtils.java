@@ -347,6 +347,15 @@ public class ManifestUtils {
 		return null;
 	}
 
+	/**
+	 * Creates a detached copy of the given corpus manifest with all templates
+	 * resolved. The returned manifest is marked as not editable. Use a
+	 * {@link FlattenedCorpusCache} to share flattened manifests between
+	 * multiple connections to the same corpus.
+	 *
+	 * @param source
+	 * @return
+	 */
 	public static CorpusManifest flattenCorpus(CorpusManifest source) {
 		final ManifestFactory factory = new DefaultManifestFactory(source.getManifestLocation(), source.getRegistry());
 		final ContextManifestResolver resolver = new ContextManifestResolver(factory);
@@ -0,0 +1,480 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.model.manifest.xml;
+
+import static de.ims.icarus2.util.Conditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+import de.ims.icarus2.model.manifest.api.ManifestLocation;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+/**
+ * Compact binary representation of the XML content of a set of manifest sources.
+ * <p>
+ * Instead of serializing the manifest objects themselves, a snapshot stores the
+ * already validated SAX event stream of every source (element starts with their
+ * attributes, text content and element ends) with all strings deduplicated in a
+ * shared table. Replaying those events into the regular {@link ManifestXmlHandler}
+ * hierarchy yields exactly the same manifests as parsing the XML, but skips
+ * character decoding, tokenization and schema validation.
+ * <p>
+ * Every source is identified by a fingerprint consisting of its url, template flag,
+ * last modification time (if available) and a hash of its content. A snapshot is
+ * only usable if the fingerprints of all current sources match.
+ *
+ * @author Markus Gärtner
+ *
+ */
+final class BinaryManifestSnapshot {
+
+	/** Magic header {@code ICMS} */
+	static final int MAGIC = 0x49434D53;
+	static final int FORMAT_VERSION = 1;
+
+	private static final byte END_SOURCE = 0;
+	private static final byte START_ELEMENT = 1;
+	private static final byte END_ELEMENT = 2;
+	private static final byte TEXT = 3;
+
+	private static final String HASH_ALGORITHM = "SHA-256";
+
+	private final String[] strings;
+	private final Fingerprint[] fingerprints;
+	/** Encoded event streams, one per source */
+	private final byte[][] events;
+
+	private BinaryManifestSnapshot(String[] strings, Fingerprint[] fingerprints, byte[][] events) {
+		this.strings = requireNonNull(strings);
+		this.fingerprints = requireNonNull(fingerprints);
+		this.events = requireNonNull(events);
+	}
+
+	int getSourceCount() {
+		return fingerprints.length;
+	}
+
+	/**
+	 * Verifies that this snapshot was created for exactly the given sources in the
+	 * given order and that none of them has changed since. Modification times are
+	 * compared first so that content hashes only need to be computed when all
+	 * cheaper checks pass.
+	 */
+	boolean matches(List<ManifestLocation> sources) throws IOException {
+		if(sources.size()!=fingerprints.length) {
+			return false;
+		}
+
+		for (int i = 0; i < fingerprints.length; i++) {
+			ManifestLocation source = sources.get(i);
+			Fingerprint fingerprint = fingerprints[i];
+			if(!fingerprint.key.equals(keyOf(source))
+					|| fingerprint.template!=source.isTemplate()
+					|| fingerprint.lastModified!=lastModified(source)) {
+				return false;
+			}
+		}
+
+		for (int i = 0; i < fingerprints.length; i++) {
+			if(!Arrays.equals(fingerprints[i].hash, hash(sources.get(i)))) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Feeds the recorded events of the source at given index into the handler.
+	 */
+	void replay(int sourceIndex, ContentHandler handler) throws IOException, SAXException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(events[sourceIndex]));
+		AttributesImpl attributes = new AttributesImpl();
+
+		for(;;) {
+			byte code = in.readByte();
+			switch (code) {
+			case END_SOURCE:
+				return;
+
+			case START_ELEMENT: {
+				String uri = string(in);
+				String localName = string(in);
+				String qName = string(in);
+				attributes.clear();
+				int attributeCount = in.readInt();
+				for (int i = 0; i < attributeCount; i++) {
+					attributes.addAttribute(string(in), string(in), string(in), string(in), string(in));
+				}
+				handler.startElement(uri, localName, qName, attributes);
+			} break;
+
+			case END_ELEMENT:
+				handler.endElement(string(in), string(in), string(in));
+				break;
+
+			case TEXT: {
+				char[] text = string(in).toCharArray();
+				handler.characters(text, 0, text.length);
+			} break;
+
+			default:
+				throw new IOException("Corrupted event stream - unknown event code: "+code);
+			}
+		}
+	}
+
+	private String string(DataInputStream in) throws IOException {
+		int index = in.readInt();
+		if(index<0 || index>=strings.length)
+			throw new IOException("Corrupted event stream - string index out of bounds: "+index);
+		return strings[index];
+	}
+
+	// Persistence
+
+	static BinaryManifestSnapshot read(Path file) throws IOException {
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if(in.readInt()!=MAGIC)
+				throw new IOException("Not a manifest snapshot: "+file);
+			int version = in.readInt();
+			if(version!=FORMAT_VERSION)
+				throw new IOException("Unsupported snapshot format version "+version+" in "+file);
+
+			String[] strings = new String[in.readInt()];
+			for (int i = 0; i < strings.length; i++) {
+				strings[i] = readString(in);
+			}
+
+			int sourceCount = in.readInt();
+			Fingerprint[] fingerprints = new Fingerprint[sourceCount];
+			byte[][] events = new byte[sourceCount][];
+			for (int i = 0; i < sourceCount; i++) {
+				String key = readString(in);
+				boolean template = in.readBoolean();
+				long lastModified = in.readLong();
+				byte[] hash = readBytes(in);
+				fingerprints[i] = new Fingerprint(key, template, lastModified, hash);
+				events[i] = readBytes(in);
+			}
+
+			return new BinaryManifestSnapshot(strings, fingerprints, events);
+		}
+	}
+
+	/**
+	 * Writes this snapshot to a temporary file next to the given {@code file} and
+	 * then moves it into place, so that readers never observe partially written data.
+	 */
+	void write(Path file) throws IOException {
+		Path dir = file.toAbsolutePath().getParent();
+		if(dir!=null) {
+			Files.createDirectories(dir);
+		}
+		Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+		try {
+			try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+
+				out.writeInt(strings.length);
+				for (String s : strings) {
+					writeString(out, s);
+				}
+
+				out.writeInt(fingerprints.length);
+				for (int i = 0; i < fingerprints.length; i++) {
+					Fingerprint fingerprint = fingerprints[i];
+					writeString(out, fingerprint.key);
+					out.writeBoolean(fingerprint.template);
+					out.writeLong(fingerprint.lastModified);
+					writeBytes(out, fingerprint.hash);
+					writeBytes(out, events[i]);
+				}
+			}
+
+			try {
+				Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch(AtomicMoveNotSupportedException e) {
+				Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		return new String(readBytes(in), StandardCharsets.UTF_8);
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		writeBytes(out, s.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static byte[] readBytes(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if(length<0)
+			throw new IOException("Corrupted snapshot - negative length: "+length);
+		byte[] data = new byte[length];
+		in.readFully(data);
+		return data;
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] data) throws IOException {
+		out.writeInt(data.length);
+		out.write(data);
+	}
+
+	// Fingerprinting
+
+	private static String keyOf(ManifestLocation source) {
+		URL url = source.getUrl();
+		return url==null ? "" : url.toExternalForm();
+	}
+
+	/**
+	 * Returns the modification time for file-based sources and {@code 0}
+	 * for all others, in which case only the content hash is used.
+	 */
+	private static long lastModified(ManifestLocation source) throws IOException {
+		URL url = source.getUrl();
+		if(url==null || !"file".equals(url.getProtocol())) {
+			return 0L;
+		}
+		try {
+			return Files.getLastModifiedTime(Paths.get(url.toURI())).toMillis();
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			return 0L;
+		}
+	}
+
+	private static byte[] hash(ManifestLocation source) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException("Hash algorithm not available: "+HASH_ALGORITHM, e);
+		}
+
+		char[] buffer = new char[8192];
+		byte[] bytes = new byte[buffer.length*2];
+		try(Reader in = source.getInput()) {
+			int read;
+			while((read = in.read(buffer))!=-1) {
+				for (int i = 0; i < read; i++) {
+					bytes[i*2] = (byte) (buffer[i] >>> 8);
+					bytes[i*2+1] = (byte) buffer[i];
+				}
+				digest.update(bytes, 0, read*2);
+			}
+		}
+		return digest.digest();
+	}
+
+	private static final class Fingerprint {
+		final String key;
+		final boolean template;
+		final long lastModified;
+		final byte[] hash;
+
+		Fingerprint(String key, boolean template, long lastModified, byte[] hash) {
+			this.key = requireNonNull(key);
+			this.template = template;
+			this.lastModified = lastModified;
+			this.hash = requireNonNull(hash);
+		}
+
+		static Fingerprint of(ManifestLocation source) throws IOException {
+			return new Fingerprint(keyOf(source), source.isTemplate(),
+					lastModified(source), hash(source));
+		}
+	}
+
+	/**
+	 * Collects the event streams of sources while they are parsed and
+	 * finally {@link #build() builds} a snapshot from them. Sources are
+	 * stored in the order their sessions got {@link #record(ManifestLocation, ContentHandler) created},
+	 * independent of the order in which they {@link Session#finish() finish}, so
+	 * that sessions can be used concurrently.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	static final class Recorder {
+
+		private final Object2IntMap<String> stringIds = new Object2IntOpenHashMap<>();
+		private final List<String> strings = new ArrayList<>();
+		private final List<Fingerprint> fingerprints = new ArrayList<>();
+		private final List<byte[]> events = new ArrayList<>();
+
+		Recorder() {
+			stringIds.defaultReturnValue(-1);
+		}
+
+		private synchronized int stringId(String s) {
+			if(s==null) {
+				s = "";
+			}
+			int id = stringIds.getInt(s);
+			if(id==-1) {
+				id = strings.size();
+				strings.add(s);
+				stringIds.put(s, id);
+			}
+			return id;
+		}
+
+		/**
+		 * Creates a handler that records all relevant events for the given source
+		 * and forwards them to {@code target}. The returned session must be
+		 * {@link Session#finish() finished} after the source has been parsed completely.
+		 */
+		synchronized Session record(ManifestLocation source, ContentHandler target) {
+			int slot = fingerprints.size();
+			fingerprints.add(null);
+			events.add(null);
+			return new Session(slot, source, target);
+		}
+
+		private synchronized void store(int slot, Fingerprint fingerprint, byte[] data) {
+			fingerprints.set(slot, fingerprint);
+			events.set(slot, data);
+		}
+
+		synchronized BinaryManifestSnapshot build() {
+			checkState("Unfinished sessions", !fingerprints.contains(null));
+			return new BinaryManifestSnapshot(
+					strings.toArray(new String[strings.size()]),
+					fingerprints.toArray(new Fingerprint[fingerprints.size()]),
+					events.toArray(new byte[events.size()][]));
+		}
+
+		final class Session extends DefaultHandler {
+			private final int slot;
+			private final ManifestLocation source;
+			private final ContentHandler target;
+			private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			private final DataOutputStream out = new DataOutputStream(buffer);
+			/** Consecutive character events are merged into a single text event */
+			private final StringBuilder text = new StringBuilder();
+
+			Session(int slot, ManifestLocation source, ContentHandler target) {
+				this.slot = slot;
+				this.source = requireNonNull(source);
+				this.target = requireNonNull(target);
+			}
+
+			private void flushText() throws IOException {
+				if(text.length()>0) {
+					out.writeByte(TEXT);
+					out.writeInt(stringId(text.toString()));
+					text.setLength(0);
+				}
+			}
+
+			@Override
+			public void startElement(String uri, String localName, String qName, Attributes attributes)
+					throws SAXException {
+				try {
+					flushText();
+					out.writeByte(START_ELEMENT);
+					out.writeInt(stringId(uri));
+					out.writeInt(stringId(localName));
+					out.writeInt(stringId(qName));
+					int attributeCount = attributes.getLength();
+					out.writeInt(attributeCount);
+					for (int i = 0; i < attributeCount; i++) {
+						out.writeInt(stringId(attributes.getURI(i)));
+						out.writeInt(stringId(attributes.getLocalName(i)));
+						out.writeInt(stringId(attributes.getQName(i)));
+						out.writeInt(stringId(attributes.getType(i)));
+						out.writeInt(stringId(attributes.getValue(i)));
+					}
+				} catch (IOException e) {
+					throw new SAXException("Failed to record event", e);
+				}
+
+				target.startElement(uri, localName, qName, attributes);
+			}
+
+			@Override
+			public void endElement(String uri, String localName, String qName) throws SAXException {
+				try {
+					flushText();
+					out.writeByte(END_ELEMENT);
+					out.writeInt(stringId(uri));
+					out.writeInt(stringId(localName));
+					out.writeInt(stringId(qName));
+				} catch (IOException e) {
+					throw new SAXException("Failed to record event", e);
+				}
+
+				target.endElement(uri, localName, qName);
+			}
+
+			@Override
+			public void characters(char[] ch, int start, int length) throws SAXException {
+				text.append(ch, start, length);
+
+				target.characters(ch, start, length);
+			}
+
+			/**
+			 * Completes the recording of the current source. Must only be called after
+			 * the source has been successfully parsed.
+			 */
+			void finish() throws IOException {
+				flushText();
+				out.writeByte(END_SOURCE);
+				out.flush();
+
+				store(slot, Fingerprint.of(source), buffer.toByteArray());
+			}
+		}
+	}
+}
@@ -43,6 +43,10 @@ public abstract class ManifestXmlProcessor {
 		this.delegateFactory = delegateFactory;
 	}
 
+	protected ManifestXmlDelegateFactory getDelegateFactory() {
+		return delegateFactory;
+	}
+
 	protected ManifestXmlDelegate<?> getDelegate(Manifest manifest) {
 		ManifestType type = manifest.getManifestType();
 
@@ -21,9 +21,12 @@ import static de.ims.icarus2.util.Conditions.checkState;
 import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.Reader;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -33,7 +36,13 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import javax.annotation.Nullable;
@@ -42,6 +51,8 @@ import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import javax.xml.validation.Schema;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.xml.sax.Attributes;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
@@ -57,6 +68,7 @@ import de.ims.icarus2.model.manifest.api.CorpusManifest;
 import de.ims.icarus2.model.manifest.api.Manifest;
 import de.ims.icarus2.model.manifest.api.ManifestLocation;
 import de.ims.icarus2.model.manifest.api.ManifestRegistry;
+import de.ims.icarus2.model.manifest.api.ManifestType;
 import de.ims.icarus2.model.manifest.standard.AnnotationLayerManifestImpl;
 import de.ims.icarus2.model.manifest.standard.AnnotationManifestImpl;
 import de.ims.icarus2.model.manifest.standard.ContainerManifestImpl;
@@ -82,6 +94,7 @@ import de.ims.icarus2.util.lang.Lazy;
 import de.ims.icarus2.util.xml.UnexpectedTagException;
 import de.ims.icarus2.util.xml.XmlHandler;
 import de.ims.icarus2.util.xml.XmlUtils;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 
 /**
@@ -104,6 +117,19 @@ import it.unimi.dsi.fastutil.objects.ObjectArrayList;
  * <li>Creating fully cloned manifest instances for each corpus, preserving template informations</li>
  * </ol>
  *
+ * If a {@link Builder#snapshotFile(Path) snapshot file} is configured, {@link #readAndRegisterAll()}
+ * stores a binary snapshot of the already validated XML content after reading all sources
+ * and replays it on subsequent calls instead of parsing the XML sources again, as long as
+ * none of the sources changed. Any problem with the snapshot causes a fallback to regular
+ * XML parsing.
+ * <p>
+ * With a {@link Builder#parallelism(int) parallelism} greater than {@code 1} the individual
+ * sources of each of the above parsing steps are parsed and validated concurrently. Templates
+ * are only referenced by id while parsing and get linked lazily via the registry, so the
+ * only ordering constraint is that all templates are registered before corpora get processed.
+ * The resulting manifests are still handed over in the order of their sources and errors are
+ * reported for the first failing source, the same way as with sequential parsing.
+ *
  * Not thread-safe!
  *
  * @author Markus Gärtner
@@ -111,6 +137,8 @@ import it.unimi.dsi.fastutil.objects.ObjectArrayList;
  */
 public class ManifestXmlReader extends ManifestXmlProcessor {
 
+	private static final Logger log = LoggerFactory.getLogger(ManifestXmlReader.class);
+
 	private final Set<ManifestLocation> templateSources = new LinkedHashSet<>();
 	private final Set<ManifestLocation> corpusSources = new LinkedHashSet<>();
 	//TODO add a buffer for sources for which the template state is unknown?
@@ -124,6 +152,10 @@ public class ManifestXmlReader extends ManifestXmlProcessor {
 	private final Consumer<Manifest> templateProcessor;
 	private final Consumer<CorpusManifest> corpusProcessor;
 
+	private final Path snapshotFile;
+
+	private final int parallelism;
+
 	private static final Lazy<Schema> schema = XmlUtils.createShareableSchemaSource(
 			ManifestXmlReader.class.getResource("corpus.xsd"));
 
@@ -145,6 +177,8 @@ public class ManifestXmlReader extends ManifestXmlProcessor {
 		this.namespaceUri = builder.getNamespaceUri();
 		this.templateProcessor = builder.getTemplateProcessor();
 		this.corpusProcessor = builder.getCorpusProcessor();
+		this.snapshotFile = builder.getSnapshotFile();
+		this.parallelism = builder.getParallelism();
 
 		List<ManifestLocation> sources = builder.getSources();
 		sources.forEach(this::addSource);
@@ -173,24 +207,199 @@ public class ManifestXmlReader extends ManifestXmlProcessor {
 		return this;
 	}
 
+	/**
+	 * Strategy for turning a set of sources into manifests, either by
+	 * parsing XML or by replaying a snapshot.
+	 */
+	@FunctionalInterface
+	private interface SourceHandler {
+		void process(Set<ManifestLocation> sources, Consumer<Manifest> action) throws IOException, SAXException;
+	}
+
+	/**
+	 * Parses XML sources with a lazily created {@link XMLReader} and optionally
+	 * records their content for a new snapshot.
+	 */
+	private final class XmlSourceHandler implements SourceHandler {
+		private final BinaryManifestSnapshot.Recorder recorder;
+		private final InputSource inputSource = new InputSource();
+		private XMLReader reader;
+
+		XmlSourceHandler(@Nullable BinaryManifestSnapshot.Recorder recorder) {
+			this.recorder = recorder;
+		}
+
+		@Override
+		public void process(Set<ManifestLocation> sources, Consumer<Manifest> action)
+				throws IOException, SAXException {
+			if(parallelism>1 && sources.size()>1) {
+				parseSourcesParallel(sources, recorder, action);
+				return;
+			}
+
+			if(reader==null) {
+				reader = newReader();
+			}
+			parseSources(sources, reader, inputSource, recorder, action);
+		}
+	}
+
 	private void parseSources(Set<ManifestLocation> sources, XMLReader reader, InputSource inputSource,
-			Consumer<Manifest> action) throws IOException, SAXException {
+			@Nullable BinaryManifestSnapshot.Recorder recorder, Consumer<Manifest> action)
+					throws IOException, SAXException {
 
 		for(ManifestLocation source : sources) {
-			try (Reader in = source.getInput()) {
-				RootHandlerProxy handler = new RootHandlerProxy(source, new ManifestCollector());
+			RootHandlerProxy handler = new RootHandlerProxy(source, new ManifestCollector());
+			BinaryManifestSnapshot.Recorder.Session session = recorder==null ? null : recorder.record(source, handler);
+
+			parseSource(source, reader, inputSource, handler, session);
+
+			handler.getTopLevelManifests().forEach(action);
+		}
+	}
+
+	private void parseSource(ManifestLocation source, XMLReader reader, InputSource inputSource,
+			RootHandlerProxy handler, @Nullable BinaryManifestSnapshot.Recorder.Session session)
+					throws IOException, SAXException {
+		try (Reader in = source.getInput()) {
+			reader.setContentHandler(session==null ? handler : session);
+			reader.setErrorHandler(handler);
+			reader.setEntityResolver(handler);
+			reader.setDTDHandler(handler);
+
+			inputSource.setCharacterStream(in);
+
+			reader.parse(inputSource);
 
-				reader.setContentHandler(handler);
-				reader.setErrorHandler(handler);
-				reader.setEntityResolver(handler);
-				reader.setDTDHandler(handler);
+			if(session!=null) {
+				session.finish();
+			}
+		}
+	}
 
-				inputSource.setCharacterStream(in);
+	/**
+	 * Parses and validates all sources concurrently, each with its own {@link XMLReader}
+	 * and delegates. Results are consumed in source order on the calling thread, so the
+	 * {@code action} sees the same sequence of manifests as with sequential parsing and
+	 * the first failing source in that order determines the reported error.
+	 */
+	private void parseSourcesParallel(Set<ManifestLocation> sources,
+			@Nullable BinaryManifestSnapshot.Recorder recorder, Consumer<Manifest> action)
+					throws IOException, SAXException {
 
-				reader.parse(inputSource);
+		final ExecutorService executor = Executors.newFixedThreadPool(
+				Math.min(parallelism, sources.size()), new ParserThreadFactory());
+		final ThreadLocal<XMLReader> readers = new ThreadLocal<>();
 
+		try {
+			List<Future<List<Manifest>>> results = new ArrayList<>(sources.size());
+
+			for(ManifestLocation source : sources) {
+				RootHandlerProxy handler = new RootHandlerProxy(source, new ManifestCollector(true));
+				BinaryManifestSnapshot.Recorder.Session session = recorder==null ? null : recorder.record(source, handler);
+
+				results.add(executor.submit(() -> {
+					XMLReader reader = readers.get();
+					if(reader==null) {
+						reader = newReader();
+						readers.set(reader);
+					}
+					parseSource(source, reader, new InputSource(), handler, session);
+					return handler.getTopLevelManifests();
+				}));
+			}
+
+			for(Future<List<Manifest>> result : results) {
+				List<Manifest> manifests;
+				try {
+					manifests = result.get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while waiting for parsing results");
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if(cause instanceof SAXException)
+						throw (SAXException) cause;
+					if(cause instanceof IOException)
+						throw (IOException) cause;
+					if(cause instanceof RuntimeException)
+						throw (RuntimeException) cause;
+					if(cause instanceof Error)
+						throw (Error) cause;
+					throw new SAXException("Failed to parse manifest source", (Exception) cause);
+				}
+
+				manifests.forEach(action);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static final class ParserThreadFactory implements ThreadFactory {
+		private static final AtomicInteger poolCount = new AtomicInteger(0);
+
+		private final int pool = poolCount.incrementAndGet();
+		private final AtomicInteger threadCount = new AtomicInteger(0);
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "manifest-parser-"+pool+"-"+threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	/**
+	 * Creates a handler that replays the given snapshot, assuming the
+	 * sources passed to it start at {@code offset} within the snapshot.
+	 */
+	private SourceHandler replay(BinaryManifestSnapshot snapshot, int offset) {
+		return (sources, action) -> {
+			int index = offset;
+			for(ManifestLocation source : sources) {
+				RootHandlerProxy handler = new RootHandlerProxy(source, new ManifestCollector());
+				snapshot.replay(index++, handler);
 				handler.getTopLevelManifests().forEach(action);
 			}
+		};
+	}
+
+	/**
+	 * Loads the configured snapshot if it exists and still matches the
+	 * current sources. Returns {@code null} otherwise.
+	 */
+	@Nullable
+	private BinaryManifestSnapshot openSnapshot() {
+		if(snapshotFile==null || !Files.isRegularFile(snapshotFile)) {
+			return null;
+		}
+
+		List<ManifestLocation> sources = new ArrayList<>(templateSources);
+		sources.addAll(corpusSources);
+
+		try {
+			BinaryManifestSnapshot snapshot = BinaryManifestSnapshot.read(snapshotFile);
+			if(!snapshot.matches(sources)) {
+				log.info("Manifest snapshot {} is outdated - reading XML sources", snapshotFile);
+				return null;
+			}
+			return snapshot;
+		} catch (IOException | RuntimeException e) {
+			log.warn("Unable to read manifest snapshot {} - reading XML sources", snapshotFile, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Deletes the configured snapshot, so that the next read will
+	 * fall back to XML parsing and create a fresh snapshot.
+	 */
+	private void discardSnapshot() {
+		try {
+			Files.deleteIfExists(snapshotFile);
+		} catch (IOException e) {
+			log.warn("Unable to delete manifest snapshot {}", snapshotFile, e);
 		}
 	}
 
@@ -208,24 +417,29 @@ public class ManifestXmlReader extends ManifestXmlProcessor {
 			throw new IllegalStateException("Reading already in progress"); //$NON-NLS-1$
 
 		try {
-			XMLReader reader = newReader();
-			InputSource inputSource = new InputSource();
-			return parseTemplates0(reader, inputSource);
+			return processTemplates(parseTemplates0(new XmlSourceHandler(null)));
 		} finally {
 			reading.set(false);
 		}
 	}
 
-	private List<Manifest> parseTemplates0(XMLReader reader, InputSource inputSource) throws SAXException, IOException {
+	/**
+	 * Collects the templates from all template sources <b>without</b> handing them
+	 * to the template processor. Callers do that via {@link #processTemplates(List)}
+	 * once all sources have been handled successfully, so that a failed snapshot
+	 * replay can fall back to XML without feeding the processor the same manifests twice.
+	 */
+	private List<Manifest> parseTemplates0(SourceHandler sourceHandler) throws SAXException, IOException {
 		List<Manifest> results = new ObjectArrayList<>();
-		Consumer<Manifest> action = results::add;
+		sourceHandler.process(templateSources, results::add);
+		return results;
+	}
+
+	private List<Manifest> processTemplates(List<Manifest> templates) {
 		if(templateProcessor!=null) {
-			action = templateProcessor.andThen(action);
+			templates.forEach(templateProcessor);
 		}
-
-		parseSources(templateSources, reader, inputSource, action);
-
-		return results;
+		return templates;
 	}
 
 	/**
@@ -242,29 +456,30 @@ public class ManifestXmlReader extends ManifestXmlProcessor {
 			throw new IllegalStateException("Reading already in progress"); //$NON-NLS-1$
 
 		try {
-			XMLReader reader = newReader();
-			InputSource inputSource = new InputSource();
-			return parseCorpora0(reader, inputSource);
+			return processCorpora(parseCorpora0(new XmlSourceHandler(null)));
 		} finally {
 			reading.set(false);
 		}
 	}
 
-	private List<CorpusManifest> parseCorpora0(XMLReader reader, InputSource inputSource) throws SAXException, IOException {
+	/**
+	 * Collects the corpora from all corpus sources <b>without</b> handing them to
+	 * the corpus processor.
+	 *
+	 * @see #parseTemplates0(SourceHandler)
+	 * @see #processCorpora(List)
+	 */
+	private List<CorpusManifest> parseCorpora0(SourceHandler sourceHandler) throws SAXException, IOException {
 		List<CorpusManifest> results = new ObjectArrayList<>();
-		Consumer<Manifest> action = m -> results.add((CorpusManifest) m);
+		sourceHandler.process(corpusSources, m -> results.add((CorpusManifest) m));
+		return results;
+	}
+
+	private List<CorpusManifest> processCorpora(List<CorpusManifest> corpora) {
 		if(corpusProcessor!=null) {
-			action = m -> {
-				CorpusManifest cm = (CorpusManifest)m;
-				corpusProcessor.accept(cm);
-				results.add(cm);
-			};
+			corpora.forEach(corpusProcessor);
 		}
-
-
-		parseSources(corpusSources, reader, inputSource, action);
-
-		return results;
+		return corpora;
 	}
 
 	public ManifestXmlReader readAndRegisterAll() throws IOException, SAXException {
@@ -273,19 +488,56 @@ public class ManifestXmlReader extends ManifestXmlProcessor {
 			throw new IllegalStateException("Reading already in progress"); //$NON-NLS-1$
 
 		try {
-			XMLReader reader = newReader();
-
-			InputSource inputSource = new InputSource();
+			BinaryManifestSnapshot snapshot = openSnapshot();
+			// Only record a new snapshot if we actually need to parse everything
+			BinaryManifestSnapshot.Recorder recorder = null;
+			if(snapshotFile!=null && snapshot==null) {
+				recorder = new BinaryManifestSnapshot.Recorder();
+			}
+			SourceHandler xml = new XmlSourceHandler(recorder);
 
 			// Read and register all template manifests (use batch method!!)
-			registry.addTemplates(parseTemplates0(reader, inputSource));
+			List<Manifest> templates = null;
+			if(snapshot!=null) {
+				try {
+					templates = parseTemplates0(replay(snapshot, 0));
+				} catch (IOException | SAXException | RuntimeException e) {
+					log.warn("Failed to replay templates from manifest snapshot {} - reading XML sources", snapshotFile, e);
+					discardSnapshot();
+					snapshot = null;
+				}
+			}
+			if(templates==null) {
+				templates = parseTemplates0(xml);
+			}
+			registry.addTemplates(processTemplates(templates));
 
 			// Read in, build and register all live corpora
-			for(CorpusManifest manifest : parseCorpora0(reader, inputSource)) {
+			List<CorpusManifest> corpora = null;
+			if(snapshot!=null) {
+				try {
+					corpora = parseCorpora0(replay(snapshot, templateSources.size()));
+				} catch (IOException | SAXException | RuntimeException e) {
+					log.warn("Failed to replay corpora from manifest snapshot {} - reading XML sources", snapshotFile, e);
+					discardSnapshot();
+				}
+			}
+			if(corpora==null) {
+				corpora = parseCorpora0(xml);
+			}
+			for(CorpusManifest manifest : processCorpora(corpora)) {
 				//TODO instantiate a fresh new corpus manifest with proper linking!
 
 				registry.addCorpusManifest(manifest);
 			}
+
+			if(recorder!=null) {
+				try {
+					recorder.build().write(snapshotFile);
+				} catch (IOException e) {
+					log.warn("Unable to write manifest snapshot {}", snapshotFile, e);
+				}
+			}
 		} finally {
 			reading.set(false);
 		}
@@ -542,6 +794,8 @@ public class ManifestXmlReader extends ManifestXmlProcessor {
 	};
 
 	protected Manifest newInstance(String tag, ManifestLocation manifestLocation) throws SAXException {
+		Constructor<?> constructor;
+
 		synchronized (CONSTRUCTOR_TYPES) {
 			Map<String, Object> handlerLut = manifestLocation.isTemplate() ? templateHandlers : liveHandlers;
 			Object current = handlerLut.get(tag);
@@ -549,8 +803,6 @@ public class ManifestXmlReader extends ManifestXmlProcessor {
 			if(current==null)
 				throw new SAXException("No manifest delegate for tag: "+tag+" - template context: "+manifestLocation.isTemplate()); //$NON-NLS-1$
 
-			Constructor<?> constructor;
-
 			if(current instanceof Constructor) {
 				constructor = (Constructor<?>) current;
 			} else {
@@ -562,13 +814,14 @@ public class ManifestXmlReader extends ManifestXmlProcessor {
 					throw new SAXException("Failed to access manifest constructur", e);
 				}
 			}
+		}
 
-			try {
-				return (Manifest) constructor.newInstance(manifestLocation, registry);
-			} catch (InstantiationException | IllegalAccessException
-					| IllegalArgumentException | InvocationTargetException e) {
-				throw new SAXException("Failed to invoke manifest constructur", e);
-			}
+		// Instantiation itself doesn't need to be guarded, allowing concurrent parsing
+		try {
+			return (Manifest) constructor.newInstance(manifestLocation, registry);
+		} catch (InstantiationException | IllegalAccessException
+				| IllegalArgumentException | InvocationTargetException e) {
+			throw new SAXException("Failed to invoke manifest constructur", e);
 		}
 	}
 
@@ -577,6 +830,28 @@ public class ManifestXmlReader extends ManifestXmlProcessor {
 		// List of all top-level handlers. Used to preserve order of appearance
 		private final List<Manifest> manifests = new ArrayList<>();
 
+		/**
+		 * Delegates exclusive to this collector when used for concurrent parsing,
+		 * {@code null} if the shared delegates of the reader should be used.
+		 */
+		private final Map<ManifestType, ManifestXmlDelegate<?>> delegates;
+
+		protected ManifestCollector() {
+			this(false);
+		}
+
+		protected ManifestCollector(boolean privateDelegates) {
+			delegates = privateDelegates ? new Object2ObjectOpenHashMap<>() : null;
+		}
+
+		private ManifestXmlDelegate<?> delegateFor(Manifest manifest) {
+			if(delegates==null) {
+				return getDelegate(manifest);
+			}
+			return delegates.computeIfAbsent(manifest.getManifestType(),
+					type -> getDelegateFactory().newDelegate(manifest));
+		}
+
 		/**
 		 * @see de.ims.icarus2.model.manifest.xml.ManifestXmlHandler#startElement(de.ims.icarus2.model.manifest.api.ManifestLocation, java.lang.String, java.lang.String, java.lang.String, org.xml.sax.Attributes)
 		 */
@@ -623,7 +898,7 @@ public class ManifestXmlReader extends ManifestXmlProcessor {
 			if(handler==null) {
 				Manifest manifest = newInstance(localName, manifestLocation);
 				@SuppressWarnings("rawtypes")
-				ManifestXmlDelegate delegate = getDelegate(manifest);
+				ManifestXmlDelegate delegate = delegateFor(manifest);
 
 				handler = delegate.reset(manifest);
 			}
@@ -710,6 +985,10 @@ public class ManifestXmlReader extends ManifestXmlProcessor {
 		private Consumer<Manifest> templateProcessor;
 		private Consumer<CorpusManifest> corpusProcessor;
 
+		private Path snapshotFile;
+
+		private Integer parallelism;
+
 		private Builder() {
 			// no-op
 		}
@@ -753,6 +1032,17 @@ public class ManifestXmlReader extends ManifestXmlProcessor {
 			return corpusProcessor;
 		}
 
+		@Guarded(methodType=MethodType.GETTER)
+		@Nullable
+		public Path getSnapshotFile() {
+			return snapshotFile;
+		}
+
+		@Guarded(methodType=MethodType.GETTER, defaultValue="1")
+		public int getParallelism() {
+			return parallelism==null ? 1 : parallelism.intValue();
+		}
+
 		@Guarded(methodType=MethodType.BUILDER)
 		@Mandatory
 		public Builder registry(ManifestRegistry registry) {
@@ -829,6 +1119,41 @@ public class ManifestXmlReader extends ManifestXmlProcessor {
 			return thisAsCast();
 		}
 
+		/**
+		 * Sets the file used to store a binary snapshot of all sources after
+		 * {@link ManifestXmlReader#readAndRegisterAll() reading} them and to
+		 * load them from on subsequent reads if none of the sources changed.
+		 *
+		 * @param snapshotFile
+		 * @return
+		 */
+		@Guarded(methodType=MethodType.BUILDER)
+		public Builder snapshotFile(Path snapshotFile) {
+			requireNonNull(snapshotFile);
+			checkState("Snapshot file already set", this.snapshotFile==null);
+
+			this.snapshotFile = snapshotFile;
+
+			return thisAsCast();
+		}
+
+		/**
+		 * Sets the maximum number of sources to be parsed concurrently. The default
+		 * value of {@code 1} results in strictly sequential parsing.
+		 *
+		 * @param parallelism
+		 * @return
+		 */
+		@Guarded(methodType=MethodType.BUILDER)
+		public Builder parallelism(int parallelism) {
+			checkArgument("Parallelism must be positive", parallelism>0);
+			checkState("Parallelism already set", this.parallelism==null);
+
+			this.parallelism = Integer.valueOf(parallelism);
+
+			return thisAsCast();
+		}
+
 		/**
 		 * Configures the reader to use {@link ManifestXmlUtils#MANIFEST_NS_PREFIX}
 		 * as {@link #namespacePrefix(String) namespace prefix} and
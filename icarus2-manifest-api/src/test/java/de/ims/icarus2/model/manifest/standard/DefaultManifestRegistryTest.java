@@ -16,6 +16,14 @@
  */
 package de.ims.icarus2.model.manifest.standard;
 
+import static de.ims.icarus2.model.manifest.api.ManifestRegistryTest.mockCorpusManifest;
+import static de.ims.icarus2.model.manifest.api.ManifestRegistryTest.mockLayerType;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import de.ims.icarus2.model.manifest.api.CorpusManifest;
+import de.ims.icarus2.model.manifest.api.LayerType;
 import de.ims.icarus2.model.manifest.api.ManifestRegistry;
 import de.ims.icarus2.model.manifest.api.ManifestRegistryTest;
 import de.ims.icarus2.test.TestSettings;
@@ -42,4 +50,46 @@ class DefaultManifestRegistryTest implements ManifestRegistryTest {
 		return settings.process(new DefaultManifestRegistry());
 	}
 
+	@Test
+	void testVersion() throws Exception {
+		DefaultManifestRegistry registry = new DefaultManifestRegistry();
+		long version = registry.getVersion();
+		assertThat(version).isNotNegative();
+
+		LayerType layerType = mockLayerType("type1");
+		registry.addLayerType(layerType);
+		assertThat(registry.getVersion()).isGreaterThan(version);
+		version = registry.getVersion();
+
+		CorpusManifest corpus = mockCorpusManifest("corpus1");
+		registry.addCorpusManifest(corpus);
+		assertThat(registry.getVersion()).isGreaterThan(version);
+		version = registry.getVersion();
+
+		registry.corpusManifestChanged(corpus);
+		assertThat(registry.getVersion()).isGreaterThan(version);
+		version = registry.getVersion();
+
+		// Pure lookups must not affect the version
+		registry.getCorpusManifest("corpus1");
+		registry.getLayerType("type1");
+		assertThat(registry.getVersion()).isEqualTo(version);
+
+		registry.removeCorpusManifest(corpus);
+		assertThat(registry.getVersion()).isGreaterThan(version);
+	}
+
+	@Test
+	void testSnapshotIteration() throws Exception {
+		DefaultManifestRegistry registry = new DefaultManifestRegistry();
+		registry.addLayerType(mockLayerType("type1"));
+		registry.addLayerType(mockLayerType("type2"));
+
+		// Modifications during iteration only affect later snapshots
+		registry.forEachLayerType(type -> registry.addLayerType(
+				mockLayerType(type.getId().get()+"_copy")));
+
+		assertThat(registry.getLayerTypes()).hasSize(4);
+	}
+
 }
@@ -0,0 +1,111 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.model.manifest.util;
+
+import static de.ims.icarus2.model.manifest.ManifestTestUtils.mockManifestLocation;
+import static de.ims.icarus2.model.manifest.api.ManifestRegistryTest.mockLayerType;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.ims.icarus2.model.manifest.api.CorpusManifest;
+import de.ims.icarus2.model.manifest.api.ManifestFactory;
+import de.ims.icarus2.model.manifest.api.ManifestRegistry;
+import de.ims.icarus2.model.manifest.api.ManifestType;
+import de.ims.icarus2.model.manifest.standard.DefaultManifestFactory;
+import de.ims.icarus2.model.manifest.standard.DefaultManifestRegistry;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class FlattenedCorpusCacheTest {
+
+	private ManifestRegistry registry;
+	private ManifestFactory factory;
+	private FlattenedCorpusCache cache;
+
+	@BeforeEach
+	void setUp() {
+		registry = new DefaultManifestRegistry();
+		factory = new DefaultManifestFactory(mockManifestLocation(false), registry);
+		cache = new FlattenedCorpusCache();
+	}
+
+	private CorpusManifest corpus(String id) {
+		CorpusManifest manifest = factory.create(ManifestType.CORPUS_MANIFEST);
+		manifest.setId(id);
+		manifest.setName(id);
+		return manifest;
+	}
+
+	@Test
+	void testReuse() throws Exception {
+		CorpusManifest source = corpus("corpus1");
+
+		CorpusManifest flattened = cache.getFlattened(source);
+		assertThat(flattened).isNotSameAs(source);
+		assertThat(flattened.getId()).contains("corpus1");
+		assertThat(flattened.isEditable()).isFalse();
+
+		assertThat(cache.getFlattened(source)).isSameAs(flattened);
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	void testInvalidateOnRegistryChange() throws Exception {
+		CorpusManifest source = corpus("corpus1");
+		CorpusManifest flattened = cache.getFlattened(source);
+
+		registry.addLayerType(mockLayerType("type1"));
+
+		assertThat(cache.getFlattened(source)).isNotSameAs(flattened);
+	}
+
+	@Test
+	void testInvalidateOnCorpusChange() throws Exception {
+		CorpusManifest source = corpus("corpus1");
+		CorpusManifest flattened = cache.getFlattened(source);
+
+		registry.corpusManifestChanged(source);
+
+		assertThat(cache.getFlattened(source)).isNotSameAs(flattened);
+	}
+
+	@Test
+	void testDifferentSourceSameId() throws Exception {
+		CorpusManifest flattened = cache.getFlattened(corpus("corpus1"));
+
+		assertThat(cache.getFlattened(corpus("corpus1"))).isNotSameAs(flattened);
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	void testExplicitInvalidation() throws Exception {
+		CorpusManifest source = corpus("corpus1");
+		CorpusManifest flattened = cache.getFlattened(source);
+
+		cache.invalidate("corpus1");
+		assertThat(cache.size()).isZero();
+
+		assertThat(cache.getFlattened(source)).isNotSameAs(flattened);
+	}
+}
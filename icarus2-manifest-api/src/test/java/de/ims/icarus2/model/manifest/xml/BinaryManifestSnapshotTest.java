@@ -0,0 +1,142 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.model.manifest.xml;
+
+import static de.ims.icarus2.util.collections.CollectionUtils.list;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import de.ims.icarus2.model.manifest.api.ManifestLocation;
+import de.ims.icarus2.model.manifest.api.ManifestLocation.VirtualManifestInputLocation;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class BinaryManifestSnapshotTest {
+
+	private static final String XML =
+			"<root xmlns:x=\"urn:test\">"
+			+ "<x:entry id=\"e1\" name=\"first\">some text</x:entry>"
+			+ "<x:entry id=\"e2\"><nested>more &amp; text</nested>tail</x:entry>"
+			+ "</root>";
+
+	/** Records all received events as plain strings */
+	private static class EventLog extends DefaultHandler {
+		final List<String> events = new ArrayList<>();
+		private final StringBuilder text = new StringBuilder();
+
+		private void flush() {
+			if(text.length()>0) {
+				events.add("text:"+text);
+				text.setLength(0);
+			}
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			flush();
+			StringBuilder sb = new StringBuilder("start:").append(uri).append('|').append(qName);
+			for (int i = 0; i < attributes.getLength(); i++) {
+				sb.append(' ').append(attributes.getQName(i)).append('=').append(attributes.getValue(i));
+			}
+			events.add(sb.toString());
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			flush();
+			events.add("end:"+uri+"|"+qName);
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			text.append(ch, start, length);
+		}
+	}
+
+	private static ManifestLocation location(String xml) {
+		return new VirtualManifestInputLocation(xml, BinaryManifestSnapshotTest.class.getClassLoader(), true);
+	}
+
+	private static BinaryManifestSnapshot record(ManifestLocation source, EventLog log) throws Exception {
+		BinaryManifestSnapshot.Recorder recorder = new BinaryManifestSnapshot.Recorder();
+		BinaryManifestSnapshot.Recorder.Session session = recorder.record(source, log);
+
+		XMLReader reader = ManifestXmlReader.defaultCreateReader(false);
+		reader.setContentHandler(session);
+		reader.parse(new InputSource(new StringReader(XML)));
+		session.finish();
+
+		return recorder.build();
+	}
+
+	@Test
+	void testRoundTrip(@TempDir Path dir) throws Exception {
+		ManifestLocation source = location(XML);
+		EventLog original = new EventLog();
+		BinaryManifestSnapshot snapshot = record(source, original);
+
+		Path file = dir.resolve("manifests.snapshot");
+		snapshot.write(file);
+
+		BinaryManifestSnapshot loaded = BinaryManifestSnapshot.read(file);
+		assertThat(loaded.getSourceCount()).isEqualTo(1);
+		assertThat(loaded.matches(list(source))).isTrue();
+
+		EventLog replayed = new EventLog();
+		loaded.replay(0, replayed);
+
+		assertThat(original.events).isNotEmpty();
+		assertThat(replayed.events).containsExactlyElementsOf(original.events);
+	}
+
+	@Test
+	void testChangedSource() throws Exception {
+		BinaryManifestSnapshot snapshot = record(location(XML), new EventLog());
+
+		assertThat(snapshot.matches(list(location(XML+" ")))).isFalse();
+		assertThat(snapshot.matches(list(location(XML), location(XML)))).isFalse();
+		assertThat(snapshot.matches(list(new VirtualManifestInputLocation(XML,
+				getClass().getClassLoader(), false)))).isFalse();
+	}
+
+	@Test
+	void testInvalidFile(@TempDir Path dir) throws Exception {
+		Path file = dir.resolve("manifests.snapshot");
+		Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+		assertThatExceptionOfType(IOException.class).isThrownBy(() -> BinaryManifestSnapshot.read(file));
+	}
+}
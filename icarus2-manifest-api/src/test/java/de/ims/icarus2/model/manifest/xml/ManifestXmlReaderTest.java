@@ -19,15 +19,27 @@ package de.ims.icarus2.model.manifest.xml;
 import static de.ims.icarus2.test.TestUtils.filledArray;
 import static de.ims.icarus2.util.collections.CollectionUtils.list;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.xml.sax.SAXException;
 
+import de.ims.icarus2.model.manifest.api.Manifest;
 import de.ims.icarus2.model.manifest.api.ManifestLocation;
+import de.ims.icarus2.model.manifest.api.ManifestLocation.VirtualManifestInputLocation;
+import de.ims.icarus2.model.manifest.standard.DefaultManifestRegistry;
 import de.ims.icarus2.model.manifest.xml.ManifestXmlReader.Builder;
 import de.ims.icarus2.test.TestSettings;
 import de.ims.icarus2.test.guard.ApiGuard;
@@ -56,6 +68,245 @@ class ManifestXmlReaderTest {
 		assertThat(ManifestXmlReader.builder()).isNotNull();
 	}
 
+	@Nested
+	class ForParallelParsing {
+
+		private static final int SOURCES = 12;
+
+		private ManifestLocation template(String id) {
+			String xml = "<imf:manifest xmlns:imf=\"http://www.ims.uni-stuttgart.de/icarus/xml/manifest\">"
+					+ "<imf:templates>"
+					+ "<imf:context id=\""+id+"\">"
+					+ "<imf:layerGroup primaryLayer=\"tokens\" id=\"surface\">"
+					+ "<imf:itemLayer id=\"tokens\" />"
+					+ "</imf:layerGroup>"
+					+ "</imf:context>"
+					+ "</imf:templates>"
+					+ "</imf:manifest>";
+			return new VirtualManifestInputLocation(xml, getClass().getClassLoader(), true);
+		}
+
+		private ManifestXmlReader reader(int parallelism, ManifestLocation...sources) {
+			return ManifestXmlReader.builder()
+					.registry(new DefaultManifestRegistry())
+					.useImplementationDefaults()
+					.parallelism(parallelism)
+					.source(sources)
+					.build();
+		}
+
+		private List<String> ids(List<Manifest> manifests) {
+			return manifests.stream()
+					.map(m -> m.getId().get())
+					.collect(Collectors.toList());
+		}
+
+		@Test
+		void testSameResultAsSequential() throws Exception {
+			ManifestLocation[] sources = new ManifestLocation[SOURCES];
+			for (int i = 0; i < sources.length; i++) {
+				sources[i] = template("context"+i);
+			}
+
+			List<Manifest> sequential = reader(1, sources).parseTemplates();
+			List<Manifest> parallel = reader(4, sources).parseTemplates();
+
+			assertThat(sequential).hasSize(SOURCES);
+			assertThat(ids(parallel)).containsExactlyElementsOf(ids(sequential));
+			assertThat(parallel).allMatch(Manifest::isTemplate);
+		}
+
+		@Test
+		void testErrorForFirstFailingSource() throws Exception {
+			ManifestLocation[] sources = new ManifestLocation[SOURCES];
+			for (int i = 0; i < sources.length; i++) {
+				sources[i] = template("context"+i);
+			}
+			sources[3] = new VirtualManifestInputLocation("<broken", getClass().getClassLoader(), true);
+			sources[7] = new VirtualManifestInputLocation("", getClass().getClassLoader(), true);
+
+			SAXException sequential = null;
+			try {
+				reader(1, sources).parseTemplates();
+			} catch(SAXException e) {
+				sequential = e;
+			}
+			assertThat(sequential).isNotNull();
+
+			String expectedMessage = sequential.getMessage();
+			assertThatExceptionOfType(SAXException.class)
+				.isThrownBy(() -> reader(4, sources).parseTemplates())
+				.withMessage(expectedMessage);
+		}
+	}
+
+	@Nested
+	class ForSnapshot {
+
+		private static final String PREFIX = "<imf:manifest xmlns:imf=\"http://www.ims.uni-stuttgart.de/icarus/xml/manifest\">";
+		private static final String SUFFIX = "</imf:manifest>";
+
+		@TempDir
+		Path dir;
+
+		private ManifestLocation template(String id) {
+			return new VirtualManifestInputLocation(PREFIX
+					+ "<imf:templates>"
+					+ "<imf:context id=\""+id+"\">"
+					+ "<imf:layerGroup primaryLayer=\"tokens\" id=\"surface\">"
+					+ "<imf:itemLayer id=\"tokens\" />"
+					+ "</imf:layerGroup>"
+					+ "</imf:context>"
+					+ "</imf:templates>"
+					+ SUFFIX, getClass().getClassLoader(), true);
+		}
+
+		private ManifestLocation corpus(String id) {
+			return new VirtualManifestInputLocation(PREFIX
+					+ "<imf:corpora>"
+					+ "<imf:corpus editable=\"false\" id=\""+id+"\">"
+					+ "<imf:rootContext id=\"context\" independent=\"true\" primaryLayer=\"tokens\" foundationLayer=\"tokens\">"
+					+ "<imf:layerGroup id=\"surface\" independent=\"true\" primaryLayer=\"tokens\">"
+					+ "<imf:itemLayer id=\"tokens\" />"
+					+ "</imf:layerGroup>"
+					+ "</imf:rootContext>"
+					+ "</imf:corpus>"
+					+ "</imf:corpora>"
+					+ SUFFIX, getClass().getClassLoader(), false);
+		}
+
+		/** Result of a single {@link ManifestXmlReader#readAndRegisterAll()} call */
+		private class Run {
+			final DefaultManifestRegistry registry = new DefaultManifestRegistry();
+			final List<String> processedTemplates = new ArrayList<>();
+			final List<String> processedCorpora = new ArrayList<>();
+
+			Run(Path snapshotFile, ManifestLocation...sources) throws Exception {
+				ManifestXmlReader.builder()
+						.registry(registry)
+						.useImplementationDefaults()
+						.snapshotFile(snapshotFile)
+						.templateProcessor(m -> processedTemplates.add(m.getId().get()))
+						.corpusProcessor(m -> processedCorpora.add(m.getId().get()))
+						.source(sources)
+						.build()
+						.readAndRegisterAll();
+			}
+
+			List<String> templateIds() {
+				return registry.getTemplates().stream()
+						.map(m -> m.getId().get())
+						.sorted()
+						.collect(Collectors.toList());
+			}
+
+			List<String> corpusIds() {
+				return registry.getCorpusManifests().stream()
+						.map(m -> m.getId().get())
+						.sorted()
+						.collect(Collectors.toList());
+			}
+
+			List<String> layerIds(String corpusId) {
+				return registry.getCorpusManifest(corpusId).get().getRootContextManifest().get()
+						.getLayerManifests().stream()
+						.map(m -> m.getId().get())
+						.collect(Collectors.toList());
+			}
+		}
+
+		private ManifestLocation[] sources() {
+			return new ManifestLocation[] {
+					template("context0"),
+					template("context1"),
+					corpus("corpus0"),
+					corpus("corpus1"),
+			};
+		}
+
+		/** Marks the snapshot file, so we can detect whether it got rewritten */
+		private void touchSnapshot(Path file) throws IOException {
+			Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+		}
+
+		private boolean snapshotRewritten(Path file) throws IOException {
+			return Files.getLastModifiedTime(file).toMillis()!=0;
+		}
+
+		@Test
+		void testSnapshotMatchesXml() throws Exception {
+			Path file = dir.resolve("manifests.snapshot");
+
+			Run xml = new Run(file, sources());
+			assertThat(file).isRegularFile();
+			touchSnapshot(file);
+
+			Run snapshot = new Run(file, sources());
+			assertThat(snapshotRewritten(file)).as("snapshot replaced").isFalse();
+
+			assertThat(xml.templateIds()).containsExactly("context0", "context1");
+			assertThat(xml.corpusIds()).containsExactly("corpus0", "corpus1");
+
+			assertThat(snapshot.templateIds()).containsExactlyElementsOf(xml.templateIds());
+			assertThat(snapshot.corpusIds()).containsExactlyElementsOf(xml.corpusIds());
+			assertThat(snapshot.layerIds("corpus1")).containsExactlyElementsOf(xml.layerIds("corpus1"));
+			assertThat(snapshot.processedTemplates).containsExactlyElementsOf(xml.processedTemplates);
+			assertThat(snapshot.processedCorpora).containsExactlyElementsOf(xml.processedCorpora);
+		}
+
+		@Test
+		void testOutdatedSnapshot() throws Exception {
+			Path file = dir.resolve("manifests.snapshot");
+
+			new Run(file, sources());
+			touchSnapshot(file);
+
+			ManifestLocation[] changed = sources();
+			changed[1] = template("context2");
+			Run run = new Run(file, changed);
+
+			assertThat(run.templateIds()).containsExactly("context0", "context2");
+			assertThat(run.corpusIds()).containsExactly("corpus0", "corpus1");
+			assertThat(snapshotRewritten(file)).as("snapshot replaced").isTrue();
+		}
+
+		@Test
+		void testCorruptSnapshot() throws Exception {
+			Path file = dir.resolve("manifests.snapshot");
+			Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+			touchSnapshot(file);
+
+			Run run = new Run(file, sources());
+
+			assertThat(run.templateIds()).containsExactly("context0", "context1");
+			assertThat(run.corpusIds()).containsExactly("corpus0", "corpus1");
+			assertThat(snapshotRewritten(file)).as("snapshot replaced").isTrue();
+			assertThat(BinaryManifestSnapshot.read(file).getSourceCount()).isEqualTo(4);
+		}
+
+		/**
+		 * Breaks the event stream of the last source only, so that replaying the
+		 * first corpus succeeds and the second one fails.
+		 */
+		@Test
+		void testPartialReplayFailure() throws Exception {
+			Path file = dir.resolve("manifests.snapshot");
+
+			new Run(file, sources());
+
+			byte[] data = Files.readAllBytes(file);
+			// Last byte is the end marker of the last source's events
+			data[data.length-1] = Byte.MAX_VALUE;
+			Files.write(file, data);
+
+			Run run = new Run(file, sources());
+
+			assertThat(run.corpusIds()).containsExactly("corpus0", "corpus1");
+			assertThat(run.processedTemplates).containsExactly("context0", "context1");
+			assertThat(run.processedCorpora).containsExactly("corpus0", "corpus1");
+		}
+	}
+
 	@Nested
 	class ForBuilder implements BuilderTest<ManifestXmlReader, ManifestXmlReader.Builder> {
 
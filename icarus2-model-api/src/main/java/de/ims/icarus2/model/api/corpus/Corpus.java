@@ -185,6 +185,9 @@ public interface Corpus extends ManifestOwner<CorpusManifest> {
 	 * <p>
 	 * Note that this method does <b>not</b> affect {@link #getVirtualContexts() virtual}
 	 * contexts, as their content is not meant to be managed by the corpus hosting them.
+	 * <p>
+	 * Implementations are free to connect independent contexts concurrently, as long
+	 * as every context is only connected after all the contexts it depends on.
 	 */
 	void connectAll();
 
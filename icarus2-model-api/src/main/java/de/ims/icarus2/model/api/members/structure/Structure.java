@@ -22,6 +22,8 @@ import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
+
 import de.ims.icarus2.GlobalErrorCode;
 import de.ims.icarus2.apiguard.OptionalMethod;
 import de.ims.icarus2.model.api.ModelErrorCode;
@@ -112,6 +114,22 @@ public interface Structure extends Container {
 	@OptionalMethod
 	StructureInfo getInfo();
 
+	/**
+	 * Returns a primitive view on the parent-child relations in this structure
+	 * that addresses nodes by their index within this structure. This allows
+	 * client code to navigate a tree without resolving the index of each
+	 * individual node via {@link #indexOfItem(Item)}.
+	 * <p>
+	 * Only immutable structures of type {@link StructureType#TREE tree} or
+	 * {@link StructureType#CHAIN chain} can be expected to provide this view.
+	 * The default implementation returns {@code null}.
+	 *
+	 * @return the topology of this structure or {@code null} if not supported
+	 */
+	default @Nullable TreeTopology getTreeTopology() {
+		return null;
+	}
+
 	/**
 	 * Extends the semantics of {@link Container#containsItem(Item)}:
 	 * An item is contained in a structure if it is either that structrue's
@@ -0,0 +1,214 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.model.api.members.structure;
+
+import static de.ims.icarus2.util.Conditions.checkArgument;
+import static de.ims.icarus2.util.IcarusUtils.UNSET_INT;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+
+import de.ims.icarus2.model.api.ModelErrorCode;
+import de.ims.icarus2.model.api.ModelException;
+import de.ims.icarus2.model.manifest.util.Messages;
+
+/**
+ * Primitive view on the topology of a tree or chain structure. Nodes are
+ * addressed by their index within the host structure and the virtual root
+ * node is addressed by {@link #VIRTUAL_ROOT}. The children of all nodes are
+ * stored in a compressed sparse row layout: a single array holds the child
+ * indices of all nodes and an offset array marks the section for each node.
+ * <p>
+ * Depth, height and descendant count are computed once at construction time.
+ * Depth values follow the conventions of {@link Structure#getDepth(Item)}:
+ * the virtual root has depth {@code 0}, the actual roots of the tree depth
+ * {@code 1} and nodes not connected to the virtual root are reported with a
+ * depth of {@link de.ims.icarus2.util.IcarusUtils#UNSET_INT UNSET_INT}.
+ * <p>
+ * Instances of this class are immutable and can be shared freely.
+ *
+ * @author Markus Gärtner
+ *
+ */
+public final class TreeTopology {
+
+	/** Node index used to address the virtual root node */
+	public static final int VIRTUAL_ROOT = UNSET_INT;
+
+	/** Number of regular nodes */
+	private final int nodeCount;
+	/** Index of parent node for every regular node or {@link #VIRTUAL_ROOT} */
+	private final int[] parents;
+	/**
+	 * Begin of child section for each row, row {@code 0} being the virtual root
+	 * and row {@code i+1} the node at index {@code i}. Contains one additional
+	 * entry to mark the end of the last section.
+	 */
+	private final int[] offsets;
+	/** Child indices of all nodes, grouped by row */
+	private final int[] children;
+	/** Row-based depth values */
+	private final int[] depths;
+	/** Row-based height values */
+	private final int[] heights;
+	/** Row-based descendant counts */
+	private final int[] descendants;
+
+	/**
+	 * Creates a new topology from the given raw data. The arrays will not
+	 * be copied, so client code must not modify them afterwards!
+	 *
+	 * @param parents parent index for every node, using {@link #VIRTUAL_ROOT} for
+	 * roots and nodes without incoming edge
+	 * @param offsets section offsets into the {@code children} array, with row {@code 0}
+	 * denoting the virtual root and row {@code i+1} the node at index {@code i}, and a
+	 * final entry marking the end of the last section
+	 * @param children child indices for all rows in order
+	 */
+	public TreeTopology(int[] parents, int[] offsets, int[] children) {
+		requireNonNull(parents);
+		requireNonNull(offsets);
+		requireNonNull(children);
+		checkArgument("Offsets must cover all nodes and the virtual root",
+				offsets.length==parents.length+2);
+		checkArgument("Offsets must cover all children",
+				offsets[offsets.length-1]==children.length);
+
+		nodeCount = parents.length;
+		this.parents = parents;
+		this.offsets = offsets;
+		this.children = children;
+
+		final int rows = nodeCount+1;
+		depths = new int[rows];
+		heights = new int[rows];
+		descendants = new int[rows];
+
+		/*
+		 *  Breadth-first traversal from the virtual root determines depth values.
+		 *  Subtrees not connected to the virtual root get appended afterwards,
+		 *  so that the reverse order can be used to accumulate heights and
+		 *  descendant counts bottom-up.
+		 */
+		final int[] order = new int[rows];
+		final boolean[] visited = new boolean[rows];
+		Arrays.fill(depths, UNSET_INT);
+		depths[0] = 0;
+
+		int size = 0;
+		order[size++] = 0;
+		visited[0] = true;
+		int head = 0;
+		for(int start = 0; start<=nodeCount; start++) {
+			if(!visited[start] && parents[start-1]==UNSET_INT) {
+				order[size++] = start;
+				visited[start] = true;
+			}
+			while(head<size) {
+				int row = order[head++];
+				int depth = depths[row];
+				for(int i = offsets[row]; i<offsets[row+1]; i++) {
+					int childRow = children[i]+1;
+					if(visited[childRow])
+						throw new ModelException(ModelErrorCode.MODEL_CORRUPTED_STATE,
+								"Node reachable from multiple parents: "+children[i]);
+					visited[childRow] = true;
+					depths[childRow] = depth==UNSET_INT ? UNSET_INT : depth+1;
+					order[size++] = childRow;
+				}
+			}
+		}
+
+		if(size<rows)
+			throw new ModelException(ModelErrorCode.MODEL_CORRUPTED_STATE,
+					"Topology contains cycles");
+
+		for(int i = rows-1; i>=0; i--) {
+			int row = order[i];
+			int height = 0, count = 0;
+			for(int j = offsets[row]; j<offsets[row+1]; j++) {
+				int childRow = children[j]+1;
+				height = Math.max(height, heights[childRow]+1);
+				count += descendants[childRow]+1;
+			}
+			heights[row] = height;
+			descendants[row] = count;
+		}
+	}
+
+	private int row(int node) {
+		if(node<VIRTUAL_ROOT || node>=nodeCount)
+			throw new ModelException(ModelErrorCode.MODEL_INDEX_OUT_OF_BOUNDS,
+					Messages.outOfBounds("Invalid node index", node, VIRTUAL_ROOT, nodeCount-1));
+		return node+1;
+	}
+
+	/** Returns the number of regular nodes, excluding the virtual root. */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Returns the index of the given node's parent or {@link #VIRTUAL_ROOT}
+	 * if the node is a root or has no parent at all.
+	 */
+	public int getParent(int node) {
+		row(node);
+		return node==VIRTUAL_ROOT ? UNSET_INT : parents[node];
+	}
+
+	public int getChildCount(int node) {
+		int row = row(node);
+		return offsets[row+1]-offsets[row];
+	}
+
+	public int getChildAt(int node, int index) {
+		int row = row(node);
+		int begin = offsets[row];
+		int count = offsets[row+1]-begin;
+		if(index<0 || index>=count)
+			throw new ModelException(ModelErrorCode.MODEL_INDEX_OUT_OF_BOUNDS,
+					Messages.indexOutOfBounds(null, 0, count-1, index));
+		return children[begin+index];
+	}
+
+	/**
+	 * Copies the indices of all children of the given node into the
+	 * specified buffer, starting at {@code offset}.
+	 *
+	 * @return the number of children copied
+	 */
+	public int copyChildren(int node, int[] buffer, int offset) {
+		int row = row(node);
+		int begin = offsets[row];
+		int count = offsets[row+1]-begin;
+		System.arraycopy(children, begin, buffer, offset, count);
+		return count;
+	}
+
+	public int getDepth(int node) {
+		return depths[row(node)];
+	}
+
+	public int getHeight(int node) {
+		return heights[row(node)];
+	}
+
+	public int getDescendantCount(int node) {
+		return descendants[row(node)];
+	}
+}
@@ -16,9 +16,12 @@
  */
 package de.ims.icarus2.model.api.registry;
 
+import static java.util.Objects.requireNonNull;
+
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 
 import javax.annotation.Nullable;
@@ -202,6 +205,34 @@ public interface CorpusManager {
 	@Nullable
 	Corpus connect(CorpusManifest corpus) throws InterruptedException;
 
+	/**
+	 * Asynchronous version of {@link #connect(CorpusManifest)}. The returned future
+	 * completes with the live corpus, with {@code null} if the corpus is currently
+	 * being disconnected or exceptionally with the error encountered while connecting.
+	 * Concurrent requests for the same corpus are expected to share a single
+	 * connection attempt.
+	 * <p>
+	 * The default implementation connects synchronously on the calling thread and
+	 * returns an already completed future.
+	 *
+	 * @param corpus
+	 * @return
+	 */
+	default CompletableFuture<Corpus> connectAsync(CorpusManifest corpus) {
+		requireNonNull(corpus);
+
+		CompletableFuture<Corpus> future = new CompletableFuture<>();
+		try {
+			future.complete(connect(corpus));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			future.completeExceptionally(e);
+		} catch (RuntimeException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
 	/**
 	 * Returns the live corpus created from the given {@code manifest} if present. If the specified
 	 * corpus has not yet been connected, this method returns {@code null}. This method is a mechanism to
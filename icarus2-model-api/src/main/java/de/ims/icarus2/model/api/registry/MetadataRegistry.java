@@ -228,4 +228,19 @@ public interface MetadataRegistry extends AutoCloseable {
 			}
 		});
 	}
+
+	/**
+	 * Returns whether or not this registry keeps its entries sorted by key so that
+	 * {@link #forEachEntry(String, BiConsumer)} only visits the requested range instead
+	 * of scanning all entries. Client code can use this information to decide whether
+	 * it is cheaper to fetch a group of related entries with a single prefix query or
+	 * with individual {@link #getValue(String) lookups}.
+	 * <p>
+	 * The default implementation returns {@code false}.
+	 *
+	 * @return
+	 */
+	default boolean isPrefixIndexed() {
+		return false;
+	}
 }
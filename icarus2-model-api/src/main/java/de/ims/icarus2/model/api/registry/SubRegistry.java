@@ -145,6 +145,16 @@ public class SubRegistry implements MetadataRegistry {
 		// no-op
 	}
 
+	/**
+	 * Delegates to the wrapped registry, since prefix queries are directly forwarded.
+	 *
+	 * @see de.ims.icarus2.model.api.registry.MetadataRegistry#isPrefixIndexed()
+	 */
+	@Override
+	public boolean isPrefixIndexed() {
+		return source.isPrefixIndexed();
+	}
+
 	@Override
 	public void forEachEntry(BiConsumer<? super String, ? super String> action) {
 		final int cutoffPoint = prefix.length();
@@ -0,0 +1,129 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.model.api.members.structure;
+
+import static de.ims.icarus2.model.api.ModelTestUtils.assertModelException;
+import static de.ims.icarus2.util.IcarusUtils.UNSET_INT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import de.ims.icarus2.model.api.ModelErrorCode;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class TreeTopologyTest {
+
+	/*
+	 *   ROOT
+	 *   /  \
+	 *  0    3
+	 *  |
+	 *  2
+	 *  |
+	 *  1
+	 */
+	private static TreeTopology sample() {
+		int[] parents = {UNSET_INT, 2, 0, UNSET_INT};
+		int[] offsets = {0, 2, 3, 3, 4, 4};
+		int[] children = {0, 3, 2, 1};
+		return new TreeTopology(parents, offsets, children);
+	}
+
+	@Nested
+	class Navigation {
+
+		@Test
+		void testChildren() {
+			TreeTopology topology = sample();
+			assertEquals(4, topology.getNodeCount());
+			assertEquals(2, topology.getChildCount(TreeTopology.VIRTUAL_ROOT));
+			assertEquals(0, topology.getChildAt(TreeTopology.VIRTUAL_ROOT, 0));
+			assertEquals(3, topology.getChildAt(TreeTopology.VIRTUAL_ROOT, 1));
+			assertEquals(1, topology.getChildCount(0));
+			assertEquals(0, topology.getChildCount(1));
+
+			int[] buffer = new int[4];
+			assertEquals(2, topology.copyChildren(TreeTopology.VIRTUAL_ROOT, buffer, 1));
+			assertThat(buffer).containsExactly(0, 0, 3, 0);
+		}
+
+		@Test
+		void testParents() {
+			TreeTopology topology = sample();
+			assertEquals(UNSET_INT, topology.getParent(TreeTopology.VIRTUAL_ROOT));
+			assertEquals(UNSET_INT, topology.getParent(0));
+			assertEquals(2, topology.getParent(1));
+			assertEquals(0, topology.getParent(2));
+			assertEquals(UNSET_INT, topology.getParent(3));
+		}
+
+		@Test
+		void testInvalidIndex() {
+			TreeTopology topology = sample();
+			assertModelException(ModelErrorCode.MODEL_INDEX_OUT_OF_BOUNDS,
+					() -> topology.getChildCount(4));
+			assertModelException(ModelErrorCode.MODEL_INDEX_OUT_OF_BOUNDS,
+					() -> topology.getChildAt(0, 1));
+		}
+	}
+
+	@Nested
+	class Metrics {
+
+		@Test
+		void testDepth() {
+			TreeTopology topology = sample();
+			assertEquals(0, topology.getDepth(TreeTopology.VIRTUAL_ROOT));
+			assertEquals(1, topology.getDepth(0));
+			assertEquals(3, topology.getDepth(1));
+			assertEquals(2, topology.getDepth(2));
+			assertEquals(1, topology.getDepth(3));
+		}
+
+		@Test
+		void testHeightAndDescendants() {
+			TreeTopology topology = sample();
+			assertEquals(3, topology.getHeight(TreeTopology.VIRTUAL_ROOT));
+			assertEquals(4, topology.getDescendantCount(TreeTopology.VIRTUAL_ROOT));
+			assertEquals(2, topology.getHeight(0));
+			assertEquals(2, topology.getDescendantCount(0));
+			assertEquals(0, topology.getHeight(1));
+			assertEquals(0, topology.getDescendantCount(3));
+		}
+
+		@Test
+		void testDetachedNodes() {
+			// Node 1 has no parent and is not connected to the virtual root
+			TreeTopology topology = new TreeTopology(new int[]{UNSET_INT, UNSET_INT},
+					new int[]{0, 1, 1, 1}, new int[]{0});
+			assertEquals(UNSET_INT, topology.getDepth(1));
+			assertEquals(0, topology.getHeight(1));
+		}
+
+		@Test
+		void testCycle() {
+			assertModelException(ModelErrorCode.MODEL_CORRUPTED_STATE,
+					() -> new TreeTopology(new int[]{1, 0},
+							new int[]{0, 0, 1, 2}, new int[]{1, 0}));
+		}
+	}
+}
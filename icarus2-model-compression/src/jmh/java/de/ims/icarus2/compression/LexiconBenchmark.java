@@ -0,0 +1,213 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.compression;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.AuxCounters.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+
+import de.ims.icarus2.test.JmhUtils;
+import de.ims.icarus2.test.random.RandomGenerator;
+
+/**
+ * Measures lookup throughput of the {@link Lexicon} implementations together with
+ * their memory footprint. The vocabulary consists of random word-like tokens of
+ * 3 to 15 characters drawn from a skewed alphabet, so that neighboring tokens share
+ * prefixes similar to natural word forms.
+ * <p>
+ * The {@link #bytesPerToken() bytes per token} counter is obtained by comparing the
+ * used heap before and after building the lexicon and therefore includes all objects
+ * it holds on to (e.g. the individual {@link String} instances of a {@link MutableLexicon}).
+ *
+ * @author Markus Gärtner
+ *
+ */
+@State(Scope.Thread)
+@AuxCounters(Type.EVENTS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations=5, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(value=1, jvmArgsAppend={"-Xmx4g", "-Xms4g"})
+public class LexiconBenchmark {
+
+	/** Number of lookups per benchmark invocation */
+	private static final int BATCH = 1024;
+
+	private static final String ALPHABET = "eeeennnniiiirrrsssttaaddhhulcgmobwfkzpvjyxq";
+
+	public enum LexiconType {
+		MUTABLE,
+		FROZEN,
+		;
+	}
+
+	// Benchmark parameters
+
+	@Param({"MUTABLE", "FROZEN"})
+	private LexiconType lexiconType;
+
+	@Param({"100000", "1000000"})
+	private int size;
+
+	@Param({"16"})
+	private int blockSize;
+
+	// Utility
+	private String[] queries;
+	private int[] substitutes;
+	private int cursor;
+	private long bytesPerToken;
+
+	// For benchmarking
+	private Lexicon lexicon;
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory()-runtime.freeMemory();
+	}
+
+	@Setup(Level.Trial)
+	public void prepareData() {
+		final RandomGenerator rand = RandomGenerator.forSeed(size);
+
+		// Collect vocabulary up front so it is not part of the measured footprint
+		MutableLexicon vocabulary = new MutableLexicon(size);
+		StringBuilder sb = new StringBuilder();
+		while(vocabulary.size()<size) {
+			sb.setLength(0);
+			int length = rand.random(3, 16);
+			for (int i = 0; i < length; i++) {
+				sb.append(ALPHABET.charAt(rand.random(0, ALPHABET.length())));
+			}
+			vocabulary.addToken(sb);
+		}
+
+		String[] tokens = new String[size];
+		for (int i = 0; i < size; i++) {
+			tokens[i] = vocabulary.getToken(i+1).toString();
+		}
+		vocabulary = null;
+
+		long before = usedHeap();
+		switch (lexiconType) {
+		case MUTABLE: {
+			MutableLexicon mutable = new MutableLexicon(size);
+			for (String token : tokens) {
+				// Private copies, so that the lexicon owns its strings
+				mutable.addToken(new String(token));
+			}
+			lexicon = mutable;
+		} break;
+
+		case FROZEN: {
+			MutableLexicon mutable = new MutableLexicon(size);
+			for (String token : tokens) {
+				mutable.addToken(token);
+			}
+			lexicon = FrozenLexicon.copyOf(mutable, blockSize);
+		} break;
+
+		default:
+			throw new IllegalStateException("Unknown lexicon type: "+lexiconType);
+		}
+		bytesPerToken = (usedHeap()-before)/size;
+
+		queries = new String[BATCH * 16];
+		substitutes = new int[queries.length];
+		for (int i = 0; i < queries.length; i++) {
+			int substitute = rand.random(1, size+1);
+			substitutes[i] = substitute;
+			// Fresh instances to prevent identity shortcuts in lookups
+			queries[i] = new String(tokens[substitute-1]);
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void resetCursor() {
+		cursor = 0;
+	}
+
+	// AUX COUNTERS
+
+	public long bytesPerToken() {
+		return bytesPerToken;
+	}
+
+	// END AUX COUNTERS
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void getSubstitute(Blackhole bh) {
+		int offset = cursor;
+		for (int i = 0; i < BATCH; i++) {
+			bh.consume(lexicon.getSubstitute(queries[(offset+i) % queries.length]));
+		}
+		cursor = (offset + BATCH) % queries.length;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void getToken(Blackhole bh) {
+		int offset = cursor;
+		for (int i = 0; i < BATCH; i++) {
+			bh.consume(lexicon.getToken(substitutes[(offset+i) % substitutes.length]));
+		}
+		cursor = (offset + BATCH) % substitutes.length;
+	}
+
+	@Benchmark
+	public void iterate(Blackhole bh) {
+		for(CharSequence token : lexicon) {
+			bh.consume(token);
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		ChainedOptionsBuilder builder =
+				JmhUtils.jmhOptions(LexiconBenchmark.class, false, ResultFormatType.CSV)
+				.jvmArgsAppend("-Xmx4g", "-Xms4g")
+				.forks(1);
+
+		new Runner(builder.build()).run();
+	}
+}
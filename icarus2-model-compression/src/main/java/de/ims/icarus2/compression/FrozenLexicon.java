@@ -0,0 +1,691 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.compression;
+
+import static de.ims.icarus2.util.Conditions.checkArgument;
+import static de.ims.icarus2.util.IcarusUtils.UNSET_INT;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import de.ims.icarus2.GlobalErrorCode;
+import de.ims.icarus2.model.api.ModelException;
+import de.ims.icarus2.util.strings.ToStringBuilder;
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+
+/**
+ * An immutable {@link Lexicon} that stores its tokens in a compact, front-coded form.
+ * <p>
+ * All tokens are sorted in {@link LexiconUtils#CODE_POINT_ORDER lexicographical order}
+ * and encoded as UTF-8 into a single byte array. The array is organized in blocks of
+ * {@link #getBlockSize() block size} tokens each. The first token of every block is
+ * stored in full, all following tokens only store the length of the prefix they share
+ * with their predecessor and the remaining suffix. The position of a token in this
+ * sorted order is called its <i>rank</i>. Substitutes are mapped to ranks by a direct
+ * lookup table if they are reasonably dense, or by a sorted table otherwise.
+ * <p>
+ * This results in the following costs:
+ * <ul>
+ * <li>{@link #getSubstitute(CharSequence)} performs a binary search over the block heads
+ * followed by a scan of a single block, i.e. O(log n).</li>
+ * <li>{@link #getToken(int)} resolves the rank of a substitute and decodes at most one
+ * block, i.e. O(1) for dense substitutes.</li>
+ * <li>Memory consumption is roughly the size of the UTF-8 suffixes plus 8 to 9 bytes of
+ * bookkeeping per token, compared to upwards of 40 bytes of overhead for every
+ * individual {@link String} object.</li>
+ * </ul>
+ * Lexicons of this type are created from arbitrary other lexicons via
+ * {@link #copyOf(Lexicon, int)} or {@link MutableLexicon#freeze()} and can be
+ * {@link #writeTo(WritableByteChannel) written} to and {@link #readFrom(ReadableByteChannel) read}
+ * from channels. Instances are thread-safe.
+ *
+ * @author Markus Gärtner
+ *
+ */
+public final class FrozenLexicon implements Lexicon {
+
+	/** Number of tokens per front-coded block if not specified otherwise */
+	public static final int DEFAULT_BLOCK_SIZE = 16;
+	/** Upper limit for block sizes to keep token retrieval cheap */
+	public static final int MAX_BLOCK_SIZE = 1024;
+
+	/** "ILEX" */
+	static final int MAGIC = 0x494C4558;
+	static final int FORMAT_VERSION = 1;
+	/** magic, version, size, blockSize, maxTokenBytes, dataLength, reverseLength */
+	private static final int HEADER_SIZE = 7 * Integer.BYTES;
+
+	/**
+	 * Substitutes are mapped via a direct lookup table as long as its length
+	 * does not exceed this factor of the lexicon size (plus some slack).
+	 */
+	private static final int DENSE_FACTOR = 2;
+	private static final int DENSE_SLACK = 1024;
+
+	/** Room for ints when streaming the lookup tables */
+	private static final int IO_BUFFER_SIZE = 1<<16;
+
+	/** Guard against array sizes the VM cannot allocate */
+	private static final int MAX_DATA_LENGTH = Integer.MAX_VALUE - 16;
+
+	private final int size;
+	private final int blockSize;
+	/** Length of the longest token in bytes, used to size decoding buffers */
+	private final int maxTokenBytes;
+
+	/** Front-coded UTF-8 encoded tokens */
+	private final byte[] data;
+	/** Position of each block head in {@link #data} */
+	private final int[] blockOffsets;
+	/** Maps ranks to substitutes */
+	private final int[] substituteByRank;
+	/** Maps substitutes to ranks or {@code -1}, {@code null} if substitutes are sparse */
+	private final int[] rankBySubstitute;
+	/** Sorted substitutes and their respective ranks, {@code null} if substitutes are dense */
+	private final int[] sortedSubstitutes, ranksOfSorted;
+
+	private FrozenLexicon(int size, int blockSize, int maxTokenBytes, byte[] data,
+			int[] blockOffsets, int[] substituteByRank, int[] rankBySubstitute,
+			int[] sortedSubstitutes, int[] ranksOfSorted) {
+		this.size = size;
+		this.blockSize = blockSize;
+		this.maxTokenBytes = maxTokenBytes;
+		this.data = data;
+		this.blockOffsets = blockOffsets;
+		this.substituteByRank = substituteByRank;
+		this.rankBySubstitute = rankBySubstitute;
+		this.sortedSubstitutes = sortedSubstitutes;
+		this.ranksOfSorted = ranksOfSorted;
+	}
+
+	/**
+	 * Creates a compact copy of the given {@code source} lexicon using the
+	 * {@link #DEFAULT_BLOCK_SIZE default} block size.
+	 *
+	 * @see #copyOf(Lexicon, int)
+	 */
+	public static FrozenLexicon copyOf(Lexicon source) {
+		return copyOf(source, DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * Creates a compact copy of the given {@code source} lexicon. Larger values for
+	 * {@code blockSize} reduce the memory footprint for vocabularies with long shared
+	 * prefixes, at the cost of longer scans per lookup.
+	 *
+	 * @param source the lexicon to copy, traversed once via its {@link Lexicon#cursor() cursor}
+	 * @param blockSize number of tokens per front-coded block, between {@code 1} and
+	 * {@link #MAX_BLOCK_SIZE}
+	 * @return
+	 *
+	 * @throws ModelException of type {@link GlobalErrorCode#INVALID_INPUT} if the
+	 * source contains duplicate tokens or substitutes or reports an inconsistent size,
+	 * or of type {@link GlobalErrorCode#VALUE_OVERFLOW} if the encoded tokens exceed
+	 * the capacity of a single array
+	 */
+	public static FrozenLexicon copyOf(Lexicon source, int blockSize) {
+		requireNonNull(source);
+		checkArgument("Block size must be between 1 and "+MAX_BLOCK_SIZE,
+				blockSize>0 && blockSize<=MAX_BLOCK_SIZE);
+
+		if(source instanceof FrozenLexicon && ((FrozenLexicon)source).blockSize==blockSize) {
+			return (FrozenLexicon) source;
+		}
+
+		final int size = source.size();
+		final byte[][] tokens = new byte[size][];
+		final int[] substitutes = new int[size];
+
+		int count = 0;
+		for(Cursor cursor = source.cursor(); cursor.advance(); count++) {
+			if(count==size)
+				throw new ModelException(GlobalErrorCode.INVALID_INPUT,
+						"Source lexicon contains more tokens than its reported size: "+size);
+			tokens[count] = cursor.getToken().toString().getBytes(UTF_8);
+			substitutes[count] = LexiconUtils.checkSubstitute(cursor.getSubstitute());
+		}
+		if(count!=size)
+			throw new ModelException(GlobalErrorCode.INVALID_INPUT, String.format(
+					"Source lexicon contains fewer tokens than its reported size: %d < %d", count, size));
+
+		// Sources are supposed to deliver sorted tokens, but we can't rely on their order
+		int[] order = new int[size];
+		boolean sorted = true;
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+			sorted &= i==0 || Arrays.compareUnsigned(tokens[i-1], tokens[i])<0;
+		}
+		if(!sorted) {
+			IntArrays.parallelQuickSort(order, (i1, i2) -> Arrays.compareUnsigned(tokens[i1], tokens[i2]));
+		}
+
+		// Front-code all tokens in sorted order
+		final int blockCount = (size+blockSize-1)/blockSize;
+		final int[] blockOffsets = new int[blockCount];
+		final int[] substituteByRank = new int[size];
+		final ByteArrayList buffer = new ByteArrayList(size*8);
+		int maxTokenBytes = 0;
+		byte[] previous = null;
+
+		for (int rank = 0; rank < size; rank++) {
+			byte[] token = tokens[order[rank]];
+			substituteByRank[rank] = substitutes[order[rank]];
+
+			if(previous!=null && Arrays.compareUnsigned(previous, token)>=0)
+				throw new ModelException(GlobalErrorCode.INVALID_INPUT,
+						"Duplicate token in source lexicon: "+new String(token, UTF_8));
+			if((long)buffer.size()+token.length+10 > MAX_DATA_LENGTH)
+				throw new ModelException(GlobalErrorCode.VALUE_OVERFLOW,
+						"Encoded tokens exceed maximum capacity of "+MAX_DATA_LENGTH+" bytes");
+
+			if(rank % blockSize == 0) {
+				blockOffsets[rank/blockSize] = buffer.size();
+				writeVInt(buffer, token.length);
+				buffer.addElements(buffer.size(), token);
+			} else {
+				// Tokens are strictly increasing, so the mismatch is always within bounds
+				int prefix = Arrays.mismatch(previous, token);
+				writeVInt(buffer, prefix);
+				writeVInt(buffer, token.length-prefix);
+				buffer.addElements(buffer.size(), token, prefix, token.length-prefix);
+			}
+
+			maxTokenBytes = Math.max(maxTokenBytes, token.length);
+			previous = token;
+		}
+
+		byte[] data = buffer.toByteArray();
+
+		return withReverseLookup(size, blockSize, maxTokenBytes, data,
+				blockOffsets, substituteByRank);
+	}
+
+	/** Builds the substitute-to-rank mapping and creates the lexicon. */
+	private static FrozenLexicon withReverseLookup(int size, int blockSize, int maxTokenBytes,
+			byte[] data, int[] blockOffsets, int[] substituteByRank) {
+		int maxSubstitute = 0;
+		for (int substitute : substituteByRank) {
+			maxSubstitute = Math.max(maxSubstitute, substitute);
+		}
+
+		if(maxSubstitute <= (long)size*DENSE_FACTOR + DENSE_SLACK) {
+			int[] rankBySubstitute = new int[maxSubstitute+1];
+			Arrays.fill(rankBySubstitute, -1);
+			for (int rank = 0; rank < size; rank++) {
+				int substitute = substituteByRank[rank];
+				if(rankBySubstitute[substitute]!=-1)
+					throw duplicateSubstitute(substitute);
+				rankBySubstitute[substitute] = rank;
+			}
+			return new FrozenLexicon(size, blockSize, maxTokenBytes, data, blockOffsets,
+					substituteByRank, rankBySubstitute, null, null);
+		}
+
+		long[] pairs = new long[size];
+		for (int rank = 0; rank < size; rank++) {
+			pairs[rank] = ((long)substituteByRank[rank] << 32) | rank;
+		}
+		Arrays.parallelSort(pairs);
+
+		int[] sortedSubstitutes = new int[size];
+		int[] ranksOfSorted = new int[size];
+		for (int i = 0; i < size; i++) {
+			sortedSubstitutes[i] = (int) (pairs[i] >>> 32);
+			ranksOfSorted[i] = (int) pairs[i];
+			if(i>0 && sortedSubstitutes[i]==sortedSubstitutes[i-1])
+				throw duplicateSubstitute(sortedSubstitutes[i]);
+		}
+		return new FrozenLexicon(size, blockSize, maxTokenBytes, data, blockOffsets,
+				substituteByRank, null, sortedSubstitutes, ranksOfSorted);
+	}
+
+	private static ModelException duplicateSubstitute(int substitute) {
+		return new ModelException(GlobalErrorCode.INVALID_INPUT,
+				"Duplicate substitute in source lexicon: "+substitute);
+	}
+
+	private static void writeVInt(ByteArrayList buffer, int value) {
+		while((value & ~0x7F) != 0) {
+			buffer.add((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.add((byte) value);
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return ToStringBuilder.create(this)
+				.add("size", size)
+				.add("blockSize", blockSize)
+				.add("dense", rankBySubstitute!=null)
+				.add("bytes", sizeInBytes())
+				.build();
+	}
+
+	/**
+	 * @see de.ims.icarus2.compression.Lexicon#size()
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	/**
+	 * Returns the approximate number of bytes occupied by the arrays that make
+	 * up this lexicon.
+	 */
+	public long sizeInBytes() {
+		long ints = blockOffsets.length + substituteByRank.length;
+		if(rankBySubstitute!=null) {
+			ints += rankBySubstitute.length;
+		} else {
+			ints += sortedSubstitutes.length + ranksOfSorted.length;
+		}
+		return data.length + ints*Integer.BYTES;
+	}
+
+	/**
+	 * @see de.ims.icarus2.compression.Lexicon#getSubstitute(java.lang.CharSequence)
+	 */
+	@Override
+	public int getSubstitute(CharSequence token) {
+		requireNonNull(token);
+		if(size==0) {
+			return UNSET_INT;
+		}
+
+		byte[] key = token.toString().getBytes(UTF_8);
+
+		// Find last block whose head is less or equal to the key
+		int low = 0, high = blockOffsets.length-1, block = -1;
+		while(low<=high) {
+			int mid = (low+high) >>> 1;
+			int c = compareHead(mid, key);
+			if(c==0) {
+				return substituteByRank[mid*blockSize];
+			} else if(c<0) {
+				block = mid;
+				low = mid+1;
+			} else {
+				high = mid-1;
+			}
+		}
+		if(block<0) {
+			return UNSET_INT;
+		}
+
+		Decoder decoder = new Decoder();
+		decoder.head(block);
+		int end = Math.min(size, (block+1)*blockSize);
+		for (int rank = block*blockSize+1; rank < end; rank++) {
+			decoder.tail();
+			int c = Arrays.compareUnsigned(decoder.buffer, 0, decoder.length, key, 0, key.length);
+			if(c==0) {
+				return substituteByRank[rank];
+			} else if(c>0) {
+				break;
+			}
+		}
+
+		return UNSET_INT;
+	}
+
+	private int compareHead(int block, byte[] key) {
+		int pos = blockOffsets[block];
+		int length = 0;
+		for (int shift = 0;; shift += 7) {
+			byte b = data[pos++];
+			length |= (b & 0x7F) << shift;
+			if((b & 0x80) == 0) {
+				break;
+			}
+		}
+		return Arrays.compareUnsigned(data, pos, pos+length, key, 0, key.length);
+	}
+
+	/**
+	 * Throws {@link ModelException} of type {@link GlobalErrorCode#UNSUPPORTED_OPERATION}.
+	 *
+	 * @see de.ims.icarus2.compression.Lexicon#addToken(java.lang.CharSequence)
+	 */
+	@Override
+	public int addToken(CharSequence token) {
+		throw new ModelException(GlobalErrorCode.UNSUPPORTED_OPERATION, "Lexicon is immutable");
+	}
+
+	/**
+	 * Throws {@link ModelException} of type {@link GlobalErrorCode#UNSUPPORTED_OPERATION}.
+	 *
+	 * @see de.ims.icarus2.compression.Lexicon#setSubstitute(java.lang.CharSequence, int)
+	 */
+	@Override
+	public boolean setSubstitute(CharSequence token, int substitute) {
+		throw new ModelException(GlobalErrorCode.UNSUPPORTED_OPERATION, "Lexicon is immutable");
+	}
+
+	private int rankOf(int substitute) {
+		if(rankBySubstitute!=null) {
+			return substitute>=0 && substitute<rankBySubstitute.length
+					? rankBySubstitute[substitute] : -1;
+		}
+		int index = Arrays.binarySearch(sortedSubstitutes, substitute);
+		return index<0 ? -1 : ranksOfSorted[index];
+	}
+
+	/**
+	 * @see de.ims.icarus2.compression.Lexicon#getToken(int)
+	 */
+	@Override
+	public CharSequence getToken(int substitute) {
+		int rank = rankOf(substitute);
+		if(rank<0) {
+			return null;
+		}
+
+		Decoder decoder = new Decoder();
+		int block = rank/blockSize;
+		decoder.head(block);
+		for (int i = block*blockSize; i < rank; i++) {
+			decoder.tail();
+		}
+		return decoder.token();
+	}
+
+	/**
+	 * @see de.ims.icarus2.compression.Lexicon#iterator()
+	 */
+	@Override
+	public Iterator<CharSequence> iterator() {
+		final RankCursor cursor = new RankCursor();
+		return new Iterator<CharSequence>() {
+			@Override
+			public boolean hasNext() {
+				return cursor.rank+1<size;
+			}
+
+			@Override
+			public CharSequence next() {
+				if(!cursor.advance())
+					throw new NoSuchElementException();
+				return cursor.getToken();
+			}
+		};
+	}
+
+	/**
+	 * @see de.ims.icarus2.compression.Lexicon#cursor()
+	 */
+	@Override
+	public Cursor cursor() {
+		return new RankCursor();
+	}
+
+	/** Sequentially decodes front-coded tokens into a reusable buffer. */
+	private final class Decoder {
+		final byte[] buffer = new byte[maxTokenBytes];
+		int pos, length;
+
+		private int readVInt() {
+			int value = 0;
+			for (int shift = 0;; shift += 7) {
+				byte b = data[pos++];
+				value |= (b & 0x7F) << shift;
+				if((b & 0x80) == 0) {
+					return value;
+				}
+			}
+		}
+
+		/** Decodes the first token of the given block */
+		void head(int block) {
+			pos = blockOffsets[block];
+			length = readVInt();
+			System.arraycopy(data, pos, buffer, 0, length);
+			pos += length;
+		}
+
+		/** Decodes the token following the current one within the same block */
+		void tail() {
+			int prefix = readVInt();
+			int suffix = readVInt();
+			System.arraycopy(data, pos, buffer, prefix, suffix);
+			pos += suffix;
+			length = prefix+suffix;
+		}
+
+		String token() {
+			return new String(buffer, 0, length, UTF_8);
+		}
+	}
+
+	private final class RankCursor implements Cursor {
+		final Decoder decoder = new Decoder();
+		int rank = -1;
+		String token;
+
+		@Override
+		public boolean advance() {
+			if(rank+1>=size) {
+				return false;
+			}
+			rank++;
+			if(rank % blockSize == 0) {
+				decoder.head(rank/blockSize);
+			} else {
+				decoder.tail();
+			}
+			token = null;
+			return true;
+		}
+
+		@Override
+		public CharSequence getToken() {
+			if(rank<0)
+				throw new NoSuchElementException();
+			if(token==null) {
+				token = decoder.token();
+			}
+			return token;
+		}
+
+		@Override
+		public int getSubstitute() {
+			if(rank<0)
+				throw new NoSuchElementException();
+			return substituteByRank[rank];
+		}
+	}
+
+	// SERIALIZATION
+
+	/**
+	 * Writes this lexicon to the given channel. The channel is not closed.
+	 *
+	 * @param channel
+	 * @throws IOException
+	 */
+	public void writeTo(WritableByteChannel channel) throws IOException {
+		requireNonNull(channel);
+
+		int reverseLength = rankBySubstitute!=null ? rankBySubstitute.length : -1;
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC)
+			.putInt(FORMAT_VERSION)
+			.putInt(size)
+			.putInt(blockSize)
+			.putInt(maxTokenBytes)
+			.putInt(data.length)
+			.putInt(reverseLength)
+			.flip();
+		writeFully(channel, header);
+		writeFully(channel, ByteBuffer.wrap(data));
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+		writeInts(channel, buffer, blockOffsets);
+		writeInts(channel, buffer, substituteByRank);
+		if(rankBySubstitute!=null) {
+			writeInts(channel, buffer, rankBySubstitute);
+		} else {
+			writeInts(channel, buffer, sortedSubstitutes);
+			writeInts(channel, buffer, ranksOfSorted);
+		}
+	}
+
+	/**
+	 * Writes this lexicon to the given file, replacing any previous content.
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public void writeTo(Path file) throws IOException {
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			writeTo(channel);
+		}
+	}
+
+	private static void writeFully(WritableByteChannel channel, ByteBuffer data) throws IOException {
+		while(data.hasRemaining()) {
+			channel.write(data);
+		}
+	}
+
+	private static void writeInts(WritableByteChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+		IntBuffer ints = buffer.clear().asIntBuffer();
+		for (int offset = 0; offset < values.length; ) {
+			int chunk = Math.min(ints.capacity(), values.length-offset);
+			ints.clear();
+			ints.put(values, offset, chunk);
+			buffer.clear().limit(chunk*Integer.BYTES);
+			writeFully(channel, buffer);
+			offset += chunk;
+		}
+	}
+
+	/**
+	 * Reads a lexicon previously {@link #writeTo(WritableByteChannel) written} from
+	 * the current position of the given channel. The channel is not closed.
+	 *
+	 * @param channel
+	 * @return
+	 * @throws IOException if the channel ends prematurely or its content is not a valid lexicon
+	 */
+	public static FrozenLexicon readFrom(ReadableByteChannel channel) throws IOException {
+		requireNonNull(channel);
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		readFully(channel, header);
+		header.flip();
+
+		int magic = header.getInt();
+		if(magic!=MAGIC)
+			throw new IOException("Not a lexicon - unknown magic number: "+Integer.toHexString(magic));
+		int version = header.getInt();
+		if(version!=FORMAT_VERSION)
+			throw new IOException("Unsupported lexicon format version: "+version);
+
+		int size = header.getInt();
+		int blockSize = header.getInt();
+		int maxTokenBytes = header.getInt();
+		int dataLength = header.getInt();
+		int reverseLength = header.getInt();
+
+		if(size<0 || blockSize<1 || blockSize>MAX_BLOCK_SIZE || maxTokenBytes<0
+				|| dataLength<0 || dataLength>MAX_DATA_LENGTH || reverseLength<-1)
+			throw new IOException(String.format(
+					"Corrupted lexicon header: size=%d, blockSize=%d, maxTokenBytes=%d, dataLength=%d, reverseLength=%d",
+					size, blockSize, maxTokenBytes, dataLength, reverseLength));
+
+		byte[] data = new byte[dataLength];
+		readFully(channel, ByteBuffer.wrap(data));
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+		int[] blockOffsets = readInts(channel, buffer, (size+blockSize-1)/blockSize);
+		int[] substituteByRank = readInts(channel, buffer, size);
+
+		for (int offset : blockOffsets) {
+			if(offset<0 || offset>=dataLength)
+				throw new IOException("Corrupted lexicon - block offset out of bounds: "+offset);
+		}
+
+		if(reverseLength>=0) {
+			int[] rankBySubstitute = readInts(channel, buffer, reverseLength);
+			return new FrozenLexicon(size, blockSize, maxTokenBytes, data, blockOffsets,
+					substituteByRank, rankBySubstitute, null, null);
+		}
+
+		int[] sortedSubstitutes = readInts(channel, buffer, size);
+		int[] ranksOfSorted = readInts(channel, buffer, size);
+		return new FrozenLexicon(size, blockSize, maxTokenBytes, data, blockOffsets,
+				substituteByRank, null, sortedSubstitutes, ranksOfSorted);
+	}
+
+	/**
+	 * Reads a lexicon previously {@link #writeTo(Path) written} to the given file.
+	 *
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static FrozenLexicon readFrom(Path file) throws IOException {
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return readFrom(channel);
+		}
+	}
+
+	private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+		while(buffer.hasRemaining()) {
+			if(channel.read(buffer)<0)
+				throw new EOFException("Unexpected end of lexicon data - missing bytes: "+buffer.remaining());
+		}
+	}
+
+	private static int[] readInts(ReadableByteChannel channel, ByteBuffer buffer, int count) throws IOException {
+		int[] values = new int[count];
+		IntBuffer ints = buffer.clear().asIntBuffer();
+		for (int offset = 0; offset < count; ) {
+			int chunk = Math.min(ints.capacity(), count-offset);
+			buffer.clear().limit(chunk*Integer.BYTES);
+			readFully(channel, buffer);
+			ints.clear();
+			ints.get(values, offset, chunk);
+			offset += chunk;
+		}
+		return values;
+	}
+}
@@ -19,6 +19,7 @@ package de.ims.icarus2.compression;
 import java.util.Iterator;
 
 import de.ims.icarus2.model.api.ModelException;
+import de.ims.icarus2.util.IcarusUtils;
 
 /**
  * A lexicon in the context of compression is a map like construct that allows to
@@ -55,7 +56,8 @@ public interface Lexicon extends Iterable<CharSequence> {
 	 * The maximum possible value is therefore {@link Integer#MAX_VALUE} (2<sup>31</sup>-1).
 	 *
 	 * @param token
-	 * @return
+	 * @return the substitute for {@code token} or {@link IcarusUtils#UNSET_INT} if the
+	 * token is not mapped in this lexicon
 	 */
 	int getSubstitute(CharSequence token);
 
@@ -85,7 +87,8 @@ public interface Lexicon extends Iterable<CharSequence> {
 	 * Returns the text fragment that is mapped to the given numerical substitute.
 	 *
 	 * @param substitute
-	 * @return
+	 * @return the token mapped to {@code substitute} or {@code null} if the substitute
+	 * is not in use
 	 */
 	CharSequence getToken(int substitute);
 
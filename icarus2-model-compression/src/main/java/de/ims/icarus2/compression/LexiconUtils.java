@@ -0,0 +1,83 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.compression;
+
+import java.util.Comparator;
+
+import de.ims.icarus2.GlobalErrorCode;
+import de.ims.icarus2.model.api.ModelException;
+
+/**
+ * Shared helpers for {@link Lexicon} implementations.
+ *
+ * @author Markus Gärtner
+ *
+ */
+public final class LexiconUtils {
+
+	private LexiconUtils() {
+		// no-op
+	}
+
+	/** Smallest value a {@link Lexicon} may use as substitute */
+	public static final int MIN_SUBSTITUTE = 1;
+
+	/**
+	 * Defines the lexicographical order used by all lexicon implementations
+	 * in this package: tokens are compared by their Unicode code points.
+	 * Unlike {@link String#compareTo(String)}, which compares UTF-16 chars,
+	 * this order is identical to comparing the UTF-8 encodings of tokens as
+	 * unsigned bytes, which allows serialized lexicons to be searched without
+	 * decoding their content.
+	 */
+	public static final Comparator<CharSequence> CODE_POINT_ORDER = LexiconUtils::compare;
+
+	/**
+	 * Compares the two sequences based on their Unicode code points.
+	 *
+	 * @see #CODE_POINT_ORDER
+	 */
+	public static int compare(CharSequence s1, CharSequence s2) {
+		int len1 = s1.length(), len2 = s2.length();
+		int len = Math.min(len1, len2);
+		for (int i = 0; i < len; i++) {
+			char c1 = s1.charAt(i), c2 = s2.charAt(i);
+			if(c1!=c2) {
+				// Surrogates encode code points above all other chars
+				boolean sur1 = Character.isSurrogate(c1), sur2 = Character.isSurrogate(c2);
+				if(sur1!=sur2) {
+					return sur1 ? 1 : -1;
+				}
+				return c1-c2;
+			}
+		}
+		return len1-len2;
+	}
+
+	/**
+	 * Verifies that the given value can be used as a substitute.
+	 *
+	 * @throws ModelException of type {@link GlobalErrorCode#INVALID_INPUT} if
+	 * {@code substitute} is less than {@link #MIN_SUBSTITUTE}
+	 */
+	public static int checkSubstitute(int substitute) {
+		if(substitute<MIN_SUBSTITUTE)
+			throw new ModelException(GlobalErrorCode.INVALID_INPUT,
+					"Substitute must not be less than "+MIN_SUBSTITUTE+": "+substitute);
+		return substitute;
+	}
+}
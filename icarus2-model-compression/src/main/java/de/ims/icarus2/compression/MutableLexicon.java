@@ -0,0 +1,256 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.compression;
+
+import static de.ims.icarus2.util.Conditions.checkArgument;
+import static de.ims.icarus2.util.IcarusUtils.UNSET_INT;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import de.ims.icarus2.GlobalErrorCode;
+import de.ims.icarus2.model.api.ModelException;
+import de.ims.icarus2.util.strings.ToStringBuilder;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+/**
+ * A hash based {@link Lexicon} to be used while collecting tokens, e.g. during the
+ * initial conversion of a corpus. New tokens receive consecutive substitutes starting
+ * at {@link LexiconUtils#MIN_SUBSTITUTE}, but arbitrary (positive) substitutes can be
+ * assigned via {@link #setSubstitute(CharSequence, int)}.
+ * <p>
+ * This implementation keeps every token as a separate {@link String} and is therefore
+ * not suited to hold very large vocabularies for longer periods of time. Once the
+ * vocabulary is complete it should be {@link #freeze() frozen} into a compact
+ * {@link FrozenLexicon}.
+ * <p>
+ * Iterators and cursors operate on a sorted snapshot of the tokens and fail with a
+ * {@link ConcurrentModificationException} if the lexicon is modified during traversal.
+ * This class is not thread-safe.
+ *
+ * @author Markus Gärtner
+ *
+ */
+public class MutableLexicon implements Lexicon {
+
+	private final Object2IntOpenHashMap<String> substitutes;
+	private final Int2ObjectOpenHashMap<String> tokens;
+
+	/** Next substitute to be assigned by {@link #addToken(CharSequence)} */
+	private int nextSubstitute = LexiconUtils.MIN_SUBSTITUTE;
+
+	/** Lazily created and sorted copy of all tokens, reset on every modification */
+	private String[] sorted;
+
+	private int modCount = 0;
+
+	public MutableLexicon() {
+		this(1<<10);
+	}
+
+	public MutableLexicon(int expectedSize) {
+		checkArgument("Expected size must not be negative", expectedSize>=0);
+		substitutes = new Object2IntOpenHashMap<>(expectedSize);
+		substitutes.defaultReturnValue(UNSET_INT);
+		tokens = new Int2ObjectOpenHashMap<>(expectedSize);
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return ToStringBuilder.create(this)
+				.add("size", size())
+				.add("nextSubstitute", nextSubstitute)
+				.build();
+	}
+
+	/**
+	 * @see de.ims.icarus2.compression.Lexicon#size()
+	 */
+	@Override
+	public int size() {
+		return substitutes.size();
+	}
+
+	/**
+	 * @see de.ims.icarus2.compression.Lexicon#getSubstitute(java.lang.CharSequence)
+	 */
+	@Override
+	public int getSubstitute(CharSequence token) {
+		requireNonNull(token);
+		return substitutes.getInt(token.toString());
+	}
+
+	/**
+	 * Returns the existing substitute if {@code token} is already mapped.
+	 *
+	 * @throws ModelException of type {@link GlobalErrorCode#VALUE_OVERFLOW} if all
+	 * possible substitute values have been used up
+	 *
+	 * @see de.ims.icarus2.compression.Lexicon#addToken(java.lang.CharSequence)
+	 */
+	@Override
+	public int addToken(CharSequence token) {
+		requireNonNull(token);
+		String key = token.toString();
+
+		int substitute = substitutes.getInt(key);
+		if(substitute!=UNSET_INT) {
+			return substitute;
+		}
+
+		// Skip values that have been claimed explicitly via setSubstitute()
+		while(nextSubstitute>0 && tokens.containsKey(nextSubstitute)) {
+			nextSubstitute++;
+		}
+		if(nextSubstitute<=0)
+			throw new ModelException(GlobalErrorCode.VALUE_OVERFLOW,
+					"No more substitutes available for token: "+key);
+
+		substitute = nextSubstitute++;
+		map(key, substitute);
+		return substitute;
+	}
+
+	/**
+	 * Returns {@code false} if {@code substitute} is already mapped to another token.
+	 * If {@code token} was previously mapped to a different substitute, that old
+	 * mapping will be removed.
+	 *
+	 * @see de.ims.icarus2.compression.Lexicon#setSubstitute(java.lang.CharSequence, int)
+	 */
+	@Override
+	public boolean setSubstitute(CharSequence token, int substitute) {
+		requireNonNull(token);
+		LexiconUtils.checkSubstitute(substitute);
+		String key = token.toString();
+
+		String owner = tokens.get(substitute);
+		if(owner!=null) {
+			return owner.equals(key);
+		}
+
+		int previous = substitutes.getInt(key);
+		if(previous!=UNSET_INT) {
+			tokens.remove(previous);
+		}
+		map(key, substitute);
+		return true;
+	}
+
+	private void map(String token, int substitute) {
+		substitutes.put(token, substitute);
+		tokens.put(substitute, token);
+		sorted = null;
+		modCount++;
+	}
+
+	/**
+	 * @see de.ims.icarus2.compression.Lexicon#getToken(int)
+	 */
+	@Override
+	public CharSequence getToken(int substitute) {
+		return tokens.get(substitute);
+	}
+
+	private String[] sortedTokens() {
+		String[] sorted = this.sorted;
+		if(sorted==null) {
+			sorted = substitutes.keySet().toArray(new String[0]);
+			Arrays.parallelSort(sorted, LexiconUtils.CODE_POINT_ORDER);
+			this.sorted = sorted;
+		}
+		return sorted;
+	}
+
+	/**
+	 * Creates an immutable and compact copy of this lexicon with the
+	 * {@link FrozenLexicon#DEFAULT_BLOCK_SIZE default} block size.
+	 */
+	public FrozenLexicon freeze() {
+		return FrozenLexicon.copyOf(this);
+	}
+
+	/**
+	 * @see de.ims.icarus2.compression.Lexicon#iterator()
+	 */
+	@Override
+	public Iterator<CharSequence> iterator() {
+		final SortedCursor cursor = new SortedCursor();
+		return new Iterator<CharSequence>() {
+			@Override
+			public boolean hasNext() {
+				return cursor.index+1<cursor.tokens.length;
+			}
+
+			@Override
+			public CharSequence next() {
+				if(!cursor.advance())
+					throw new NoSuchElementException();
+				return cursor.getToken();
+			}
+		};
+	}
+
+	/**
+	 * @see de.ims.icarus2.compression.Lexicon#cursor()
+	 */
+	@Override
+	public Cursor cursor() {
+		return new SortedCursor();
+	}
+
+	private class SortedCursor implements Cursor {
+		final String[] tokens = sortedTokens();
+		final int expectedModCount = modCount;
+		int index = -1;
+
+		private void checkModCount() {
+			if(modCount!=expectedModCount)
+				throw new ConcurrentModificationException();
+		}
+
+		@Override
+		public boolean advance() {
+			checkModCount();
+			if(index+1>=tokens.length) {
+				return false;
+			}
+			index++;
+			return true;
+		}
+
+		@Override
+		public CharSequence getToken() {
+			if(index<0)
+				throw new NoSuchElementException();
+			checkModCount();
+			return tokens[index];
+		}
+
+		@Override
+		public int getSubstitute() {
+			return substitutes.getInt(getToken());
+		}
+	}
+}
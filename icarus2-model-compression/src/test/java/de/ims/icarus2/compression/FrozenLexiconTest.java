@@ -0,0 +1,217 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.compression;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import de.ims.icarus2.GlobalErrorCode;
+import de.ims.icarus2.model.api.ModelException;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class FrozenLexiconTest implements LexiconTest<FrozenLexicon> {
+
+	@Override
+	public FrozenLexicon createLexicon(String... tokens) {
+		return FrozenLexicon.copyOf(mutable(tokens));
+	}
+
+	static MutableLexicon mutable(String... tokens) {
+		MutableLexicon lexicon = new MutableLexicon();
+		for (String token : tokens) {
+			lexicon.addToken(token);
+		}
+		return lexicon;
+	}
+
+	static byte[] serialize(FrozenLexicon lexicon) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		lexicon.writeTo(Channels.newChannel(out));
+		return out.toByteArray();
+	}
+
+	static FrozenLexicon deserialize(byte[] data) throws IOException {
+		return FrozenLexicon.readFrom(Channels.newChannel(new ByteArrayInputStream(data)));
+	}
+
+	static void assertSameContent(Lexicon expected, Lexicon actual) {
+		assertEquals(expected.size(), actual.size());
+		for(CharSequence token : expected) {
+			int substitute = expected.getSubstitute(token);
+			assertEquals(substitute, actual.getSubstitute(token), token.toString());
+			assertEquals(token.toString(), actual.getToken(substitute).toString());
+		}
+	}
+
+	/** Random tokens from a small alphabet to produce many shared prefixes */
+	static MutableLexicon randomLexicon(Random rand, int count) {
+		MutableLexicon lexicon = new MutableLexicon(count);
+		StringBuilder sb = new StringBuilder();
+		while(lexicon.size()<count) {
+			sb.setLength(0);
+			int length = 1+rand.nextInt(12);
+			for (int i = 0; i < length; i++) {
+				sb.append((char)('a'+rand.nextInt(6)));
+			}
+			if(rand.nextInt(50)==0) {
+				sb.append("ü😀");
+			}
+			lexicon.addToken(sb);
+		}
+		return lexicon;
+	}
+
+	@Test
+	void testAddToken() {
+		FrozenLexicon lexicon = createLexicon(TOKENS);
+		ModelException ex = assertThrows(ModelException.class, () -> lexicon.addToken("new"));
+		assertEquals(GlobalErrorCode.UNSUPPORTED_OPERATION, ex.getErrorCode());
+	}
+
+	@Test
+	void testSetSubstitute() {
+		FrozenLexicon lexicon = createLexicon(TOKENS);
+		ModelException ex = assertThrows(ModelException.class, () -> lexicon.setSubstitute("the", 1));
+		assertEquals(GlobalErrorCode.UNSUPPORTED_OPERATION, ex.getErrorCode());
+	}
+
+	@Test
+	void testCopyOfSelf() {
+		FrozenLexicon lexicon = createLexicon(TOKENS);
+		assertSame(lexicon, FrozenLexicon.copyOf(lexicon, lexicon.getBlockSize()));
+		assertSameContent(lexicon, FrozenLexicon.copyOf(lexicon, 3));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {0, -1, FrozenLexicon.MAX_BLOCK_SIZE+1})
+	void testCopyOfInvalidBlockSize(int blockSize) {
+		assertThrows(IllegalArgumentException.class,
+				() -> FrozenLexicon.copyOf(mutable(TOKENS), blockSize));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 2, 7, 16, 64})
+	void testBlockSizes(int blockSize) {
+		MutableLexicon source = randomLexicon(new Random(blockSize), 5_000);
+		FrozenLexicon lexicon = FrozenLexicon.copyOf(source, blockSize);
+		assertEquals(blockSize, lexicon.getBlockSize());
+		assertSameContent(source, lexicon);
+	}
+
+	@Test
+	void testSparseSubstitutes() {
+		MutableLexicon source = new MutableLexicon();
+		String[] tokens = TOKENS.clone();
+		Arrays.sort(tokens);
+		for (int i = 0; i < tokens.length; i++) {
+			source.setSubstitute(tokens[tokens.length-1-i], 1+i*1_000_000);
+		}
+
+		assertSameContent(source, FrozenLexicon.copyOf(source));
+	}
+
+	@Test
+	void testCompactness() {
+		MutableLexicon source = randomLexicon(new Random(42), 20_000);
+		FrozenLexicon lexicon = source.freeze();
+
+		long rawBytes = 0;
+		for(CharSequence token : source) {
+			rawBytes += token.length()*2;
+		}
+		// Front coding must beat plain UTF-16 chars even before counting String overhead
+		assertTrue(lexicon.sizeInBytes() < rawBytes + source.size()*12L,
+				"too large: "+lexicon.sizeInBytes());
+	}
+
+	@Nested
+	class Serialization {
+
+		@Test
+		void testRoundTripEmpty() throws IOException {
+			FrozenLexicon lexicon = createLexicon();
+			assertSameContent(lexicon, deserialize(serialize(lexicon)));
+		}
+
+		@Test
+		void testRoundTrip() throws IOException {
+			FrozenLexicon lexicon = FrozenLexicon.copyOf(randomLexicon(new Random(7), 50_000), 8);
+			FrozenLexicon copy = deserialize(serialize(lexicon));
+			assertEquals(lexicon.getBlockSize(), copy.getBlockSize());
+			assertEquals(lexicon.sizeInBytes(), copy.sizeInBytes());
+			assertSameContent(lexicon, copy);
+		}
+
+		@Test
+		void testRoundTripSparse() throws IOException {
+			MutableLexicon source = mutable(TOKENS);
+			source.setSubstitute("sparse", Integer.MAX_VALUE);
+			assertSameContent(source, deserialize(serialize(source.freeze())));
+		}
+
+		@Test
+		void testRoundTripFile(@TempDir Path dir) throws IOException {
+			Path file = dir.resolve("test.lex");
+			FrozenLexicon lexicon = createLexicon(TOKENS);
+			lexicon.writeTo(file);
+			assertSameContent(lexicon, FrozenLexicon.readFrom(file));
+		}
+
+		@Test
+		void testInvalidMagic() throws IOException {
+			byte[] data = serialize(createLexicon(TOKENS));
+			data[0] ^= 0xFF;
+			assertThrows(IOException.class, () -> deserialize(data));
+		}
+
+		@Test
+		void testInvalidVersion() throws IOException {
+			byte[] data = serialize(createLexicon(TOKENS));
+			data[7] = 99;
+			assertThrows(IOException.class, () -> deserialize(data));
+		}
+
+		@Test
+		void testTruncated() throws IOException {
+			byte[] data = serialize(createLexicon(TOKENS));
+			assertThrows(EOFException.class, () -> deserialize(Arrays.copyOf(data, data.length-1)));
+		}
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.compression;
+
+import static de.ims.icarus2.util.IcarusUtils.UNSET_INT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.ims.icarus2.compression.Lexicon.Cursor;
+
+/**
+ * Contract tests for all {@link Lexicon} implementations.
+ *
+ * @author Markus Gärtner
+ *
+ */
+public interface LexiconTest<L extends Lexicon> {
+
+	/** Sample tokens with shared prefixes, multi-byte and supplementary characters */
+	static final String[] TOKENS = {
+		"the", "then", "there", "these", "they", "a", "an", "and", "Haus", "Häuser",
+		"Hausmeister", "straße", "ﬁnal", "😀smile", "", "x", "xx", "xxx",
+	};
+
+	/**
+	 * Creates a lexicon that contains exactly the given tokens, mapped to
+	 * consecutive substitutes in the order they are provided.
+	 */
+	L createLexicon(String...tokens);
+
+	@Test
+	default void testEmpty() {
+		L lexicon = createLexicon();
+		assertTrue(lexicon.isEmpty());
+		assertEquals(0, lexicon.size());
+		assertEquals(UNSET_INT, lexicon.getSubstitute("the"));
+		assertNull(lexicon.getToken(1));
+		assertFalse(lexicon.iterator().hasNext());
+		assertFalse(lexicon.cursor().advance());
+	}
+
+	@Test
+	default void testSize() {
+		assertEquals(TOKENS.length, createLexicon(TOKENS).size());
+	}
+
+	@Test
+	default void testGetSubstitute() {
+		L lexicon = createLexicon(TOKENS);
+		for (int i = 0; i < TOKENS.length; i++) {
+			assertEquals(i+1, lexicon.getSubstitute(TOKENS[i]), TOKENS[i]);
+			assertEquals(i+1, lexicon.getSubstitute(new StringBuilder(TOKENS[i])));
+		}
+	}
+
+	@Test
+	default void testGetSubstituteForeign() {
+		L lexicon = createLexicon(TOKENS);
+		for(String token : new String[] {"th", "thee", "zzz", "Hau", "!", "xxxx", "😁"}) {
+			assertEquals(UNSET_INT, lexicon.getSubstitute(token), token);
+		}
+	}
+
+	@Test
+	default void testGetToken() {
+		L lexicon = createLexicon(TOKENS);
+		for (int i = 0; i < TOKENS.length; i++) {
+			assertEquals(TOKENS[i], lexicon.getToken(i+1).toString());
+		}
+	}
+
+	@Test
+	default void testGetTokenForeign() {
+		L lexicon = createLexicon(TOKENS);
+		assertNull(lexicon.getToken(0));
+		assertNull(lexicon.getToken(-1));
+		assertNull(lexicon.getToken(TOKENS.length+1));
+		assertNull(lexicon.getToken(Integer.MAX_VALUE));
+	}
+
+	@Test
+	default void testIteratorOrder() {
+		L lexicon = createLexicon(TOKENS);
+		String[] expected = TOKENS.clone();
+		Arrays.sort(expected, LexiconUtils.CODE_POINT_ORDER);
+
+		List<String> actual = new ArrayList<>();
+		for(Iterator<CharSequence> it = lexicon.iterator(); it.hasNext();) {
+			actual.add(it.next().toString());
+		}
+
+		assertEquals(Arrays.asList(expected), actual);
+	}
+
+	@Test
+	default void testCursor() {
+		L lexicon = createLexicon(TOKENS);
+		Cursor cursor = lexicon.cursor();
+		CharSequence previous = null;
+		int count = 0;
+		while(cursor.advance()) {
+			CharSequence token = cursor.getToken();
+			if(previous!=null) {
+				assertTrue(LexiconUtils.compare(previous, token)<0);
+			}
+			assertEquals(lexicon.getSubstitute(token), cursor.getSubstitute());
+			previous = token;
+			count++;
+		}
+		assertEquals(TOKENS.length, count);
+		assertFalse(cursor.advance());
+	}
+}
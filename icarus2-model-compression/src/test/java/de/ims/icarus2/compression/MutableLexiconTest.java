@@ -0,0 +1,155 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.compression;
+
+import static de.ims.icarus2.util.IcarusUtils.UNSET_INT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import de.ims.icarus2.GlobalErrorCode;
+import de.ims.icarus2.compression.Lexicon.Cursor;
+import de.ims.icarus2.model.api.ModelException;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class MutableLexiconTest implements LexiconTest<MutableLexicon> {
+
+	@Override
+	public MutableLexicon createLexicon(String... tokens) {
+		MutableLexicon lexicon = new MutableLexicon();
+		for (String token : tokens) {
+			lexicon.addToken(token);
+		}
+		return lexicon;
+	}
+
+	@Test
+	void testAddTokenConsecutive() {
+		MutableLexicon lexicon = new MutableLexicon();
+		assertEquals(1, lexicon.addToken("a"));
+		assertEquals(2, lexicon.addToken("b"));
+		assertEquals(3, lexicon.addToken("c"));
+	}
+
+	@Test
+	void testAddTokenExisting() {
+		MutableLexicon lexicon = new MutableLexicon();
+		assertEquals(1, lexicon.addToken("a"));
+		assertEquals(1, lexicon.addToken(new StringBuilder("a")));
+		assertEquals(1, lexicon.size());
+	}
+
+	@Test
+	void testAddTokenSkipsClaimedSubstitutes() {
+		MutableLexicon lexicon = new MutableLexicon();
+		assertTrue(lexicon.setSubstitute("x", 2));
+		assertEquals(1, lexicon.addToken("a"));
+		assertEquals(3, lexicon.addToken("b"));
+	}
+
+	@Test
+	void testSetSubstitute() {
+		MutableLexicon lexicon = new MutableLexicon();
+		assertTrue(lexicon.setSubstitute("a", 100));
+		assertEquals(100, lexicon.getSubstitute("a"));
+		assertEquals("a", lexicon.getToken(100));
+		assertEquals(101, lexicon.addToken("b"));
+	}
+
+	@Test
+	void testSetSubstituteRemap() {
+		MutableLexicon lexicon = new MutableLexicon();
+		lexicon.addToken("a");
+		assertTrue(lexicon.setSubstitute("a", 5));
+		assertEquals(5, lexicon.getSubstitute("a"));
+		assertNull(lexicon.getToken(1));
+		assertEquals(1, lexicon.size());
+	}
+
+	@Test
+	void testSetSubstituteConflict() {
+		MutableLexicon lexicon = new MutableLexicon();
+		lexicon.addToken("a");
+		assertFalse(lexicon.setSubstitute("b", 1));
+		assertTrue(lexicon.setSubstitute("a", 1));
+		assertEquals(UNSET_INT, lexicon.getSubstitute("b"));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {0, -1, Integer.MIN_VALUE})
+	void testSetSubstituteInvalid(int substitute) {
+		MutableLexicon lexicon = new MutableLexicon();
+		ModelException ex = assertThrows(ModelException.class,
+				() -> lexicon.setSubstitute("a", substitute));
+		assertEquals(GlobalErrorCode.INVALID_INPUT, ex.getErrorCode());
+	}
+
+	@Test
+	void testAddTokenOverflow() {
+		MutableLexicon lexicon = new MutableLexicon();
+		assertTrue(lexicon.setSubstitute("a", Integer.MAX_VALUE));
+		ModelException ex = assertThrows(ModelException.class, () -> lexicon.addToken("b"));
+		assertEquals(GlobalErrorCode.VALUE_OVERFLOW, ex.getErrorCode());
+	}
+
+	@Test
+	void testIteratorFailFast() {
+		MutableLexicon lexicon = createLexicon(TOKENS);
+		Iterator<CharSequence> it = lexicon.iterator();
+		it.next();
+		lexicon.addToken("new");
+		assertThrows(ConcurrentModificationException.class, it::next);
+	}
+
+	@Test
+	void testCursorFailFast() {
+		MutableLexicon lexicon = createLexicon(TOKENS);
+		Cursor cursor = lexicon.cursor();
+		assertTrue(cursor.advance());
+		lexicon.setSubstitute("new", 1000);
+		assertThrows(ConcurrentModificationException.class, cursor::advance);
+	}
+
+	@Test
+	void testFreeze() {
+		MutableLexicon lexicon = createLexicon(TOKENS);
+		assertTrue(lexicon.setSubstitute("sparse", 1_000_000));
+
+		FrozenLexicon frozen = lexicon.freeze();
+		assertEquals(lexicon.size(), frozen.size());
+		for(CharSequence token : lexicon) {
+			int substitute = lexicon.getSubstitute(token);
+			assertEquals(substitute, frozen.getSubstitute(token));
+			assertEquals(token, frozen.getToken(substitute).toString());
+		}
+	}
+}
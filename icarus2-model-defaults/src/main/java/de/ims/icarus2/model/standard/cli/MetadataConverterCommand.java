@@ -26,6 +26,7 @@ import com.google.common.io.Files;
 import de.ims.icarus2.model.api.registry.MetadataRegistry;
 import de.ims.icarus2.model.standard.registry.metadata.Format;
 import de.ims.icarus2.model.standard.registry.metadata.JAXBMetadataRegistry;
+import de.ims.icarus2.model.standard.registry.metadata.LogStructuredMetadataRegistry;
 import de.ims.icarus2.model.standard.registry.metadata.PlainMetadataRegistry;
 import de.ims.icarus2.util.AccessMode;
 import de.ims.icarus2.util.cli.CliCommand;
@@ -53,7 +54,7 @@ import picocli.CommandLine.Spec;
 )
 public class MetadataConverterCommand extends CliCommand {
 
-	private static final String FORMATS = "XML or PLAIN";
+	private static final String FORMATS = "XML, PLAIN or LOG";
 
 	@Spec
 	CommandSpec spec;
@@ -107,6 +108,9 @@ public class MetadataConverterCommand extends CliCommand {
 		case XML:
 			return new JAXBMetadataRegistry(resource, encoding);
 
+		case LOG:
+			return new LogStructuredMetadataRegistry(resource, encoding);
+
 		default:
 			throw new InternalError("Unknown format: "+format);
 		}
@@ -30,6 +30,10 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -78,6 +82,7 @@ import de.ims.icarus2.model.manifest.ManifestErrorCode;
 import de.ims.icarus2.model.manifest.api.ContainerManifest;
 import de.ims.icarus2.model.manifest.api.ContainerType;
 import de.ims.icarus2.model.manifest.api.ContextManifest;
+import de.ims.icarus2.model.manifest.api.ContextManifest.PrerequisiteManifest;
 import de.ims.icarus2.model.manifest.api.CorpusManifest;
 import de.ims.icarus2.model.manifest.api.DriverManifest;
 import de.ims.icarus2.model.manifest.api.ImplementationLoader;
@@ -98,6 +103,7 @@ import de.ims.icarus2.util.Options;
 import de.ims.icarus2.util.annotations.TestableImplementation;
 import de.ims.icarus2.util.collections.LazyCollection;
 import de.ims.icarus2.util.collections.set.DataSet;
+import de.ims.icarus2.util.concurrent.ExecutionUtil;
 import de.ims.icarus2.util.data.ContentType;
 import de.ims.icarus2.util.events.ChangeEvent;
 import de.ims.icarus2.util.events.ChangeListener;
@@ -136,6 +142,11 @@ import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
  * and {@link ImplementationLoader#environment(Object) environment} of the loader will be set to
  * this corpus instance. This way a potentially used {@link ImplementationManifest.Factory factory}
  * has full access to all information this corpus can provide.
+ * <p>
+ * When {@link #connectAll() connecting all contexts} at once, the corpus derives the
+ * dependencies between its contexts from their {@link ContextManifest#getPrerequisites() prerequisites}
+ * and connects independent drivers concurrently on the {@link Builder#connectExecutor(Executor) executor}
+ * provided at construction time.
  *
  * @author Markus Gärtner
  *
@@ -152,6 +163,7 @@ public class DefaultCorpus implements Corpus {
 	private final CorpusManager manager;
 	private final CorpusManifest manifest;
 	private final MetadataRegistry metadataRegistry;
+	private final Executor connectExecutor;
 
 	private final CorpusEventManager corpusEventManager = new CorpusEventManager(this);
 	private final CorpusEditManager editModel = new CorpusEditManager(this);
@@ -199,6 +211,9 @@ public class DefaultCorpus implements Corpus {
 		metadataRegistry = builder.getMetadataRegistry();
 		metadataRegistry.open();
 
+		Executor executor = builder.getConnectExecutor();
+		connectExecutor = executor==null ? ExecutionUtil::execute : executor;
+
 		overlayLayer = new OverlayLayer();
 		overlayContainer = new OverlayContainer();
 
@@ -446,24 +461,245 @@ public class DefaultCorpus implements Corpus {
 	/**
 	 * Forces every driver to be properly connected to its respective
 	 * context.
+	 * <p>
+	 * Every context is scheduled for connection as soon as all the contexts
+	 * it depends on are connected, so drivers of independent contexts get
+	 * connected concurrently. If the driver of a context fails to connect or
+	 * contexts depend on each other in a cycle, all the contexts depending on
+	 * them are skipped. The collected failures are reported as a single
+	 * {@link AccumulatingException} that serves as cause of the {@link ModelException}
+	 * thrown by this method.
+	 *
+	 * @throws ModelException of type {@link ModelErrorCode#DRIVER_CONNECTION} if
+	 * one or more contexts could not be connected or of type {@link GlobalErrorCode#INTERRUPTED}
+	 * if the calling thread got interrupted while waiting for drivers. In the latter
+	 * case the interrupted status of the thread is restored.
 	 *
 	 * @see de.ims.icarus2.model.api.corpus.Corpus#connectAll()
 	 */
 	@Override
 	public void connectAll() {
-		lock.lock();
+		Map<String, ContextProxy> proxies = new LinkedHashMap<>();
+		synchronized (rootContexts) {
+			proxies.putAll(rootContexts);
+		}
+		synchronized (customContexts) {
+			proxies.putAll(customContexts);
+		}
+
+		AccumulatingException.Buffer buffer = new AccumulatingException.Buffer();
+		List<ContextProxy> order = sortByDependencies(proxies, buffer);
+
+		if(order.size()==1) {
+			// Single context -> no need to involve the executor
+			try {
+				connect(order.get(0), buffer);
+			} catch (RuntimeException e) {
+				// Already collected
+			}
+		} else if(order.size()>1) {
+			connectConcurrently(order, proxies, buffer);
+		}
+
+		synchronized (buffer) {
+			if(!buffer.isEmpty()) {
+				buffer.setFormattedMessage("%d errors during connection of corpus '%s'",
+						_int(buffer.getExceptionCount()), getName(this));
+				throw new ModelException(this, ModelErrorCode.DRIVER_CONNECTION,
+						buffer.getMessage(), buffer.toException());
+			}
+		}
+	}
+
+	private void connectConcurrently(List<ContextProxy> order, Map<String, ContextProxy> proxies,
+			AccumulatingException.Buffer buffer) {
+		Map<String, ConnectTask> tasks = new Object2ObjectOpenHashMap<>();
+
+		for(ContextProxy proxy : order) {
+			CompletableFuture<Void> trigger = CompletableFuture.allOf(
+					proxy.getDependencies(proxies).stream()
+						.map(id -> tasks.get(id).done)
+						.toArray(CompletableFuture[]::new));
+
+			ConnectTask task = new ConnectTask(proxy, trigger, buffer);
+			tasks.put(proxy.getId(), task);
+			trigger.whenComplete((r, t) -> {
+				if(t==null) {
+					executeConnect(task);
+				} else {
+					task.skip(t);
+				}
+			});
+		}
+
 		try {
-			synchronized (rootContexts) {
-				rootContexts.values().forEach(ContextProxy::getDriver);
+			/*
+			 *  The calling thread might itself be a worker of the executor, so instead
+			 *  of only waiting it connects every context not yet picked up by the
+			 *  executor. Visiting contexts in dependency order ensures we only ever
+			 *  wait for connections that are already running.
+			 */
+			for(ContextProxy proxy : order) {
+				if(Thread.currentThread().isInterrupted())
+					throw new InterruptedException();
+
+				ConnectTask task = tasks.get(proxy.getId());
+				try {
+					task.trigger.get();
+				} catch (ExecutionException e) {
+					task.skip(e.getCause());
+					continue;
+				}
+				task.run();
 			}
-			synchronized (customContexts) {
-				customContexts.values().forEach(ContextProxy::getDriver);
+
+			CompletableFuture.allOf(tasks.values().stream()
+					.map(task -> task.done)
+					.toArray(CompletableFuture[]::new)).get();
+		} catch (InterruptedException e) {
+			// Prevent pending connections from starting, running ones will finish regardless
+			tasks.values().forEach(ConnectTask::cancel);
+			Thread.currentThread().interrupt();
+			throw new ModelException(this, GlobalErrorCode.INTERRUPTED,
+					"Connection of corpus interrupted: "+getName(this), e);
+		} catch (ExecutionException e) {
+			// Failures of individual drivers have already been collected
+			synchronized (buffer) {
+				if(buffer.isEmpty()) {
+					buffer.addException(e.getCause());
+				}
 			}
-		} finally {
-			lock.unlock();
 		}
 	}
 
+	/**
+	 * Runs the given connection task on the executor of this corpus or in the
+	 * current thread if the executor is unable to accept it.
+	 */
+	private void executeConnect(Runnable task) {
+		try {
+			connectExecutor.execute(task);
+		} catch (RejectedExecutionException e) {
+			task.run();
+		}
+	}
+
+	/**
+	 * Connects a single context exactly once, either on the executor or in the
+	 * thread waiting for all connections, whichever claims it first.
+	 */
+	private final class ConnectTask implements Runnable {
+		private final ContextProxy proxy;
+		private final CompletableFuture<Void> trigger;
+		private final AccumulatingException.Buffer buffer;
+
+		private final AtomicBoolean claimed = new AtomicBoolean(false);
+		private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+		ConnectTask(ContextProxy proxy, CompletableFuture<Void> trigger,
+				AccumulatingException.Buffer buffer) {
+			this.proxy = proxy;
+			this.trigger = trigger;
+			this.buffer = buffer;
+		}
+
+		@Override
+		public void run() {
+			if(!claimed.compareAndSet(false, true)) {
+				return;
+			}
+			try {
+				connect(proxy, buffer);
+				done.complete(null);
+			} catch (Throwable t) {
+				done.completeExceptionally(t);
+			}
+		}
+
+		/** Marks this task as failed without connecting, e.g. because a dependency failed */
+		void skip(Throwable cause) {
+			if(claimed.compareAndSet(false, true)) {
+				done.completeExceptionally(cause);
+			}
+		}
+
+		void cancel() {
+			if(claimed.compareAndSet(false, true)) {
+				done.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * Connects the driver of the given context and records any failure in
+	 * the shared buffer before rethrowing it, so that depending contexts
+	 * will not be connected.
+	 */
+	private void connect(ContextProxy proxy, AccumulatingException.Buffer buffer) {
+		try {
+			proxy.getDriver();
+		} catch (RuntimeException e) {
+			synchronized (buffer) {
+				buffer.addException(e);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Orders the given contexts so that every context appears after all
+	 * the contexts it depends on. Every cycle in the dependencies between
+	 * contexts is reported as a {@link ModelException} of type
+	 * {@link ManifestErrorCode#MANIFEST_CORRUPTED_STATE} to the given buffer
+	 * and the contexts on that cycle as well as all the contexts depending
+	 * on them are left out of the result.
+	 */
+	private List<ContextProxy> sortByDependencies(Map<String, ContextProxy> proxies,
+			AccumulatingException.Buffer buffer) {
+		List<ContextProxy> result = new ArrayList<>(proxies.size());
+		Set<String> visited = new ObjectOpenHashSet<>();
+		Set<String> blocked = new ObjectOpenHashSet<>();
+		Set<String> pending = new ObjectOpenHashSet<>();
+
+		for(ContextProxy proxy : proxies.values()) {
+			visit(proxy, proxies, visited, blocked, pending, result, buffer);
+		}
+
+		return result;
+	}
+
+	/** Returns {@code true} if the given context could be added to the result */
+	private boolean visit(ContextProxy proxy, Map<String, ContextProxy> proxies,
+			Set<String> visited, Set<String> blocked, Set<String> pending,
+			List<ContextProxy> result, AccumulatingException.Buffer buffer) {
+		String id = proxy.getId();
+		if(visited.contains(id)) {
+			return true;
+		}
+		if(blocked.contains(id)) {
+			return false;
+		}
+		if(!pending.add(id)) {
+			buffer.addException(new ModelException(this, ManifestErrorCode.MANIFEST_CORRUPTED_STATE,
+					"Cyclic dependency involving context: "+id));
+			return false;
+		}
+
+		boolean resolved = true;
+		for(String dependency : proxy.getDependencies(proxies)) {
+			resolved &= visit(proxies.get(dependency), proxies, visited, blocked, pending, result, buffer);
+		}
+
+		pending.remove(id);
+		if(resolved) {
+			visited.add(id);
+			result.add(proxy);
+		} else {
+			blocked.add(id);
+		}
+		return resolved;
+	}
+
 	//TODO somewhere say a few words about the design decision of using InterruptedException as indicator for user originated cancellation
 	@Override
 	public void close() throws AccumulatingException, InterruptedException {
@@ -979,6 +1215,25 @@ public class DefaultCorpus implements Corpus {
 			return contextManifest;
 		}
 
+		public String getId() {
+			return ManifestUtils.requireId(contextManifest);
+		}
+
+		/**
+		 * Returns the ids of all contexts among the given ones that this context
+		 * is linked to via its {@link ContextManifest#getPrerequisites() prerequisites}.
+		 */
+		public Set<String> getDependencies(Map<String, ContextProxy> proxies) {
+			Set<String> result = new ObjectOpenHashSet<>();
+			String id = getId();
+			for(PrerequisiteManifest prerequisite : contextManifest.getPrerequisites()) {
+				prerequisite.getContextId()
+					.filter(contextId -> !id.equals(contextId) && proxies.containsKey(contextId))
+					.ifPresent(result::add);
+			}
+			return result;
+		}
+
 		/**
 		 * Throws {@link ModelException} with code {@link GlobalErrorCode#ILLEGAL_STATE}
 		 * if the corpus is not marked {@link DefaultCorpus#isActive() active}.
@@ -993,14 +1248,12 @@ public class DefaultCorpus implements Corpus {
 			return getDriver().getContext();
 		}
 
+		// Only this proxy's monitor is held, so different contexts can connect concurrently
 		public synchronized Driver getDriver() {
 			if(driver==null) {
 
-				Lock lock = getLock();
-
 				final Corpus corpus = DefaultCorpus.this;
 
-				lock.lock();
 				try {
 					checkActive();
 					final CorpusMemberFactory factory = corpus.getManager().newFactory();
@@ -1023,8 +1276,6 @@ public class DefaultCorpus implements Corpus {
 				} catch (IcarusApiException e) {
 					throw new ModelException(corpus, ModelErrorCode.DRIVER_CONNECTION,
 							"Initalization of driver failed: "+getName(contextManifest), e);
-				} finally {
-					lock.unlock();
 				}
 			}
 
@@ -1427,6 +1678,7 @@ public class DefaultCorpus implements Corpus {
 		private CorpusManager manager;
 		private CorpusManifest manifest;
 		private MetadataRegistry metadataRegistry;
+		private Executor connectExecutor;
 
 		protected Builder() {
 			// no-op
@@ -1471,6 +1723,24 @@ public class DefaultCorpus implements Corpus {
 			return metadataRegistry;
 		}
 
+		/**
+		 * Defines the executor used to connect drivers of independent contexts
+		 * concurrently in {@link DefaultCorpus#connectAll()}. If not set, the
+		 * shared pool of {@link ExecutionUtil} will be used.
+		 */
+		public Builder connectExecutor(Executor connectExecutor) {
+			requireNonNull(connectExecutor);
+			checkState(this.connectExecutor==null);
+
+			this.connectExecutor = connectExecutor;
+
+			return thisAsCast();
+		}
+
+		public Executor getConnectExecutor() {
+			return connectExecutor;
+		}
+
 		@Override
 		protected void validate() {
 			checkState("Missing manager", manager!=null);
@@ -44,9 +44,12 @@ import de.ims.icarus2.model.manifest.util.ManifestUtils;
 import de.ims.icarus2.model.standard.driver.cache.TrackedMember;
 import de.ims.icarus2.model.util.ModelUtils;
 import de.ims.icarus2.util.AbstractBuilder;
+import it.unimi.dsi.fastutil.HashCommon;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.longs.LongIterator;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
@@ -62,7 +65,12 @@ public class BufferedItemManager {
 		return new Builder();
 	}
 
-	//TODO create builder that allows driver to inject recycle actions through LayerBuffer constructors
+	/**
+	 * Marker value for the limit of a {@link LayerBuffer} to signal that
+	 * it should never evict any items on its own.
+	 */
+	public static final int UNBOUNDED = -1;
+
 	private final Int2ObjectMap<LayerBuffer> layerBuffers;
 
 	protected BufferedItemManager(Builder builder) {
@@ -379,10 +387,7 @@ public class BufferedItemManager {
 		@Override
 		public void offer(Item item, long index) {
 			// We optimistically track usage on add already
-			if(getBuffer().isTrackItemUse()) {
-				((TrackedMember)item).incrementUseCounter();
-			}
-			getBuffer().entries().put(index, item);
+			getBuffer().addAndTrack(item, index);
 			indices().add(index);
 		}
 
@@ -402,9 +407,9 @@ public class BufferedItemManager {
 		public void forEach(ObjLongConsumer<Item> action) {
 			LongSet indices = this.indices;
 			if(indices!=null) {
-				final Long2ObjectMap<Item> entries = getBuffer().entries();
+				final LayerBuffer buffer = getBuffer();
 				indices.forEach(index -> {
-					action.accept(entries.get(index), index);
+					action.accept(buffer.fetch(index), index);
 				});
 			}
 		}
@@ -417,14 +422,14 @@ public class BufferedItemManager {
 			LongSet indices = this.indices;
 			Iterator<Item> it = Collections.emptyIterator();
 			if(indices!=null) {
-				final Long2ObjectMap<Item> entries = getBuffer().entries();
+				final LayerBuffer buffer = getBuffer();
 				final LongIterator lit = indices.iterator();
 				it = new Iterator<Item>() {
 
 					@Override
 					public Item next() {
 						long index = lit.nextLong();
-						return entries.get(index);
+						return buffer.fetch(index);
 					}
 
 					@Override
@@ -451,25 +456,19 @@ public class BufferedItemManager {
 					if(cleanupAction!=null) {
 						cleanupAction.accept(this);
 					}
+					/*
+					 *  Since we optimistically incremented use counter on add,
+					 *  need to revert that when discarding items. This is some
+					 *  extra work but this implementation is based on the
+					 *  assumption that caches rarely get discarded and on valid
+					 *  live corpora we will only ever add and commit data.
+					 */
 					LayerBuffer buffer = getBuffer();
-					if(buffer.isTrackItemUse()) {
-						/*
-						 *  Since we optimistically incremented use counter on add,
-						 *  need to revert that when discarding items. This is some
-						 *  extra work but this implementation is based on the
-						 *  assumption that caches rarely get discarded and on valid
-						 *  live corpora we will only ever add and commit data.
-						 */
-						Long2ObjectMap<Item> entries = buffer.entries();
-						LongIterator lit = indices.iterator();
-						while(lit.hasNext()) {
-							long index = lit.nextLong();
-							Item item = entries.remove(index);
-							assert item!=null : "No item stored for index "+index;
-							((TrackedMember)item).decrementUseCounter();
-						}
-					} else {
-						buffer.entries().keySet().removeAll(indices);
+					LongIterator lit = indices.iterator();
+					while(lit.hasNext()) {
+						long index = lit.nextLong();
+						Item item = buffer.removeAndUntrack(index);
+						assert item!=null : "No item stored for index "+index;
 					}
 				} finally {
 					// Make sure we really clear our buffer
@@ -538,12 +537,40 @@ public class BufferedItemManager {
 	}
 
 	/**
+	 * Storage for items of a single layer, mapping their index values to the
+	 * actual item objects.
+	 * <p>
+	 * Internally the buffer is split into a number of {@link Segment segments},
+	 * each guarded by its own monitor. This allows concurrent calls to
+	 * {@link #fetch(long)}, {@link #load(OfLong, ObjLongConsumer, LongConsumer)}
+	 * and {@link #release(OfLong)} to only contend when they hit the same segment.
+	 * <p>
+	 * If a positive {@link #getLimit() limit} is set and the buffer tracks item usage,
+	 * items whose use counter drops to {@code 0} on {@link #release(OfLong) release}
+	 * are not discarded right away. Instead they are kept around as candidates for
+	 * reuse until the buffer exceeds its limit. Eviction follows a <i>CLOCK</i>-like
+	 * scheme per segment: entries are kept in access order and the eviction hand
+	 * moves from the least recently used entry forward, giving pinned entries (those
+	 * with a positive use counter) a second chance by moving them to the back.
+	 * Evicted items are passed to the {@code disposeItemAction}.
 	 *
 	 * @author Markus Gärtner
 	 *
 	 */
 	public static class LayerBuffer {
 
+		/**
+		 * Number of segments the storage is split into. Must be a power of 2.
+		 */
+		private static final int SEGMENT_COUNT = 16;
+
+		/**
+		 * Upper limit for the number of entries inspected by the eviction hand
+		 * when a single segment exceeds its share of the limit. Keeps the cost
+		 * of individual insertions bounded in case most entries are pinned.
+		 */
+		private static final int MAX_EVICTION_SCAN = 64;
+
 		/**
 		 * Hint for the lazy creation of the internal item storage as to
 		 * what the initial size of the map should be. A value that is close
@@ -560,22 +587,37 @@ public class BufferedItemManager {
 		 */
 		private final boolean trackItemUse;
 
+		/**
+		 * Maximum number of items to keep in this buffer before unused
+		 * entries get evicted. A value of {@code -1} indicates an unbounded
+		 * buffer.
+		 */
+		private final int limit;
+
 		/**
 		 * Actual storage of mappings from indices to their respective
 		 * items. Will be created lazily once actually needed.
 		 */
-		private volatile Long2ObjectMap<Item> entries;
+		private volatile Segment[] segments;
 
 		/**
-		 * Callback used when the use counter of an item reaches {@code 0}.
+		 * Callback used when the use counter of an item reaches {@code 0}
+		 * or an unused item gets evicted from a bounded buffer.
 		 * This allows drivers to inject recycling facilities for expensive
 		 * item implementations.
 		 */
 		private final ObjLongConsumer<Item> disposeItemAction;
 
 		protected LayerBuffer(int estimatedSize, boolean trackItemUse, ObjLongConsumer<Item> disposeItemAction) {
+			this(estimatedSize, trackItemUse, UNBOUNDED, disposeItemAction);
+		}
+
+		protected LayerBuffer(int estimatedSize, boolean trackItemUse, int limit,
+				ObjLongConsumer<Item> disposeItemAction) {
+			checkArgument("Limit must be positive or -1", limit==UNBOUNDED || limit>0);
 			this.estimatedSize = estimatedSize;
 			this.trackItemUse = trackItemUse;
+			this.limit = limit;
 			this.disposeItemAction = disposeItemAction;
 		}
 
@@ -587,30 +629,145 @@ public class BufferedItemManager {
 			return trackItemUse;
 		}
 
+		/**
+		 * Returns the maximum number of items this buffer retains or {@code -1}
+		 * if it is unbounded.
+		 */
+		public int getLimit() {
+			return limit;
+		}
+
+		/**
+		 * Returns {@code true} if this buffer has a {@link #getLimit() limit} and
+		 * tracks item usage. Buffers that do not track usage cannot tell whether
+		 * an item is still referenced and therefore never evict anything.
+		 */
+		public boolean isBounded() {
+			return limit!=UNBOUNDED && trackItemUse;
+		}
+
 		public boolean isEmpty() {
-			Long2ObjectMap<Item> entries = this.entries;
-			return entries==null || entries.isEmpty();
+			Segment[] segments = this.segments;
+			if(segments!=null) {
+				for (Segment segment : segments) {
+					synchronized (segment) {
+						if(!segment.entries.isEmpty()) {
+							return false;
+						}
+					}
+				}
+			}
+			return true;
 		}
 
-		protected Long2ObjectMap<Item> entries() {
-			if(entries==null) {
+		/**
+		 * Returns the total number of items currently stored in this buffer.
+		 * Note that in a concurrent environment the returned value is only
+		 * an approximation.
+		 */
+		public int size() {
+			Segment[] segments = this.segments;
+			int size = 0;
+			if(segments!=null) {
+				for (Segment segment : segments) {
+					synchronized (segment) {
+						size += segment.entries.size();
+					}
+				}
+			}
+			return size;
+		}
+
+		protected Segment[] segments() {
+			if(segments==null) {
 				synchronized (this) {
-					if(entries==null) {
-						entries = new Long2ObjectOpenHashMap<>(estimatedSize);
+					if(segments==null) {
+						int segmentCapacity = Math.max(estimatedSize/SEGMENT_COUNT, 16);
+						int segmentLimit = limit==UNBOUNDED ? UNBOUNDED
+								: Math.max(1, (limit+SEGMENT_COUNT-1)/SEGMENT_COUNT);
+						Segment[] segments = new Segment[SEGMENT_COUNT];
+						for (int i = 0; i < segments.length; i++) {
+							segments[i] = new Segment(segmentCapacity, segmentLimit, isBounded());
+						}
+						this.segments = segments;
 					}
 				}
 			}
 
-			return entries;
+			return segments;
+		}
+
+		private Segment segmentFor(long index) {
+			return segments()[(int)(HashCommon.mix(index) & (SEGMENT_COUNT-1))];
 		}
 
 		public int remainingCapacity() {
-			Long2ObjectMap<Item> entries = entries();
-			int currentSize = entries.size();
+			int currentSize = size();
 
 			return Math.max(0, estimatedSize-currentSize);
 		}
 
+		private boolean isPinned(Item item) {
+			return ((TrackedMember)item).getUseCounter()>0;
+		}
+
+		/**
+		 * Evicts unused entries from the given segment until it fits its share
+		 * of the limit again or the scan limit is reached. Must be called while
+		 * holding the segment's monitor. Evicted entries are added to the
+		 * {@code evicted} buffer so that they can be disposed of after the lock
+		 * has been released.
+		 */
+		private void evict(Segment segment, Long2ObjectMap<Item> evicted) {
+			Long2ObjectLinkedOpenHashMap<Item> entries = segment.ordered;
+			int scan = Math.min(MAX_EVICTION_SCAN, entries.size());
+			while(entries.size()>segment.limit && scan-->0) {
+				long index = entries.firstLongKey();
+				Item item = entries.get(index);
+				if(isPinned(item)) {
+					// Second chance: move the hand past the pinned entry
+					entries.getAndMoveToLast(index);
+				} else {
+					entries.removeFirst();
+					evicted.put(index, item);
+				}
+			}
+		}
+
+		private void dispose(Long2ObjectMap<Item> evicted) {
+			if(disposeItemAction!=null && !evicted.isEmpty()) {
+				evicted.long2ObjectEntrySet().forEach(entry -> disposeItemAction.accept(
+						entry.getValue(), entry.getLongKey()));
+			}
+		}
+
+		/**
+		 * Stores the given item and optionally increments its use counter.
+		 * Triggers eviction if needed.
+		 */
+		private void put(Item item, long index, boolean incrementUseCounter) {
+			Segment segment = segmentFor(index);
+			Long2ObjectMap<Item> evicted = null;
+			synchronized (segment) {
+				if(incrementUseCounter) {
+					((TrackedMember)item).incrementUseCounter();
+				}
+				if(isBounded()) {
+					segment.ordered.putAndMoveToLast(index, item);
+					if(segment.entries.size()>segment.limit) {
+						evicted = new Long2ObjectOpenHashMap<>();
+						evict(segment, evicted);
+					}
+				} else {
+					segment.entries.put(index, item);
+				}
+			}
+
+			if(evicted!=null) {
+				dispose(evicted);
+			}
+		}
+
 		/**
 		 * Returns the {@link Item} currently mapped to the given {@code index}
 		 * or {@code null} if no such mapping exists.
@@ -621,7 +778,11 @@ public class BufferedItemManager {
 		 * @return
 		 */
 		public @Nullable Item fetch(long index) {
-			return entries().get(index);
+			Segment segment = segmentFor(index);
+			synchronized (segment) {
+				return isBounded() ? segment.ordered.getAndMoveToLast(index)
+						: segment.entries.get(index);
+			}
 		}
 
 		/**
@@ -632,7 +793,10 @@ public class BufferedItemManager {
 		 * @param index
 		 */
 		public Item remove(long index) {
-			return entries().remove(index);
+			Segment segment = segmentFor(index);
+			synchronized (segment) {
+				return segment.entries.remove(index);
+			}
 		}
 
 		/**
@@ -641,7 +805,7 @@ public class BufferedItemManager {
 		 * @param index
 		 */
 		public void add(Item item, long index) {
-			entries().put(index, item);
+			put(item, index, false);
 		}
 
 		/**
@@ -649,7 +813,30 @@ public class BufferedItemManager {
 		 * @param item
 		 */
 		public void add(Item item) {
-			entries().put(item.getIndex(), item);
+			put(item, item.getIndex(), false);
+		}
+
+		/**
+		 * Adds the given {@link Item} and increments its use counter if this
+		 * buffer tracks item usage.
+		 */
+		void addAndTrack(Item item, long index) {
+			put(item, index, trackItemUse);
+		}
+
+		/**
+		 * Removes the mapping for the given {@code index} and decrements the
+		 * use counter of the removed item if this buffer tracks item usage.
+		 */
+		@Nullable Item removeAndUntrack(long index) {
+			Segment segment = segmentFor(index);
+			synchronized (segment) {
+				Item item = segment.entries.remove(index);
+				if(item!=null && trackItemUse) {
+					((TrackedMember)item).decrementUseCounter();
+				}
+				return item;
+			}
 		}
 
 		/**
@@ -675,24 +862,20 @@ public class BufferedItemManager {
 		 * checks on the provided cache.
 		 */
 		void commit(InputCacheImpl cache) {
-			if(trackItemUse) {
-				for(Item item : cache.pendingEntries.values()) {
-					((TrackedMember)item).incrementUseCounter();
-				}
-			}
-
 			/*
-			 *  Long2ObjectOpenHashMap internally checks if the source of a putAll() implements
-			 *  the Long2ObjectMap interface and uses faster non-boxing iterators to add all
-			 *  the new entries.
+			 *  Use the non-boxing entry iterator of the pending map so that we can
+			 *  route every entry to its designated segment.
 			 */
-			entries().putAll(cache.pendingEntries);
+			for(Long2ObjectMap.Entry<Item> entry : Long2ObjectMaps.fastIterable(cache.pendingEntries)) {
+				put(entry.getValue(), entry.getLongKey(), trackItemUse);
+			}
 		}
 
 		/**
 		 * Releases all items mapped to index values provided by the given iterator.
 		 * All items whose use counter reaches {@code 0} will be passed to the {@code disposeItemAction}
-		 * argument to be recycled or finally discarded.
+		 * argument to be recycled or finally discarded. If this buffer is {@link #isBounded() bounded}
+		 * such items are kept as candidates for reuse and only disposed of once they get evicted.
 		 * <p>
 		 * Note that this method will cause a {@link ClassCastException} if used for
 		 * most items outside of those in a primary layer's root container!
@@ -701,19 +884,40 @@ public class BufferedItemManager {
 		 * @param action
 		 */
 		public void release(OfLong ids) {
-			while(ids.hasNext()) {
-				long index = ids.nextLong();
-				Item item = fetch(index);
-				assert item!=null;
+			if(!trackItemUse) {
+				return;
+			}
 
-				if(trackItemUse && ((TrackedMember)item).decrementUseCounter()<=0) {
-					remove(index);
+			final boolean bounded = isBounded();
+			Long2ObjectMap<Item> disposable = null;
 
-					if(disposeItemAction!=null) {
-						disposeItemAction.accept(item, index);
+			while(ids.hasNext()) {
+				long index = ids.nextLong();
+				Segment segment = segmentFor(index);
+				synchronized (segment) {
+					Item item = segment.entries.get(index);
+					assert item!=null;
+
+					if(((TrackedMember)item).decrementUseCounter()<=0) {
+						if(disposable==null) {
+							disposable = new Long2ObjectOpenHashMap<>();
+						}
+						if(bounded) {
+							// Segment might have grown beyond its limit while all entries were pinned
+							if(segment.entries.size()>segment.limit) {
+								evict(segment, disposable);
+							}
+						} else {
+							segment.entries.remove(index);
+							disposable.put(index, item);
+						}
 					}
 				}
 			}
+
+			if(disposable!=null) {
+				dispose(disposable);
+			}
 		}
 
 		/**
@@ -732,26 +936,68 @@ public class BufferedItemManager {
 		 */
 		public void load(OfLong ids, ObjLongConsumer<Item> presentItemAction, LongConsumer missingItemAction) {
 
+			final boolean bounded = isBounded();
+
 			while(ids.hasNext()) {
 				long index = ids.nextLong();
-				Item item = fetch(index);
+				Segment segment = segmentFor(index);
+				Item item;
+				synchronized (segment) {
+					item = bounded ? segment.ordered.getAndMoveToLast(index)
+							: segment.entries.get(index);
+					if(item!=null && trackItemUse) {
+						((TrackedMember)item).incrementUseCounter();
+					}
+				}
 
 				if(item==null) {
 					missingItemAction.accept(index);
 				} else {
-					if(trackItemUse) {
-						((TrackedMember)item).incrementUseCounter();
-					}
 					presentItemAction.accept(item, index);
 				}
 			}
 		}
 
 		public void clear() {
-			Long2ObjectMap<Item> entries = this.entries;
-			if(entries!=null) {
-				entries.clear();
-				this.entries = null;
+			Segment[] segments = this.segments;
+			if(segments!=null) {
+				for (Segment segment : segments) {
+					synchronized (segment) {
+						segment.entries.clear();
+					}
+				}
+				this.segments = null;
+			}
+		}
+
+		/**
+		 * Single partition of a {@link LayerBuffer}. All access to the
+		 * internal map must be synchronized on the segment itself.
+		 *
+		 * @author Markus Gärtner
+		 *
+		 */
+		private static final class Segment {
+			/** All entries of this segment */
+			final Long2ObjectMap<Item> entries;
+			/**
+			 * Same map as {@link #entries} but kept in access order, only present for
+			 * bounded buffers. Unbounded buffers never evict and therefore use a plain
+			 * hash map without the overhead of linked entries.
+			 */
+			final Long2ObjectLinkedOpenHashMap<Item> ordered;
+			/** Maximum number of entries before eviction kicks in */
+			final int limit;
+
+			Segment(int capacity, int limit, boolean bounded) {
+				if(bounded) {
+					ordered = new Long2ObjectLinkedOpenHashMap<>(capacity);
+					entries = ordered;
+				} else {
+					ordered = null;
+					entries = new Long2ObjectOpenHashMap<>(capacity);
+				}
+				this.limit = limit;
 			}
 		}
 	}
@@ -779,7 +1025,7 @@ public class BufferedItemManager {
 		public Builder addBuffer(ItemLayerManifestBase<?> itemLayerManifest) {
 			requireNonNull(itemLayerManifest);
 
-			addBuffer0(itemLayerManifest, TrackingMode.PRIMARY_ONLY, -1, null);
+			addBuffer0(itemLayerManifest, TrackingMode.PRIMARY_ONLY, -1, UNBOUNDED, null);
 
 			return thisAsCast();
 		}
@@ -797,7 +1043,7 @@ public class BufferedItemManager {
 			requireNonNull(itemLayerManifest);
 			requireNonNull(trackingMode);
 
-			addBuffer0(itemLayerManifest, trackingMode, -1, null);
+			addBuffer0(itemLayerManifest, trackingMode, -1, UNBOUNDED, null);
 
 			return thisAsCast();
 		}
@@ -816,7 +1062,7 @@ public class BufferedItemManager {
 			requireNonNull(itemLayerManifest);
 			checkArgument(capacity>0);
 
-			addBuffer0(itemLayerManifest, TrackingMode.PRIMARY_ONLY, capacity, null);
+			addBuffer0(itemLayerManifest, TrackingMode.PRIMARY_ONLY, capacity, UNBOUNDED, null);
 
 			return thisAsCast();
 		}
@@ -836,7 +1082,33 @@ public class BufferedItemManager {
 			requireNonNull(trackingMode);
 			checkArgument(capacity>0);
 
-			addBuffer0(itemLayerManifest, trackingMode, capacity, null);
+			addBuffer0(itemLayerManifest, trackingMode, capacity, UNBOUNDED, null);
+
+			return thisAsCast();
+		}
+
+		/**
+		 * Adds a new {@link LayerBuffer} for the specified {@link ItemLayerManifestBase<?> layer}
+		 * that retains at most {@code limit} items and uses the given {@code disposeItemAction}
+		 * (if not {@code null}) for items that get evicted or released. Tracking is controlled
+		 * by the specified {@code trackingMode} argument. Note that the limit is only honored
+		 * if the resulting buffer actually {@link LayerBuffer#isTrackItemUse() tracks} item usage.
+		 *
+		 * @param itemLayerManifest
+		 * @param trackingMode
+		 * @param capacity the initial capacity or {@code -1} to use the default
+		 * @param limit the maximum number of items to retain or {@link BufferedItemManager#UNBOUNDED}
+		 * @param disposeItemAction
+		 * @return
+		 */
+		public Builder addBuffer(ItemLayerManifestBase<?> itemLayerManifest, TrackingMode trackingMode,
+				int capacity, int limit, @Nullable ObjLongConsumer<Item> disposeItemAction) {
+			requireNonNull(itemLayerManifest);
+			requireNonNull(trackingMode);
+			checkArgument(capacity>0 || capacity==-1);
+			checkArgument(limit>0 || limit==UNBOUNDED);
+
+			addBuffer0(itemLayerManifest, trackingMode, capacity, limit, disposeItemAction);
 
 			return thisAsCast();
 		}
@@ -879,7 +1151,8 @@ public class BufferedItemManager {
 //			return thisAsCast();
 //		}
 
-		private void addBuffer0(ItemLayerManifestBase<?> itemLayerManifest, TrackingMode trackingMode, int capacity, ObjLongConsumer<Item> disposeItemAction) {
+		private void addBuffer0(ItemLayerManifestBase<?> itemLayerManifest, TrackingMode trackingMode,
+				int capacity, int limit, ObjLongConsumer<Item> disposeItemAction) {
 			int key = keyForLayer(itemLayerManifest);
 
 			if(layerBuffers.containsKey(key))
@@ -893,7 +1166,7 @@ public class BufferedItemManager {
 			// Track item use only if the manifest represents a primary layer
 			boolean trackItemUse = trackingMode.isTrackItemUse(itemLayerManifest.isPrimaryLayerManifest());
 
-			LayerBuffer buffer = new LayerBuffer(capacity, trackItemUse, disposeItemAction);
+			LayerBuffer buffer = new LayerBuffer(capacity, trackItemUse, limit, disposeItemAction);
 
 			layerBuffers.put(key, buffer);
 		}
@@ -194,6 +194,16 @@ public class DefaultContainer extends DefaultItem implements Container, Recyclab
 		return itemStorage().indexOfItem(this, item);
 	}
 
+	/**
+	 * Returns the expected cost of {@link #indexOfItem(Item)} as reported
+	 * by the underlying {@link ItemStorage}.
+	 *
+	 * @see ItemStorage#getLookupCost(Container)
+	 */
+	public ItemStorage.LookupCost getLookupCost() {
+		return itemStorage().getLookupCost(this);
+	}
+
 	/**
 	 * @see de.ims.icarus2.model.api.members.container.Container#removeItem(long)
 	 */
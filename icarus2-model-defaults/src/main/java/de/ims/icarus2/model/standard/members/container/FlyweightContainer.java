@@ -0,0 +1,524 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.model.standard.members.container;
+
+import static de.ims.icarus2.util.Conditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+import de.ims.icarus2.GlobalErrorCode;
+import de.ims.icarus2.model.api.ModelErrorCode;
+import de.ims.icarus2.model.api.ModelException;
+import de.ims.icarus2.model.api.corpus.Corpus;
+import de.ims.icarus2.model.api.members.MemberType;
+import de.ims.icarus2.model.api.members.container.Container;
+import de.ims.icarus2.model.api.members.item.Item;
+import de.ims.icarus2.model.manifest.api.ContainerManifestBase;
+import de.ims.icarus2.model.manifest.api.ContainerType;
+import de.ims.icarus2.model.manifest.util.Messages;
+import de.ims.icarus2.util.IcarusUtils;
+import de.ims.icarus2.util.collections.CollectionUtils;
+import de.ims.icarus2.util.collections.set.DataSet;
+
+/**
+ * A read-only {@link Container} view backed by primitive columns. The
+ * view is meant to be {@link #reset(long, long, int) repositioned} on a new
+ * container for every step of a sequential scan, so that a single instance
+ * can serve an arbitrary number of containers without producing garbage.
+ * <p>
+ * Members of the view are represented by {@link FlyweightItem flyweights}:
+ * there is exactly one flyweight per position in the view and those objects
+ * get reused once the view moves on. Client code must therefore never keep
+ * references to members beyond the current position of the view!
+ * <p>
+ * In addition to the mapping of positions to global item indices (either
+ * a contiguous range or an explicit index column) the view can carry a
+ * {@link #setHeads(int[]) head column} for dependency information and an
+ * arbitrary number of annotation columns, addressed by integer
+ * {@link #setColumn(int, Object) slots}. Annotation columns are plain arrays
+ * ({@code Object[]}, {@code long[]}, {@code int[]}, {@code double[]} or
+ * {@code boolean[]}) that are indexed by position within the current container.
+ *
+ * @author Markus Gärtner
+ *
+ */
+public class FlyweightContainer extends AbstractImmutableContainer {
+
+	private final ContainerManifestBase<?> manifest;
+	/** Host for the container view itself */
+	private final Container host;
+	/** Host container for the flyweight items, usually the root container of the base layer */
+	private final Container itemHost;
+
+	/** Index of the container currently represented by this view */
+	private long index = IcarusUtils.UNSET_LONG;
+	/** Number of items in the current container */
+	private int size = 0;
+	/** Global index of the first item if items are contiguous */
+	private long beginIndex = IcarusUtils.UNSET_LONG;
+	/** Explicit global indices of all items, only used if items are not contiguous */
+	private long[] indices;
+
+	/** Optional head column, positions relative to the current container */
+	private int[] heads;
+
+	/** Annotation columns, addressed by slot */
+	private Object[] columns = new Object[0];
+
+	/** Reusable member objects, one per position */
+	private FlyweightItem[] items = new FlyweightItem[0];
+
+	public FlyweightContainer(ContainerManifestBase<?> manifest, @Nullable Container host,
+			@Nullable Container itemHost) {
+		this.manifest = requireNonNull(manifest);
+		this.host = host;
+		this.itemHost = itemHost;
+	}
+
+	private void ensureCapacity(int size) {
+		if(items.length<size) {
+			int oldSize = items.length;
+			items = Arrays.copyOf(items, CollectionUtils.growSize(oldSize, size));
+			for (int i = oldSize; i < items.length; i++) {
+				items[i] = new FlyweightItem(this, i);
+			}
+		}
+	}
+
+	/**
+	 * Moves this view to a new container whose items form the contiguous
+	 * range of global indices starting at {@code beginIndex}.
+	 * All columns are cleared.
+	 *
+	 * @param index the index of the container
+	 * @param beginIndex global index of the first item
+	 * @param size number of items in the container
+	 */
+	public void reset(long index, long beginIndex, int size) {
+		checkArgument("Size must not be negative", size>=0);
+		ensureCapacity(size);
+		this.index = index;
+		this.beginIndex = beginIndex;
+		this.size = size;
+		indices = null;
+		heads = null;
+		Arrays.fill(columns, null);
+	}
+
+	/**
+	 * Moves this view to a new container whose items are described by the
+	 * given global {@code indices}. The array is not copied and must not be
+	 * modified as long as the view is positioned on this container.
+	 * All columns are cleared.
+	 *
+	 * @param index the index of the container
+	 * @param indices global indices of the items in the container
+	 * @param size number of items in the container
+	 */
+	public void reset(long index, long[] indices, int size) {
+		requireNonNull(indices);
+		checkArgument("Size must not be negative", size>=0);
+		checkArgument("Insufficient number of indices", indices.length>=size);
+		ensureCapacity(size);
+		this.index = index;
+		this.indices = indices;
+		this.size = size;
+		beginIndex = IcarusUtils.UNSET_LONG;
+		heads = null;
+		Arrays.fill(columns, null);
+	}
+
+	/** Assigns the head column for the current container. */
+	public void setHeads(@Nullable int[] heads) {
+		checkArgument("Insufficient number of heads", heads==null || heads.length>=size);
+		this.heads = heads;
+	}
+
+	/**
+	 * Assigns a column of annotation values for the current container.
+	 *
+	 * @param slot the slot to be used for later lookups
+	 * @param column array of values, or {@code null} to clear the slot
+	 */
+	public void setColumn(int slot, @Nullable Object column) {
+		checkArgument("Slot must not be negative", slot>=0);
+		checkArgument("Column must be an array", column==null || column.getClass().isArray());
+		if(slot>=columns.length) {
+			columns = Arrays.copyOf(columns, slot+1);
+		}
+		columns[slot] = column;
+	}
+
+	private void checkPosition(long position) {
+		if(position<0 || position>=size)
+			throw new ModelException(ModelErrorCode.MODEL_INDEX_OUT_OF_BOUNDS,
+					Messages.indexOutOfBounds(null, 0, size-1, position));
+	}
+
+	private Object column(int slot) {
+		Object column = slot<columns.length ? columns[slot] : null;
+		if(column==null)
+			throw new ModelException(GlobalErrorCode.ILLEGAL_STATE, "No column for slot: "+slot);
+		return column;
+	}
+
+	/** Returns whether a column is currently assigned to the given slot */
+	public boolean hasColumn(int slot) {
+		return slot>=0 && slot<columns.length && columns[slot]!=null;
+	}
+
+	/** Returns whether a head column is available for the current container */
+	public boolean hasHeads() {
+		return heads!=null;
+	}
+
+	/** Returns the position of the head for the item at {@code position}. */
+	public int getHead(int position) {
+		if(heads==null)
+			throw new ModelException(GlobalErrorCode.ILLEGAL_STATE, "No heads available");
+		return heads[position];
+	}
+
+	/** Returns the global index of the item at the given position. */
+	public long indexAt(int position) {
+		return indices==null ? beginIndex+position : indices[position];
+	}
+
+	public Object getValue(int slot, int position) {
+		Object column = column(slot);
+		if(column instanceof Object[]) {
+			return ((Object[])column)[position];
+		} else if(column instanceof long[]) {
+			return Long.valueOf(((long[])column)[position]);
+		} else if(column instanceof int[]) {
+			return Integer.valueOf(((int[])column)[position]);
+		} else if(column instanceof double[]) {
+			return Double.valueOf(((double[])column)[position]);
+		} else if(column instanceof boolean[]) {
+			return Boolean.valueOf(((boolean[])column)[position]);
+		}
+		throw new ModelException(GlobalErrorCode.UNSUPPORTED_OPERATION,
+				"Unsupported column type: "+column.getClass());
+	}
+
+	public long getLong(int slot, int position) {
+		Object column = column(slot);
+		if(column instanceof long[]) {
+			return ((long[])column)[position];
+		} else if(column instanceof int[]) {
+			return ((int[])column)[position];
+		}
+		throw new ModelException(GlobalErrorCode.UNSUPPORTED_OPERATION,
+				"Not an integer column: "+column.getClass());
+	}
+
+	public double getDouble(int slot, int position) {
+		Object column = column(slot);
+		if(column instanceof double[]) {
+			return ((double[])column)[position];
+		} else if(column instanceof long[]) {
+			return ((long[])column)[position];
+		} else if(column instanceof int[]) {
+			return ((int[])column)[position];
+		}
+		throw new ModelException(GlobalErrorCode.UNSUPPORTED_OPERATION,
+				"Not a numerical column: "+column.getClass());
+	}
+
+	public boolean getBoolean(int slot, int position) {
+		Object column = column(slot);
+		if(column instanceof boolean[]) {
+			return ((boolean[])column)[position];
+		}
+		throw new ModelException(GlobalErrorCode.UNSUPPORTED_OPERATION,
+				"Not a boolean column: "+column.getClass());
+	}
+
+	/**
+	 * Copies the flyweights of the current container into the given buffer,
+	 * starting at position {@code 0}. This is a bulk alternative to repeated
+	 * calls to {@link #getItemAt(long)}.
+	 * <p>
+	 * Note that only references to the pooled flyweights are copied. They resolve
+	 * their data through this view, so after a {@link #reset(long, long, int) reset}
+	 * the buffer content reflects the new container.
+	 */
+	public void copyItems(Item[] buffer) {
+		System.arraycopy(items, 0, buffer, 0, size);
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.api.members.container.Container#getContainerType()
+	 */
+	@Override
+	public ContainerType getContainerType() {
+		return ContainerType.LIST;
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.api.members.container.Container#getManifest()
+	 */
+	@Override
+	public ContainerManifestBase<?> getManifest() {
+		return manifest;
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.api.members.container.Container#getBaseContainers()
+	 */
+	@Override
+	public DataSet<Container> getBaseContainers() {
+		return DataSet.emptySet();
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.api.members.container.Container#getBoundaryContainer()
+	 */
+	@Override
+	public Container getBoundaryContainer() {
+		return null;
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.api.members.container.Container#isItemsComplete()
+	 */
+	@Override
+	public boolean isItemsComplete() {
+		return true;
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.api.members.container.Container#getItemCount()
+	 */
+	@Override
+	public long getItemCount() {
+		return size;
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.api.members.container.Container#getItemAt(long)
+	 */
+	@Override
+	public Item getItemAt(long index) {
+		checkPosition(index);
+		return items[(int)index];
+	}
+
+	/**
+	 * Answers in constant time for flyweights of this view. For foreign items
+	 * the global {@link Item#getIndex() index} is used to locate them, which
+	 * is constant time for contiguous containers and linear otherwise.
+	 *
+	 * @see de.ims.icarus2.model.api.members.container.Container#indexOfItem(de.ims.icarus2.model.api.members.item.Item)
+	 */
+	@Override
+	public long indexOfItem(Item item) {
+		requireNonNull(item);
+		if(item instanceof FlyweightItem) {
+			FlyweightItem flyweight = (FlyweightItem) item;
+			if(flyweight.owner==this) {
+				return flyweight.position<size ? flyweight.position : IcarusUtils.UNSET_LONG;
+			}
+		}
+
+		long globalIndex = item.getIndex();
+		if(indices==null) {
+			long position = globalIndex-beginIndex;
+			return position>=0 && position<size ? position : IcarusUtils.UNSET_LONG;
+		}
+
+		for (int i = 0; i < size; i++) {
+			if(indices[i]==globalIndex) {
+				return i;
+			}
+		}
+		return IcarusUtils.UNSET_LONG;
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.api.members.item.Item#getContainer()
+	 */
+	@Override
+	public Container getContainer() {
+		return host;
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.api.members.CorpusMember#getCorpus()
+	 */
+	@Override
+	public Corpus getCorpus() {
+		return host==null ? null : host.getCorpus();
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.api.members.item.Item#getIndex()
+	 */
+	@Override
+	public long getIndex() {
+		return index;
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.api.members.item.Item#getId()
+	 */
+	@Override
+	public long getId() {
+		return index;
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.api.members.item.Item#getBeginOffset()
+	 */
+	@Override
+	public long getBeginOffset() {
+		return size==0 ? IcarusUtils.UNSET_LONG : indexAt(0);
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.api.members.item.Item#getEndOffset()
+	 */
+	@Override
+	public long getEndOffset() {
+		return size==0 ? IcarusUtils.UNSET_LONG : indexAt(size-1);
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.api.members.item.Item#isAlive()
+	 */
+	@Override
+	public boolean isAlive() {
+		return index!=IcarusUtils.UNSET_LONG;
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.api.members.item.Item#isLocked()
+	 */
+	@Override
+	public boolean isLocked() {
+		return true;
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.api.members.item.Item#isDirty()
+	 */
+	@Override
+	public boolean isDirty() {
+		return false;
+	}
+
+	/**
+	 * Reusable member of a {@link FlyweightContainer}. Each flyweight is bound
+	 * to a fixed position within its owner and reflects whatever item currently
+	 * occupies that position.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	public static final class FlyweightItem implements Item {
+
+		private final FlyweightContainer owner;
+		private final int position;
+
+		FlyweightItem(FlyweightContainer owner, int position) {
+			this.owner = owner;
+			this.position = position;
+		}
+
+		/** Returns the view this flyweight belongs to */
+		public FlyweightContainer getOwner() {
+			return owner;
+		}
+
+		/** Returns the position of this flyweight within its owner */
+		public int getPosition() {
+			return position;
+		}
+
+		/**
+		 * @see de.ims.icarus2.model.api.members.CorpusMember#getMemberType()
+		 */
+		@Override
+		public MemberType getMemberType() {
+			return MemberType.ITEM;
+		}
+
+		/**
+		 * @see de.ims.icarus2.model.api.members.item.Item#getContainer()
+		 */
+		@Override
+		public Container getContainer() {
+			return owner.itemHost;
+		}
+
+		/**
+		 * @see de.ims.icarus2.model.api.members.CorpusMember#getCorpus()
+		 */
+		@Override
+		public Corpus getCorpus() {
+			return owner.getCorpus();
+		}
+
+		/**
+		 * @see de.ims.icarus2.model.api.members.item.Item#getIndex()
+		 */
+		@Override
+		public long getIndex() {
+			return owner.indexAt(position);
+		}
+
+		/**
+		 * @see de.ims.icarus2.model.api.members.item.Item#getId()
+		 */
+		@Override
+		public long getId() {
+			return getIndex();
+		}
+
+		/**
+		 * @see de.ims.icarus2.model.api.members.item.Item#isAlive()
+		 */
+		@Override
+		public boolean isAlive() {
+			return position<owner.size;
+		}
+
+		/**
+		 * @see de.ims.icarus2.model.api.members.item.Item#isLocked()
+		 */
+		@Override
+		public boolean isLocked() {
+			return true;
+		}
+
+		/**
+		 * @see de.ims.icarus2.model.api.members.item.Item#isDirty()
+		 */
+		@Override
+		public boolean isDirty() {
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			return "FlyweightItem@"+position;
+		}
+	}
+}
@@ -57,6 +57,19 @@ public interface ItemStorage extends Recyclable {
 
 	long indexOfItem(Container context, Item item);
 
+	/**
+	 * Reports the expected cost of a single {@link #indexOfItem(Container, Item)}
+	 * call, so that client code can decide whether to rely on repeated lookups
+	 * or to build its own index. The default implementation conservatively
+	 * returns {@link LookupCost#LINEAR}.
+	 *
+	 * @param context
+	 * @return
+	 */
+	default LookupCost getLookupCost(Container context) {
+		return LookupCost.LINEAR;
+	}
+
 	void addItem(Container context, long index, Item item);
 
 	void addItems(Container context, long index, DataSequence<? extends Item> items);
@@ -74,4 +87,20 @@ public interface ItemStorage extends Recyclable {
 	ContainerEditVerifier createEditVerifier(Container context);
 
 	boolean isDirty(Container context);
+
+	/**
+	 * Complexity classes for the {@link ItemStorage#indexOfItem(Container, Item)} method.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	public enum LookupCost {
+		/** Constant or amortized constant time, e.g. direct computation or hash lookup */
+		CONSTANT,
+		/** Logarithmic time, e.g. binary search on sorted items */
+		LOGARITHMIC,
+		/** Linear scan over the stored items */
+		LINEAR,
+		;
+	}
 }
@@ -190,6 +190,17 @@ public class ListItemStorageInt implements ItemStorage {
 		return items.indexOf(item);
 	}
 
+	/**
+	 * The backing {@link LookupList} maintains a lazily refreshed lookup table,
+	 * so index lookups come at amortized constant cost.
+	 *
+	 * @see de.ims.icarus2.model.standard.members.container.ItemStorage#getLookupCost(de.ims.icarus2.model.api.members.container.Container)
+	 */
+	@Override
+	public LookupCost getLookupCost(@Nullable Container context) {
+		return LookupCost.CONSTANT;
+	}
+
 	/**
 	 * Iterates over all the elements in this storage and searches for the
 	 * items with the smallest and highest offsets, respectively. Note that in
@@ -132,6 +132,14 @@ public class SingletonItemStorage implements ItemStorage {
 		return (singleton!=null && singleton==item) ? 0L : IcarusUtils.UNSET_LONG;
 	}
 
+	/**
+	 * @see de.ims.icarus2.model.standard.members.container.ItemStorage#getLookupCost(de.ims.icarus2.model.api.members.container.Container)
+	 */
+	@Override
+	public LookupCost getLookupCost(@Nullable Container context) {
+		return LookupCost.CONSTANT;
+	}
+
 	/**
 	 * @see de.ims.icarus2.model.standard.members.container.ItemStorage#addItem(de.ims.icarus2.model.api.members.container.Container, long, de.ims.icarus2.model.api.members.item.Item)
 	 */
@@ -150,7 +150,18 @@ public class SpanItemStorage implements ItemStorage {
 			return IcarusUtils.UNSET_LONG;
 		}
 
-		long targetIndex = target(context).indexOfItem(item);
+		Container target = target(context);
+
+		/*
+		 *  Items of a static target report their position via getIndex(),
+		 *  so we can compute the index directly and only need to verify
+		 *  it. Only if that fails we resort to the target's own lookup.
+		 */
+		long targetIndex = item.getIndex();
+		if(targetIndex<beginIndex() || targetIndex>endIndex()
+				|| target.getItemAt(targetIndex)!=item) {
+			targetIndex = target.indexOfItem(item);
+		}
 
 		// Ensure we only consider items within our span
 		if(targetIndex>=beginIndex() && targetIndex<=endIndex()) {
@@ -163,6 +174,28 @@ public class SpanItemStorage implements ItemStorage {
 		return targetIndex;
 	}
 
+	/**
+	 * Index lookups are computed from the {@link Item#getIndex() index} of
+	 * the items in the target container. This is only reliable for
+	 * {@link Container#isProxy() proxy} targets, where positions and item
+	 * indices coincide. For any other target the lookup may fall back to
+	 * {@link Container#indexOfItem(Item)} of the target, so its cost is
+	 * reported if it is known, or {@link LookupCost#LINEAR} otherwise.
+	 *
+	 * @see de.ims.icarus2.model.standard.members.container.ItemStorage#getLookupCost(de.ims.icarus2.model.api.members.container.Container)
+	 */
+	@Override
+	public LookupCost getLookupCost(Container context) {
+		Container target = target(context);
+		if(target.isProxy()) {
+			return LookupCost.CONSTANT;
+		}
+		if(target instanceof DefaultContainer) {
+			return ((DefaultContainer)target).getLookupCost();
+		}
+		return LookupCost.LINEAR;
+	}
+
 	protected void checkTargetItem(Container target, long targetIndex, Item item) {
 		Item targetItem = target.getItemAt(targetIndex);
 
@@ -124,6 +124,20 @@ public class WrappingItemStorage implements ItemStorage {
 		return sourceContainer.indexOfItem(item);
 	}
 
+	/**
+	 * Returns the lookup cost of the source container if it is known, or
+	 * {@link LookupCost#LINEAR} otherwise.
+	 *
+	 * @see de.ims.icarus2.model.standard.members.container.ItemStorage#getLookupCost(de.ims.icarus2.model.api.members.container.Container)
+	 */
+	@Override
+	public LookupCost getLookupCost(@Nullable Container context) {
+		if(sourceContainer instanceof DefaultContainer) {
+			return ((DefaultContainer)sourceContainer).getLookupCost();
+		}
+		return LookupCost.LINEAR;
+	}
+
 	/**
 	 * @see de.ims.icarus2.model.standard.members.container.ItemStorage#addItem(de.ims.icarus2.model.api.members.container.Container, long, de.ims.icarus2.model.api.members.item.Item)
 	 */
@@ -24,6 +24,7 @@ import de.ims.icarus2.model.api.members.item.Edge;
 import de.ims.icarus2.model.api.members.item.Item;
 import de.ims.icarus2.model.api.members.structure.Structure;
 import de.ims.icarus2.model.api.members.structure.StructureEditVerifier;
+import de.ims.icarus2.model.api.members.structure.TreeTopology;
 import de.ims.icarus2.model.manifest.api.StructureType;
 import de.ims.icarus2.util.Recyclable;
 import de.ims.icarus2.util.collections.seq.DataSequence;
@@ -123,6 +124,13 @@ public interface EdgeStorage extends Recyclable {
 	@OptionalMethod
 	long getDescendantCount(Structure context, Item parent);
 
+	/**
+	 * @see Structure#getTreeTopology()
+	 */
+	default @Nullable TreeTopology getTreeTopology(Structure context) {
+		return null;
+	}
+
 	// EDIT METHODS
 
 	/**
@@ -16,8 +16,11 @@
  */
 package de.ims.icarus2.model.standard.members.structure.builder;
 
+import static de.ims.icarus2.util.IcarusUtils.UNSET_INT;
 import static java.util.Objects.requireNonNull;
 
+import java.util.Arrays;
+
 import javax.annotation.Nullable;
 
 import de.ims.icarus2.GlobalErrorCode;
@@ -26,10 +29,14 @@ import de.ims.icarus2.model.api.ModelException;
 import de.ims.icarus2.model.api.members.item.Edge;
 import de.ims.icarus2.model.api.members.item.Item;
 import de.ims.icarus2.model.api.members.structure.Structure;
+import de.ims.icarus2.model.api.members.structure.TreeTopology;
 import de.ims.icarus2.model.manifest.util.Messages;
 import de.ims.icarus2.model.standard.members.structure.AbstractImmutableEdgeStorage;
+import de.ims.icarus2.model.standard.members.structure.RootItem;
 import de.ims.icarus2.util.IcarusUtils;
 import de.ims.icarus2.util.collections.LookupList;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 
 /**
  * @author Markus Gärtner
@@ -43,6 +50,9 @@ public abstract class AbstractStaticEdgeStorage<R extends Item> extends Abstract
 
 	protected final LookupList<Edge> edges;
 
+	/** Lazily created topology and the structure it was created for */
+	private volatile TopologyCache topologyCache;
+
 	public AbstractStaticEdgeStorage(R root, LookupList<Edge> edges) {
 		requireNonNull(root);
 		requireNonNull(edges);
@@ -127,4 +137,87 @@ public abstract class AbstractStaticEdgeStorage<R extends Item> extends Abstract
 		return getEdgeCount(context, node, true) + getEdgeCount(context, node, false);
 	}
 
+	/**
+	 * Returns the {@link TreeTopology} of this storage in the given context,
+	 * creating it on first access. Subclasses that model trees or chains can
+	 * use this method to implement {@link #getTreeTopology(Structure)}.
+	 * <p>
+	 * This implementation requires that the outgoing edges of every node
+	 * are stored in the same order as they appear in the global edge list.
+	 */
+	protected TreeTopology topology(Structure context) {
+		requireNonNull(context);
+		TopologyCache cache = topologyCache;
+		if(cache==null || cache.context!=context) {
+			cache = new TopologyCache(context, createTopology(context));
+			topologyCache = cache;
+		}
+		return cache.topology;
+	}
+
+	private TreeTopology createTopology(Structure context) {
+		final int nodeCount = IcarusUtils.ensureIntegerValueRange(context.getItemCount());
+
+		// Single scan to resolve node indices instead of repeated indexOfItem() calls
+		final Reference2IntMap<Item> lookup = new Reference2IntOpenHashMap<>(nodeCount);
+		lookup.defaultReturnValue(UNSET_INT);
+		for (int i = 0; i < nodeCount; i++) {
+			lookup.put(context.getItemAt(i), i);
+		}
+
+		final int[] parents = new int[nodeCount];
+		Arrays.fill(parents, UNSET_INT);
+		final int[] offsets = new int[nodeCount+2];
+
+		// Count children per row, with row 0 being the virtual root
+		for(Edge edge : edges) {
+			int target = lookup.getInt(edge.getTarget());
+			if(target==UNSET_INT)
+				throw new ModelException(ModelErrorCode.MODEL_CORRUPTED_STATE,
+						"Edge target is not a member of the structure: "+edge);
+			Item source = edge.getSource();
+			if(source!=virtualRoot) {
+				parents[target] = lookup.getInt(source);
+			}
+			offsets[parents[target]+2]++;
+		}
+
+		for (int i = 2; i < offsets.length; i++) {
+			offsets[i] += offsets[i-1];
+		}
+
+		// Second pass: place children, using offsets[row] as insertion cursor
+		final int[] children = new int[offsets[offsets.length-1]];
+		for(Edge edge : edges) {
+			int target = lookup.getInt(edge.getTarget());
+			int row = parents[target]+1;
+			children[offsets[row]++] = target;
+		}
+
+		// Cursors now point to the end of each section, shift them back into place
+		System.arraycopy(offsets, 0, offsets, 1, offsets.length-1);
+		offsets[0] = 0;
+
+		// Roots are kept in the order of the virtual root's own edge list
+		if(virtualRoot instanceof RootItem) {
+			RootItem<?> root = (RootItem<?>) virtualRoot;
+			int rootCount = root.getEdgeCount();
+			assert rootCount==offsets[1] : "Root edges out of sync with global edge list";
+			for (int i = 0; i < rootCount; i++) {
+				children[i] = lookup.getInt(root.getEdgeAt(i).getTarget());
+			}
+		}
+
+		return new TreeTopology(parents, offsets, children);
+	}
+
+	private static final class TopologyCache {
+		private final Structure context;
+		private final TreeTopology topology;
+
+		TopologyCache(Structure context, TreeTopology topology) {
+			this.context = context;
+			this.topology = topology;
+		}
+	}
 }
@@ -152,9 +152,40 @@ public class StaticArrayItemStorage extends AbstractImmutableItemStorage {
 	 */
 	@Override
 	public long indexOfItem(@Nullable Container context, Item item) {
+		requireNonNull(item);
 		int index = Arrays.binarySearch(items, item, sorter);
+		if(index < 0) {
+			return IcarusUtils.UNSET_LONG;
+		}
+
+		/*
+		 *  Binary search only guarantees an item with matching offsets,
+		 *  so we need to verify identity and check neighbors that share
+		 *  the same offsets.
+		 */
+		if(items[index]==item) {
+			return index;
+		}
+		for (int i = index-1; i >= 0 && sorter.compare(items[i], item)==0; i--) {
+			if(items[i]==item) {
+				return i;
+			}
+		}
+		for (int i = index+1; i < items.length && sorter.compare(items[i], item)==0; i++) {
+			if(items[i]==item) {
+				return i;
+			}
+		}
+
+		return IcarusUtils.UNSET_LONG;
+	}
 
-		return index < 0 ? IcarusUtils.UNSET_LONG : index;
+	/**
+	 * @see de.ims.icarus2.model.standard.members.container.ItemStorage#getLookupCost(de.ims.icarus2.model.api.members.container.Container)
+	 */
+	@Override
+	public LookupCost getLookupCost(@Nullable Container context) {
+		return LookupCost.LOGARITHMIC;
 	}
 
 	/**
@@ -26,6 +26,7 @@ import de.ims.icarus2.model.api.ModelException;
 import de.ims.icarus2.model.api.members.item.Edge;
 import de.ims.icarus2.model.api.members.item.Item;
 import de.ims.icarus2.model.api.members.structure.Structure;
+import de.ims.icarus2.model.api.members.structure.TreeTopology;
 import de.ims.icarus2.model.manifest.api.StructureType;
 import de.ims.icarus2.model.standard.members.structure.EdgeStorage;
 import de.ims.icarus2.model.standard.members.structure.RootItem;
@@ -109,6 +110,16 @@ public abstract class StaticChainEdgeStorage extends AbstractStaticEdgeStorage<R
 		return StructureType.CHAIN;
 	}
 
+	/**
+	 * Provides a {@link TreeTopology} that is created once per host structure.
+	 *
+	 * @see de.ims.icarus2.model.standard.members.structure.EdgeStorage#getTreeTopology(de.ims.icarus2.model.api.members.structure.Structure)
+	 */
+	@Override
+	public TreeTopology getTreeTopology(Structure context) {
+		return topology(context);
+	}
+
 	/**
 	 * @see de.ims.icarus2.model.standard.members.structure.EdgeStorage#getSiblingAt(de.ims.icarus2.model.api.members.structure.Structure, de.ims.icarus2.model.api.members.item.Item, long)
 	 */
@@ -119,6 +119,14 @@ public class StaticListItemStorage extends AbstractImmutableItemStorage {
 		return items.indexOf(item);
 	}
 
+	/**
+	 * @see de.ims.icarus2.model.standard.members.container.ItemStorage#getLookupCost(de.ims.icarus2.model.api.members.container.Container)
+	 */
+	@Override
+	public LookupCost getLookupCost(@Nullable Container context) {
+		return LookupCost.CONSTANT;
+	}
+
 	/**
 	 * @see de.ims.icarus2.model.standard.members.container.ItemStorage#getBeginOffset(de.ims.icarus2.model.api.members.container.Container)
 	 */
@@ -28,6 +28,7 @@ import de.ims.icarus2.model.api.members.item.Item;
 import de.ims.icarus2.model.api.members.structure.Structure;
 import de.ims.icarus2.model.api.members.structure.StructureEditVerifier;
 import de.ims.icarus2.model.api.members.structure.StructureInfo;
+import de.ims.icarus2.model.api.members.structure.TreeTopology;
 import de.ims.icarus2.model.manifest.api.ContainerType;
 import de.ims.icarus2.model.manifest.api.StructureManifest;
 import de.ims.icarus2.model.manifest.api.StructureType;
@@ -353,6 +354,14 @@ public class StaticStructure extends TrackedItem implements Structure {
 		return edges.getVirtualRoot(this);
 	}
 
+	/**
+	 * @see de.ims.icarus2.model.api.members.structure.Structure#getTreeTopology()
+	 */
+	@Override
+	public TreeTopology getTreeTopology() {
+		return edges.getTreeTopology(this);
+	}
+
 	/**
 	 * @see de.ims.icarus2.model.api.members.structure.Structure#isRoot(de.ims.icarus2.model.api.members.item.Item)
 	 */
@@ -31,6 +31,7 @@ import de.ims.icarus2.model.api.ModelException;
 import de.ims.icarus2.model.api.members.item.Edge;
 import de.ims.icarus2.model.api.members.item.Item;
 import de.ims.icarus2.model.api.members.structure.Structure;
+import de.ims.icarus2.model.api.members.structure.TreeTopology;
 import de.ims.icarus2.model.manifest.api.StructureType;
 import de.ims.icarus2.model.manifest.util.Messages;
 import de.ims.icarus2.model.standard.members.structure.EdgeStorage;
@@ -75,6 +76,16 @@ public abstract class StaticTreeEdgeStorage extends AbstractStaticEdgeStorage<Ro
 		return StructureType.TREE;
 	}
 
+	/**
+	 * Provides a {@link TreeTopology} that is created once per host structure.
+	 *
+	 * @see de.ims.icarus2.model.standard.members.structure.EdgeStorage#getTreeTopology(de.ims.icarus2.model.api.members.structure.Structure)
+	 */
+	@Override
+	public TreeTopology getTreeTopology(Structure context) {
+		return topology(context);
+	}
+
 	/**
 	 * Compact tree storage that stores general information about nodes in an integer array
 	 * and the actual information about edges for a node in a global byte array. The byte
@@ -39,9 +39,14 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.locks.StampedLock;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -68,6 +73,7 @@ import de.ims.icarus2.model.manifest.api.CorpusManifest;
 import de.ims.icarus2.model.manifest.api.Manifest;
 import de.ims.icarus2.model.manifest.api.ManifestRegistry;
 import de.ims.icarus2.model.manifest.standard.DefaultManifestRegistry;
+import de.ims.icarus2.model.manifest.util.FlattenedCorpusCache;
 import de.ims.icarus2.model.manifest.util.ManifestUtils;
 import de.ims.icarus2.model.standard.corpus.DefaultCorpus;
 import de.ims.icarus2.model.standard.io.DefaultFileManager;
@@ -75,6 +81,7 @@ import de.ims.icarus2.model.standard.registry.metadata.VirtualMetadataRegistry;
 import de.ims.icarus2.util.AbstractBuilder;
 import de.ims.icarus2.util.AccumulatingException;
 import de.ims.icarus2.util.annotations.TestableImplementation;
+import de.ims.icarus2.util.concurrent.ExecutionUtil;
 import de.ims.icarus2.util.events.EventObject;
 import de.ims.icarus2.util.id.Identity;
 import de.ims.icarus2.util.io.resource.FileResourceProvider;
@@ -115,6 +122,18 @@ public class DefaultCorpusManager implements CorpusManager {
 	 */
 	private final Map<String, Corpus> liveCorpora = new LinkedHashMap<>();
 
+	/**
+	 * Connection attempts currently in progress. Other callers for the same
+	 * corpus wait for those futures instead of starting their own attempt.
+	 */
+	private final Map<String, CompletableFuture<Corpus>> pendingConnects = new HashMap<>();
+
+	/** Used to run asynchronous connection attempts */
+	private final Executor connectExecutor;
+
+	/** Flattened manifests, reused as long as the manifest registry stays unchanged */
+	private final FlattenedCorpusCache flattenedCorpora = new FlattenedCorpusCache();
+
 	/**
 	 * Global lock to synchronize manipulation of corpora that are under control
 	 * of this manager.
@@ -141,6 +160,12 @@ public class DefaultCorpusManager implements CorpusManager {
 
 		corpusProducer = builder.getCorpusProducer();
 
+		Executor connectExecutor = builder.getConnectExecutor();
+		if(connectExecutor==null) {
+			connectExecutor = ExecutionUtil::execute;
+		}
+		this.connectExecutor = connectExecutor;
+
 		// Attempt to load default properties
 		Properties defaultProperties = new Properties();
 		URL defaultPropertiesUrl = DefaultCorpusManager.class.getResource("default-properties.ini");
@@ -369,14 +394,14 @@ public class DefaultCorpusManager implements CorpusManager {
 	}
 
 	/**
-	 * @see de.ims.icarus2.model.api.registry.CorpusManager#connect(de.ims.icarus2.model.manifest.api.CorpusManifest)
+	 * Performs the state transition for a connect request and either registers a new
+	 * pending connection or returns the one already in progress. If the returned
+	 * {@link PendingConnect} is {@link PendingConnect#owner owned} by the caller, it is
+	 * responsible for actually instantiating the corpus.
+	 * <p>
+	 * Returns {@code null} if the corpus is currently being disconnected.
 	 */
-	@Override
-	public Corpus connect(CorpusManifest manifest) throws InterruptedException {
-		requireNonNull(manifest);
-
-		Corpus corpus = null;
-
+	private PendingConnect beginConnect(CorpusManifest manifest) throws InterruptedException {
 		long stamp = lock.writeLockInterruptibly();
 		try {
 			CorpusManager.CorpusState oldState = getStateUnsafe(manifest, false);
@@ -385,7 +410,7 @@ public class DefaultCorpusManager implements CorpusManager {
 
 			// Immediately return in case the corpus is already connected (do not notify listeners!!!)
 			if(oldState==CorpusManager.CorpusState.CONNECTED) {
-				return liveCorpora.get(id);
+				return new PendingConnect(CompletableFuture.completedFuture(liveCorpora.get(id)), false);
 			}
 
 			// If currently disconnecting, signal the client to wait and try again later
@@ -393,46 +418,192 @@ public class DefaultCorpusManager implements CorpusManager {
 				return null;
 			}
 
+			// Share an already running attempt
+			CompletableFuture<Corpus> future = pendingConnects.get(id);
+			if(future!=null) {
+				return new PendingConnect(future, false);
+			}
+
 			// First transition and notification
 			setStateUnsafe(manifest, CorpusManager.CorpusState.CONNECTING);
 			fireCorpusChanged(manifest);
 
-			// Now instantiate new corpus
+			future = new CompletableFuture<>();
+			pendingConnects.put(id, future);
 
-			/*
-			 * We need a special marker to track cancellation of the loading process.
-			 * Since it is perfectly legal for the user to cancel loading, we must not
-			 * mark the corpus as bad once that happens.
-			 */
-			boolean cancelled = false;
+			return new PendingConnect(future, true);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
 
-			try {
-				corpus = createCorpusFromManifest(manifest);
-			} catch(InterruptedException e) {
-				// Mark process as cancelled and rethrow
-				cancelled = true;
-				throw e;
-			} finally {
+	/**
+	 * Instantiates the corpus outside of any locks and then performs the final
+	 * state transition. The given {@code future} will always be completed by this
+	 * method.
+	 */
+	private Corpus finishConnect(CorpusManifest manifest, CompletableFuture<Corpus> future) throws InterruptedException {
+		final String id = ManifestUtils.requireId(manifest);
+
+		/*
+		 * We need a special marker to track cancellation of the loading process.
+		 * Since it is perfectly legal for the user to cancel loading, we must not
+		 * mark the corpus as bad once that happens.
+		 */
+		boolean cancelled = false;
+		Corpus corpus = null;
+		Throwable failure = null;
 
-				// Corpus being null means the instantiation failed -> mark as bad and notify
-				if(corpus==null && !cancelled) {
+		try {
+			corpus = createCorpusFromManifest(manifest);
+		} catch(InterruptedException e) {
+			// Mark process as cancelled and rethrow
+			cancelled = true;
+			failure = e;
+			throw e;
+		} catch(RuntimeException | Error e) {
+			failure = e;
+			throw e;
+		} finally {
+			// State transitions must not be skipped, so we ignore interrupts here
+			long stamp = lock.writeLock();
+			try {
+				pendingConnects.remove(id);
+
+				if(corpus!=null) {
+					// Everything went smooth -> set live state and notify
+					liveCorpora.put(id, corpus);
+					setStateUnsafe(manifest, CorpusManager.CorpusState.CONNECTED);
+					fireCorpusConnected(corpus);
+				} else if(cancelled) {
+					// Cancellation is no error, so the corpus can be connected again later
+					states.remove(id);
+					fireCorpusChanged(manifest);
+				} else {
+					// Corpus being null means the instantiation failed -> mark as bad and notify
 					setStateUnsafe(manifest, CorpusManager.CorpusState.BAD);
 					fireCorpusChanged(manifest);
 				}
+			} finally {
+				lock.unlockWrite(stamp);
+			}
 
-				// In case of cancellation this is as far as execution goes, since now the InterruptedException gets passed up the stack
+			// Only publish result after the state transition is visible
+			if(corpus!=null) {
+				future.complete(corpus);
+			} else {
+				future.completeExceptionally(failure);
 			}
+		}
 
-			// Everything went smooth -> set live state and notify
-			liveCorpora.put(id, corpus);
-			setStateUnsafe(manifest, CorpusManager.CorpusState.CONNECTED);
-			fireCorpusConnected(corpus);
+		return corpus;
+	}
 
-		} finally {
-			lock.unlockWrite(stamp);
+	/**
+	 * Waits for a connection attempt made by another thread.
+	 * Returns {@code null} if that attempt got cancelled.
+	 */
+	private static Corpus await(CompletableFuture<Corpus> future) throws InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof InterruptedException) {
+				return null;
+			} else if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if(cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new ModelException(GlobalErrorCode.UNKNOWN_ERROR, "Failed to connect corpus", cause);
 		}
+	}
 
-		return corpus;
+	/**
+	 * Only the actual state transitions are performed under the global lock.
+	 * Instantiation of the corpus happens without holding the lock, so other
+	 * corpora can be connected or queried in the meantime. Concurrent calls for
+	 * the same corpus share a single connection attempt and wait for it to complete.
+	 *
+	 * @see de.ims.icarus2.model.api.registry.CorpusManager#connect(de.ims.icarus2.model.manifest.api.CorpusManifest)
+	 */
+	@Override
+	public Corpus connect(CorpusManifest manifest) throws InterruptedException {
+		requireNonNull(manifest);
+
+		PendingConnect pending = beginConnect(manifest);
+		if(pending==null) {
+			return null;
+		}
+
+		if(pending.owner) {
+			return finishConnect(manifest, pending.future);
+		}
+
+		return await(pending.future);
+	}
+
+	/**
+	 * Runs the instantiation of the corpus on the executor configured for this
+	 * manager. The returned future completes with {@code null} if the corpus is
+	 * currently being disconnected.
+	 *
+	 * @see de.ims.icarus2.model.api.registry.CorpusManager#connectAsync(de.ims.icarus2.model.manifest.api.CorpusManifest)
+	 */
+	@Override
+	public CompletableFuture<Corpus> connectAsync(CorpusManifest manifest) {
+		requireNonNull(manifest);
+
+		PendingConnect pending;
+		try {
+			pending = beginConnect(manifest);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			CompletableFuture<Corpus> result = new CompletableFuture<>();
+			result.completeExceptionally(e);
+			return result;
+		}
+
+		if(pending==null) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		final CompletableFuture<Corpus> future = pending.future;
+
+		if(pending.owner) {
+			try {
+				connectExecutor.execute(() -> {
+					try {
+						finishConnect(manifest, future);
+					} catch (InterruptedException | RuntimeException | Error e) {
+						// Already reported through the future
+					}
+				});
+			} catch(RejectedExecutionException e) {
+				// Fall back to connecting on the current thread
+				try {
+					finishConnect(manifest, future);
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				} catch (RuntimeException | Error ex) {
+					// Already reported through the future
+				}
+			}
+		}
+
+		// Don't let clients complete our internal future
+		return future.thenApply(Function.identity());
+	}
+
+	private static final class PendingConnect {
+		final CompletableFuture<Corpus> future;
+		/** Signals that the holder is responsible for instantiating the corpus */
+		final boolean owner;
+
+		PendingConnect(CompletableFuture<Corpus> future, boolean owner) {
+			this.future = future;
+			this.owner = owner;
+		}
 	}
 
 	private Corpus createCorpusFromManifest(CorpusManifest manifest) throws InterruptedException {
@@ -444,8 +615,8 @@ public class DefaultCorpusManager implements CorpusManager {
 			// When delegating corpus creation, the producer is responsible for cloning the manifest
 			corpus = corpusProducer.apply(this, manifest);
 		} else {
-			// Create a detached version of the manifest that uses no templating
-			manifest = ManifestUtils.flattenCorpus(manifest);
+			// Create (or reuse) a detached version of the manifest that uses no templating
+			manifest = flattenedCorpora.getFlattened(manifest);
 			corpus = instantiate(manifest);
 		}
 
@@ -552,11 +723,30 @@ public class DefaultCorpusManager implements CorpusManager {
 	}
 
 	/**
+	 * Waits for all pending connection attempts to finish before disconnecting
+	 * the live corpora, so that no corpus gets connected after the shutdown.
+	 *
 	 * @see de.ims.icarus2.model.api.registry.CorpusManager#shutdown()
 	 */
 	@Override
 	public void shutdown() throws InterruptedException, AccumulatingException {
 		long stamp = lock.writeLockInterruptibly();
+		while(!pendingConnects.isEmpty()) {
+			List<CompletableFuture<Corpus>> pending = new ArrayList<>(pendingConnects.values());
+			lock.unlockWrite(stamp);
+
+			// Attempts need the lock to finish, so wait outside of it
+			for(CompletableFuture<Corpus> future : pending) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					// Failed or cancelled attempts leave no live corpus behind
+				}
+			}
+
+			stamp = lock.writeLockInterruptibly();
+		}
+
 		try {
 			List<Corpus> pendingCorpora = new ArrayList<>(liveCorpora.values());
 			if(pendingCorpora.isEmpty()) {
@@ -670,6 +860,17 @@ public class DefaultCorpusManager implements CorpusManager {
 		return isCorpusInState(corpus, CorpusManager.CorpusState.BAD);
 	}
 
+	/**
+	 * Rejects changes to the enabled state of a corpus that is currently being
+	 * dis-/connected, as the pending transition would overwrite the new state.
+	 */
+	private void checkNotInTransition(CorpusManifest corpus, CorpusManager.CorpusState state) {
+		if(state==CorpusManager.CorpusState.CONNECTING || state==CorpusManager.CorpusState.DISCONNECTING)
+			throw new ModelException(GlobalErrorCode.ILLEGAL_STATE,
+					String.format("Cannot change enabled state of corpus %s while %s",
+							getName(corpus), state));
+	}
+
 	/**
 	 * @see de.ims.icarus2.model.api.registry.CorpusManager#enableCorpus(de.ims.icarus2.model.manifest.api.CorpusManifest)
 	 */
@@ -682,6 +883,8 @@ public class DefaultCorpusManager implements CorpusManager {
 			// Read state, automatically applying sanity checks
 			final CorpusManager.CorpusState currentState = getStateUnsafe(corpus, false);
 
+			checkNotInTransition(corpus, currentState);
+
 			if(currentState==CorpusManager.CorpusState.ENABLED) {
 				return false;
 			}
@@ -708,6 +911,8 @@ public class DefaultCorpusManager implements CorpusManager {
 			// Read state, automatically applying sanity checks
 			final CorpusManager.CorpusState currentState = getStateUnsafe(corpus, false);
 
+			checkNotInTransition(corpus, currentState);
+
 			if(currentState==CorpusManager.CorpusState.DISABLED) {
 				return false;
 			}
@@ -916,6 +1121,8 @@ public class DefaultCorpusManager implements CorpusManager {
 
 		private Map<String, String> properties;
 
+		private Executor connectExecutor;
+
 		private URL propertiesUrl;
 		private Path propertiesFile;
 
@@ -965,6 +1172,12 @@ public class DefaultCorpusManager implements CorpusManager {
 			return properties;
 		}
 
+		@Guarded(methodType=MethodType.GETTER)
+		@Nullable
+		public Executor getConnectExecutor() {
+			return connectExecutor;
+		}
+
 		@Guarded(methodType=MethodType.GETTER)
 		@Nullable
 		public URL getPropertiesUrl() {
@@ -1081,6 +1294,20 @@ public class DefaultCorpusManager implements CorpusManager {
 			return thisAsCast();
 		}
 
+		/**
+		 * Defines the executor used for {@link CorpusManager#connectAsync(CorpusManifest)
+		 * asynchronous} connection attempts. If not set, the shared worker pool is used.
+		 */
+		@Guarded(methodType=MethodType.BUILDER)
+		public Builder connectExecutor(Executor connectExecutor) {
+			requireNonNull(connectExecutor);
+			checkState("Connect executor already set", this.connectExecutor==null);
+
+			this.connectExecutor = connectExecutor;
+
+			return thisAsCast();
+		}
+
 		@Guarded(methodType=MethodType.BUILDER)
 		public Builder propertiesUrl(URL propertiesUrl) {
 			requireNonNull(propertiesUrl);
@@ -26,6 +26,7 @@ import de.ims.icarus2.util.LazyStore;
 public enum Format {
 	XML(JAXBMetadataRegistry.DEFAULT_FILE_ENDING),
 	PLAIN(PlainMetadataRegistry.DEFAULT_FILE_ENDING),
+	LOG(LogStructuredMetadataRegistry.DEFAULT_FILE_ENDING),
 	;
 
 	private final String fileSuffix;
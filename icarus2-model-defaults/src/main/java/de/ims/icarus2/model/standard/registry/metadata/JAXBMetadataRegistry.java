@@ -238,6 +238,14 @@ public class JAXBMetadataRegistry extends JAXBGate<JAXBMetadataRegistry.StorageB
 		entries.forEach(action);
 	}
 
+	/**
+	 * @see de.ims.icarus2.model.api.registry.MetadataRegistry#isPrefixIndexed()
+	 */
+	@Override
+	public boolean isPrefixIndexed() {
+		return true;
+	}
+
 	/**
 	 *
 	 *
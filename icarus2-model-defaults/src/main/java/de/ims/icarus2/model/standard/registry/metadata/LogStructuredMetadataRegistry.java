@@ -0,0 +1,533 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.model.standard.registry.metadata;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.ims.icarus2.GlobalErrorCode;
+import de.ims.icarus2.model.api.ModelException;
+import de.ims.icarus2.model.api.registry.MetadataRegistry;
+import de.ims.icarus2.util.annotations.TestableImplementation;
+import de.ims.icarus2.util.io.resource.IOResource;
+
+/**
+ * A {@link MetadataRegistry} that persists its content as an append-only binary log.
+ * <p>
+ * All entries are kept in a {@link ConcurrentSkipListMap}, so reads and prefix iterations
+ * never block, not even while another thread is updating the registry. Modifications are
+ * applied to the map immediately and encoded as log records. The records of an entire
+ * transaction, i.e. everything between the outermost {@link #beginUpdate()} and
+ * {@link #endUpdate()} calls, are appended to the backing resource with a single write.
+ * Persisting therefore costs O(changed entries) instead of O(total entries).
+ * <p>
+ * Once the log contains considerably more records than live entries, it gets compacted
+ * by rewriting the current content. For local resources this is done via a temporary
+ * file that atomically replaces the old log.
+ * <p>
+ * When loading, file based logs are memory-mapped for the duration of the load only.
+ * Every record is protected by a checksum and loading stops at the first incomplete or damaged record, discarding a torn tail that
+ * might be the result of an interrupted write. If the resource does not contain a log but
+ * content in the {@link Properties} format used by {@link PlainMetadataRegistry}, that content
+ * is imported and the resource gets converted into the log format with the next update.
+ *
+ * @author Markus Gärtner
+ *
+ */
+@TestableImplementation(MetadataRegistry.class)
+public class LogStructuredMetadataRegistry implements MetadataRegistry {
+
+	/**
+	 * The default file suffix used by the modeling framework for metadata registry storage
+	 * in binary log files.
+	 */
+	public static final String DEFAULT_FILE_ENDING = ".mdlog";
+
+	private static final Logger log = LoggerFactory
+			.getLogger(LogStructuredMetadataRegistry.class);
+
+	/** Magic header {@code IMDL} */
+	static final int MAGIC = 0x494D444C;
+	static final int FORMAT_VERSION = 1;
+	static final int HEADER_SIZE = Integer.BYTES * 2;
+
+	private static final byte RECORD_PUT = 1;
+	private static final byte RECORD_REMOVE = 2;
+
+	/** Minimum number of records in the log before compaction is considered */
+	static final int MIN_COMPACTION_RECORDS = 1024;
+	/** Factor by which the number of records must exceed the number of live entries for compaction */
+	static final int COMPACTION_RATIO = 2;
+
+	private final ConcurrentSkipListMap<String, String> entries = new ConcurrentSkipListMap<>();
+
+	private volatile boolean loaded = false;
+
+	private int useCount = 0;
+
+	/** Encoded records of the current transaction */
+	private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+	private final DataOutputStream pendingOut = new DataOutputStream(pending);
+	private int pendingRecords = 0;
+
+	/** Number of bytes of valid log data in the resource, including the header */
+	private long logSize = 0;
+	/** Number of records stored in the log */
+	private long logRecords = 0;
+	/** Signals that the resource content must be rewritten, e.g. after migration */
+	private boolean rewriteRequired = false;
+
+	private final IOResource resource;
+	private final Charset legacyEncoding;
+
+	public LogStructuredMetadataRegistry(IOResource resource) {
+		this(resource, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @param resource the backing storage
+	 * @param legacyEncoding encoding used when importing content in the {@link Properties} format
+	 */
+	public LogStructuredMetadataRegistry(IOResource resource, Charset legacyEncoding) {
+		this.resource = requireNonNull(resource);
+		this.legacyEncoding = requireNonNull(legacyEncoding);
+	}
+
+	public IOResource getResource() {
+		return resource;
+	}
+
+	@Override
+	public synchronized void open() {
+		ensureLoaded();
+	}
+
+	@Override
+	public synchronized void close() {
+		synchronize();
+	}
+
+	private void ensureLoaded() {
+		if(loaded) {
+			return;
+		}
+
+		synchronized (this) {
+			if(loaded) {
+				return;
+			}
+
+			if(resource.getAccessMode().isRead()) {
+				try {
+					load();
+				} catch (IOException e) {
+					log.error("Failed to load value storage: {}", resource, e);
+				}
+			}
+			loaded = true;
+		}
+	}
+
+	/**
+	 * Writes all pending changes to the backing resource, compacting the log if needed.
+	 */
+	public synchronized void synchronize() {
+		if(pendingRecords==0 && !rewriteRequired) {
+			return;
+		}
+		if(!resource.getAccessMode().isWrite()) {
+			return;
+		}
+
+		try {
+			if(rewriteRequired || needsCompaction(logRecords+pendingRecords)) {
+				compact();
+			} else {
+				append();
+			}
+		} catch (IOException e) {
+			log.error("Failed to synchronize value storage: {}", resource, e);
+		}
+	}
+
+	private boolean needsCompaction(long records) {
+		return records>=MIN_COMPACTION_RECORDS && records>(long)entries.size()*COMPACTION_RATIO;
+	}
+
+	private void append() throws IOException {
+		resource.prepare();
+		try(SeekableByteChannel channel = resource.getWriteChannel()) {
+			if(logSize==0) {
+				channel.truncate(0);
+				writeFully(channel, header());
+				logSize = HEADER_SIZE;
+			}
+			channel.position(logSize);
+			writeFully(channel, ByteBuffer.wrap(pending.toByteArray()));
+			// Drop any remains of a torn tail from an earlier interrupted write
+			if(channel.size()>logSize+pending.size()) {
+				channel.truncate(logSize+pending.size());
+			}
+		}
+
+		logSize += pending.size();
+		logRecords += pendingRecords;
+		clearPending();
+	}
+
+	/**
+	 * Rewrites the entire log, so that it only contains records for the current entries.
+	 */
+	public synchronized void compact() throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(32, pending.size()));
+		DataOutputStream out = new DataOutputStream(buffer);
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		long records = 0;
+		for(Map.Entry<String, String> entry : entries.entrySet()) {
+			writeRecord(out, entry.getKey(), entry.getValue());
+			records++;
+		}
+		out.flush();
+		byte[] data = buffer.toByteArray();
+
+		resource.prepare();
+		if(resource.isLocal()) {
+			Path file = resource.getPath().toAbsolutePath();
+			Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+			try {
+				Files.write(tmp, data);
+				try {
+					Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				} catch(AtomicMoveNotSupportedException e) {
+					Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+				}
+			} finally {
+				Files.deleteIfExists(tmp);
+			}
+		} else {
+			try(SeekableByteChannel channel = resource.getWriteChannel()) {
+				channel.position(0);
+				writeFully(channel, ByteBuffer.wrap(data));
+				channel.truncate(data.length);
+			}
+		}
+
+		logSize = data.length;
+		logRecords = records;
+		rewriteRequired = false;
+		clearPending();
+	}
+
+	private void clearPending() {
+		pending.reset();
+		pendingRecords = 0;
+	}
+
+	private static ByteBuffer header() {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+		return header;
+	}
+
+	private static void writeFully(SeekableByteChannel channel, ByteBuffer data) throws IOException {
+		while(data.hasRemaining()) {
+			channel.write(data);
+		}
+	}
+
+	/**
+	 * Encodes a single record. A {@code null} value denotes removal of the key.
+	 * Layout: type (1 byte), key length (4 bytes), key (UTF-8), [value length (4 bytes),
+	 * value (UTF-8)], CRC32 of all the preceding bytes of the record (4 bytes)
+	 */
+	private static void writeRecord(DataOutputStream out, String key, String value) throws IOException {
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		byte[] valueBytes = value==null ? null : value.getBytes(StandardCharsets.UTF_8);
+
+		CRC32 crc = new CRC32();
+		byte type = valueBytes==null ? RECORD_REMOVE : RECORD_PUT;
+		crc.update(type);
+		updateInt(crc, keyBytes.length);
+		crc.update(keyBytes);
+		if(valueBytes!=null) {
+			updateInt(crc, valueBytes.length);
+			crc.update(valueBytes);
+		}
+
+		out.writeByte(type);
+		out.writeInt(keyBytes.length);
+		out.write(keyBytes);
+		if(valueBytes!=null) {
+			out.writeInt(valueBytes.length);
+			out.write(valueBytes);
+		}
+		out.writeInt((int) crc.getValue());
+	}
+
+	private static void updateInt(CRC32 crc, int v) {
+		crc.update(v >>> 24);
+		crc.update(v >>> 16);
+		crc.update(v >>> 8);
+		crc.update(v);
+	}
+
+	/**
+	 * Replaces the current content of this registry with the data
+	 * stored in the backing resource.
+	 */
+	public synchronized void load() throws IOException {
+		entries.clear();
+		clearPending();
+		logSize = 0;
+		logRecords = 0;
+		rewriteRequired = false;
+
+		resource.prepare();
+		if(resource.size()==0) {
+			return;
+		}
+
+		try(SeekableByteChannel channel = resource.getReadChannel()) {
+			if(channel instanceof FileChannel) {
+				/*
+				 *  Map the file within a confined arena, so that the mapping gets
+				 *  released as soon as loading is done. A lingering mapping would
+				 *  prevent compact() from replacing the file on some platforms,
+				 *  most notably Windows.
+				 */
+				try(Arena arena = Arena.ofConfined()) {
+					MemorySegment segment = ((FileChannel)channel).map(
+							MapMode.READ_ONLY, 0, channel.size(), arena);
+					read(segment.asByteBuffer());
+				}
+			} else {
+				long size = channel.size();
+				if(size>Integer.MAX_VALUE)
+					throw new ModelException(GlobalErrorCode.INVALID_INPUT,
+							"Registry storage too large: "+size);
+				ByteBuffer data = ByteBuffer.allocate((int) size);
+				while(data.hasRemaining() && channel.read(data)!=-1) {
+					// keep reading
+				}
+				data.flip();
+				read(data);
+			}
+		}
+	}
+
+	/**
+	 * Reads the entire content of the given buffer. The buffer must not be
+	 * used anymore afterwards, as it might be a view of an unmapped file.
+	 */
+	private void read(ByteBuffer data) throws IOException {
+		if(data.remaining()>=HEADER_SIZE && data.getInt(0)==MAGIC) {
+			readLog(data);
+		} else {
+			importProperties(data);
+		}
+	}
+
+	private void readLog(ByteBuffer data) throws IOException {
+		data.position(Integer.BYTES);
+		int version = data.getInt();
+		if(version!=FORMAT_VERSION)
+			throw new IOException("Unsupported log format version: "+version);
+
+		long validEnd = data.position();
+		long records = 0;
+		CRC32 crc = new CRC32();
+
+		while(data.hasRemaining()) {
+			int start = data.position();
+			try {
+				byte type = data.get();
+				if(type!=RECORD_PUT && type!=RECORD_REMOVE) {
+					break;
+				}
+				String key = readString(data);
+				String value = type==RECORD_PUT ? readString(data) : null;
+				int end = data.position();
+				int checksum = data.getInt();
+
+				crc.reset();
+				ByteBuffer slice = data.duplicate();
+				slice.position(start).limit(end);
+				crc.update(slice);
+				if((int)crc.getValue()!=checksum) {
+					break;
+				}
+
+				if(value==null) {
+					entries.remove(key);
+				} else {
+					entries.put(key, value);
+				}
+				records++;
+				validEnd = data.position();
+			} catch(BufferUnderflowException | IllegalArgumentException e) {
+				break;
+			}
+		}
+
+		if(validEnd<data.limit()) {
+			log.warn("Discarding {} bytes of incomplete or damaged data at the end of {}",
+					Long.valueOf(data.limit()-validEnd), resource);
+		}
+
+		logSize = validEnd;
+		logRecords = records;
+	}
+
+	private static String readString(ByteBuffer data) {
+		int length = data.getInt();
+		if(length<0 || length>data.remaining())
+			throw new BufferUnderflowException();
+		byte[] bytes = new byte[length];
+		data.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Imports content stored in the {@link Properties} format, as written by
+	 * {@link PlainMetadataRegistry}, and schedules conversion to the log format.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void importProperties(ByteBuffer data) throws IOException {
+		Properties properties = new Properties();
+		properties.load(new StringReader(legacyEncoding.decode(data).toString()));
+
+		Map tmp = properties;
+		entries.putAll(tmp);
+
+		log.info("Migrating {} entries from properties format: {}",
+				Integer.valueOf(entries.size()), resource);
+		rewriteRequired = true;
+	}
+
+	@Override
+	public String getValue(String key) {
+		ensureLoaded();
+		return entries.get(key);
+	}
+
+	@Override
+	public synchronized void setValue(String key, String value) {
+		requireNonNull(key);
+		beginUpdate();
+		try {
+			if(value==null) {
+				entries.remove(key);
+			} else {
+				entries.put(key, value);
+			}
+
+			try {
+				writeRecord(pendingOut, key, value);
+			} catch (IOException e) {
+				// ByteArrayOutputStream does not throw, so this is truly unexpected
+				throw new ModelException(GlobalErrorCode.INTERNAL_ERROR, "Failed to encode log record", e);
+			}
+			pendingRecords++;
+		} finally {
+			endUpdate();
+		}
+	}
+
+	@Override
+	public synchronized void beginUpdate() {
+		ensureLoaded();
+
+		useCount++;
+	}
+
+	@Override
+	public synchronized void endUpdate() {
+		useCount--;
+
+		if(useCount==0) {
+			synchronize();
+		}
+	}
+
+	@Override
+	public synchronized void delete() {
+		useCount = 0;
+		entries.clear();
+		clearPending();
+		logSize = 0;
+		logRecords = 0;
+		rewriteRequired = false;
+
+		try {
+			resource.delete();
+		} catch (IOException e) {
+			throw new ModelException(GlobalErrorCode.IO_ERROR, "Failed to delete registry resource", e);
+		}
+	}
+
+	@Override
+	public void forEachEntry(BiConsumer<? super String, ? super String> action) {
+		ensureLoaded();
+
+		entries.forEach(action);
+	}
+
+	@Override
+	public boolean isPrefixIndexed() {
+		return true;
+	}
+
+	@Override
+	public void forEachEntry(String prefix,
+			BiConsumer<? super String, ? super String> action) {
+		ensureLoaded();
+
+		ConcurrentNavigableMap<String, String> range =
+				entries.subMap(prefix, true, prefix+Character.MAX_VALUE, true);
+		range.forEach(action);
+	}
+}
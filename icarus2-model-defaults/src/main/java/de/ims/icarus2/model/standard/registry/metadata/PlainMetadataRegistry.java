@@ -240,6 +240,14 @@ public class PlainMetadataRegistry implements MetadataRegistry {
 		entries.forEach(action);
 	}
 
+	/**
+	 * @see de.ims.icarus2.model.api.registry.MetadataRegistry#isPrefixIndexed()
+	 */
+	@Override
+	public boolean isPrefixIndexed() {
+		return true;
+	}
+
 	/**
 	 *
 	 *
@@ -84,6 +84,14 @@ public class VirtualMetadataRegistry implements MetadataRegistry {
 		entries.forEach(action);
 	}
 
+	/**
+	 * @see de.ims.icarus2.model.api.registry.MetadataRegistry#isPrefixIndexed()
+	 */
+	@Override
+	public boolean isPrefixIndexed() {
+		return true;
+	}
+
 	/**
 	 *
 	 *
@@ -33,6 +33,7 @@ import de.ims.icarus2.model.manifest.util.ManifestUtils;
 import de.ims.icarus2.model.standard.io.DefaultFileStructure;
 import de.ims.icarus2.model.standard.registry.metadata.Format;
 import de.ims.icarus2.model.standard.registry.metadata.JAXBMetadataRegistry;
+import de.ims.icarus2.model.standard.registry.metadata.LogStructuredMetadataRegistry;
 import de.ims.icarus2.model.standard.registry.metadata.PlainMetadataRegistry;
 import de.ims.icarus2.util.annotations.TestableImplementation;
 import de.ims.icarus2.util.io.resource.IOResource;
@@ -100,6 +101,7 @@ public abstract class CorpusCentralFileMetadataPolicy<O extends Object> implemen
 		switch (format) {
 		case PLAIN: return new PlainMetadataRegistry(resource);
 		case XML: return new JAXBMetadataRegistry(resource);
+		case LOG: return new LogStructuredMetadataRegistry(resource);
 		default:
 			throw new ModelException(GlobalErrorCode.INTERNAL_ERROR, "Unknown format type: "+format);
 		}
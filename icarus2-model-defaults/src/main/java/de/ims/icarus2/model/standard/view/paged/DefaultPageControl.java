@@ -25,12 +25,19 @@ import static java.util.Objects.requireNonNull;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.Nullable;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
@@ -56,12 +63,25 @@ import de.ims.icarus2.model.manifest.util.Messages;
 import de.ims.icarus2.util.AbstractBuilder;
 import de.ims.icarus2.util.AbstractPart;
 import de.ims.icarus2.util.annotations.TestableImplementation;
+import de.ims.icarus2.util.concurrent.ExecutionUtil;
 import de.ims.icarus2.util.mem.Assessable;
 import de.ims.icarus2.util.mem.Link;
 import de.ims.icarus2.util.mem.ReferenceType;
 import de.ims.icarus2.util.strings.NamedObject;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 
 /**
+ * Default implementation of {@link PageControl}.
+ * <p>
+ * Optionally the control can be configured to {@link Builder#prefetchNext(int) prefetch}
+ * a number of pages before and/or after the current one in the background. Prefetched
+ * pages are loaded through the regular {@link ItemLayerManager#load(IndexSet[], ItemLayer) load}
+ * mechanism and therefore hold references to their items until they fall out of the
+ * prefetch window, at which point they get {@link ItemLayerManager#release(IndexSet[], ItemLayer) released}
+ * again. Switching to a page that has already been prefetched only needs to acquire
+ * the already loaded items.
+ *
  * @author Markus Gärtner
  *
  */
@@ -69,6 +89,8 @@ import de.ims.icarus2.util.strings.NamedObject;
 @Assessable
 public class DefaultPageControl extends AbstractPart<PagedCorpusView> implements PageControl {
 
+	private static final Logger log = LoggerFactory.getLogger(DefaultPageControl.class);
+
 	public static Builder builder() {
 		return new Builder();
 	}
@@ -92,6 +114,18 @@ public class DefaultPageControl extends AbstractPart<PagedCorpusView> implements
 	@de.ims.icarus2.util.mem.Reference(ReferenceType.DOWNLINK)
 	protected final List<PageListener> pageListeners = new CopyOnWriteArrayList<>();
 
+	/** Number of pages after the current one to prefetch */
+	protected final int prefetchNext;
+	/** Number of pages before the current one to prefetch */
+	protected final int prefetchPrevious;
+	/** Executor for background loading of prefetched pages */
+	@Link
+	protected final Executor prefetchExecutor;
+
+	/** Active prefetch tasks, mapped by page index. Guarded by {@link #lock}. */
+	@de.ims.icarus2.util.mem.Reference(ReferenceType.DOWNLINK)
+	protected final Int2ObjectMap<PrefetchTask> prefetchTasks = new Int2ObjectOpenHashMap<>();
+
 	protected DefaultPageControl(Builder builder) {
 		requireNonNull(builder);
 
@@ -122,6 +156,22 @@ public class DefaultPageControl extends AbstractPart<PagedCorpusView> implements
 		}
 
 		this.indexSetCache = indexSetCache;
+
+		prefetchNext = builder.getPrefetchNext();
+		prefetchPrevious = builder.getPrefetchPrevious();
+
+		Executor prefetchExecutor = builder.getPrefetchExecutor();
+		if(prefetchExecutor==null && isPrefetching()) {
+			prefetchExecutor = ExecutionUtil::execute;
+		}
+		this.prefetchExecutor = prefetchExecutor;
+	}
+
+	/**
+	 * Returns whether this control loads neighboring pages in the background.
+	 */
+	public boolean isPrefetching() {
+		return prefetchNext>0 || prefetchPrevious>0;
 	}
 
 	protected IndexSet loadIndices(int pageIndex) {
@@ -253,8 +303,15 @@ public class DefaultPageControl extends AbstractPart<PagedCorpusView> implements
 			if(indices==null)
 				throw new ModelException(GlobalErrorCode.MISSING_DATA, "No valid IndexSet available for page: "+pageIndex);
 
+			// Make sure we don't duplicate I/O for a page that is currently being prefetched
+			awaitPrefetch(pageIndex);
+
 			loadPage0(pageIndex, indices);
 
+			if(isPrefetching()) {
+				updatePrefetchWindow(pageIndex);
+			}
+
 		} finally {
 			lock.unlock();
 		}
@@ -349,6 +406,94 @@ public class DefaultPageControl extends AbstractPart<PagedCorpusView> implements
 		firePageLoaded(pageIndex, size);
 	}
 
+	/**
+	 * Waits for a pending prefetch of the given page to finish. Failed or
+	 * cancelled prefetches are ignored, as the regular loading will take care
+	 * of the page in that case.
+	 * <p>
+	 * Must be called under lock!
+	 *
+	 * @throws InterruptedException
+	 */
+	protected void awaitPrefetch(int pageIndex) throws InterruptedException {
+		PrefetchTask task = prefetchTasks.get(pageIndex);
+		if(task!=null && !task.isDone()) {
+			task.await();
+		}
+	}
+
+	/**
+	 * Releases all prefetched pages that fall outside the window around the given
+	 * page and schedules the loading of all pages inside the window that are not
+	 * yet present.
+	 * <p>
+	 * Must be called under lock!
+	 */
+	protected void updatePrefetchWindow(int pageIndex) {
+		final int first = Math.max(0, pageIndex-prefetchPrevious);
+		final int last = Math.min(pageBuffer.getPageCount()-1, pageIndex+prefetchNext);
+
+		// Discard everything outside the window (including the new current page)
+		prefetchTasks.int2ObjectEntrySet().removeIf(entry -> {
+			int page = entry.getIntKey();
+			if(page<first || page>last || page==pageIndex) {
+				entry.getValue().discard();
+				return true;
+			}
+			return false;
+		});
+
+		final ItemLayer layer = getPrimaryLayer();
+
+		// Prefetch in order of likely access: next pages first, then previous ones
+		for (int page = pageIndex+1; page <= last; page++) {
+			schedulePrefetch(page, layer);
+		}
+		for (int page = pageIndex-1; page >= first; page--) {
+			schedulePrefetch(page, layer);
+		}
+	}
+
+	private void schedulePrefetch(int pageIndex, ItemLayer layer) {
+		if(prefetchTasks.containsKey(pageIndex)) {
+			return;
+		}
+
+		IndexSet indices = loadIndices(pageIndex);
+		if(indices==null) {
+			return;
+		}
+
+		PrefetchTask task = new PrefetchTask(pageIndex, indices, layer);
+		prefetchTasks.put(pageIndex, task);
+		prefetchExecutor.execute(task.future);
+	}
+
+	/**
+	 * Cancels all pending prefetch operations and releases all pages
+	 * that have been prefetched so far.
+	 */
+	protected void discardPrefetchedPages() {
+		lock.lock();
+		try {
+			prefetchTasks.values().forEach(PrefetchTask::discard);
+			prefetchTasks.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Discards all prefetched pages before detaching from the view.
+	 *
+	 * @see de.ims.icarus2.util.AbstractPart#removeNotify(java.lang.Object)
+	 */
+	@Override
+	public void removeNotify(PagedCorpusView owner) {
+		discardPrefetchedPages();
+		super.removeNotify(owner);
+	}
+
 	/**
 	 * @see de.ims.icarus2.model.api.view.paged.PagedCorpusView.PageControl#isPageLoaded()
 	 */
@@ -434,6 +579,113 @@ public class DefaultPageControl extends AbstractPart<PagedCorpusView> implements
 		}
 	}
 
+	/**
+	 * Background loading of a single page. The task holds a reference on the
+	 * page's items from the moment loading finishes until it gets
+	 * {@link #discard() discarded}.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	protected class PrefetchTask implements Callable<Void> {
+
+		private final int pageIndex;
+		private final IndexSet indices;
+		private final ItemLayer layer;
+
+		/** Handle for the executor, allows pending loads to be cancelled before they start */
+		private final FutureTask<Void> future;
+
+		/** Items of the page are loaded and have not been released yet. Guarded by this task. */
+		private boolean loaded = false;
+		/** Task got discarded and must not keep any loaded items. Guarded by this task. */
+		private boolean discarded = false;
+
+		PrefetchTask(int pageIndex, IndexSet indices, ItemLayer layer) {
+			this.pageIndex = pageIndex;
+			this.indices = requireNonNull(indices);
+			this.layer = requireNonNull(layer);
+			future = new FutureTask<>(this);
+		}
+
+		public int getPageIndex() {
+			return pageIndex;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			synchronized (this) {
+				if(discarded) {
+					return null;
+				}
+			}
+
+			try {
+				itemLayerManager.load(IndexUtils.wrap(indices), layer);
+			} catch (IcarusApiException | RuntimeException e) {
+				log.warn("Failed to prefetch page {}", _int(pageIndex), e);
+				throw e;
+			}
+
+			boolean release;
+			synchronized (this) {
+				release = discarded;
+				loaded = !discarded;
+			}
+
+			// Window moved on while we were loading, the discarding thread left the cleanup to us
+			if(release) {
+				releaseItems();
+			}
+
+			return null;
+		}
+
+		boolean isDone() {
+			return future.isDone();
+		}
+
+		void await() throws InterruptedException {
+			try {
+				future.get();
+			} catch (ExecutionException | CancellationException e) {
+				// Failure has already been logged by the task itself
+			}
+		}
+
+		/**
+		 * Cancels this task if it hasn't started yet and releases any
+		 * items it already loaded. A load that is still in progress is
+		 * not interrupted, since that could leave partially acquired
+		 * items behind. Instead the task releases the page itself once
+		 * loading completes.
+		 */
+		void discard() {
+			boolean release;
+			synchronized (this) {
+				discarded = true;
+				release = loaded;
+				loaded = false;
+			}
+
+			if(release) {
+				releaseItems();
+			} else {
+				future.cancel(false);
+			}
+		}
+
+		private void releaseItems() {
+			try {
+				itemLayerManager.release(IndexUtils.wrap(indices), layer);
+			} catch (IcarusApiException | RuntimeException e) {
+				log.warn("Failed to release prefetched page {}", _int(pageIndex), e);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
 	/**
 	 *
 	 * @author Markus Gärtner
@@ -601,6 +853,9 @@ public class DefaultPageControl extends AbstractPart<PagedCorpusView> implements
 		private Cache<Integer, IndexSet> indexSetCache;
 		private int indexCacheSize;
 		private int pageSize;
+		private int prefetchNext;
+		private int prefetchPrevious;
+		private Executor prefetchExecutor;
 
 		protected Builder() {
 			// no-op
@@ -702,6 +957,64 @@ public class DefaultPageControl extends AbstractPart<PagedCorpusView> implements
 			return pageSize;
 		}
 
+		/**
+		 * Number of pages following the current one that should be
+		 * loaded in the background.
+		 */
+		@Guarded(methodType=MethodType.BUILDER)
+		public Builder prefetchNext(int prefetchNext) {
+			checkArgument(prefetchNext>0);
+			checkState(this.prefetchNext==0);
+
+			this.prefetchNext = prefetchNext;
+
+			return thisAsCast();
+		}
+
+		@Guarded(methodType=MethodType.GETTER, defaultValue="0")
+		public int getPrefetchNext() {
+			return prefetchNext;
+		}
+
+		/**
+		 * Number of pages preceding the current one that should be
+		 * loaded in the background.
+		 */
+		@Guarded(methodType=MethodType.BUILDER)
+		public Builder prefetchPrevious(int prefetchPrevious) {
+			checkArgument(prefetchPrevious>0);
+			checkState(this.prefetchPrevious==0);
+
+			this.prefetchPrevious = prefetchPrevious;
+
+			return thisAsCast();
+		}
+
+		@Guarded(methodType=MethodType.GETTER, defaultValue="0")
+		public int getPrefetchPrevious() {
+			return prefetchPrevious;
+		}
+
+		/**
+		 * Executor to run background loading of prefetched pages. If not set,
+		 * the shared {@link ExecutionUtil} pool will be used.
+		 */
+		@Guarded(methodType=MethodType.BUILDER)
+		public Builder prefetchExecutor(Executor prefetchExecutor) {
+			requireNonNull(prefetchExecutor);
+			checkState(this.prefetchExecutor==null);
+
+			this.prefetchExecutor = prefetchExecutor;
+
+			return thisAsCast();
+		}
+
+		@Guarded(methodType=MethodType.GETTER)
+		@Nullable
+		public Executor getPrefetchExecutor() {
+			return prefetchExecutor;
+		}
+
 		@Override
 		protected void validate() {
 			checkState("Missing item layer manager", itemLayerManager!=null);
@@ -0,0 +1,321 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.model.standard.corpus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import de.ims.icarus2.GlobalErrorCode;
+import de.ims.icarus2.IcarusApiException;
+import de.ims.icarus2.model.api.ModelErrorCode;
+import de.ims.icarus2.model.api.ModelException;
+import de.ims.icarus2.model.api.corpus.Context;
+import de.ims.icarus2.model.api.corpus.Corpus;
+import de.ims.icarus2.model.api.driver.Driver;
+import de.ims.icarus2.model.api.registry.CorpusManager;
+import de.ims.icarus2.model.api.registry.CorpusMemberFactory;
+import de.ims.icarus2.model.api.registry.MetadataRegistry;
+import de.ims.icarus2.model.manifest.ManifestErrorCode;
+import de.ims.icarus2.model.manifest.api.ContextManifest;
+import de.ims.icarus2.model.manifest.api.ContextManifest.PrerequisiteManifest;
+import de.ims.icarus2.model.manifest.api.CorpusManifest;
+import de.ims.icarus2.model.manifest.api.DriverManifest;
+import de.ims.icarus2.model.manifest.api.ImplementationLoader;
+import de.ims.icarus2.model.manifest.api.ImplementationManifest;
+import de.ims.icarus2.model.manifest.api.ManifestRegistry;
+import de.ims.icarus2.util.AccumulatingException;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class DefaultCorpusTest {
+
+	private CorpusManager manager;
+	private CorpusManifest manifest;
+	private ExecutorService executor;
+
+	private final List<ContextManifest> rootContexts = new ArrayList<>();
+	private final List<ContextManifest> customContexts = new ArrayList<>();
+	private final Map<ContextManifest, Driver> drivers = new HashMap<>();
+
+	/** Hands out the drivers registered for the context manifest in the environment */
+	private class TestLoader extends ImplementationLoader<TestLoader> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public <T> T instantiate(Class<T> resultClass) {
+			return resultClass.cast(drivers.get(getEnvironment(ContextManifest.class)));
+		}
+
+		@Override
+		public <T> T instantiate(Class<T> resultClass, Object... arguments) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Class<?> loadClass() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	@SuppressWarnings("boxing")
+	@BeforeEach
+	void setUp() {
+		CorpusMemberFactory factory = mock(CorpusMemberFactory.class);
+		when(factory.newImplementationLoader()).thenAnswer(invoc -> new TestLoader());
+
+		manager = mock(CorpusManager.class);
+		when(manager.newFactory()).thenReturn(factory);
+		when(manager.isCorpusConnected(any())).thenReturn(true);
+
+		manifest = mock(CorpusManifest.class);
+		when(manifest.getRegistry()).thenReturn(mock(ManifestRegistry.class));
+		when(manifest.getRootContextManifests()).thenReturn(rootContexts);
+		when(manifest.getCustomContextManifests()).thenReturn(customContexts);
+
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	private Corpus create() {
+		return DefaultCorpus.builder()
+				.manager(manager)
+				.manifest(manifest)
+				.metadataRegistry(mock(MetadataRegistry.class))
+				.connectExecutor(executor)
+				.build();
+	}
+
+	/** Creates a context with the given dependencies and a driver that executes {@code action} when connecting */
+	private Driver context(boolean root, String id, ConnectAction action, String...dependencies) throws Exception {
+		List<PrerequisiteManifest> prerequisites = new ArrayList<>();
+		for (String dependency : dependencies) {
+			PrerequisiteManifest prerequisite = mock(PrerequisiteManifest.class);
+			when(prerequisite.getContextId()).thenReturn(Optional.of(dependency));
+			prerequisites.add(prerequisite);
+		}
+
+		DriverManifest driverManifest = mock(DriverManifest.class);
+		when(driverManifest.getImplementationManifest()).thenReturn(
+				Optional.of(mock(ImplementationManifest.class)));
+
+		ContextManifest contextManifest = mock(ContextManifest.class);
+		when(contextManifest.getId()).thenReturn(Optional.of(id));
+		when(contextManifest.getPrerequisites()).thenReturn(prerequisites);
+		when(contextManifest.getDriverManifest()).thenReturn(Optional.of(driverManifest));
+
+		// Events for the new context are only accepted for the hosting corpus
+		AtomicReference<Corpus> target = new AtomicReference<>();
+		Context context = mock(Context.class);
+		when(context.getCorpus()).thenAnswer(invoc -> target.get());
+		Driver driver = mock(Driver.class);
+		when(driver.getContext()).thenReturn(context);
+		doAnswer(invoc -> {
+			target.set(invoc.getArgument(0));
+			action.connect();
+			return null;
+		}).when(driver).connect(any());
+
+		drivers.put(contextManifest, driver);
+		(root ? rootContexts : customContexts).add(contextManifest);
+
+		return driver;
+	}
+
+	@FunctionalInterface
+	private interface ConnectAction {
+		void connect() throws Exception;
+	}
+
+	private static AccumulatingException assertConnectFails(Corpus corpus) {
+		ModelException ex = assertThrows(ModelException.class, corpus::connectAll);
+		assertEquals(ModelErrorCode.DRIVER_CONNECTION, ex.getErrorCode());
+		assertThat(ex.getCause()).isInstanceOf(AccumulatingException.class);
+		return (AccumulatingException) ex.getCause();
+	}
+
+	@Nested
+	class ConnectAll {
+
+		@Test
+		void testSingleContext() throws Exception {
+			Driver driver = context(true, "root", () -> {/* no-op */});
+			create().connectAll();
+			verify(driver).connect(any(Corpus.class));
+		}
+
+		@Test
+		void testDependenciesFirst() throws Exception {
+			List<String> connected = Collections.synchronizedList(new ArrayList<>());
+			// Slow down the base contexts so that a premature start of their dependents would show
+			context(false, "c", () -> connected.add("c"), "b");
+			context(false, "b", () -> {
+				Thread.sleep(50);
+				connected.add("b");
+			}, "root");
+			context(true, "root", () -> {
+				Thread.sleep(50);
+				connected.add("root");
+			});
+			context(false, "d", () -> connected.add("d"), "root", "c");
+
+			create().connectAll();
+
+			assertEquals(Arrays.asList("root", "b", "c", "d"), connected);
+		}
+
+		@Test
+		void testIndependentContextsOverlap() throws Exception {
+			CountDownLatch running = new CountDownLatch(3);
+			ConnectAction action = () -> {
+				running.countDown();
+				// Only succeeds if all three drivers are connecting at the same time
+				if(!running.await(5, TimeUnit.SECONDS))
+					throw new IcarusApiException(GlobalErrorCode.ILLEGAL_STATE, "No overlap");
+			};
+			context(true, "a", action);
+			context(true, "b", action);
+			context(false, "c", action);
+
+			create().connectAll();
+
+			assertEquals(0, running.getCount());
+		}
+
+		@Test
+		void testConnectFromExecutorThread() throws Exception {
+			Driver a = context(true, "a", () -> {/* no-op */});
+			Driver b = context(false, "b", () -> {/* no-op */}, "a");
+			Driver c = context(false, "c", () -> {/* no-op */});
+
+			ExecutorService single = Executors.newSingleThreadExecutor();
+			try {
+				Corpus corpus = DefaultCorpus.builder()
+						.manager(manager)
+						.manifest(manifest)
+						.metadataRegistry(mock(MetadataRegistry.class))
+						.connectExecutor(single)
+						.build();
+
+				// The only worker is busy connecting, so queued connections can never run on it
+				single.submit(corpus::connectAll).get(5, TimeUnit.SECONDS);
+			} finally {
+				single.shutdownNow();
+			}
+
+			verify(a).connect(any(Corpus.class));
+			verify(b).connect(any(Corpus.class));
+			verify(c).connect(any(Corpus.class));
+		}
+
+		@Test
+		void testCycle() throws Exception {
+			Driver root = context(true, "root", () -> {/* no-op */});
+			Driver a = context(false, "a", () -> {/* no-op */}, "b");
+			Driver b = context(false, "b", () -> {/* no-op */}, "a");
+			Driver c = context(false, "c", () -> {/* no-op */}, "b");
+
+			AccumulatingException ex = assertConnectFails(create());
+
+			assertEquals(1, ex.getExceptionCount());
+			assertThat(ex.getExceptionAt(0)).isInstanceOf(ModelException.class);
+			assertEquals(ManifestErrorCode.MANIFEST_CORRUPTED_STATE,
+					((ModelException)ex.getExceptionAt(0)).getErrorCode());
+
+			verify(root).connect(any(Corpus.class));
+			verify(a, never()).connect(any(Corpus.class));
+			verify(b, never()).connect(any(Corpus.class));
+			verify(c, never()).connect(any(Corpus.class));
+		}
+
+		@Test
+		void testFailingDrivers() throws Exception {
+			ConnectAction fail = () -> {
+				throw new IcarusApiException(GlobalErrorCode.INTERNAL_ERROR, "broken driver");
+			};
+			context(true, "a", fail);
+			context(true, "b", fail);
+			Driver c = context(false, "c", () -> {/* no-op */}, "a");
+			Driver d = context(false, "d", () -> {/* no-op */});
+
+			AccumulatingException ex = assertConnectFails(create());
+
+			assertEquals(2, ex.getExceptionCount());
+			for (int i = 0; i < ex.getExceptionCount(); i++) {
+				assertEquals(ModelErrorCode.DRIVER_CONNECTION,
+						((ModelException)ex.getExceptionAt(i)).getErrorCode());
+			}
+
+			verify(c, never()).connect(any(Corpus.class));
+			verify(d).connect(any(Corpus.class));
+		}
+
+		@Test
+		void testInterrupted() throws Exception {
+			context(true, "a", () -> {/* no-op */});
+			context(true, "b", () -> {/* no-op */});
+			Corpus corpus = DefaultCorpus.builder()
+					.manager(manager)
+					.manifest(manifest)
+					.metadataRegistry(mock(MetadataRegistry.class))
+					// Never runs any connection
+					.connectExecutor(task -> {/* no-op */})
+					.build();
+
+			Thread.currentThread().interrupt();
+			try {
+				ModelException ex = assertThrows(ModelException.class, corpus::connectAll);
+				assertEquals(GlobalErrorCode.INTERRUPTED, ex.getErrorCode());
+				assertTrue(Thread.currentThread().isInterrupted());
+			} finally {
+				Thread.interrupted();
+			}
+		}
+	}
+}
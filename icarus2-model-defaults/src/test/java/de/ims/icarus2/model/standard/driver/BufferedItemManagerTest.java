@@ -17,13 +17,28 @@
 package de.ims.icarus2.model.standard.driver;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.LongStream;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import de.ims.icarus2.model.api.members.item.Item;
 import de.ims.icarus2.model.standard.driver.BufferedItemManager.Builder;
+import de.ims.icarus2.model.standard.driver.BufferedItemManager.LayerBuffer;
+import de.ims.icarus2.model.standard.driver.cache.TrackedMember;
+import de.ims.icarus2.model.standard.driver.cache.TrackedMember.TrackedItem;
 import de.ims.icarus2.test.TestSettings;
 import de.ims.icarus2.util.BuilderTest;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
 
 /**
  * @author Markus Gärtner
@@ -41,6 +56,98 @@ class BufferedItemManagerTest {
 
 	//TODO add tests for the main implementation
 
+	@Nested
+	class ForLayerBuffer {
+
+		private final Long2ObjectMap<Item> disposed = new Long2ObjectOpenHashMap<>();
+
+		private LayerBuffer create(int limit) {
+			return new LayerBuffer(100, true, limit, (item, index) -> disposed.put(index, item));
+		}
+
+		private Item[] fill(LayerBuffer buffer, int count) {
+			Item[] items = new Item[count];
+			for (int i = 0; i < count; i++) {
+				items[i] = new TrackedItem();
+				buffer.addAndTrack(items[i], i);
+			}
+			return items;
+		}
+
+		@Test
+		void testEmpty() {
+			LayerBuffer buffer = create(BufferedItemManager.UNBOUNDED);
+			assertTrue(buffer.isEmpty());
+			assertEquals(0, buffer.size());
+			assertNull(buffer.fetch(1));
+		}
+
+		@Test
+		void testUnboundedReleaseDisposes() {
+			LayerBuffer buffer = create(BufferedItemManager.UNBOUNDED);
+			assertFalse(buffer.isBounded());
+			Item[] items = fill(buffer, 10);
+
+			buffer.release(LongStream.range(0, 10).iterator());
+
+			assertTrue(buffer.isEmpty());
+			assertEquals(10, disposed.size());
+			for (int i = 0; i < items.length; i++) {
+				assertSame(items[i], disposed.get(i));
+			}
+		}
+
+		@Test
+		void testBoundedRetainsReleasedItems() {
+			LayerBuffer buffer = create(1000);
+			assertTrue(buffer.isBounded());
+			Item[] items = fill(buffer, 10);
+
+			buffer.release(LongStream.range(0, 10).iterator());
+
+			assertEquals(10, buffer.size());
+			assertTrue(disposed.isEmpty());
+
+			LongList missing = new LongArrayList();
+			buffer.load(LongStream.range(0, 10).iterator(),
+					(item, index) -> assertSame(items[(int)index], item), missing::add);
+			assertTrue(missing.isEmpty());
+			for (Item item : items) {
+				assertEquals(1, ((TrackedMember)item).getUseCounter());
+			}
+		}
+
+		@Test
+		void testBoundedNeverEvictsPinnedItems() {
+			LayerBuffer buffer = create(16);
+			fill(buffer, 100);
+
+			assertEquals(100, buffer.size());
+			assertTrue(disposed.isEmpty());
+		}
+
+		@Test
+		void testBoundedEvictsUnusedItems() {
+			LayerBuffer buffer = create(16);
+			fill(buffer, 200);
+
+			buffer.release(LongStream.range(0, 200).iterator());
+
+			int size = buffer.size();
+			assertThat(size).isLessThanOrEqualTo(16);
+			assertEquals(200-size, disposed.size());
+			disposed.keySet().forEach(index -> assertNull(buffer.fetch(index)));
+		}
+
+		@Test
+		void testClear() {
+			LayerBuffer buffer = create(BufferedItemManager.UNBOUNDED);
+			fill(buffer, 10);
+			buffer.clear();
+			assertTrue(buffer.isEmpty());
+		}
+	}
+
 	@Nested
 	class ForBuilder implements BuilderTest<BufferedItemManager, BufferedItemManager.Builder> {
 
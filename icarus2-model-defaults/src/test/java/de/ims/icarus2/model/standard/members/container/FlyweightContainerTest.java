@@ -0,0 +1,217 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.model.standard.members.container;
+
+import static de.ims.icarus2.model.api.ModelTestUtils.assertModelException;
+import static de.ims.icarus2.model.api.ModelTestUtils.mockContainer;
+import static de.ims.icarus2.model.api.ModelTestUtils.mockItem;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import de.ims.icarus2.model.api.ModelErrorCode;
+import de.ims.icarus2.model.api.members.container.Container;
+import de.ims.icarus2.model.api.members.item.Item;
+import de.ims.icarus2.model.manifest.api.ContainerManifest;
+import de.ims.icarus2.model.manifest.api.ContainerType;
+import de.ims.icarus2.model.standard.members.container.FlyweightContainer.FlyweightItem;
+import de.ims.icarus2.util.IcarusUtils;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class FlyweightContainerTest {
+
+	private Container host, itemHost;
+	private FlyweightContainer container;
+
+	@BeforeEach
+	void setUp() {
+		host = mockContainer();
+		itemHost = mockContainer();
+		container = new FlyweightContainer(mock(ContainerManifest.class), host, itemHost);
+	}
+
+	@Test
+	void testDefaults() {
+		assertEquals(ContainerType.LIST, container.getContainerType());
+		assertEquals(0, container.getItemCount());
+		assertTrue(container.isItemsComplete());
+		assertTrue(container.getBaseContainers().isEmpty());
+		assertFalse(container.isAlive());
+		assertSame(host, container.getContainer());
+	}
+
+	@Nested
+	class Contiguous {
+
+		@BeforeEach
+		void setUp() {
+			container.reset(7, 100, 5);
+		}
+
+		@Test
+		void testItems() {
+			assertEquals(7, container.getIndex());
+			assertEquals(5, container.getItemCount());
+			for (int i = 0; i < 5; i++) {
+				Item item = container.getItemAt(i);
+				assertThat(item).isInstanceOf(FlyweightItem.class);
+				assertEquals(100+i, item.getIndex());
+				assertSame(itemHost, item.getContainer());
+				assertEquals(i, container.indexOfItem(item));
+			}
+			assertEquals(100, container.getBeginOffset());
+			assertEquals(104, container.getEndOffset());
+		}
+
+		@Test
+		void testOutOfBounds() {
+			assertModelException(ModelErrorCode.MODEL_INDEX_OUT_OF_BOUNDS,
+					() -> container.getItemAt(5));
+			assertModelException(ModelErrorCode.MODEL_INDEX_OUT_OF_BOUNDS,
+					() -> container.getItemAt(-1));
+		}
+
+		@SuppressWarnings("boxing")
+		@Test
+		void testIndexOfForeignItem() {
+			Item inside = mockItem();
+			when(inside.getIndex()).thenReturn(103L);
+			Item outside = mockItem();
+			when(outside.getIndex()).thenReturn(105L);
+
+			assertEquals(3, container.indexOfItem(inside));
+			assertEquals(IcarusUtils.UNSET_LONG, container.indexOfItem(outside));
+		}
+
+		@Test
+		void testReuse() {
+			Item item = container.getItemAt(2);
+			container.reset(8, 200, 3);
+			assertSame(item, container.getItemAt(2));
+			assertEquals(202, item.getIndex());
+		}
+
+		@Test
+		void testShrinkInvalidatesFlyweights() {
+			Item item = container.getItemAt(4);
+			container.reset(8, 200, 3);
+			assertFalse(item.isAlive());
+			assertEquals(IcarusUtils.UNSET_LONG, container.indexOfItem(item));
+		}
+
+		@Test
+		void testCopyItems() {
+			Item[] buffer = new Item[6];
+			container.copyItems(buffer);
+			for (int i = 0; i < 5; i++) {
+				assertSame(container.getItemAt(i), buffer[i]);
+			}
+			assertThat(buffer[5]).isNull();
+		}
+	}
+
+	@Nested
+	class Indexed {
+
+		@BeforeEach
+		void setUp() {
+			container.reset(1, new long[] {4, 9, 12, 30}, 3);
+		}
+
+		@Test
+		void testItems() {
+			assertEquals(3, container.getItemCount());
+			assertEquals(4, container.getItemAt(0).getIndex());
+			assertEquals(9, container.getItemAt(1).getIndex());
+			assertEquals(12, container.getItemAt(2).getIndex());
+		}
+
+		@SuppressWarnings("boxing")
+		@Test
+		void testIndexOfForeignItem() {
+			Item inside = mockItem();
+			when(inside.getIndex()).thenReturn(12L);
+			Item outside = mockItem();
+			when(outside.getIndex()).thenReturn(30L);
+
+			assertEquals(2, container.indexOfItem(inside));
+			assertEquals(IcarusUtils.UNSET_LONG, container.indexOfItem(outside));
+		}
+	}
+
+	@Nested
+	class Columns {
+
+		@BeforeEach
+		void setUp() {
+			container.reset(0, 0, 3);
+		}
+
+		@Test
+		void testNoColumns() {
+			assertFalse(container.hasColumn(0));
+			assertFalse(container.hasHeads());
+		}
+
+		@Test
+		void testHeads() {
+			container.setHeads(new int[] {1, -1, 1});
+			assertTrue(container.hasHeads());
+			assertEquals(1, container.getHead(0));
+			assertEquals(-1, container.getHead(1));
+		}
+
+		@SuppressWarnings("boxing")
+		@Test
+		void testTypedColumns() {
+			container.setColumn(0, new String[] {"a", "b", "c"});
+			container.setColumn(1, new long[] {1, 2, 3});
+			container.setColumn(2, new double[] {0.5, 1.5, 2.5});
+			container.setColumn(4, new boolean[] {true, false, true});
+
+			assertTrue(container.hasColumn(0));
+			assertFalse(container.hasColumn(3));
+
+			assertEquals("b", container.getValue(0, 1));
+			assertEquals(3L, container.getLong(1, 2));
+			assertEquals(2L, container.getValue(1, 1));
+			assertEquals(1.5, container.getDouble(2, 1));
+			assertEquals(3.0, container.getDouble(1, 2));
+			assertFalse(container.getBoolean(4, 1));
+		}
+
+		@Test
+		void testResetClearsColumns() {
+			container.setColumn(0, new int[] {1, 2, 3});
+			container.setHeads(new int[] {-1, 0, 0});
+			container.reset(1, 3, 3);
+			assertFalse(container.hasColumn(0));
+			assertFalse(container.hasHeads());
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.ims.icarus2.model.standard.members.container;
+
+import static de.ims.icarus2.SharedTestUtils.mockSet;
+import static de.ims.icarus2.model.api.ModelTestUtils.mockContainer;
+import static de.ims.icarus2.model.api.ModelTestUtils.mockItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import de.ims.icarus2.model.api.members.container.Container;
+import de.ims.icarus2.model.api.members.item.Item;
+import de.ims.icarus2.model.standard.members.container.ItemStorage.LookupCost;
+
+/**
+ * Tests the index lookup of {@link SpanItemStorage} and the cost it reports
+ * for the direct computation and the fallback to the target container.
+ * Kept separate from the postponed {@link SpanItemStorageTest}.
+ *
+ * @author Markus Gärtner
+ *
+ */
+class SpanItemStorageLookupTest {
+
+	private static Container context(Container target) {
+		Container context = mockContainer();
+		when(context.getBaseContainers()).thenReturn(mockSet(target));
+		return context;
+	}
+
+	/** Creates a storage spanning items {@code 2} to {@code 5} of the target */
+	private static SpanItemStorage storage() {
+		return new SpanItemStorage(2, 5);
+	}
+
+	@SuppressWarnings("boxing")
+	private static Item item(Container target, long index) {
+		Item item = mockItem();
+		when(item.getIndex()).thenReturn(index);
+		when(target.getItemAt(index)).thenReturn(item);
+		return item;
+	}
+
+	@Nested
+	class ForProxyTarget {
+
+		@SuppressWarnings("boxing")
+		@Test
+		void testDirectLookup() {
+			Container target = mockContainer();
+			when(target.isProxy()).thenReturn(true);
+			Container context = context(target);
+			SpanItemStorage storage = storage();
+
+			Item item = item(target, 3);
+
+			assertEquals(LookupCost.CONSTANT, storage.getLookupCost(context));
+			assertEquals(1, storage.indexOfItem(context, item));
+			verify(target, never()).indexOfItem(any());
+		}
+	}
+
+	@Nested
+	class ForRegularTarget {
+
+		@SuppressWarnings("boxing")
+		@Test
+		void testFallbackLookup() {
+			DefaultContainer target = mock(DefaultContainer.class);
+			when(target.getLookupCost()).thenReturn(LookupCost.LOGARITHMIC);
+			Container context = context(target);
+			SpanItemStorage storage = storage();
+
+			// Index of the item does not denote its position within the target
+			Item item = mockItem();
+			when(item.getIndex()).thenReturn(100L);
+			when(target.indexOfItem(item)).thenReturn(4L);
+
+			assertEquals(LookupCost.LOGARITHMIC, storage.getLookupCost(context));
+			assertEquals(2, storage.indexOfItem(context, item));
+			verify(target).indexOfItem(item);
+		}
+
+		@Test
+		void testUnknownTargetCost() {
+			Container target = mockContainer();
+			assertEquals(LookupCost.LINEAR, storage().getLookupCost(context(target)));
+		}
+	}
+}
@@ -16,12 +16,14 @@
  */
 package de.ims.icarus2.model.standard.members.structure.builder;
 
+import static de.ims.icarus2.model.api.ModelTestUtils.mockItem;
 import static de.ims.icarus2.model.api.ModelTestUtils.mockItems;
 import static de.ims.icarus2.test.TestUtils.assertListEquals;
 import static de.ims.icarus2.util.IcarusUtils.UNSET_LONG;
 import static de.ims.icarus2.util.IcarusUtils.ensureIntegerValueRange;
 import static de.ims.icarus2.util.collections.CollectionUtils.list;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -32,6 +34,7 @@ import org.junit.jupiter.api.Test;
 import de.ims.icarus2.model.api.members.item.Item;
 import de.ims.icarus2.model.manifest.api.ContainerType;
 import de.ims.icarus2.model.standard.members.container.ImmutableItemStorageTest;
+import de.ims.icarus2.model.standard.members.container.ItemStorage.LookupCost;
 import de.ims.icarus2.test.TestSettings;
 import de.ims.icarus2.test.annotations.RandomizedTest;
 import de.ims.icarus2.test.random.RandomGenerator;
@@ -129,6 +132,28 @@ class StaticArrayItemStorageTest implements ImmutableItemStorageTest<StaticArray
 		}
 	}
 
+	/**
+	 * Test method for {@link de.ims.icarus2.model.standard.members.structure.builder.StaticArrayItemStorage#indexOfItem(de.ims.icarus2.model.api.members.container.Container, de.ims.icarus2.model.api.members.item.Item)}.
+	 */
+	@Test
+	void testIndexOfItemSharedOffsets() {
+		// Mocked items all share the same offsets
+		StaticArrayItemStorage storage = create();
+		for(Item item : items) {
+			assertSame(item, storage.getItemAt(null, storage.indexOfItem(null, item)));
+		}
+
+		assertEquals(UNSET_LONG, storage.indexOfItem(null, mockItem()));
+	}
+
+	/**
+	 * Test method for {@link de.ims.icarus2.model.standard.members.structure.builder.StaticArrayItemStorage#getLookupCost(de.ims.icarus2.model.api.members.container.Container)}.
+	 */
+	@Test
+	void testGetLookupCost() {
+		assertEquals(LookupCost.LOGARITHMIC, create().getLookupCost(null));
+	}
+
 	/**
 	 * Test method for {@link de.ims.icarus2.model.standard.members.structure.builder.StaticArrayItemStorage#getBeginOffset(de.ims.icarus2.model.api.members.container.Container)}.
 	 */
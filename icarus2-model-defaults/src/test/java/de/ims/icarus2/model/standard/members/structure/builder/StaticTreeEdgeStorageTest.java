@@ -30,6 +30,7 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
 import static org.mockito.Mockito.when;
 
 import java.util.Set;
@@ -45,6 +46,7 @@ import de.ims.icarus2.model.api.ModelErrorCode;
 import de.ims.icarus2.model.api.members.item.Edge;
 import de.ims.icarus2.model.api.members.item.Item;
 import de.ims.icarus2.model.api.members.structure.Structure;
+import de.ims.icarus2.model.api.members.structure.TreeTopology;
 import de.ims.icarus2.model.manifest.api.ContainerType;
 import de.ims.icarus2.model.manifest.api.StructureFlag;
 import de.ims.icarus2.model.manifest.api.StructureManifest;
@@ -204,6 +206,57 @@ interface StaticTreeEdgeStorageTest<T extends StaticTreeEdgeStorage> extends Imm
 				}));
 	}
 
+	/**
+	 * Test method for {@link de.ims.icarus2.model.standard.members.structure.builder.StaticTreeEdgeStorage#getTreeTopology(de.ims.icarus2.model.api.members.structure.Structure)}.
+	 */
+	@SuppressWarnings("boxing")
+	@TestFactory
+	default Stream<DynamicTest> testGetTreeTopology() {
+		return createTestConfigurations()
+				.map(config -> dynamicTest(config.label, () -> {
+					T tree = createFromBuilder(toBuilder(config));
+					Structure structure = config.structure;
+					if(mockingDetails(structure).isMock()) {
+						when(structure.getItemCount()).thenReturn(Long.valueOf(config.nodes.length));
+						for (int i = 0; i < config.nodes.length; i++) {
+							when(structure.getItemAt(i)).thenReturn(config.nodes[i]);
+						}
+					}
+
+					TreeTopology topology = tree.getTreeTopology(structure);
+					assertNotNull(topology);
+					assertEquals(config.nodes.length, topology.getNodeCount());
+					// Topology is created only once per structure
+					assertSame(topology, tree.getTreeTopology(structure));
+
+					Item root = tree.getVirtualRoot(structure);
+					assertEquals(config.rootEdges.length, topology.getChildCount(TreeTopology.VIRTUAL_ROOT));
+					for (int j = 0; j < config.rootEdges.length; j++) {
+						Item child = tree.getEdgeAt(structure, root, j, true).getTarget();
+						assertEquals(structure.indexOfItem(child), topology.getChildAt(TreeTopology.VIRTUAL_ROOT, j));
+					}
+
+					for (int i = 0; i < config.nodes.length; i++) {
+						Item node = config.nodes[i];
+						Item parent = tree.getParent(structure, node);
+						long expectedParent = parent==null || parent==root ? UNSET_INT : structure.indexOfItem(parent);
+						assertEquals(expectedParent, topology.getParent(i), "Parent mismatch at index "+i);
+
+						long childCount = tree.getEdgeCount(structure, node, true);
+						assertEquals(childCount, topology.getChildCount(i), "Child count mismatch at index "+i);
+						for (int j = 0; j < childCount; j++) {
+							Item child = tree.getEdgeAt(structure, node, j, true).getTarget();
+							assertEquals(structure.indexOfItem(child), topology.getChildAt(i, j));
+						}
+
+						assertEquals(tree.getDepth(structure, node), topology.getDepth(i), "Depth mismatch at index "+i);
+						assertEquals(tree.getHeight(structure, node), topology.getHeight(i), "Height mismatch at index "+i);
+						assertEquals(tree.getDescendantCount(structure, node), topology.getDescendantCount(i),
+								"Descendant count mismatch at index "+i);
+					}
+				}));
+	}
+
 	/**
 	 * Test method for {@link de.ims.icarus2.model.standard.members.structure.builder.StaticTreeEdgeStorage#getParent(de.ims.icarus2.model.api.members.structure.Structure, de.ims.icarus2.model.api.members.item.Item)}.
 	 */
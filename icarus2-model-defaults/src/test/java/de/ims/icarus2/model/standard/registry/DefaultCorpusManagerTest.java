@@ -16,14 +16,34 @@
  */
 package de.ims.icarus2.model.standard.registry;
 
+import static de.ims.icarus2.test.TestUtils.settings;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 
+import de.ims.icarus2.model.api.ModelException;
 import de.ims.icarus2.model.api.corpus.Corpus;
 import de.ims.icarus2.model.api.registry.CorpusManager;
 import de.ims.icarus2.model.api.registry.CorpusManagerTest;
@@ -78,6 +98,158 @@ class DefaultCorpusManagerTest implements CorpusManagerTest<DefaultCorpusManager
 				.build());
 	}
 
+	private DefaultCorpusManager createBlockingManager(CountDownLatch started,
+			CountDownLatch release, AtomicInteger calls, Executor executor) {
+		return DefaultCorpusManager.builder()
+				.fileManager(new DefaultFileManager(Paths.get(".")))
+				.resourceProvider(new VirtualResourceProvider())
+				.manifestRegistry(new DefaultManifestRegistry())
+				.metadataRegistry(new VirtualMetadataRegistry())
+				.connectExecutor(executor)
+				.corpusProducer((manager, manifest) -> {
+					calls.incrementAndGet();
+					started.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						throw new AssertionError(e);
+					}
+					return DEFAULT_PRODUCER.apply(manager, manifest);
+				})
+				.build();
+	}
+
+	@Nested
+	class ConcurrentConnect {
+
+		@Test
+		@Timeout(10)
+		void testSharedConnect() throws Exception {
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			AtomicInteger calls = new AtomicInteger();
+			ExecutorService executor = Executors.newFixedThreadPool(2);
+			try {
+				DefaultCorpusManager manager = createBlockingManager(started, release, calls, executor);
+				CorpusManifest manifest = mockManifest(manager);
+
+				CompletableFuture<Corpus> first = manager.connectAsync(manifest);
+				started.await();
+				CompletableFuture<Corpus> second = manager.connectAsync(manifest);
+
+				assertTrue(manager.isCorpusConnecting(manifest));
+				assertFalse(first.isDone());
+				assertFalse(second.isDone());
+
+				release.countDown();
+
+				Corpus corpus = first.get();
+				assertNotNull(corpus);
+				assertSame(corpus, second.get());
+				assertSame(corpus, manager.getLiveCorpus(manifest));
+				assertEquals(1, calls.get());
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+
+		@Test
+		@Timeout(10)
+		void testNoGlobalBlocking() throws Exception {
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			AtomicInteger calls = new AtomicInteger();
+			ExecutorService executor = Executors.newSingleThreadExecutor();
+			try {
+				DefaultCorpusManager manager = createBlockingManager(started, release, calls, executor);
+				CorpusManifest manifest = mockManifest(manager, "corpus1", "Corpus1");
+
+				CompletableFuture<Corpus> pending = manager.connectAsync(manifest);
+				started.await();
+
+				// Queries must not be blocked by the pending connection
+				assertNull(manager.getLiveCorpus(manifest));
+				assertThat(manager.getLiveCorpora()).isEmpty();
+
+				release.countDown();
+				assertNotNull(pending.get());
+				assertThat(manager.getLiveCorpora()).containsExactly(manifest);
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+
+		@Test
+		@Timeout(10)
+		void testEnabledStateLockedWhileConnecting() throws Exception {
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			AtomicInteger calls = new AtomicInteger();
+			ExecutorService executor = Executors.newSingleThreadExecutor();
+			try {
+				DefaultCorpusManager manager = createBlockingManager(started, release, calls, executor);
+				CorpusManifest manifest = mockManifest(manager);
+
+				CompletableFuture<Corpus> pending = manager.connectAsync(manifest);
+				started.await();
+
+				assertThrows(ModelException.class, () -> manager.disableCorpus(manifest));
+				assertThrows(ModelException.class, () -> manager.enableCorpus(manifest));
+				assertTrue(manager.isCorpusConnecting(manifest));
+
+				release.countDown();
+				assertNotNull(pending.get());
+				assertTrue(manager.isCorpusConnected(manifest));
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+
+		@Test
+		@Timeout(10)
+		void testShutdownAwaitsPendingConnect() throws Exception {
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			AtomicInteger calls = new AtomicInteger();
+			ExecutorService executor = Executors.newFixedThreadPool(2);
+			try {
+				DefaultCorpusManager manager = createBlockingManager(started, release, calls, executor);
+				CorpusManifest manifest = mockManifest(manager);
+
+				CompletableFuture<Corpus> pending = manager.connectAsync(manifest);
+				started.await();
+
+				Future<?> shutdown = executor.submit(() -> {
+					manager.shutdown();
+					return null;
+				});
+
+				// Shutdown must not finish before the pending attempt
+				assertThrows(TimeoutException.class, () -> shutdown.get(200, TimeUnit.MILLISECONDS));
+
+				release.countDown();
+				shutdown.get();
+
+				assertNotNull(pending.get());
+				assertThat(manager.getLiveCorpora()).isEmpty();
+				assertTrue(manager.isCorpusEnabled(manifest));
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+
+		@Test
+		void testFailedConnectAsync() throws Exception {
+			DefaultCorpusManager manager = createCustomManager(NULL_PRODUCER, settings());
+			CorpusManifest manifest = mockManifest(manager);
+
+			CompletableFuture<Corpus> future = manager.connectAsync(manifest);
+			ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+			assertThat(e.getCause()).isInstanceOf(ModelException.class);
+			assertTrue(manager.isBadCorpus(manifest));
+		}
+	}
+
 	@Nested
 	class ForBuilder implements BuilderTest<DefaultCorpusManager, DefaultCorpusManager.Builder> {
 
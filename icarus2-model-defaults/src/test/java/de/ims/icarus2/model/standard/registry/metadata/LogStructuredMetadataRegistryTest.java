@@ -0,0 +1,286 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.model.standard.registry.metadata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.ims.icarus2.model.api.registry.MetadataRegistryTest;
+import de.ims.icarus2.test.TestSettings;
+import de.ims.icarus2.util.io.resource.FileResource;
+import de.ims.icarus2.util.io.resource.VirtualIOResource;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class LogStructuredMetadataRegistryTest implements MetadataRegistryTest<LogStructuredMetadataRegistry> {
+
+	/**
+	 * @see de.ims.icarus2.test.TargetedTest#getTestTargetClass()
+	 */
+	@Override
+	public Class<? extends LogStructuredMetadataRegistry> getTestTargetClass() {
+		return LogStructuredMetadataRegistry.class;
+	}
+
+	/**
+	 * @see de.ims.icarus2.test.Testable#createTestInstance(de.ims.icarus2.test.TestSettings)
+	 */
+	@Override
+	public LogStructuredMetadataRegistry createTestInstance(TestSettings settings) {
+		return settings.process(new LogStructuredMetadataRegistry(new VirtualIOResource(Paths.get("."))));
+	}
+
+	/**
+	 * @see de.ims.icarus2.model.api.registry.MetadataRegistryTest#createReadingCopy(de.ims.icarus2.model.api.registry.MetadataRegistry)
+	 */
+	@Override
+	public LogStructuredMetadataRegistry createReadingCopy(LogStructuredMetadataRegistry original) {
+		return new LogStructuredMetadataRegistry(original.getResource());
+	}
+
+	private static void write(VirtualIOResource resource, byte[] data) throws IOException {
+		resource.prepare();
+		try(SeekableByteChannel channel = resource.getWriteChannel()) {
+			channel.truncate(0);
+			channel.write(ByteBuffer.wrap(data));
+		}
+	}
+
+	@Nested
+	class Persistence {
+
+		@Test
+		void testIncrementalAppend() throws IOException {
+			VirtualIOResource resource = new VirtualIOResource(Paths.get("."));
+			LogStructuredMetadataRegistry registry = new LogStructuredMetadataRegistry(resource);
+
+			registry.setValue("key1", "value1");
+			long size = resource.size();
+			assertTrue(size>LogStructuredMetadataRegistry.HEADER_SIZE);
+
+			registry.beginUpdate();
+			registry.setValue("key2", "value2");
+			registry.setValue("key1", null);
+			// Nothing written until the outermost update ends
+			assertEquals(size, resource.size());
+			registry.endUpdate();
+			assertTrue(resource.size()>size);
+
+			LogStructuredMetadataRegistry copy = new LogStructuredMetadataRegistry(resource);
+			assertNull(copy.getValue("key1"));
+			assertEquals("value2", copy.getValue("key2"));
+		}
+
+		@Test
+		void testTornTail() throws IOException {
+			VirtualIOResource resource = new VirtualIOResource(Paths.get("."));
+			LogStructuredMetadataRegistry registry = new LogStructuredMetadataRegistry(resource);
+			registry.setValue("key1", "value1");
+			long size = resource.size();
+			registry.setValue("key2", "value2");
+
+			// Simulate a write that got interrupted halfway through
+			try(SeekableByteChannel channel = resource.getWriteChannel()) {
+				channel.truncate(size + (resource.size()-size)/2);
+			}
+
+			LogStructuredMetadataRegistry copy = new LogStructuredMetadataRegistry(resource);
+			assertEquals("value1", copy.getValue("key1"));
+			assertNull(copy.getValue("key2"));
+
+			// New records must not end up behind the garbage
+			copy.setValue("key3", "value3");
+			LogStructuredMetadataRegistry copy2 = new LogStructuredMetadataRegistry(resource);
+			assertEquals("value1", copy2.getValue("key1"));
+			assertEquals("value3", copy2.getValue("key3"));
+		}
+
+		@Test
+		void testCompaction() throws IOException {
+			VirtualIOResource resource = new VirtualIOResource(Paths.get("."));
+			LogStructuredMetadataRegistry registry = new LogStructuredMetadataRegistry(resource);
+
+			int rounds = LogStructuredMetadataRegistry.MIN_COMPACTION_RECORDS * 2;
+			long maxSize = 0;
+			for (int i = 0; i < rounds; i++) {
+				registry.setValue("key", "value"+i);
+				maxSize = Math.max(maxSize, resource.size());
+			}
+
+			// Log must have been rewritten at least once
+			assertTrue(resource.size()<maxSize);
+
+			LogStructuredMetadataRegistry copy = new LogStructuredMetadataRegistry(resource);
+			assertEquals("value"+(rounds-1), copy.getValue("key"));
+
+			registry.compact();
+			copy = new LogStructuredMetadataRegistry(resource);
+			assertEquals("value"+(rounds-1), copy.getValue("key"));
+		}
+
+		@Test
+		void testLegacyImport() throws IOException {
+			VirtualIOResource resource = new VirtualIOResource(Paths.get("."));
+			write(resource, "key1=value1\nkey2=value2\n".getBytes(StandardCharsets.UTF_8));
+
+			LogStructuredMetadataRegistry registry = new LogStructuredMetadataRegistry(resource);
+			assertEquals("value1", registry.getValue("key1"));
+			assertEquals("value2", registry.getValue("key2"));
+
+			// First synchronization converts storage to the binary log
+			registry.synchronize();
+			ByteBuffer data = ByteBuffer.allocate(Integer.BYTES);
+			try(SeekableByteChannel channel = resource.getReadChannel()) {
+				channel.read(data);
+			}
+			assertEquals(LogStructuredMetadataRegistry.MAGIC, data.getInt(0));
+
+			LogStructuredMetadataRegistry copy = new LogStructuredMetadataRegistry(resource);
+			assertEquals("value1", copy.getValue("key1"));
+			assertEquals("value2", copy.getValue("key2"));
+		}
+	}
+
+	/**
+	 * Runs against real files, so that loading goes through the memory-mapped
+	 * path and compaction through the atomic move of a temporary file.
+	 */
+	@Nested
+	class FilePersistence {
+
+		@TempDir
+		Path dir;
+
+		private FileResource resource() {
+			return new FileResource(dir.resolve("registry.mdlog"));
+		}
+
+		private void assertNoTempFiles() throws IOException {
+			try(DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+				for(Path file : stream) {
+					assertEquals("registry.mdlog", file.getFileName().toString());
+				}
+			}
+		}
+
+		@Test
+		void testRoundTrip() throws IOException {
+			FileResource resource = resource();
+			LogStructuredMetadataRegistry registry = new LogStructuredMetadataRegistry(resource);
+			registry.setValue("key1", "value1");
+			registry.setValue("key2", "value2");
+			registry.setValue("key1", null);
+
+			LogStructuredMetadataRegistry copy = new LogStructuredMetadataRegistry(resource());
+			assertNull(copy.getValue("key1"));
+			assertEquals("value2", copy.getValue("key2"));
+
+			// Appending after a mapped load
+			copy.setValue("key3", "value3");
+			LogStructuredMetadataRegistry copy2 = new LogStructuredMetadataRegistry(resource());
+			assertEquals("value2", copy2.getValue("key2"));
+			assertEquals("value3", copy2.getValue("key3"));
+		}
+
+		@Test
+		void testTornTail() throws IOException {
+			FileResource resource = resource();
+			LogStructuredMetadataRegistry registry = new LogStructuredMetadataRegistry(resource);
+			registry.setValue("key1", "value1");
+			long size = resource.size();
+			registry.setValue("key2", "value2");
+
+			// Simulate a write that got interrupted halfway through
+			try(SeekableByteChannel channel = resource.getWriteChannel()) {
+				channel.truncate(size + (resource.size()-size)/2);
+			}
+
+			LogStructuredMetadataRegistry copy = new LogStructuredMetadataRegistry(resource());
+			assertEquals("value1", copy.getValue("key1"));
+			assertNull(copy.getValue("key2"));
+
+			copy.setValue("key3", "value3");
+			LogStructuredMetadataRegistry copy2 = new LogStructuredMetadataRegistry(resource());
+			assertEquals("value1", copy2.getValue("key1"));
+			assertEquals("value3", copy2.getValue("key3"));
+		}
+
+		@Test
+		void testCompaction() throws IOException {
+			FileResource resource = resource();
+			LogStructuredMetadataRegistry registry = new LogStructuredMetadataRegistry(resource);
+
+			int rounds = LogStructuredMetadataRegistry.MIN_COMPACTION_RECORDS * 2;
+			long maxSize = 0;
+			for (int i = 0; i < rounds; i++) {
+				registry.setValue("key", "value"+i);
+				maxSize = Math.max(maxSize, resource.size());
+			}
+
+			// File must have been replaced at least once
+			assertTrue(resource.size()<maxSize);
+			assertNoTempFiles();
+
+			LogStructuredMetadataRegistry copy = new LogStructuredMetadataRegistry(resource());
+			assertEquals("value"+(rounds-1), copy.getValue("key"));
+
+			registry.compact();
+			assertNoTempFiles();
+			copy = new LogStructuredMetadataRegistry(resource());
+			assertEquals("value"+(rounds-1), copy.getValue("key"));
+		}
+
+		@Test
+		void testCompactionAfterLoad() throws IOException {
+			LogStructuredMetadataRegistry registry = new LogStructuredMetadataRegistry(resource());
+			for (int i = 0; i < 10; i++) {
+				registry.setValue("key"+i, "value"+i);
+			}
+
+			// Loading maps the file, which must not block replacing it afterwards
+			LogStructuredMetadataRegistry copy = new LogStructuredMetadataRegistry(resource());
+			copy.setValue("key0", null);
+			copy.compact();
+			assertNoTempFiles();
+
+			LogStructuredMetadataRegistry copy2 = new LogStructuredMetadataRegistry(resource());
+			assertNull(copy2.getValue("key0"));
+			for (int i = 1; i < 10; i++) {
+				assertEquals("value"+i, copy2.getValue("key"+i));
+			}
+		}
+	}
+}
@@ -17,16 +17,30 @@
 package de.ims.icarus2.model.standard.view.paged;
 
 import static de.ims.icarus2.model.api.ModelTestUtils.mockItem;
+import static de.ims.icarus2.model.api.ModelTestUtils.range;
+import static de.ims.icarus2.model.api.driver.indices.IndexUtils.wrap;
 import static de.ims.icarus2.test.TestUtils.filledArray;
 import static de.ims.icarus2.util.collections.CollectionUtils.list;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 
 import de.ims.icarus2.model.api.driver.indices.IndexSet;
 import de.ims.icarus2.model.api.driver.indices.IndexUtils;
@@ -110,6 +124,143 @@ class DefaultPageControlTest implements PageControlTest<DefaultPageControl> {
 				.build();
 	}
 
+	@Nested
+	class WithPrefetching {
+
+		private PagedCorpusView view;
+		private ItemLayer layer;
+		private ItemLayerManager manager;
+		private DefaultPageControl control;
+
+		private DefaultPageControl create(int next, int previous) {
+			view = createView(true);
+			layer = view.getScope().getPrimaryLayer();
+			manager = mock(ItemLayerManager.class);
+
+			Builder builder = DefaultPageControl.builder()
+					.pageSize(2)
+					.indices(wrap(range(0, 9)))
+					.itemLayerManager(manager)
+					.prefetchExecutor(Runnable::run);
+			if(next>0) {
+				builder.prefetchNext(next);
+			}
+			if(previous>0) {
+				builder.prefetchPrevious(previous);
+			}
+
+			control = builder.build();
+			control.addNotify(view);
+			return control;
+		}
+
+		@Test
+		void testNoPrefetching() throws Exception {
+			DefaultPageControl control = DefaultPageControl.builder()
+					.pageSize(2)
+					.indices(wrap(range(0, 9)))
+					.itemLayerManager(mock(ItemLayerManager.class))
+					.build();
+			assertFalse(control.isPrefetching());
+		}
+
+		@Test
+		void testPrefetchNext() throws Exception {
+			create(1, 0);
+			assertTrue(control.isPrefetching());
+
+			control.loadPage(0);
+			// current page plus one prefetched
+			verify(manager, times(2)).load(any(IndexSet[].class), eq(layer));
+
+			control.loadPage(1);
+			// page 1 gets loaded again from buffer, page 2 prefetched
+			verify(manager, times(4)).load(any(IndexSet[].class), eq(layer));
+			// page 0 closed and prefetched page 1 released
+			verify(manager, times(2)).release(any(IndexSet[].class), eq(layer));
+		}
+
+		@Test
+		void testPrefetchPrevious() throws Exception {
+			create(0, 2);
+
+			control.loadPage(0);
+			// nothing before first page
+			verify(manager, times(1)).load(any(IndexSet[].class), eq(layer));
+
+			control.loadPage(4);
+			// current page plus two preceding ones
+			verify(manager, times(4)).load(any(IndexSet[].class), eq(layer));
+		}
+
+		@Test
+		void testReleaseOnRemove() throws Exception {
+			create(2, 1);
+
+			control.loadPage(2);
+			verify(manager, times(4)).load(any(IndexSet[].class), eq(layer));
+
+			control.closePage();
+			control.removeNotify(view);
+			// current page and all three prefetched pages
+			verify(manager, times(4)).release(any(IndexSet[].class), eq(layer));
+		}
+
+		@SuppressWarnings("boxing")
+		@Test
+		void testDiscardWhileLoading() throws Exception {
+			view = createView(true);
+			layer = view.getScope().getPrimaryLayer();
+			manager = mock(ItemLayerManager.class);
+
+			final Thread testThread = Thread.currentThread();
+			CountDownLatch loading = new CountDownLatch(1);
+			CountDownLatch proceed = new CountDownLatch(1);
+			AtomicBoolean interrupted = new AtomicBoolean();
+			when(manager.load(any(IndexSet[].class), eq(layer))).thenAnswer(invoc -> {
+				if(Thread.currentThread()!=testThread) {
+					loading.countDown();
+					proceed.await();
+					interrupted.set(Thread.currentThread().isInterrupted());
+				}
+				return 2L;
+			});
+
+			ExecutorService executor = Executors.newSingleThreadExecutor();
+			try {
+				control = DefaultPageControl.builder()
+						.pageSize(2)
+						.indices(wrap(range(0, 9)))
+						.itemLayerManager(manager)
+						.prefetchExecutor(executor)
+						.prefetchNext(2)
+						.build();
+				control.addNotify(view);
+
+				control.loadPage(0);
+				// page 1 is being loaded in the background, page 2 still queued
+				assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+				control.closePage();
+				control.removeNotify(view);
+				// only the current page got released so far
+				verify(manager, times(1)).release(any(IndexSet[].class), eq(layer));
+
+				proceed.countDown();
+				executor.shutdown();
+				assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+				assertFalse(interrupted.get());
+				// queued page 2 never got loaded
+				verify(manager, times(2)).load(any(IndexSet[].class), eq(layer));
+				// page 1 released by its own task after loading completed
+				verify(manager, times(2)).release(any(IndexSet[].class), eq(layer));
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+	}
+
 	@Nested
 	class ForBuilder implements BuilderTest<DefaultPageControl, DefaultPageControl.Builder> {
 
@@ -151,6 +302,11 @@ class DefaultPageControlTest implements PageControlTest<DefaultPageControl> {
 					Triple.triple("zero indexCacheSize", IllegalArgumentException.class, b -> b.indexCacheSize(0)),
 					Triple.triple("negative indexCacheSize", IllegalArgumentException.class, b -> b.indexCacheSize(-1244)),
 
+					Triple.triple("zero prefetchNext", IllegalArgumentException.class, b -> b.prefetchNext(0)),
+					Triple.triple("negative prefetchNext", IllegalArgumentException.class, b -> b.prefetchNext(-3)),
+					Triple.triple("zero prefetchPrevious", IllegalArgumentException.class, b -> b.prefetchPrevious(0)),
+					Triple.triple("negative prefetchPrevious", IllegalArgumentException.class, b -> b.prefetchPrevious(-3)),
+
 					Triple.triple("empty indices", IllegalArgumentException.class, b -> b.indices(new IndexSet[0]))
 			);
 		}
@@ -0,0 +1,356 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.query.api.engine;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.AuxCounters.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+
+import de.ims.icarus2.model.api.driver.id.StaticContinuousIdManager;
+import de.ims.icarus2.model.api.members.container.Container;
+import de.ims.icarus2.model.api.members.item.Edge;
+import de.ims.icarus2.model.api.members.item.Item;
+import de.ims.icarus2.model.api.members.structure.Structure;
+import de.ims.icarus2.model.manifest.api.ItemLayerManifest;
+import de.ims.icarus2.model.manifest.api.ManifestLocation;
+import de.ims.icarus2.model.manifest.api.StructureManifest;
+import de.ims.icarus2.model.manifest.standard.DefaultManifestRegistry;
+import de.ims.icarus2.model.manifest.standard.StructureManifestImpl;
+import de.ims.icarus2.model.standard.members.FixedLayerMemberFactory;
+import de.ims.icarus2.model.standard.members.container.ProxyContainer;
+import de.ims.icarus2.model.standard.members.item.FixedItem;
+import de.ims.icarus2.model.standard.members.layer.item.DefaultItemLayer;
+import de.ims.icarus2.model.standard.members.structure.RootItem;
+import de.ims.icarus2.model.standard.members.structure.builder.StructureBuilder;
+import de.ims.icarus2.model.standard.members.structure.builder.StructureBuilder.SortType;
+import de.ims.icarus2.query.api.engine.QueryJob.JobController;
+import de.ims.icarus2.query.api.engine.QueryUtils.BufferedQueryOutput;
+import de.ims.icarus2.query.api.engine.matcher.StructurePattern;
+import de.ims.icarus2.query.api.engine.matcher.StructurePattern.Role;
+import de.ims.icarus2.query.api.exp.EvaluationContext;
+import de.ims.icarus2.query.api.exp.EvaluationContext.RootContext;
+import de.ims.icarus2.query.api.exp.EvaluationUtils;
+import de.ims.icarus2.query.api.exp.TypeInfo;
+import de.ims.icarus2.query.api.exp.env.SharedUtilityEnvironments;
+import de.ims.icarus2.query.api.iql.IqlLane;
+import de.ims.icarus2.query.api.iql.IqlPayload;
+import de.ims.icarus2.query.api.iql.IqlQuery;
+import de.ims.icarus2.test.JmhUtils;
+import de.ims.icarus2.test.random.RandomGenerator;
+import de.ims.icarus2.util.MutablePrimitives.MutableInteger;
+
+/**
+ * End-to-end benchmark of the query engine. Every invocation evaluates one
+ * query over a complete synthetic corpus with a {@link SingleStreamJob} and
+ * the configured number of workers.
+ * <p>
+ * The corpus is generated once per trial and consists of static tree
+ * {@link Structure structures} with randomly attached nodes. Every token
+ * carries a single {@code pos} annotation whose values are drawn uniformly
+ * from {@code t0 .. t<cardinality-1>}. The data is exposed to the engine via
+ * {@link CorpusData.Virtual}, so no file driver or I/O is involved.
+ * <p>
+ * Results are reported as {@link #tokens() tokens} and {@link #matches() matches}
+ * per second. The {@link #main(String[]) launcher} additionally attaches the
+ * {@link GCProfiler} to track allocation rates.
+ *
+ * @author Markus Gärtner
+ *
+ */
+@State(Scope.Thread)
+@AuxCounters(Type.OPERATIONS)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations=5, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(value=1, jvmArgsAppend={"-Xmx4g", "-Xms4g"})
+public class QueryEngineBenchmark {
+
+	/** Annotation key for the synthetic part-of-speech values */
+	private static final String KEY_POS = "pos";
+
+	private static final String LAYER_TOKEN = "token";
+	private static final String LAYER_SENT_1 = "sent1";
+	private static final String LAYER_SENT_2 = "sent2";
+
+	/** Shapes of queries covered by this benchmark */
+	public enum QueryKind {
+		/** Three ordered but not necessarily adjacent nodes */
+		SEQUENCE("FIND ORDERED [pos==\"t0\"] [pos==\"t1\"] [pos==\"t2\"]"),
+		/** Direct dominance between two nodes */
+		TREE("FIND [pos==\"t0\" [pos==\"t1\"]]"),
+		/** Three nodes in arbitrary order */
+		PERMUTATION("FIND UNORDERED [pos==\"t0\"] [pos==\"t1\"] [pos==\"t2\"]"),
+		/** A node followed by either of two alternatives */
+		DISJUNCTION("FIND ORDERED [pos==\"t0\"] [pos==\"t1\"] or [pos==\"t2\"]"),
+		/** A node that is not followed by another one */
+		NEGATION("FIND ORDERED [pos==\"t0\"] ![pos==\"t1\"]"),
+		/** Two lanes joined via an identity mapping */
+		MULTI_LANE("FIND LANE "+LAYER_SENT_1+" [pos==\"t0\"] AND LANE "+LAYER_SENT_2+" [pos==\"t1\"]"),
+		;
+
+		private final String query;
+
+		private QueryKind(String query) {
+			this.query = query;
+		}
+	}
+
+	// Benchmark parameters
+
+	/** Number of sentences in the corpus */
+	@Param({"1000", "10000"})
+	private int corpusSize;
+
+	/** Number of tokens per sentence */
+	@Param({"10", "30"})
+	private int sentenceLength;
+
+	/** Number of distinct values for the {@code pos} annotation */
+	@Param({"5", "50"})
+	private int cardinality;
+
+	@Param({"SEQUENCE", "TREE", "PERMUTATION", "DISJUNCTION", "NEGATION", "MULTI_LANE"})
+	private QueryKind queryKind;
+
+	@Param({"1", "2", "4"})
+	private int workers;
+
+	@Param({"64"})
+	private int batchSize;
+
+	// Utility
+	private Container[] sentences;
+	private long tokenCount;
+	private ExecutorService executorService;
+
+	// For benchmarking
+	private BufferedQueryOutput output;
+	private JobController controller;
+
+	private long tokens, matches;
+
+	/** Custom token implementation that carries its annotation value directly */
+	private static final class Token extends FixedItem {
+		private final String pos;
+
+		Token(Container container, long id, String pos) {
+			super(container, id);
+			this.pos = pos;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void prepareData() {
+		final RandomGenerator rand = RandomGenerator.forSeed(corpusSize * 31L + sentenceLength);
+		final String[] tags = IntStream.range(0, cardinality)
+				.mapToObj(i -> "t"+i)
+				.toArray(String[]::new);
+
+		// Real manifest and layer so that structures can resolve their own index
+		ItemLayerManifest layerManifest = mock(ItemLayerManifest.class);
+		DefaultItemLayer layer = new DefaultItemLayer(layerManifest);
+		layer.setIdManager(new StaticContinuousIdManager(layerManifest));
+		Container host = new ProxyContainer(layer, true);
+		StructureManifest manifest = new StructureManifestImpl(ManifestLocation.builder()
+				.readOnly()
+				.virtual()
+				.build(), new DefaultManifestRegistry());
+
+		sentences = new Container[corpusSize];
+		for (int i = 0; i < corpusSize; i++) {
+			sentences[i] = createSentence(manifest, host, i, rand, tags);
+		}
+		tokenCount = corpusSize * (long)sentenceLength;
+
+		executorService = QueryUtils.createExecutorService(workers);
+	}
+
+	/**
+	 * Creates a tree where the first token is the sole root and every other
+	 * token is attached to a random predecessor.
+	 */
+	private Structure createSentence(StructureManifest manifest, Container host,
+			long index, RandomGenerator rand, String[] tags) {
+		StructureBuilder sb = StructureBuilder.builder(manifest);
+		sb.augmented(false);
+		sb.sortingNodes(SortType.NATURAL);
+		sb.memberFactory(FixedLayerMemberFactory.INSTANCE);
+		sb.host(host);
+		sb.createRoot();
+		sb.setId(index);
+
+		Structure structure = sb.getCurrentStructure();
+		Item[] nodes = new Item[sentenceLength];
+		for (int j = 0; j < sentenceLength; j++) {
+			Item node = new Token(structure, j, tags[rand.random(0, tags.length)]);
+			nodes[j] = node;
+			sb.addNode(node);
+
+			Edge edge;
+			if(j==0) {
+				RootItem<Edge> root = sb.getRoot();
+				edge = sb.newEdge(j, root, node);
+				root.addEdge(edge);
+			} else {
+				edge = sb.newEdge(j, nodes[rand.random(0, j)], node);
+			}
+			sb.addEdge(edge);
+		}
+
+		return sb.build();
+	}
+
+	@TearDown(Level.Trial)
+	public void shutdown() {
+		executorService.shutdownNow();
+		sentences = null;
+	}
+
+	@Setup(Level.Iteration)
+	public void resetCounters() {
+		tokens = 0;
+		matches = 0;
+	}
+
+	/**
+	 * Prepares a fresh job for every invocation. Finished jobs close their
+	 * {@link CorpusData} and therefore cannot be reused.
+	 */
+	@Setup(Level.Invocation)
+	public void prepareJob() {
+		CorpusData.Virtual.Builder builder = CorpusData.Virtual.builder()
+				.layer(LAYER_TOKEN).type(TypeInfo.ITEM).commit();
+		if(queryKind==QueryKind.MULTI_LANE) {
+			builder.layer(LAYER_SENT_1).elements(sentences).sources(LAYER_TOKEN).commit()
+				.layer(LAYER_SENT_2).elements(sentences).sources(LAYER_TOKEN).commit()
+				.mapper(LAYER_SENT_1, LAYER_SENT_2, LaneMapper.fixedBuilder()
+						.mapIndividual(0, corpusSize-1, i -> i)
+						.build());
+		} else {
+			builder.layer(IqlLane.PROXY_NAME).elements(sentences).sources(LAYER_TOKEN).commit();
+		}
+		CorpusData corpus = builder.annotation()
+					.key(KEY_POS)
+					.targets(LAYER_TOKEN)
+					.strings(item -> ((Token)item).pos)
+					.commit()
+				.build();
+
+		output = QueryUtils.bufferedOutput(0);
+
+		QueryJob job = SingleStreamJob.builder()
+				.addPatterns(createPatterns(corpus))
+				.input(QueryUtils.fixedInput(sentences))
+				.output(output)
+				.query(new IqlQuery()) // not needed for internal workings anyway
+				.batchSize(batchSize)
+				.build();
+
+		controller = job.execute(executorService, workers);
+	}
+
+	private List<StructurePattern> createPatterns(CorpusData corpus) {
+		IqlPayload payload = new QueryProcessor().processPayload(queryKind.query);
+		List<IqlLane> lanes = payload.getLanes();
+
+		RootContext rootContext = EvaluationContext.rootBuilder(corpus)
+				.addEnvironment(SharedUtilityEnvironments.all())
+				.build();
+
+		return IntStream.range(0, lanes.size()).mapToObj(index -> {
+			IqlLane lane = lanes.get(index);
+			MutableInteger id = new MutableInteger(0);
+			EvaluationUtils.visitNodes(lane.getElement(), node -> node.setMappingId(id.getAndIncrement()));
+			return StructurePattern.builder()
+					.id(index)
+					.role(Role.of(index==0, index==lanes.size()-1))
+					.context(rootContext.derive()
+							.lane(lane)
+							.build())
+					.source(lane)
+					.build();
+		}).collect(Collectors.toList());
+	}
+
+	// AUX COUNTERS
+
+	public long tokens() {
+		return tokens;
+	}
+
+	public long matches() {
+		return matches;
+	}
+
+	// END AUX COUNTERS
+
+	@Benchmark
+	public void search() throws InterruptedException {
+		controller.start();
+		controller.awaitFinish();
+
+		List<Throwable> exceptions = controller.getExceptions();
+		if(!exceptions.isEmpty())
+			throw new IllegalStateException("Search encountered errors: "+exceptions);
+
+		tokens += tokenCount;
+		matches += output.countMatches();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		ChainedOptionsBuilder builder =
+				JmhUtils.jmhOptions(QueryEngineBenchmark.class, false, ResultFormatType.CSV)
+				.jvmArgsAppend("-Xmx4g", "-Xms4g")
+				.forks(1)
+				.param("corpusSize", "10000")
+				.param("sentenceLength", "30")
+				.param("cardinality", "50");
+
+		builder.addProfiler(GCProfiler.class);
+
+		new Runner(builder.build()).run();
+	}
+}
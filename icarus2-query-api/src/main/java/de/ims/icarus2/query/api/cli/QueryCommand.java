@@ -27,6 +27,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -49,6 +50,7 @@ import de.ims.icarus2.model.standard.registry.metadata.PlainMetadataRegistry;
 import de.ims.icarus2.model.standard.registry.metadata.VirtualMetadataRegistry;
 import de.ims.icarus2.query.api.engine.EngineSettings;
 import de.ims.icarus2.query.api.engine.EngineSettings.IntField;
+import de.ims.icarus2.query.api.engine.ExecutionMode;
 import de.ims.icarus2.query.api.engine.QueryEngine;
 import de.ims.icarus2.query.api.engine.QueryJob;
 import de.ims.icarus2.query.api.engine.QueryJob.JobController;
@@ -97,7 +99,8 @@ public class QueryCommand extends CliCommand {
 
 	@Option(names = {"-l", "--log-file"}, description = {"File to stream log output to.", "If not defined, log output will be streamed to console."})
 	private Path logFile;
-	@Option(names = {"-o", "--output-file"}, description = {"File to stream final search results to.", "If not defined, search results will be streamed to console."})
+	@Option(names = {"-o", "--output-file"}, description = {"File to stream final search results to.", "If not defined, search results will be streamed to console.",
+			"When evaluating a batch file, this denotes the folder to store the result files of the individual queries in."})
 	private Path outputFile;
 
 	@ArgGroup(exclusive = false, multiplicity = "1", heading = "Corpus data:%n")
@@ -136,8 +139,15 @@ public class QueryCommand extends CliCommand {
 
 		@Option(names = {"-p", "--payload-file"}, description = "File containing the IQL payload of a query")
 		private Path payloadFile;
+
+		@Option(names = {"-b", "--batch-file"}, description = {"File containing multiple IQL payloads, one per line.",
+				"Empty lines and lines starting with '#' are ignored. All queries are evaluated in a single pass over the corpus."})
+		private Path batchFile;
 	}
 
+	/** File name pattern for the result files of individual queries in batch mode */
+	private static final String BATCH_RESULT_FILE = "query_%d.txt";
+
 	static class EngineConfig {
 
 		@Option(names = {"-n", "--thread-count"}, description = {"Number of threads to use for parallelization.",
@@ -149,6 +159,10 @@ public class QueryCommand extends CliCommand {
 				"A value smaller than 1 deactivates any timeout checks."}, defaultValue = "0", converter = DurationConverter.class)
 		private int timeout = 0;
 
+		@Option(names = {"-x", "--execution-mode"}, description = {"Strategy for running the worker threads.",
+				"Valid values: ${COMPLETION-CANDIDATES}"}, defaultValue = "PLATFORM")
+		private ExecutionMode executionMode = ExecutionMode.PLATFORM;
+
 		//TODO add key-value pair syntax for additional direct configuration properties
 	}
 
@@ -206,8 +220,13 @@ public class QueryCommand extends CliCommand {
 		private QueryEngine queryEngine;
 		private IqlQuery query;
 		private ResultSink resultSink;
+		/** Queries and result sinks when evaluating a batch file */
+		private List<IqlQuery> batchQueries;
+		private List<ResultSink> batchSinks;
 		private int workerLimit;
 
+		private boolean isBatch() { return queryData.batchFile!=null; }
+
 		private void addTemplate(ManifestRegistry registry, Object template) throws IcarusApiException {
 			if(template instanceof ThrowingConsumer) {
 				@SuppressWarnings("unchecked")
@@ -354,8 +373,33 @@ public class QueryCommand extends CliCommand {
 
 		/** Prepare the actual query and payload*/
 		boolean initQuery() {
+			// Multiple payloads, each wrapped into a separate query
+			if(isBatch()) {
+				List<String> lines;
+				try {
+					lines = Files.readAllLines(queryData.batchFile, UTF_8);
+				} catch (IOException e) {
+					err().println("Failed to read batch file");
+					e.printStackTrace(err());
+					return false;
+				}
+
+				batchQueries = new ArrayList<>();
+				for(String line : lines) {
+					String rawPayload = line.trim();
+					if(rawPayload.isEmpty() || rawPayload.startsWith("#")) {
+						continue;
+					}
+					batchQueries.add(wrapPayload(rawPayload));
+				}
+
+				if(batchQueries.isEmpty()) {
+					err().println("No query payloads in batch file");
+					return false;
+				}
+			}
 			// Ready to use query, just parse and verify it
-			if(queryData.queryFile!=null) {
+			else if(queryData.queryFile!=null) {
 				try {
 					query = IqlUtils.createMapper().readValue(Files.newBufferedReader(queryData.queryFile, UTF_8), IqlQuery.class);
 				} catch (JsonParseException e) {
@@ -393,6 +437,23 @@ public class QueryCommand extends CliCommand {
 
 		/** Prepare the result output/sink */
 		boolean initResult() {
+			if(isBatch()) {
+				Path folder = outputFile==null ? Paths.get(System.getProperty("user.dir")) : outputFile;
+				batchSinks = new ArrayList<>(batchQueries.size());
+				try {
+					Files.createDirectories(folder);
+					for (int i = 0; i < batchQueries.size(); i++) {
+						Path file = folder.resolve(String.format(BATCH_RESULT_FILE, Integer.valueOf(i+1)));
+						batchSinks.add(new IdPrintingResultSink(Files.newBufferedWriter(file, UTF_8)));
+					}
+				} catch (IOException e) {
+					err().println("Failed to prepare result files");
+					e.printStackTrace(err());
+					return false;
+				}
+				return true;
+			}
+
 			PrintWriter writer = out();
 			if(outputFile!=null) {
 				try {
@@ -438,9 +499,14 @@ public class QueryCommand extends CliCommand {
 		boolean executeSearch() {
 			JobController jobController;
 			try {
-				QueryJob job = queryEngine.evaluateQuery(query, resultSink);
+				QueryJob job;
+				if(isBatch()) {
+					job = queryEngine.evaluateQueries(batchQueries, batchSinks);
+				} else {
+					job = queryEngine.evaluateQuery(query, resultSink);
+				}
 
-				jobController = job.execute(workerLimit);
+				jobController = job.execute(workerLimit, engineConfig.executionMode);
 			} catch (InterruptedException e) {
 				err().println("Query evaluation canceled before actual search started");
 				return false;
@@ -0,0 +1,108 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.query.api.engine;
+
+import static de.ims.icarus2.util.Conditions.checkArgument;
+
+import de.ims.icarus2.model.api.members.container.Container;
+
+/**
+ * Per-worker controller for the size of batches loaded from a {@link QueryInput}.
+ * Batches are limited by the total number of {@link Container#getItemCount() items}
+ * in the loaded containers instead of just the number of containers. The item budget
+ * is derived from the processing rate observed by the worker so far, so that a single
+ * batch takes roughly the configured target time. Towards the end of the input the
+ * number of containers per batch is further reduced so that all workers get a share
+ * of the remaining work and no single worker ends up with a large final batch.
+ * <p>
+ * This class is not thread-safe and meant to be used by a single worker only.
+ *
+ * @author Markus Gärtner
+ *
+ */
+final class AdaptiveBatchSizer {
+
+	/** Number of containers to load for the first batch, before any rate is known */
+	static final int PROBE_SIZE = 16;
+	/** Weight of the latest observation when updating the processing rate */
+	static final double SMOOTHING = 0.3;
+	/** Remaining containers are split into at least this many batches per worker */
+	static final int TAIL_SPLIT = 2;
+
+	private final int maxContainers;
+	private final long targetNanos;
+
+	/** Smoothed processing rate in items per nanosecond, {@code 0} if unknown */
+	private double itemsPerNano = 0;
+
+	AdaptiveBatchSizer(int maxContainers, long targetNanos) {
+		checkArgument("max containers must be positive", maxContainers>0);
+		checkArgument("target time must be positive", targetNanos>0);
+		this.maxContainers = maxContainers;
+		this.targetNanos = targetNanos;
+	}
+
+	/**
+	 * Returns the maximum number of items the next batch should contain. If no
+	 * processing rate is known yet, the returned budget is unlimited.
+	 */
+	long nextItemBudget() {
+		if(itemsPerNano<=0) {
+			return Long.MAX_VALUE;
+		}
+		return Math.max(1, (long) (itemsPerNano * targetNanos));
+	}
+
+	/**
+	 * Returns the maximum number of containers the next batch should contain.
+	 *
+	 * @param remaining estimated number of remaining containers in the input or
+	 * a negative value if unknown
+	 * @param workers number of workers sharing the input
+	 */
+	int nextContainerLimit(long remaining, int workers) {
+		int limit = itemsPerNano<=0 ? Math.min(PROBE_SIZE, maxContainers) : maxContainers;
+		if(remaining>=0 && workers>0) {
+			long share = (remaining + workers*TAIL_SPLIT - 1) / (workers*TAIL_SPLIT);
+			limit = (int) Math.max(1, Math.min(limit, share));
+		}
+		return limit;
+	}
+
+	/**
+	 * Records the processing of a single batch.
+	 *
+	 * @param items total number of items in the processed containers
+	 * @param nanos time it took to process the batch
+	 */
+	void record(long items, long nanos) {
+		if(items<=0 || nanos<=0) {
+			return;
+		}
+		double rate = (double)items / nanos;
+		if(itemsPerNano<=0) {
+			itemsPerNano = rate;
+		} else {
+			itemsPerNano = SMOOTHING * rate + (1.0 - SMOOTHING) * itemsPerNano;
+		}
+	}
+
+	double getItemsPerNano() { return itemsPerNano; }
+}
@@ -70,6 +70,7 @@ import de.ims.icarus2.model.manifest.api.TypedManifest;
 import de.ims.icarus2.model.manifest.types.ValueType;
 import de.ims.icarus2.model.manifest.util.ManifestUtils;
 import de.ims.icarus2.model.manifest.util.Messages;
+import de.ims.icarus2.model.standard.members.container.FlyweightContainer;
 import de.ims.icarus2.model.util.Graph;
 import de.ims.icarus2.model.util.ModelGraph;
 import de.ims.icarus2.model.util.ModelUtils;
@@ -136,6 +137,14 @@ public abstract class CorpusData implements AutoCloseable {
 	public abstract LongFunction<Item> access(LayerRef layer);
 	/** Provide (lazy) access to the mapping facilities between {@code source} and {@code target} */
 	public abstract LaneMapper map(LayerRef source, LayerRef target);
+	/**
+	 * Provide (lazy) access to the mapping facilities between {@code source} and {@code target}
+	 * that can use the given {@code cache} shared among multiple workers. The default
+	 * implementation ignores the cache and delegates to {@link #map(LayerRef, LayerRef)}.
+	 */
+	public LaneMapper map(LayerRef source, LayerRef target, @Nullable LaneMapper.SharedCache cache) {
+		return map(source, target);
+	}
 
 	@Override
 	public abstract void close();
@@ -208,10 +217,14 @@ public abstract class CorpusData implements AutoCloseable {
 
 		private final Map<ElementInfo, AnnotationCache> annotationCaches = new Object2ObjectOpenHashMap<>();
 
+		/** Column slots in flyweight containers, mapped by annotation key */
+		private final Map<String, Integer> annotationColumns;
+
 		private CorpusBacked(Builder builder) {
 
 			scope = builder.scope;
 			layers = new Object2ObjectOpenHashMap<>(builder.namedLayers);
+			annotationColumns = new Object2ObjectOpenHashMap<>(builder.annotationColumns);
 
 			for(Layer layer : scope.getLayers()) {
 				String key = key(layer);
@@ -467,6 +480,15 @@ public abstract class CorpusData implements AutoCloseable {
 			return LaneMapper.forMapping(mapping.newReader(), 1024);
 		}
 
+		@Override
+		public LaneMapper map(LayerRef sourceRef, LayerRef targetRef, @Nullable LaneMapper.SharedCache cache) {
+			ItemLayer source = layer(sourceRef);
+			ItemLayer target = layer(targetRef);
+
+			Mapping mapping = source.getContext().getDriver().getMapping(source, target);
+			return LaneMapper.forMapping(mapping.newReader(), 1024, cache);
+		}
+
 		@Override
 		public void close() {
 			layers.clear();
@@ -674,6 +696,7 @@ public abstract class CorpusData implements AutoCloseable {
 						.valueType(manifest.getValueType());
 
 				createSources(builder, type, key, link.getLayer().getAnnotationStorage());
+				applyColumn(builder, key);
 
 				return builder.build();
 			}
@@ -687,10 +710,18 @@ public abstract class CorpusData implements AutoCloseable {
 						.valueType(ValueType.UNKNOWN);
 
 				createSources(builder, TypeInfo.GENERIC, key, layer.getAnnotationStorage());
+				applyColumn(builder, key);
 
 				return builder.build();
 			}
 
+			private void applyColumn(AnnotationInfo.Builder builder, String key) {
+				Integer slot = annotationColumns.get(key);
+				if(slot!=null) {
+					builder.column(slot.intValue());
+				}
+			}
+
 			private void createSources(AnnotationInfo.Builder builder, TypeInfo type,
 					String key, AnnotationStorage storage) {
 				if(TypeInfo.isInteger(type)) {
@@ -733,10 +764,29 @@ public abstract class CorpusData implements AutoCloseable {
 			/** Maps the usable raw names or aliases to layer entries. */
 			private final Map<String, Layer> namedLayers = new Object2ObjectOpenHashMap<>();
 
+			/** Maps annotation keys to column slots in flyweight containers */
+			private final Map<String, Integer> annotationColumns = new Object2ObjectOpenHashMap<>();
+
 			private Scope scope;
 
 			private Builder() { /* no-op */ }
 
+			/**
+			 * Declares that values for the annotation with the given key are available
+			 * in the specified column slot of {@link FlyweightContainer flyweight containers},
+			 * such as the ones served by {@link QueryUtils#compiledInput compiled inputs}.
+			 * Items from other containers are still resolved through the annotation storage.
+			 *
+			 * @see AnnotationInfo.Builder#column(int)
+			 */
+			public Builder annotationColumn(String key, int slot) {
+				requireNonNull(key);
+				checkArgument("Column slot must not be negative", slot>=0);
+				checkState("Column already defined for key: "+key, !annotationColumns.containsKey(key));
+				annotationColumns.put(key, Integer.valueOf(slot));
+				return this;
+			}
+
 			public Builder namedLayer(String alias, Layer layer) {
 				requireNonNull(alias);
 				requireNonNull(layer);
@@ -1064,6 +1114,13 @@ public abstract class CorpusData implements AutoCloseable {
 				return this;
 			}
 
+			/** Allows values to be read directly from the given column slot of
+			 * flyweight containers, see {@link AnnotationInfo.Builder#column(int)} */
+			public AnnotationBuilder column(int slot) {
+				builder.column(slot);
+				return this;
+			}
+
 			// Externalized methods
 
 			public AnnotationBuilder integers(ToLongFunction<Item> lookup) {
@@ -60,6 +60,7 @@ public class DefaultJobController implements JobController {
 
 	private final IqlQuery query;
 	private final ExecutorService executorService;
+	private final ExecutionMode executionMode;
 
 	private final AtomicInteger total = new AtomicInteger();
 	private final AtomicInteger active = new AtomicInteger();
@@ -74,6 +75,7 @@ public class DefaultJobController implements JobController {
 	private DefaultJobController(Builder builder) {
 		query = builder.getQuery();
 		executorService = builder.getExecutorService();
+		executionMode = builder.getExecutionMode();
 		shutdownHook = builder.getShutdownHook();
 	}
 
@@ -83,6 +85,9 @@ public class DefaultJobController implements JobController {
 	@Override
 	public int getActive() { return active.get(); }
 
+	/** Returns the strategy the workers of this controller use for processing batches. */
+	public ExecutionMode getExecutionMode() { return executionMode; }
+
 	@Override
 	public int getTotal() { return total.get(); }
 
@@ -253,6 +258,7 @@ public class DefaultJobController implements JobController {
 
 		private IqlQuery query;
 		private ExecutorService executorService;
+		private ExecutionMode executionMode;
 		private Runnable shutdownHook;
 
 		private Builder() { /* no-op */ }
@@ -275,6 +281,16 @@ public class DefaultJobController implements JobController {
 			return this;
 		}
 
+		/** Returns the execution mode, defaulting to {@link ExecutionMode#PLATFORM}. */
+		public ExecutionMode getExecutionMode() { return executionMode==null ? ExecutionMode.PLATFORM : executionMode; }
+
+		public Builder executionMode(ExecutionMode executionMode) {
+			requireNonNull(executionMode);
+			checkArgument("Execution mode already set", this.executionMode==null);
+			this.executionMode = executionMode;
+			return this;
+		}
+
 		public Runnable getShutdownHook() { return shutdownHook; }
 
 		public Builder shutdownHook(Runnable shutdownHook) {
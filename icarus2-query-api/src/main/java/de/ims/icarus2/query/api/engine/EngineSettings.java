@@ -64,12 +64,20 @@ public class EngineSettings implements Cloneable {
 
 		/** Size of batches processed by a single thread */
 		BATCH_SIZE(1<<7),
+		/**
+		 * Target processing time of a single batch in microseconds. If set, batches are
+		 * sized adaptively based on the number of items in containers and the observed
+		 * throughput of each worker, with {@link #BATCH_SIZE} as upper limit.
+		 */
+		BATCH_TARGET_TIME(UNSET_INT),
 		/** Buffer size for the collector used by a single thread */
 		COLLECTOR_BUFFER_SIZE(1<<10),
 		/** Starting size of the shared main buffer that final result entries end up in */
 		INITIAL_MAIN_BUFFER_SIZE(1<<14),
 		/** Initial size of additional utility buffers, e.g. for sorting or value substitution */
 		INITIAL_SECONDARY_BUFFER_SIZE(1<<12),
+		/** Number of mapping results between two lanes to cache and share among workers, 0 to disable */
+		MAPPING_CACHE_SIZE(QueryUtils.DEFAULT_MAPPING_CACHE_SIZE),
 		/** maximum number of worker threads to use in parallel */
 		WORKER_LIMIT(UNSET_INT),
 		/** Timeout in seconds */
@@ -0,0 +1,68 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.query.api.engine;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Strategies for running the {@link QueryWorker workers} of a {@link QueryJob}.
+ * Regardless of the selected mode, the matcher pipeline of a worker is only
+ * ever accessed by a single thread at a time, so that the thread-affinity checks
+ * via {@link ThreadVerifier} and {@link Tripwire} remain valid.
+ *
+ * @author Markus Gärtner
+ *
+ * @see QueryUtils#createExecutorService(int, ExecutionMode)
+ */
+public enum ExecutionMode {
+
+	/**
+	 * Fixed pool of platform threads, one per worker. Best suited for
+	 * CPU-bound searches on corpora that are already loaded into memory.
+	 */
+	PLATFORM,
+
+	/**
+	 * Every worker runs on its own virtual thread and spawns a new virtual
+	 * thread for every batch it loads. The {@link ThreadVerifier} of the worker
+	 * is handed over to the batch thread for the duration of the batch, while
+	 * the worker already loads the next batch. Blocking on the query input,
+	 * such as filter queues or disk reads when streaming corpus data, therefore
+	 * overlaps with matching and releases the underlying carrier thread instead
+	 * of pinning it. Best suited for I/O-bound inputs or shared servers with many
+	 * concurrent searches.
+	 */
+	VIRTUAL,
+
+	/**
+	 * Workers are scheduled on a {@link java.util.concurrent.ForkJoinPool}
+	 * with a parallelism level equal to the worker limit. Every batch is split
+	 * recursively into chunks that idle workers steal and match with their own
+	 * pipeline, and workers that run out of input help with the remaining batches
+	 * of others. This reduces stragglers when container sizes vary greatly.
+	 */
+	WORK_STEALING,
+	;
+
+	/** Creates a new {@link ExecutorService} for the given number of workers. */
+	public ExecutorService createExecutorService(int workerLimit) {
+		return QueryUtils.createExecutorService(workerLimit, this);
+	}
+}
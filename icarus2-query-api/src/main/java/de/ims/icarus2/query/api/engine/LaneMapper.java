@@ -27,12 +27,16 @@ import static java.util.Objects.requireNonNull;
 import java.util.function.LongFunction;
 import java.util.function.LongUnaryOperator;
 
+import javax.annotation.Nullable;
+
 import de.ims.icarus2.model.api.driver.indices.IndexCollector;
 import de.ims.icarus2.model.api.driver.indices.standard.IndexBuffer;
 import de.ims.icarus2.model.api.driver.mapping.MappingReader;
 import de.ims.icarus2.model.api.driver.mapping.RequestSettings;
 import de.ims.icarus2.util.AbstractBuilder;
 import de.ims.icarus2.util.collections.CollectionUtils;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 
@@ -43,7 +47,16 @@ import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 public abstract class LaneMapper implements AutoCloseable {
 
 	public static LaneMapper forMapping(MappingReader reader, int bufferSize) {
-		return new MapperBacked(reader, bufferSize);
+		return new MapperBacked(reader, bufferSize, null);
+	}
+
+	/**
+	 * Creates a mapper that first consults the given {@code cache} for mapping results
+	 * and only performs lookups on the {@code reader} for missing entries, which are
+	 * then added to the cache.
+	 */
+	public static LaneMapper forMapping(MappingReader reader, int bufferSize, @Nullable SharedCache cache) {
+		return new MapperBacked(reader, bufferSize, cache);
 	}
 
 	public static FixedBuilder fixedBuilder() { return new FixedBuilder(); }
@@ -63,6 +76,16 @@ public abstract class LaneMapper implements AutoCloseable {
 
 	protected abstract void doReset() throws InterruptedException;
 
+	/**
+	 * Signals the start of a new batch of source containers. Implementations
+	 * can use this to keep underlying resources open for the entire batch.
+	 * The default implementation does nothing.
+	 */
+	public void beginBatch() { /* no-op */ }
+
+	/** Signals the end of the current batch. The default implementation does nothing. */
+	public void endBatch() { /* no-op */ }
+
 	@Override
 	public abstract void close();
 
@@ -71,25 +94,62 @@ public abstract class LaneMapper implements AutoCloseable {
 
 	static class MapperBacked extends LaneMapper implements IndexCollector {
 		private final MappingReader reader;
+		private final SharedCache cache;
 		private IndexBuffer buffer;
+		/** Cached mapping result for the current index, if available */
+		private long[] current;
+		/** Flag to signal that the reader has been opened for an entire batch */
+		private boolean inBatch = false;
 
-		MapperBacked(MappingReader reader, int bufferSize) {
+		MapperBacked(MappingReader reader, int bufferSize, SharedCache cache) {
 			this.reader = requireNonNull(reader);
+			this.cache = cache;
 			buffer = new IndexBuffer(bufferSize);
 		}
 
 		@Override
 		protected void doReset() throws InterruptedException {
+			if(cache!=null) {
+				current = cache.get(index());
+				if(current!=null) {
+					return;
+				}
+			}
+
 			buffer.clear();
 
-			reader.begin();
+			if(!inBatch) {
+				reader.begin();
+			}
 			try {
 				reader.lookup(index(), this, RequestSettings.none());
 			} finally {
-				reader.end();
+				if(!inBatch) {
+					reader.end();
+				}
+			}
+
+			if(cache!=null) {
+				long[] targets = new long[buffer.size()];
+				buffer.export(0, targets.length, targets, 0);
+				cache.put(index(), targets);
 			}
 		}
 
+		@Override
+		public void beginBatch() {
+			checkState("batch already started", !inBatch);
+			reader.begin();
+			inBatch = true;
+		}
+
+		@Override
+		public void endBatch() {
+			checkState("no batch started", inBatch);
+			inBatch = false;
+			reader.end();
+		}
+
 		@Override
 		public void add(long index) {
 			if(buffer.remaining()==0) {
@@ -102,14 +162,103 @@ public abstract class LaneMapper implements AutoCloseable {
 
 		@Override
 		public void close() {
+			if(inBatch) {
+				endBatch();
+			}
+			current = null;
 			reader.close();
 		}
 
 		@Override
-		public int size() { return buffer.size(); }
+		public int size() { return current!=null ? current.length : buffer.size(); }
 
 		@Override
-		public long indexAt(int index) { return buffer.indexAt(index); }
+		public long indexAt(int index) { return current!=null ? current[index] : buffer.indexAt(index); }
+	}
+
+	/**
+	 * Bounded cache of mapping results that can be shared by the {@link LaneMapper mappers}
+	 * of multiple workers. Entries are distributed over up to {@value #SEGMENT_COUNT} segments,
+	 * each guarded by its own lock and evicting entries in least-recently-used order once its
+	 * share of the total capacity is exceeded. Small capacities use fewer segments, so that
+	 * the total number of cached entries never exceeds the capacity. Cached arrays must not
+	 * be modified.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	public static final class SharedCache {
+
+		/** Maximum number of segments, must be a power of 2 */
+		static final int SEGMENT_COUNT = 16;
+
+		private final Segment[] segments;
+
+		public SharedCache(int capacity) {
+			checkArgument("capacity must be positive", capacity>0);
+			// Power of 2 so that we can mask the hash, but never more segments than entries
+			int segmentCount = Integer.highestOneBit(Math.min(capacity, SEGMENT_COUNT));
+			int segmentCapacity = capacity / segmentCount;
+			int remainder = capacity % segmentCount;
+			segments = new Segment[segmentCount];
+			for (int i = 0; i < segments.length; i++) {
+				// Distribute the remainder so that the total matches the capacity
+				segments[i] = new Segment(i<remainder ? segmentCapacity+1 : segmentCapacity);
+			}
+		}
+
+		private Segment segment(long source) {
+			return segments[(int) (HashCommon.mix(source) & (segments.length-1))];
+		}
+
+		/** Returns the cached targets for {@code source} or {@code null} if not cached. */
+		public long[] get(long source) {
+			return segment(source).get(source);
+		}
+
+		public void put(long source, long[] targets) {
+			requireNonNull(targets);
+			segment(source).put(source, targets);
+		}
+
+		/** Returns the total number of cached entries. */
+		public int size() {
+			int size = 0;
+			for (Segment segment : segments) {
+				size += segment.size();
+			}
+			return size;
+		}
+
+		public void clear() {
+			for (Segment segment : segments) {
+				segment.clear();
+			}
+		}
+
+		private static final class Segment {
+			private final Long2ObjectLinkedOpenHashMap<long[]> entries = new Long2ObjectLinkedOpenHashMap<>();
+			private final int capacity;
+
+			Segment(int capacity) {
+				this.capacity = capacity;
+			}
+
+			synchronized long[] get(long source) {
+				return entries.getAndMoveToLast(source);
+			}
+
+			synchronized void put(long source, long[] targets) {
+				entries.putAndMoveToLast(source, targets);
+				if(entries.size()>capacity) {
+					entries.removeFirst();
+				}
+			}
+
+			synchronized int size() { return entries.size(); }
+
+			synchronized void clear() { entries.clear(); }
+		}
 	}
 
 	static class Fixed extends LaneMapper {
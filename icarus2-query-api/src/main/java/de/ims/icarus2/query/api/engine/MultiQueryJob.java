@@ -0,0 +1,314 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.query.api.engine;
+
+import static de.ims.icarus2.util.Conditions.checkArgument;
+import static de.ims.icarus2.util.Conditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import de.ims.icarus2.model.api.members.container.Container;
+import de.ims.icarus2.query.api.engine.SingleStreamJob.Pipeline;
+import de.ims.icarus2.query.api.engine.matcher.Matcher;
+import de.ims.icarus2.query.api.engine.result.MappingContext;
+import de.ims.icarus2.query.api.iql.IqlQuery;
+import de.ims.icarus2.util.AbstractBuilder;
+import de.ims.icarus2.util.MutablePrimitives.MutableInteger;
+import de.ims.icarus2.util.collections.CollectionUtils;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+/**
+ * Implements a {@link QueryJob} that evaluates multiple {@link SingleStreamJob jobs}
+ * in a single pass over their shared {@link QueryInput input}. Every batch of
+ * containers loaded from the input is fed to the matchers of all the jobs that
+ * still require results, so that I/O and materialization of the corpus data is
+ * only done once for the entire set of queries.
+ * <p>
+ * All the jobs must be based on the same {@link CorpusData} and {@link QueryInput}.
+ * Each job keeps its own {@link QueryOutput output} and with that its own result
+ * limit. Once the output of a job is {@link QueryOutput#isFull() full}, the job
+ * drops out of the evaluation and the remaining jobs continue. The search ends as
+ * soon as the input is exhausted or no more job requires results.
+ * <p>
+ * Loading of batches is shared with {@link SingleStreamJob}, including adaptive
+ * batch sizing if a {@link Builder#batchTargetTime(long, TimeUnit) target time}
+ * is set for the batch or any of its jobs.
+ * <p>
+ * A batch has no single query as its source. The methods {@link #getSource()} and
+ * {@link #getMappingContext()} therefore only reflect the first job and are mainly
+ * meant to label the {@link JobController} of the batch. Per-query information is
+ * available via {@link #getJob(int)}.
+ *
+ * @author Markus Gärtner
+ *
+ */
+public class MultiQueryJob implements QueryJob, QueryWorker.Task {
+
+	public static Builder builder() { return new Builder(); }
+
+	private static final String KEY_PIPELINES = "pipelines";
+
+	private final SingleStreamJob[] jobs;
+	private final CorpusData corpusData;
+	private final QueryInput input;
+	private final int batchSize;
+	/** Target time per batch for adaptive batching in nanoseconds, or {@code 0} if disabled */
+	private final long batchTargetTime;
+	/** Number of workers created by the last call to {@link #execute(ExecutorService, int, ExecutionMode)} */
+	private volatile int workerCount = 1;
+
+	private MultiQueryJob(Builder builder) {
+		jobs = CollectionUtils.toArray(builder.getJobs(), SingleStreamJob[]::new);
+		corpusData = jobs[0].getCorpusData();
+		input = jobs[0].getInput();
+		batchSize = builder.getBatchSize();
+		batchTargetTime = builder.getBatchTargetTime();
+	}
+
+	/**
+	 * Returns the source of the first job in this batch. Use {@link #getJob(int)}
+	 * to access the queries of the other jobs.
+	 */
+	@Override
+	public IqlQuery getSource() { return jobs[0].getSource(); }
+
+	/**
+	 * Returns the mapping context of the first job in this batch. Matches of the
+	 * other jobs have to be interpreted with the mapping context of the
+	 * {@link #getJob(int) respective job}.
+	 */
+	@Override
+	public MappingContext getMappingContext() { return jobs[0].getMappingContext(); }
+
+	public int getJobCount() { return jobs.length; }
+
+	public SingleStreamJob getJob(int index) { return jobs[index]; }
+
+	public int getBatchSize() { return batchSize; }
+
+	public long getBatchTargetTime() { return batchTargetTime; }
+
+	private void shutdown() {
+		corpusData.close();
+	}
+
+	@Override
+	public JobController execute(ExecutorService executorService, int workerLimit, ExecutionMode mode) {
+		requireNonNull(executorService);
+		requireNonNull(mode);
+		checkArgument("worker limit must be positive", workerLimit>0);
+
+		DefaultJobController controller = DefaultJobController.builder()
+				.executorService(executorService)
+				.executionMode(mode)
+				.query(getSource())
+				.shutdownHook(this::shutdown)
+				.build();
+
+		workerCount = workerLimit;
+
+		for (int i = 0; i < workerLimit; i++) {
+			controller.createWorker("worker-"+i, this);
+		}
+
+		return controller;
+	}
+
+	/**
+	 * @see de.ims.icarus2.query.api.engine.QueryWorker.Task#execute(de.ims.icarus2.query.api.engine.QueryWorker)
+	 */
+	@Override
+	public void execute(QueryWorker worker) throws InterruptedException {
+		// Make sure we're on the right thread to begin with!
+		if(Tripwire.ACTIVE) {
+			worker.getThreadVerifier().checkThread();
+		}
+
+		final ThreadVerifier threadVerifier = worker.getThreadVerifier();
+		final Pipeline[] pipelines = new Pipeline[jobs.length];
+		worker.putClientData(KEY_PIPELINES, pipelines);
+		for (int i = 0; i < jobs.length; i++) {
+			pipelines[i] = jobs[i].createPipeline(threadVerifier);
+		}
+
+		// Indices of all the jobs that still need results, compacted as jobs drop out
+		final int[] active = new int[jobs.length];
+		Arrays.setAll(active, i -> i);
+		final MutableInteger activeCount = new MutableInteger(active.length);
+
+		SingleStreamJob.processInput(input, batchSize, batchTargetTime, workerCount, worker, (buffer, from, to) -> {
+			/*
+			 *  Process the batch query by query. This keeps the state of
+			 *  a single matcher hot while the containers of the batch are
+			 *  only materialized once for all the queries.
+			 */
+			for (int j = 0; j < activeCount.intValue(); ) {
+				final int jobIndex = active[j];
+				final QueryOutput output = jobs[jobIndex].getOutput();
+				final Pipeline pipeline = pipelines[jobIndex];
+				final Matcher<Container> matcher = pipeline.getMatcher();
+
+				// Another worker might have filled the output already
+				boolean full = output.isFull();
+
+				pipeline.beginBatch();
+				try {
+					for (int i = from; i < to && !full; i++) {
+						// Abort search when canceled
+						if(worker.isCanceled()) {
+							return false;
+						}
+
+						Container target = buffer[i];
+						// We rely on the original index values assigned to each container
+						if(matcher.matches(target.getIndex(), target)) {
+							full = output.isFull();
+						}
+					}
+				} finally {
+					pipeline.endBatch();
+				}
+
+				if(full) {
+					// Drop the job by moving the last active one into its slot
+					active[j] = active[activeCount.decrementAndGet()];
+				} else {
+					j++;
+				}
+			}
+
+			// Exit entire search if all queries have enough results already
+			return activeCount.intValue()>0;
+		});
+	}
+
+	/**
+	 * @see de.ims.icarus2.query.api.engine.QueryWorker.Task#cleanup(de.ims.icarus2.query.api.engine.QueryWorker)
+	 */
+	@Override
+	public void cleanup(QueryWorker worker) {
+		final ThreadVerifier threadVerifier = worker.getThreadVerifier();
+		if(Tripwire.ACTIVE) {
+			threadVerifier.checkThread();
+		}
+
+		// Shut down the output buffers of all jobs
+		for (SingleStreamJob job : jobs) {
+			job.getOutput().closeTerminalCollector(threadVerifier);
+		}
+
+		// Cleanup all our previously stored container references
+		Container[] buffer = worker.removeClientData(SingleStreamJob.KEY_BUFFER);
+		if(buffer!=null) {
+			Arrays.fill(buffer, null);
+		}
+
+		// Pipelines might only be partially created if errors occurred
+		Pipeline[] pipelines = worker.removeClientData(KEY_PIPELINES);
+		if(pipelines!=null) {
+			for (Pipeline pipeline : pipelines) {
+				if(pipeline!=null) {
+					pipeline.close();
+				}
+			}
+		}
+	}
+
+	public static class Builder extends AbstractBuilder<Builder, MultiQueryJob> {
+
+		private final List<SingleStreamJob> jobs = new ObjectArrayList<>();
+		private Integer batchSize;
+		private Long batchTargetTime;
+
+		private Builder() { /* no-op */ }
+
+		public List<SingleStreamJob> getJobs() { return CollectionUtils.unmodifiableListProxy(jobs); }
+
+		public Builder addJob(SingleStreamJob job) {
+			requireNonNull(job);
+			jobs.add(job);
+			return this;
+		}
+
+		public Builder addJobs(List<SingleStreamJob> jobs) {
+			requireNonNull(jobs);
+			checkArgument("jobs list empty", !jobs.isEmpty());
+			this.jobs.addAll(jobs);
+			return this;
+		}
+
+		/** Returns the explicitly set batch size or the largest batch size of all jobs. */
+		public int getBatchSize() {
+			if(batchSize!=null) {
+				return batchSize.intValue();
+			}
+			return jobs.stream().mapToInt(SingleStreamJob::getBatchSize).max().orElse(QueryUtils.DEFAULT_BATCH_SIZE);
+		}
+
+		public Builder batchSize(int batchSize) {
+			checkArgument("Batch size must be positive", batchSize>0);
+			checkArgument("Batch size already set", this.batchSize==null);
+			this.batchSize = Integer.valueOf(batchSize);
+			return this;
+		}
+
+		/**
+		 * Returns the explicitly set target time per batch in nanoseconds or the
+		 * largest target time of all jobs. A value of {@code 0} means adaptive
+		 * batching is disabled.
+		 */
+		public long getBatchTargetTime() {
+			if(batchTargetTime!=null) {
+				return batchTargetTime.longValue();
+			}
+			return jobs.stream().mapToLong(SingleStreamJob::getBatchTargetTime).max().orElse(0);
+		}
+
+		/**
+		 * Enables adaptive batch sizing with the given target processing time
+		 * per batch. The {@link #batchSize(int) batch size} then serves as upper
+		 * limit for the number of containers in a batch.
+		 */
+		public Builder batchTargetTime(long time, TimeUnit unit) {
+			checkArgument("Batch target time must be positive", time>0);
+			checkArgument("Batch target time already set", this.batchTargetTime==null);
+			this.batchTargetTime = Long.valueOf(unit.toNanos(time));
+			return this;
+		}
+
+		@Override
+		protected void validate() {
+			checkState("No jobs defined", !jobs.isEmpty());
+
+			SingleStreamJob first = jobs.get(0);
+			for(SingleStreamJob job : jobs) {
+				checkState("Jobs must share the same corpus data", job.getCorpusData()==first.getCorpusData());
+				checkState("Jobs must share the same input", job.getInput()==first.getInput());
+			}
+		}
+
+		@Override
+		protected MultiQueryJob create() { return new MultiQueryJob(this); }
+	}
+}
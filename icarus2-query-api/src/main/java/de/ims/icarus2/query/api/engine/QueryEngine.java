@@ -18,6 +18,7 @@ package de.ims.icarus2.query.api.engine;
 
 import static de.ims.icarus2.model.util.ModelUtils.getName;
 import static de.ims.icarus2.query.api.iql.IqlUtils.fragment;
+import static de.ims.icarus2.util.Conditions.checkArgument;
 import static de.ims.icarus2.util.Conditions.checkState;
 import static de.ims.icarus2.util.IcarusUtils.UNSET_INT;
 import static de.ims.icarus2.util.lang.Primitives._int;
@@ -29,6 +30,7 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -157,6 +159,72 @@ public class QueryEngine implements AutoCloseable {
 		return new StreamProcessor(queryContext, streams.get(0)).process();
 	}
 
+	/**
+	 * Evaluates a batch of queries in a single pass over the corpus. All queries
+	 * must consist of a single stream each, target the same corpus and resolve to
+	 * the same scope. The resulting job shares the stream of containers between
+	 * all queries, while each query keeps its own output, limits and result sink.
+	 *
+	 * @param queries the queries to evaluate
+	 * @param resultSinks the sinks for the individual queries, in the same order as {@code queries}
+	 *
+	 * @see MultiQueryJob
+	 */
+	public MultiQueryJob evaluateQueries(List<IqlQuery> queries,
+			List<? extends ResultSink> resultSinks) throws InterruptedException {
+		requireNonNull(queries);
+		requireNonNull(resultSinks);
+		checkArgument("No queries to evaluate", !queries.isEmpty());
+		checkArgument("Need exactly one result sink per query", queries.size()==resultSinks.size());
+
+		final List<StreamProcessor> processors = new ObjectArrayList<>(queries.size());
+		for (int i = 0; i < queries.size(); i++) {
+			IqlQuery query = queries.get(i);
+			// Ensure we only ever consider validated queries
+			query.checkIntegrity();
+
+			QueryContext queryContext = new QueryContext(query, resultSinks.get(i));
+
+			List<IqlStream> streams = query.getStreams();
+			if(streams.size()>1)
+				throw new QueryException(QueryErrorCode.UNSUPPORTED_FEATURE,
+						"Queries on multiple corpus streams not supported in batch evaluation");
+
+			StreamProcessor processor = new StreamProcessor(queryContext, streams.get(0));
+			processor.prepare();
+			processors.add(processor);
+		}
+
+		final StreamProcessor first = processors.get(0);
+		final Scope scope = first.getScope();
+		for(StreamProcessor processor : processors) {
+			if(!isSameScope(scope, processor.getScope()))
+				throw new QueryException(QueryErrorCode.INCORRECT_USE,
+						"All queries in a batch must share the same corpus and scope");
+		}
+
+		final CorpusData corpusData = CorpusData.CorpusBacked.builder()
+				.scope(scope)
+				.build();
+		final QueryInput input = QueryUtils.streamedInput(first.createStream(scope));
+
+		MultiQueryJob.Builder builder = MultiQueryJob.builder()
+				.batchSize(settings.getInt(IntField.BATCH_SIZE));
+		for(StreamProcessor processor : processors) {
+			builder.addJob(processor.createJob(corpusData, input));
+		}
+
+		return builder.build();
+	}
+
+	/** Checks whether two scopes cover the same corpus, layers and primary layer. */
+	private static boolean isSameScope(Scope s1, Scope s2) {
+		return s1.getCorpus()==s2.getCorpus()
+				&& s1.getPrimaryLayer()==s2.getPrimaryLayer()
+				&& new ReferenceOpenHashSet<>(s1.getLayers()).equals(
+						new ReferenceOpenHashSet<>(s2.getLayers()));
+	}
+
 	/**
 	 * Parses a raw JSON query into an {@link IqlQuery} instance,
 	 * but does <b>not</b> parse the embedded textual representations
@@ -241,6 +309,11 @@ public class QueryEngine implements AutoCloseable {
 		private final IqlStream stream;
 		private final boolean ignoreWarnings;
 
+		/** Fully processed payload, available after {@link #prepare()} */
+		private IqlPayload payload;
+		/** Scope on the live corpus, available after {@link #prepare()} */
+		private Scope scope;
+
 		StreamProcessor(QueryContext queryContext, IqlStream stream) {
 			this.queryContext = requireNonNull(queryContext);
 			this.stream = requireNonNull(stream);
@@ -248,6 +321,22 @@ public class QueryEngine implements AutoCloseable {
 		}
 
 		QueryJob process() throws InterruptedException {
+			prepare();
+
+			final CorpusData corpusData = CorpusData.CorpusBacked.builder()
+					.scope(scope)
+					.build();
+
+			return createJob(corpusData, QueryUtils.streamedInput(createStream(scope)));
+		}
+
+		Scope getScope() { return scope; }
+
+		/**
+		 * Parses the stream content, connects to the target corpus and resolves
+		 * the scope of the stream.
+		 */
+		void prepare() throws InterruptedException {
 			Set<Option> options = EnumSet.noneOf(Option.class);
 			if(ignoreWarnings) {
 				options.add(Option.IGNORE_WARNINGS);
@@ -257,7 +346,7 @@ public class QueryEngine implements AutoCloseable {
 			// Intermediate sanity check against missed settings
 			stream.checkIntegrity();
 
-			final IqlPayload payload = stream.getPayload().orElseThrow(
+			payload = stream.getPayload().orElseThrow(
 					() -> EvaluationUtils.forInternalError("Failed to construct payload"));
 
 			if(payload.getQueryType()==QueryType.ALL)
@@ -277,11 +366,15 @@ public class QueryEngine implements AutoCloseable {
 				throw new QueryException(QueryErrorCode.CORPUS_UNREACHABLE,
 						String.format("Failed to conenct to corpus: %s", corpusId));
 
-			final Scope scope = createScope(corpus, stream);
+			scope = createScope(corpus, stream);
+		}
 
-			final CorpusData corpusData = CorpusData.CorpusBacked.builder()
-					.scope(scope)
-					.build();
+		/**
+		 * Builds the matcher patterns and output for the prepared stream and wraps
+		 * them into a new job that reads from the given {@code input}.
+		 */
+		SingleStreamJob createJob(CorpusData corpusData, QueryInput input) {
+			checkState("Processor not prepared", payload!=null && scope!=null);
 
 			final RootContext rootContext = createContext(corpusData, payload);
 
@@ -313,10 +406,16 @@ public class QueryEngine implements AutoCloseable {
 			SingleStreamJob.Builder builder = SingleStreamJob.builder()
 					.addPatterns(patterns)
 					.batchSize(settings.getInt(IntField.BATCH_SIZE))
+					.mappingCacheSize(settings.getInt(IntField.MAPPING_CACHE_SIZE))
 					.query(queryContext.getQuery())
-					.input(QueryUtils.streamedInput(createStream(scope)))
+					.input(input)
 					.output(output);
 
+			final int batchTargetTime = settings.getInt(IntField.BATCH_TARGET_TIME);
+			if(batchTargetTime!=UNSET_INT && batchTargetTime>0) {
+				builder.batchTargetTime(batchTargetTime, TimeUnit.MICROSECONDS);
+			}
+
 			// Only register substitutor if the output actually used it
 			substitutor.optional().ifPresent(builder::addCloseable);
 
@@ -35,6 +35,26 @@ public interface QueryInput extends AutoCloseable {
 	 */
 	int load(Container[] buffer) throws InterruptedException;
 
+	/**
+	 * Loads items into the given {@code buffer} similar to {@link #load(Container[])},
+	 * but stops as soon as either {@code maxCount} containers have been loaded or the
+	 * total number of {@link Container#getItemCount() items} in the loaded containers
+	 * reaches {@code itemBudget}. At least one container is loaded if available.
+	 * <p>
+	 * The default implementation ignores both limits and delegates to {@link #load(Container[])}.
+	 */
+	default int load(Container[] buffer, int maxCount, long itemBudget) throws InterruptedException {
+		return load(buffer);
+	}
+
+	/**
+	 * Returns an estimate of the number of containers still available from this
+	 * input or {@code -1} if no such estimate is possible.
+	 */
+	default long estimateRemaining() {
+		return -1;
+	}
+
 	@Override
 	void close();
 }
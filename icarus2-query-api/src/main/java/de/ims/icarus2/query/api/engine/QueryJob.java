@@ -53,18 +53,39 @@ public interface QueryJob {
 	 * merely prepares them and initializes the required buffer structures and result
 	 * handlers. Only by calling {@link JobController#start()} on the returned controller
 	 * will the actual search be started.
+	 * <p>
+	 * The given {@link ExecutionMode mode} must match the kind of threads provided by
+	 * the executor service and determines how the workers process their batches.
 	 */
-	JobController execute(ExecutorService executorService, int workerLimit);
+	JobController execute(ExecutorService executorService, int workerLimit, ExecutionMode mode);
+
+	/**
+	 * Similar to {@link #execute(ExecutorService, int, ExecutionMode)} method, but uses
+	 * the {@link ExecutionMode#PLATFORM platform} mode.
+	 */
+	default JobController execute(ExecutorService executorService, int workerLimit) {
+		return execute(executorService, workerLimit, ExecutionMode.PLATFORM);
+	}
 
 	/**
 	 * Similar to {@link #execute(ExecutorService, int)} method, but internally picks a
 	 * suitable executor service based on the specified worker limit.
 	 */
 	default JobController execute(int workerLimit) {
+		return execute(workerLimit, ExecutionMode.PLATFORM);
+	}
+
+	/**
+	 * Similar to {@link #execute(int)} method, but lets the caller choose the
+	 * strategy for running the workers.
+	 *
+	 * @see ExecutionMode
+	 */
+	default JobController execute(int workerLimit, ExecutionMode mode) {
 		checkArgument("worker limit must be positive", workerLimit>0);
 
-		final ExecutorService executorService = QueryUtils.createExecutorService(workerLimit);
-		return execute(executorService, workerLimit);
+		final ExecutorService executorService = QueryUtils.createExecutorService(workerLimit, mode);
+		return execute(executorService, workerLimit, mode);
 	}
 
 	/**
@@ -24,22 +24,33 @@ import static de.ims.icarus2.util.IcarusUtils.UNSET_INT;
 import static java.util.Objects.requireNonNull;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 import javax.annotation.concurrent.ThreadSafe;
 
+import de.ims.icarus2.GlobalErrorCode;
+import de.ims.icarus2.filedriver.compiled.CompiledCorpusReader;
 import de.ims.icarus2.model.api.corpus.CorpusOwner;
 import de.ims.icarus2.model.api.members.container.Container;
 import de.ims.icarus2.model.api.view.streamed.StreamedCorpusView;
+import de.ims.icarus2.model.standard.members.container.FlyweightContainer;
+import de.ims.icarus2.query.api.QueryException;
 import de.ims.icarus2.query.api.engine.result.Match;
 import de.ims.icarus2.query.api.engine.result.MatchCollector;
 import de.ims.icarus2.util.annotations.PreliminaryValue;
 import de.ims.icarus2.util.collections.CollectionUtils;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 
 /**
  * @author Markus Gärtner
@@ -53,6 +64,9 @@ public class QueryUtils {
 	@PreliminaryValue
 	public static final int DEFAULT_BATCH_SIZE = 1<<10;
 
+	@PreliminaryValue
+	public static final int DEFAULT_MAPPING_CACHE_SIZE = 1<<14;
+
 	private static class WorkerThreadFactory implements ThreadFactory {
 
 	    private final AtomicInteger counter;
@@ -79,14 +93,44 @@ public class QueryUtils {
 		return new WorkerThreadFactory("icqp-batch-"+factoryCounter.incrementAndGet());
 	}
 
+	/** Creates a new executor using {@link ExecutionMode#PLATFORM platform} threads. */
 	public static ExecutorService createExecutorService(int workerLimit) {
+		return createExecutorService(workerLimit, ExecutionMode.PLATFORM);
+	}
+
+	public static ExecutorService createExecutorService(int workerLimit, ExecutionMode mode) {
 		checkArgument("worker limit must be positive", workerLimit>0);
+		requireNonNull(mode);
+
+		switch (mode) {
+		case PLATFORM: {
+			if(workerLimit==1) {
+				return Executors.newSingleThreadExecutor(createThreadFactory());
+			}
+			return Executors.newFixedThreadPool(workerLimit, createThreadFactory());
+		}
+
+		case VIRTUAL: {
+			ThreadFactory factory = Thread.ofVirtual()
+					.name("icqp-vbatch-"+factoryCounter.incrementAndGet()+"-worker-", 1)
+					.factory();
+			return Executors.newThreadPerTaskExecutor(factory);
+		}
 
-		if(workerLimit==1) {
-			return Executors.newSingleThreadExecutor(createThreadFactory());
+		case WORK_STEALING: {
+			final String prefix = "icqp-fjbatch-"+factoryCounter.incrementAndGet()+"-worker-";
+			final AtomicInteger counter = new AtomicInteger();
+			// Chunks of batches are joined, so we stick to the default LIFO scheduling
+			return new ForkJoinPool(workerLimit, pool -> {
+				ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+				thread.setName(prefix + counter.incrementAndGet());
+				return thread;
+			}, null, false);
 		}
 
-		return Executors.newFixedThreadPool(workerLimit, createThreadFactory());
+		default:
+			throw new QueryException(GlobalErrorCode.INTERNAL_ERROR, "Unknown execution mode: "+mode);
+		}
 	}
 
 	public static QueryInput fixedInput(Container...containers) {
@@ -97,22 +141,57 @@ public class QueryUtils {
 	static class FixedQueryInput implements QueryInput {
 		private final Container[] items;
 		private int cursor = 0;
+		/** Explicit lock instead of monitors, so that waiting virtual threads don't pin their carrier */
+		private final Lock lock = new ReentrantLock();
 
 		FixedQueryInput(Container[] items) {
 			this.items = requireNonNull(items);
 		}
 
 		@Override
-		public synchronized int load(Container[] buffer) {
-			if(cursor>=items.length) {
-				return 0;
+		public int load(Container[] buffer) {
+			lock.lock();
+			try {
+				if(cursor>=items.length) {
+					return 0;
+				}
+
+				final int len = Math.min(buffer.length, items.length-cursor);
+				System.arraycopy(items, cursor, buffer, 0, len);
+				cursor += len;
+
+				return len;
+			} finally {
+				lock.unlock();
 			}
+		}
 
-			final int len = Math.min(buffer.length, items.length-cursor);
-			System.arraycopy(items, cursor, buffer, 0, len);
-			cursor += len;
+		@Override
+		public int load(Container[] buffer, int maxCount, long itemBudget) {
+			lock.lock();
+			try {
+				final int limit = Math.min(buffer.length, maxCount);
+				int count = 0;
+				long itemCount = 0;
+				while(count < limit && cursor < items.length && itemCount < itemBudget) {
+					Container container = items[cursor++];
+					buffer[count++] = container;
+					itemCount += container.getItemCount();
+				}
+				return count;
+			} finally {
+				lock.unlock();
+			}
+		}
 
-			return len;
+		@Override
+		public long estimateRemaining() {
+			lock.lock();
+			try {
+				return items.length-cursor;
+			} finally {
+				lock.unlock();
+			}
 		}
 
 		@Override
@@ -126,19 +205,67 @@ public class QueryUtils {
 	@ThreadSafe
 	static class StreamedQueryInput implements QueryInput, CorpusOwner {
 		private final StreamedCorpusView view;
+		/**
+		 * Explicit lock instead of monitors. Advancing the view can block on disk
+		 * reads, which must not pin the carrier thread of a virtual worker.
+		 */
+		private final Lock lock = new ReentrantLock();
+		/** Total number of containers in the view or {@code -1} if unknown */
+		private final long size;
+		/** Number of containers handed out so far */
+		private long consumed = 0;
 
 		StreamedQueryInput(StreamedCorpusView view) {
 			this.view = requireNonNull(view);
 			view.acquire(this);
+			size = Math.max(-1, view.getSize());
 		}
 
 		@Override
-		public synchronized int load(Container[] buffer) {
-			int count = 0;
-			while(count < buffer.length && view.advance()) {
-				buffer[count++] = (Container) view.currentItem();
+		public int load(Container[] buffer) {
+			lock.lock();
+			try {
+				int count = 0;
+				while(count < buffer.length && view.advance()) {
+					buffer[count++] = (Container) view.currentItem();
+				}
+				consumed += count;
+				return count;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public int load(Container[] buffer, int maxCount, long itemBudget) {
+			lock.lock();
+			try {
+				final int limit = Math.min(buffer.length, maxCount);
+				int count = 0;
+				long itemCount = 0;
+				while(count < limit && itemCount < itemBudget && view.advance()) {
+					Container container = (Container) view.currentItem();
+					buffer[count++] = container;
+					itemCount += container.getItemCount();
+				}
+				consumed += count;
+				return count;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public long estimateRemaining() {
+			if(size<0) {
+				return -1;
+			}
+			lock.lock();
+			try {
+				return Math.max(0, size-consumed);
+			} finally {
+				lock.unlock();
 			}
-			return count;
 		}
 
 		@Override
@@ -161,6 +288,100 @@ public class QueryUtils {
 		}
 	}
 
+	/**
+	 * Creates an input that serves the containers of a compiled corpus as
+	 * {@link FlyweightContainer flyweight views}. The given supplier is used to
+	 * create a fully configured {@link CompiledCorpusReader.Scanner scanner} for
+	 * every slot of every buffer passed to the input, so annotations that are
+	 * bound to a column in the scanner can be read directly from that column
+	 * by annotation lookups with a matching {@link CorpusData.CorpusBacked.Builder#annotationColumn(String, int) slot}.
+	 * <p>
+	 * Since views get repositioned on every load, containers handed out by the
+	 * returned input are only valid until the next load into the same buffer.
+	 * The reader itself is not closed together with the input.
+	 */
+	public static QueryInput compiledInput(CompiledCorpusReader reader,
+			Supplier<CompiledCorpusReader.Scanner> scanners) {
+		return new CompiledQueryInput(reader, scanners);
+	}
+
+	@ThreadSafe
+	static class CompiledQueryInput implements QueryInput {
+		private final CompiledCorpusReader reader;
+		private final Supplier<CompiledCorpusReader.Scanner> scanners;
+		private final long containerCount;
+		/** Explicit lock instead of monitors, so that waiting virtual threads don't pin their carrier */
+		private final Lock lock = new ReentrantLock();
+		/** Next container to be handed out */
+		private long cursor = 0;
+		/** Scanners per buffer slot, each buffer is only ever used by one thread at a time */
+		private final Map<Container[], CompiledCorpusReader.Scanner[]> bufferScanners
+				= new Reference2ObjectOpenHashMap<>();
+
+		CompiledQueryInput(CompiledCorpusReader reader, Supplier<CompiledCorpusReader.Scanner> scanners) {
+			this.reader = requireNonNull(reader);
+			this.scanners = requireNonNull(scanners);
+			containerCount = reader.getContainerCount();
+		}
+
+		@Override
+		public int load(Container[] buffer) {
+			return load(buffer, buffer.length, Long.MAX_VALUE);
+		}
+
+		@Override
+		public int load(Container[] buffer, int maxCount, long itemBudget) {
+			final CompiledCorpusReader.Scanner[] slots;
+			final long begin;
+			int count = 0;
+			lock.lock();
+			try {
+				slots = bufferScanners.computeIfAbsent(buffer,
+						b -> new CompiledCorpusReader.Scanner[b.length]);
+				final int limit = Math.min(buffer.length, maxCount);
+				begin = cursor;
+				long itemCount = 0;
+				while(count < limit && cursor < containerCount && itemCount < itemBudget) {
+					itemCount += reader.getContainerSize(cursor++);
+					count++;
+				}
+			} finally {
+				lock.unlock();
+			}
+
+			// Reserved range is exclusive to the caller, so positioning can happen unlocked
+			for (int i = 0; i < count; i++) {
+				CompiledCorpusReader.Scanner scanner = slots[i];
+				if(scanner==null) {
+					scanner = requireNonNull(scanners.get(), "Scanner supplier returned null");
+					slots[i] = scanner;
+				}
+				buffer[i] = scanner.load(begin+i);
+			}
+			return count;
+		}
+
+		@Override
+		public long estimateRemaining() {
+			lock.lock();
+			try {
+				return containerCount-cursor;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public void close() {
+			lock.lock();
+			try {
+				bufferScanners.clear();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
 	public static BufferedQueryOutput bufferedOutput(int id, int limit) {
 		return new BufferedQueryOutput(id, limit);
 	}
@@ -28,15 +28,23 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.LongFunction;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.ims.icarus2.GlobalErrorCode;
 import de.ims.icarus2.model.api.members.container.Container;
 import de.ims.icarus2.model.api.members.item.Item;
+import de.ims.icarus2.query.api.QueryException;
 import de.ims.icarus2.query.api.engine.CorpusData.LayerRef;
 import de.ims.icarus2.query.api.engine.matcher.Matcher;
 import de.ims.icarus2.query.api.engine.matcher.StructurePattern;
@@ -68,15 +76,19 @@ public abstract class SingleStreamJob implements QueryJob, QueryWorker.Task {
 
 	public static Builder builder() { return new Builder(); }
 
-	private static final String KEY_BUFFER = "buffer";
-	private static final String KEY_MATCHER = "matcher";
-	private static final String KEY_BRIDGES = "bridges";
+	/** Key for the container buffer stored as client data in workers, shared with {@link MultiQueryJob} */
+	static final String KEY_BUFFER = "buffer";
+	private static final String KEY_PIPELINE = "pipeline";
 
 	protected final CorpusData corpusData;
 	protected final IqlQuery query;
 	protected final QueryInput input;
 	protected final QueryOutput output;
 	protected final int batchSize;
+	/** Target time per batch for adaptive batching in nanoseconds, or {@code 0} if disabled */
+	protected final long batchTargetTime;
+	/** Number of workers created by the last call to {@link #execute(ExecutorService, int, ExecutionMode)} */
+	private volatile int workerCount = 1;
 
 	protected final MappingContext mappingContext;
 
@@ -87,6 +99,7 @@ public abstract class SingleStreamJob implements QueryJob, QueryWorker.Task {
 		input = builder.getInput();
 		output = builder.getOutput();
 		batchSize = builder.getBatchSize();
+		batchTargetTime = builder.getBatchTargetTime();
 		corpusData = builder.getCorpusData();
 		closeables = new ObjectArrayList<>(builder.getCloseables());
 
@@ -107,21 +120,33 @@ public abstract class SingleStreamJob implements QueryJob, QueryWorker.Task {
 
 	public int getBatchSize() { return batchSize; }
 
+	public long getBatchTargetTime() { return batchTargetTime; }
+
+	QueryInput getInput() { return input; }
+
+	QueryOutput getOutput() { return output; }
+
+	CorpusData getCorpusData() { return corpusData; }
+
 	private void shutdown() {
 		corpusData.close();
 	}
 
 	@Override
-	public JobController execute(ExecutorService executorService, int workerLimit) {
+	public JobController execute(ExecutorService executorService, int workerLimit, ExecutionMode mode) {
 		requireNonNull(executorService);
+		requireNonNull(mode);
 		checkArgument("worker limit must be positive", workerLimit>0);
 
 		DefaultJobController controller = DefaultJobController.builder()
 				.executorService(executorService)
+				.executionMode(mode)
 				.query(query)
 				.shutdownHook(this::shutdown)
 				.build();
 
+		workerCount = workerLimit;
+
 		for (int i = 0; i < workerLimit; i++) {
 			controller.createWorker("worker-"+i, this);
 		}
@@ -134,19 +159,117 @@ public abstract class SingleStreamJob implements QueryJob, QueryWorker.Task {
 	 * in batches. This method returns once there are no more remaining items
 	 * in the underlying {@link QueryInput input} or the {@link QueryOutput output}
 	 * is {@link QueryOutput#isFull() full}.
+	 *
+	 * @see #processInput(QueryInput, int, long, int, QueryWorker, BatchHandler)
+	 */
+	final void matchInput(Pipeline pipeline, QueryWorker worker) {
+
+		final Matcher<Container> matcher = pipeline.getMatcher();
+
+		processInput(input, batchSize, batchTargetTime, workerCount, worker, (buffer, from, to) -> {
+			pipeline.beginBatch();
+			try {
+				for (int i = from; i < to; i++) {
+					// Abort search when canceled
+					if(worker.isCanceled()) {
+						return false;
+					}
+
+					Container target = buffer[i];
+					// We rely on the original index values assigned to each container
+					if(matcher.matches(target.getIndex(), target)) {
+						// Exit entire search if we have enough results already
+						if(output.isFull()) {
+							return false;
+						}
+					}
+				}
+			} finally {
+				pipeline.endBatch();
+			}
+			return true;
+		});
+	}
+
+	/**
+	 * Callback for {@link SingleStreamJob#processInput(QueryInput, int, long, int, QueryWorker, BatchHandler)}
+	 * to process a single batch of containers.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	@FunctionalInterface
+	interface BatchHandler {
+		/**
+		 * Processes the containers in the given buffer between {@code from}, inclusive,
+		 * and {@code to}, exclusive, and returns {@code true} if the search should
+		 * continue with the next batch.
+		 */
+		boolean handleBatch(Container[] buffer, int from, int to);
+	}
+
+	/**
+	 * Loads all the still available input data in batches and hands them over to
+	 * the given handler. This method returns once there are no more remaining items
+	 * in the {@link QueryInput input}, the handler signals the end of the search or
+	 * loading from the input got interrupted, in which case the worker is canceled.
 	 * <p>
 	 * Additionally the buffer used for storing items from the input will be
 	 * stored as client data in the given worker with {@link #KEY_BUFFER} as key.
+	 * <p>
+	 * If a positive {@code batchTargetTime} is given, the size of individual batches
+	 * is controlled by an {@link AdaptiveBatchSizer}, with {@code batchSize} serving
+	 * as upper limit.
+	 * <p>
+	 * If the worker's controller uses the {@link ExecutionMode#VIRTUAL virtual}
+	 * execution mode, every batch is handled on a new virtual thread, see
+	 * {@link BatchThread}. In the {@link ExecutionMode#WORK_STEALING work stealing}
+	 * mode batches are split up so that idle workers can help, see {@link BatchSplit}.
+	 *
+	 * @param workerCount number of workers sharing the input, used for splitting the
+	 * tail of the input when batches are sized adaptively
 	 */
-	protected final void matchInput(Matcher<Container> matcher, QueryWorker worker) {
+	static void processInput(QueryInput input, int batchSize, long batchTargetTime,
+			int workerCount, QueryWorker worker, BatchHandler handler) {
 
 		final Container[] buffer = new Container[batchSize];
 		worker.putClientData(KEY_BUFFER, buffer);
 
+		final AdaptiveBatchSizer sizer = batchTargetTime>0 ?
+				new AdaptiveBatchSizer(batchSize, batchTargetTime) : null;
+
+		switch (worker.getController().getExecutionMode()) {
+		case VIRTUAL:
+			processInputOnBatchThreads(input, buffer, sizer, workerCount, worker, handler);
+			break;
+
+		case WORK_STEALING: {
+			final StealingScope scope = StealingScope.enter(worker.getController(), handler);
+			try {
+				processBatches(input, buffer, sizer, workerCount, worker,
+						new BatchSplitter(worker.getController(), handler, workerCount));
+				// Help with the batches of the remaining workers before giving up the thread
+				if(!worker.isCanceled() && Thread.currentThread() instanceof ForkJoinWorkerThread) {
+					ForkJoinTask.helpQuiesce();
+				}
+			} finally {
+				scope.exit();
+			}
+		} break;
+
+		default:
+			processBatches(input, buffer, sizer, workerCount, worker, handler);
+			break;
+		}
+	}
+
+	/** Basic batch loop of {@link #processInput(QueryInput, int, long, int, QueryWorker, BatchHandler)} */
+	private static void processBatches(QueryInput input, Container[] buffer, AdaptiveBatchSizer sizer,
+			int workerCount, QueryWorker worker, BatchHandler handler) {
 		for(;;) {
 			int length;
 			try {
-				length = input.load(buffer);
+				length = load(input, buffer, sizer, workerCount);
 			} catch (InterruptedException e) {
 				// treat error on input site as cancellation event
 				worker.cancel();
@@ -155,22 +278,326 @@ public abstract class SingleStreamJob implements QueryJob, QueryWorker.Task {
 			if(length<=0) {
 				break;
 			}
-			for (int i = 0; i < length; i++) {
-				// Abort search when canceled
-				if(worker.isCanceled()) {
+
+			if(sizer==null) {
+				if(!handler.handleBatch(buffer, 0, length)) {
 					return;
 				}
+			} else {
+				final long items = countItems(buffer, length);
+				final long start = System.nanoTime();
+				if(!handler.handleBatch(buffer, 0, length)) {
+					return;
+				}
+				sizer.record(items, System.nanoTime()-start);
+			}
+		}
+	}
 
-				Container target = buffer[i];
-				// We rely on the original index values assigned to each container
-				long index = target.getIndex();
+	/**
+	 * Variant of the batch loop in {@link #processInput(QueryInput, int, long, int, QueryWorker, BatchHandler)}
+	 * that hands every batch over to a new {@link BatchThread}. While a batch is being
+	 * processed, the worker already loads the next one into a second buffer.
+	 */
+	private static void processInputOnBatchThreads(QueryInput input, Container[] buffer,
+			AdaptiveBatchSizer sizer, int workerCount, QueryWorker worker, BatchHandler handler) {
+
+		final Container[] secondary = new Container[buffer.length];
+		Container[] loading = buffer, pending = secondary;
+		BatchThread running = null;
+
+		try {
+			for(;;) {
+				int length;
+				try {
+					length = load(input, loading, sizer, workerCount);
+				} catch (InterruptedException e) {
+					// treat error on input site as cancellation event
+					worker.cancel();
+					break;
+				}
 
-				if(matcher.matches(index, target)) {
-					// Exit entire search if we have enough results already
-					if(output.isFull()) {
+				// Wait for the previous batch before we reuse its buffer
+				if(running!=null) {
+					BatchThread previous = running;
+					running = null;
+					if(!previous.finish(worker, sizer)) {
 						return;
 					}
 				}
+
+				if(length<=0) {
+					break;
+				}
+
+				Container[] tmp = pending;
+				pending = loading;
+				loading = tmp;
+
+				running = new BatchThread(worker, handler, pending, length, sizer!=null);
+			}
+		} finally {
+			// Never leave while a batch thread still owns the verifier
+			if(running!=null) {
+				running.finish(worker, sizer);
+			}
+			Arrays.fill(secondary, null);
+		}
+	}
+
+	private static int load(QueryInput input, Container[] buffer, AdaptiveBatchSizer sizer,
+			int workerCount) throws InterruptedException {
+		if(sizer==null) {
+			return input.load(buffer);
+		}
+		return input.load(buffer,
+				sizer.nextContainerLimit(input.estimateRemaining(), workerCount),
+				sizer.nextItemBudget());
+	}
+
+	private static long countItems(Container[] buffer, int length) {
+		long items = 0;
+		for (int i = 0; i < length; i++) {
+			items += buffer[i].getItemCount();
+		}
+		return items;
+	}
+
+	/**
+	 * Processes a single batch on a new virtual thread. The {@link ThreadVerifier}
+	 * of the worker is {@link ThreadVerifier#handOver(Thread) handed over} to the
+	 * batch thread before it starts and back to the worker thread once the batch
+	 * is done, so that the worker's pipeline is only ever used by one thread at a
+	 * time. Starting and {@link Thread#join() joining} the thread provide the
+	 * required memory visibility between the worker and the batch thread.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	private static final class BatchThread implements Runnable {
+
+		private final ThreadVerifier threadVerifier;
+		private final Thread owner;
+		private final Thread thread;
+		private final BatchHandler handler;
+		private final Container[] buffer;
+		private final int length;
+		/** Total number of items in the batch, only computed for adaptive batching */
+		private final long items;
+
+		// Results, only read after joining the batch thread
+		private boolean proceed;
+		private long nanos;
+		private Throwable error;
+
+		BatchThread(QueryWorker worker, BatchHandler handler, Container[] buffer,
+				int length, boolean countItems) {
+			this.handler = handler;
+			this.buffer = buffer;
+			this.length = length;
+			items = countItems ? countItems(buffer, length) : 0;
+
+			threadVerifier = worker.getThreadVerifier();
+			owner = Thread.currentThread();
+			thread = Thread.ofVirtual().name(threadVerifier.getId()+"-batch").unstarted(this);
+
+			threadVerifier.handOver(thread);
+			thread.start();
+		}
+
+		@Override
+		public void run() {
+			final long start = System.nanoTime();
+			try {
+				proceed = handler.handleBatch(buffer, 0, length);
+			} catch(Throwable t) {
+				error = t;
+			} finally {
+				nanos = System.nanoTime()-start;
+				threadVerifier.handOver(owner);
+			}
+		}
+
+		/**
+		 * Waits for the batch to finish and returns {@code true} if the search should
+		 * continue. Interrupting the waiting worker cancels it, but the batch thread
+		 * is still waited for, as it has to hand back the verifier. Errors in the
+		 * batch thread are rethrown on the worker thread.
+		 */
+		boolean finish(QueryWorker worker, AdaptiveBatchSizer sizer) {
+			for(;;) {
+				try {
+					thread.join();
+					break;
+				} catch (InterruptedException e) {
+					worker.cancel();
+				}
+			}
+
+			if(error instanceof RuntimeException) {
+				throw (RuntimeException) error;
+			} else if(error instanceof Error) {
+				throw (Error) error;
+			} else if(error!=null) {
+				throw new QueryException(GlobalErrorCode.INTERNAL_ERROR, "Batch processing failed", error);
+			}
+
+			if(proceed && sizer!=null) {
+				sizer.record(items, nanos);
+			}
+			return proceed;
+		}
+	}
+
+	/**
+	 * Registers the {@link BatchHandler} of a worker for the current thread, so that
+	 * parts of batches stolen by that thread get matched with the pipeline owned by
+	 * it. Scopes nest, since a thread waiting in the pool might pick up another worker.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	private static final class StealingScope {
+
+		private static final ThreadLocal<StealingScope> current = new ThreadLocal<>();
+
+		private final DefaultJobController controller;
+		private final BatchHandler handler;
+		private final StealingScope previous;
+
+		private StealingScope(DefaultJobController controller, BatchHandler handler, StealingScope previous) {
+			this.controller = controller;
+			this.handler = handler;
+			this.previous = previous;
+		}
+
+		static StealingScope enter(DefaultJobController controller, BatchHandler handler) {
+			StealingScope scope = new StealingScope(controller, handler, current.get());
+			current.set(scope);
+			return scope;
+		}
+
+		/**
+		 * Returns the handler the current thread uses for the given job or {@code null}
+		 * if the thread does not run a worker of that job.
+		 */
+		static BatchHandler handlerFor(DefaultJobController controller) {
+			StealingScope scope = current.get();
+			return scope!=null && scope.controller==controller ? scope.handler : null;
+		}
+
+		void exit() {
+			if(previous==null) {
+				current.remove();
+			} else {
+				current.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * Splits every batch into {@link BatchSplit chunks} that idle threads of the
+	 * {@link java.util.concurrent.ForkJoinPool pool} can steal. Outside of a pool
+	 * the batch is handled in one go.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	private static final class BatchSplitter implements BatchHandler {
+
+		/** Number of chunks per worker a batch gets split into */
+		private static final int CHUNKS_PER_WORKER = 4;
+
+		private final DefaultJobController controller;
+		private final BatchHandler handler;
+		private final int workerCount;
+
+		BatchSplitter(DefaultJobController controller, BatchHandler handler, int workerCount) {
+			this.controller = requireNonNull(controller);
+			this.handler = requireNonNull(handler);
+			this.workerCount = workerCount;
+		}
+
+		@Override
+		public boolean handleBatch(Container[] buffer, int from, int to) {
+			if(to-from<2 || !(Thread.currentThread() instanceof ForkJoinWorkerThread)) {
+				return handler.handleBatch(buffer, from, to);
+			}
+
+			final int chunkSize = Math.max(1, (to-from) / (CHUNKS_PER_WORKER*workerCount));
+			final BatchSplit root = new BatchSplit(new SplitState(controller, buffer, chunkSize), from, to);
+			root.invoke();
+
+			// Chunks stolen by threads that don't work for this job are left to us
+			final SplitState state = root.state;
+			for(BatchSplit chunk; !state.stop.get() && (chunk = state.deferred.poll())!=null; ) {
+				if(!handler.handleBatch(buffer, chunk.from, chunk.to)) {
+					state.stop.set(true);
+				}
+			}
+
+			return !state.stop.get();
+		}
+	}
+
+	/** State shared by all the chunks of a single batch */
+	private static final class SplitState {
+		private final DefaultJobController controller;
+		private final Container[] buffer;
+		private final int chunkSize;
+		/** Set once any handler signals the end of the search */
+		private final AtomicBoolean stop = new AtomicBoolean(false);
+		private final ConcurrentLinkedQueue<BatchSplit> deferred = new ConcurrentLinkedQueue<>();
+
+		SplitState(DefaultJobController controller, Container[] buffer, int chunkSize) {
+			this.controller = controller;
+			this.buffer = buffer;
+			this.chunkSize = chunkSize;
+		}
+	}
+
+	/**
+	 * Part of a batch that gets recursively split in halves until it fits the
+	 * chunk size. Every chunk is matched by the thread that ends up executing it,
+	 * using the {@link StealingScope#handlerFor(DefaultJobController) handler} of the
+	 * worker that thread runs. Thus a worker's pipeline is still only ever used by
+	 * its own thread. Threads not running a worker of the job defer their chunks to
+	 * the worker owning the batch. Forking and joining provide the memory visibility
+	 * of the shared buffer.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	private static final class BatchSplit extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final SplitState state;
+		private final int from, to;
+
+		BatchSplit(SplitState state, int from, int to) {
+			this.state = state;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(state.stop.get()) {
+				return;
+			}
+
+			if(to-from > state.chunkSize) {
+				final int mid = (from+to) >>> 1;
+				invokeAll(new BatchSplit(state, from, mid), new BatchSplit(state, mid, to));
+				return;
+			}
+
+			final BatchHandler handler = StealingScope.handlerFor(state.controller);
+			if(handler==null) {
+				state.deferred.add(this);
+			} else if(!handler.handleBatch(state.buffer, from, to)) {
+				state.stop.set(true);
 			}
 		}
 	}
@@ -185,10 +612,11 @@ public abstract class SingleStreamJob implements QueryJob, QueryWorker.Task {
 			worker.getThreadVerifier().checkThread();
 		}
 
-		final Matcher<Container> matcher = createMatcher(worker);
+		final Pipeline pipeline = createPipeline(worker.getThreadVerifier());
+		worker.putClientData(KEY_PIPELINE, pipeline);
 
 		// Now process the input data in batches
-		matchInput(matcher, worker);
+		matchInput(pipeline, worker);
 
 		/* No cleanup needed here. We do that in cleanup(worker) method!
 		 * That way we can be sure that cleanup is being done even if errors
@@ -214,20 +642,78 @@ public abstract class SingleStreamJob implements QueryJob, QueryWorker.Task {
 		Container[] buffer = worker.removeClientData(KEY_BUFFER);
 		Arrays.fill(buffer, null);
 
-		// Force a reset of the matcher just to be sure
-		@SuppressWarnings("resource")
-		Matcher<?> matcher = worker.removeClientData(KEY_MATCHER);
-		matcher.close();
-
-		// Let implementation handle further cleanup
-		cleanupImpl(worker);
+		// Force a reset of the matcher and all intermediate bridges just to be sure
+		Pipeline pipeline = worker.removeClientData(KEY_PIPELINE);
+		if(pipeline!=null) {
+			pipeline.close();
+		}
 
 		// At this point the worker should not hold any more references to our data
 	}
 
-	protected abstract void cleanupImpl(QueryWorker worker);
+	/**
+	 * Creates a new matcher pipeline for a single worker thread, verified by
+	 * the given {@link ThreadVerifier}. The terminal collector of the pipeline
+	 * is obtained from this job's {@link QueryOutput output}.
+	 */
+	abstract Pipeline createPipeline(ThreadVerifier threadVerifier);
 
-	protected abstract Matcher<Container> createMatcher(QueryWorker worker);
+	/**
+	 * The matcher setup of a job for a single worker thread, together with
+	 * all the intermediate components that need to be closed once the worker
+	 * is done.
+	 *
+	 * @author Markus Gärtner
+	 *
+	 */
+	static final class Pipeline {
+		/** Entry point for matching */
+		private final Matcher<Container> matcher;
+		/** Matcher for the last lane, not owned by any bridge */
+		private final Matcher<Container> terminal;
+		/** Bridges between lanes, each owning the matcher of its lane */
+		private final LaneBridge[] bridges;
+		/** Mappers used by the bridges, each owned by its bridge */
+		private final LaneMapper[] mappers;
+
+		Pipeline(Matcher<Container> matcher, Matcher<Container> terminal,
+				LaneBridge[] bridges, LaneMapper[] mappers) {
+			this.matcher = requireNonNull(matcher);
+			this.terminal = requireNonNull(terminal);
+			this.bridges = bridges;
+			this.mappers = mappers;
+		}
+
+		Pipeline(Matcher<Container> matcher) {
+			this(matcher, matcher, null, null);
+		}
+
+		Matcher<Container> getMatcher() { return matcher; }
+
+		/** Allows mappers to keep their resources open for an entire batch. */
+		void beginBatch() {
+			if(mappers!=null) {
+				for (LaneMapper mapper : mappers) {
+					mapper.beginBatch();
+				}
+			}
+		}
+
+		void endBatch() {
+			if(mappers!=null) {
+				for (LaneMapper mapper : mappers) {
+					mapper.endBatch();
+				}
+			}
+		}
+
+		void close() {
+			terminal.close();
+			if(bridges!=null) {
+				Stream.of(bridges).forEach(LaneBridge::close);
+			}
+		}
+	}
 
 	static class SingleLaneJob extends SingleStreamJob {
 
@@ -241,20 +727,14 @@ public abstract class SingleStreamJob implements QueryJob, QueryWorker.Task {
 		}
 
 		@Override
-		protected Matcher<Container> createMatcher(QueryWorker worker) {
+		Pipeline createPipeline(ThreadVerifier threadVerifier) {
 			StructureMatcher matcher = pattern.matcherBuilder()
 				// Use same thread verifier for all components of the pipeline
-				.threadVerifier(worker.getThreadVerifier())
+				.threadVerifier(threadVerifier)
 				// Instantiate result handler for this thread
-				.matchCollector(output.createTerminalCollector(worker.getThreadVerifier()))
+				.matchCollector(output.createTerminalCollector(threadVerifier))
 				.build();
-			worker.putClientData(KEY_MATCHER, matcher);
-			return matcher;
-		}
-
-		@Override
-		protected void cleanupImpl(QueryWorker worker) {
-			// no-op
+			return new Pipeline(matcher);
 		}
 	}
 
@@ -264,6 +744,8 @@ public abstract class SingleStreamJob implements QueryJob, QueryWorker.Task {
 		private final StructurePattern[] patterns;
 		/** Indicates that caching is possible for the bridge between pattern i and i+1 */
 		private final boolean[] cachableBridge;
+		/** Mapping results shared by all workers for the bridge between pattern i and i+1 */
+		private final LaneMapper.SharedCache[] mappingCaches;
 
 		MultiLaneJob(Builder builder) {
 			super(builder);
@@ -272,6 +754,14 @@ public abstract class SingleStreamJob implements QueryJob, QueryWorker.Task {
 
 			cachableBridge = new boolean[patterns.length-1];
 
+			final int mappingCacheSize = builder.getMappingCacheSize();
+			if(mappingCacheSize>0) {
+				mappingCaches = new LaneMapper.SharedCache[patterns.length-1];
+				Arrays.setAll(mappingCaches, i -> new LaneMapper.SharedCache(mappingCacheSize));
+			} else {
+				mappingCaches = null;
+			}
+
 			/*
 			 *  We can cache the mapping towards a pattern if the set of labels
 			 *  used by the target pattern is disjoint to the total accumulated
@@ -303,15 +793,13 @@ public abstract class SingleStreamJob implements QueryJob, QueryWorker.Task {
 		}
 
 		@Override
-		@SuppressWarnings("resource")
-		protected Matcher<Container> createMatcher(QueryWorker worker) {
-			final ThreadVerifier threadVerifier = worker.getThreadVerifier();
+		Pipeline createPipeline(ThreadVerifier threadVerifier) {
 			// We need to construct the matcher combination back to front
 
 			final int laneCount = patterns.length;
 
 			final LaneBridge[] bridges = new LaneBridge[laneCount-1];
-			worker.putClientData(KEY_BRIDGES, bridges);
+			final LaneMapper[] mappers = new LaneMapper[laneCount-1];
 			// Final collector that just aggregates individual matches into a single MultiMatch
 			//FIXME we have to hand over the raw array here and disable defensive copying in
 			// the aggregator to allow us lazy populating the array
@@ -326,7 +814,6 @@ public abstract class SingleStreamJob implements QueryJob, QueryWorker.Task {
 					.threadVerifier(threadVerifier)
 					.matchCollector(aggregator)
 					.build();
-			worker.putClientData(KEY_MATCHER, lastMatcher);
 			layers[last] = getPrimaryLayer(patterns[last]);
 
 			// Now build and link all the intermediate bridges (n-1 .. 0)
@@ -340,7 +827,8 @@ public abstract class SingleStreamJob implements QueryJob, QueryWorker.Task {
 
 				final LongFunction<Item> itemLookup = corpusData.access(nextLayer);
 				final LongFunction<Container> containerLookup = idx -> Container.class.cast(itemLookup.apply(idx));
-				final LaneMapper laneMapper = corpusData.map(layer, nextLayer);
+				final LaneMapper laneMapper = mappers[i] = corpusData.map(layer, nextLayer,
+						mappingCaches==null ? null : mappingCaches[i]);
 
 				final LaneBridge bridge;
 				if(cachableBridge[i]) {
@@ -367,14 +855,7 @@ public abstract class SingleStreamJob implements QueryJob, QueryWorker.Task {
 				previousMatcher = bridge;
 			}
 
-			return previousMatcher;
-		}
-
-		@Override
-		protected void cleanupImpl(QueryWorker worker) {
-
-			LaneBridge[] bridges = worker.removeClientData(KEY_BRIDGES);
-			Stream.of(bridges).forEach(LaneBridge::close);
+			return new Pipeline(previousMatcher, lastMatcher, bridges, mappers);
 		}
 	}
 
@@ -385,6 +866,8 @@ public abstract class SingleStreamJob implements QueryJob, QueryWorker.Task {
 		private QueryInput input;
 		private QueryOutput output;
 		private Integer batchSize;
+		private Long batchTargetTime;
+		private Integer mappingCacheSize;
 
 		private final List<Closeable> closeables = new ObjectArrayList<>();
 
@@ -452,6 +935,38 @@ public abstract class SingleStreamJob implements QueryJob, QueryWorker.Task {
 			return this;
 		}
 
+		/** Returns the number of mapping results to cache per lane bridge, {@code 0} meaning no caching. */
+		public int getMappingCacheSize() {
+			return mappingCacheSize==null ? QueryUtils.DEFAULT_MAPPING_CACHE_SIZE : mappingCacheSize.intValue();
+		}
+
+		/**
+		 * Sets the number of mapping results between two lanes that are cached
+		 * and shared among all workers of a multi-lane job. A value of {@code 0}
+		 * disables caching.
+		 */
+		public Builder mappingCacheSize(int mappingCacheSize) {
+			checkArgument("Mapping cache size must not be negative", mappingCacheSize>=0);
+			checkArgument("Mapping cache size already set", this.mappingCacheSize==null);
+			this.mappingCacheSize = Integer.valueOf(mappingCacheSize);
+			return this;
+		}
+
+		/** Returns the target time per batch in nanoseconds or {@code 0} if adaptive batching is disabled. */
+		public long getBatchTargetTime() { return batchTargetTime==null ? 0 : batchTargetTime.longValue(); }
+
+		/**
+		 * Enables adaptive batch sizing with the given target processing time
+		 * per batch. The {@link #batchSize(int) batch size} then serves as upper
+		 * limit for the number of containers in a batch.
+		 */
+		public Builder batchTargetTime(long time, TimeUnit unit) {
+			checkArgument("Batch target time must be positive", time>0);
+			checkArgument("Batch target time already set", this.batchTargetTime==null);
+			this.batchTargetTime = Long.valueOf(unit.toNanos(time));
+			return this;
+		}
+
 		//TODO
 
 		protected CorpusData getCorpusData() {
@@ -38,6 +38,11 @@ import de.ims.icarus2.query.api.QueryException;
  *     threadVerifier.checkThread();
  * }
  * </pre>
+ * <p>
+ * Verification is based on thread identity and therefore works the same for
+ * platform and virtual threads. Guarded work can be moved to another thread by
+ * explicitly {@link #handOver(Thread) handing over} the verifier, as done by the
+ * {@link ExecutionMode#VIRTUAL virtual} execution mode for every batch.
  *
  * @author Markus Gärtner
  *
@@ -52,7 +57,8 @@ public final class ThreadVerifier {
 		return new ThreadVerifier(thread, id);
 	}
 
-	private final Thread thread;
+	/** Current owner, only ever changed by the owner itself via {@link #handOver(Thread)} */
+	private volatile Thread thread;
 	private final String id;
 
 	private ThreadVerifier(Thread thread, String id) {
@@ -65,6 +71,16 @@ public final class ThreadVerifier {
 
 	public Thread getThread() { return thread; }
 
+	/**
+	 * Transfers the ownership of the guarded resources to the given thread.
+	 * This method may only be called by the current owner, which must not access
+	 * the guarded resources afterwards until ownership is handed back to it.
+	 */
+	void handOver(Thread thread) {
+		checkThread();
+		this.thread = requireNonNull(thread);
+	}
+
 	public final void checkThread() {
 		if(Thread.currentThread()!=thread)
 			throw new QueryException(QueryErrorCode.FOREIGN_THREAD_ACCESS,
@@ -66,8 +66,10 @@ import de.ims.icarus2.model.api.members.container.Container;
 import de.ims.icarus2.model.api.members.item.Edge;
 import de.ims.icarus2.model.api.members.item.Item;
 import de.ims.icarus2.model.api.members.structure.Structure;
+import de.ims.icarus2.model.api.members.structure.TreeTopology;
 import de.ims.icarus2.model.manifest.api.StructureFlag;
 import de.ims.icarus2.model.manifest.api.StructureManifest;
+import de.ims.icarus2.model.standard.members.container.FlyweightContainer;
 import de.ims.icarus2.query.api.QueryErrorCode;
 import de.ims.icarus2.query.api.QueryException;
 import de.ims.icarus2.query.api.engine.QueryUtils;
@@ -2162,6 +2164,8 @@ public class StructurePattern {
 	static class TreeManager {
 		/** The target container cast to a structure */
 		Structure structure;
+		/** Index-based view on the tree if provided by the structure */
+		TreeTopology topology;
 		/** View on the target tree as frames */
 		TreeFrame[] frames;
 		/** The frame representing the overall list of items in the container */
@@ -2218,7 +2222,20 @@ public class StructurePattern {
 
 		void init(Structure target) {
 			structure = target;
-			structure.forEachOutgoingEdge(structure.getVirtualRoot(), _rootCollector);
+			topology = target.getTreeTopology();
+			if(topology!=null) {
+				rootCount = topology.copyChildren(TreeTopology.VIRTUAL_ROOT, roots, 0);
+			} else {
+				structure.forEachOutgoingEdge(structure.getVirtualRoot(), _rootCollector);
+			}
+		}
+
+		/**
+		 * Returns the number of children for the given node. If the structure provides
+		 * a {@link TreeTopology}, this avoids initialization of the node's frame.
+		 */
+		int childCount(int index) {
+			return topology!=null ? topology.getChildCount(index) : frameAt(index).length;
 		}
 
 		/** Fetches and if needed initializes the frame for given element index */
@@ -2236,6 +2253,11 @@ public class StructurePattern {
 			assert structure!=null : "No structure available - is the target a regular item layer?";
 			assert frame.index!=UNSET_INT : "can't refresh the root frame";
 
+			if(topology!=null) {
+				refreshFrame(frame, topology);
+				return;
+			}
+
 			Item node = structure.getItemAt(frame.index);
 			frame.depth = strictToInt(structure.getDepth(node));
 			frame.height = strictToInt(structure.getHeight(node));
@@ -2256,6 +2278,23 @@ public class StructurePattern {
 			}
 		}
 
+		/** Copies all tree information for the frame directly from the topology arrays */
+		private void refreshFrame(TreeFrame frame, TreeTopology topology) {
+			final int index = frame.index;
+			frame.depth = topology.getDepth(index);
+			frame.height = topology.getHeight(index);
+			frame.descendants = topology.getDescendantCount(index);
+			frame.parent = topology.getParent(index);
+			frame.length = topology.copyChildren(index, frame.indices, 0);
+
+			if(frame.length>1 && !isOrderedStructure()) {
+				IntArrays.quickSort(frame.indices, 0, frame.length);
+			}
+
+			// Topology is complete by definition, so no need for the expensive fallback
+			frame.valid = true;
+		}
+
 		boolean isOrderedStructure() {
 			StructureManifest sm = structure.getManifest();
 			return sm!=null && sm.isStructureFlagSet(StructureFlag.ORDERED);
@@ -2365,6 +2404,7 @@ public class StructurePattern {
 
 		void reset(int range) {
 			structure = null;
+			topology = null;
 			for (int i = 0; i < range; i++) {
 				TreeFrame frame = frames[i];
 				frame.reset();
@@ -3033,8 +3073,18 @@ public class StructurePattern {
 			}
 			// Now copy container content into our buffer for faster access during matching
 			this.target = target;
-			for (int i = 0; i < size; i++) {
-				elements[i] = target.getItemAt(i);
+			if(target instanceof FlyweightContainer) {
+				/*
+				 * Columnar views hand over their pooled flyweights in bulk. This only
+				 * saves the individual getItemAt() calls: matching itself still works
+				 * on item references, but as the flyweights are reused for every
+				 * container, no item objects are allocated here.
+				 */
+				((FlyweightContainer)target).copyItems(elements);
+			} else {
+				for (int i = 0; i < size; i++) {
+					elements[i] = target.getItemAt(i);
+				}
 			}
 			tree.rootFrame.reset(size);
 
@@ -6920,7 +6970,7 @@ public class StructurePattern {
 					}
 
 					// Now descend if possible
-					if(tree.frameAt(index).length > 0 && (maxLevel==UNSET_INT || ctx.level < maxLevel)) {
+					if(tree.childCount(index) > 0 && (maxLevel==UNSET_INT || ctx.level < maxLevel)) {
 						ctx.descend(index);
 					} else {
 						// Or continue to next neighbor for future traversal
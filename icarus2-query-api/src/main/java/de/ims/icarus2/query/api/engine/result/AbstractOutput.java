@@ -39,14 +39,15 @@ import it.unimi.dsi.fastutil.objects.Reference2ReferenceOpenHashMap;
  */
 public abstract class AbstractOutput implements QueryOutput {
 
-	private final Map<Thread, MatchCollector> openCollectors = new Reference2ReferenceOpenHashMap<>();
+	/** Collectors are keyed by verifier, since a verifier can be handed over between threads */
+	private final Map<ThreadVerifier, MatchCollector> openCollectors = new Reference2ReferenceOpenHashMap<>();
 	private final Object collectorLock = new Object();
 
 	@Override
 	public final MatchCollector createTerminalCollector(ThreadVerifier threadVerifier) {
 		MatchCollector collector = createRawCollector(threadVerifier);
 		synchronized (collectorLock) {
-			if(openCollectors.put(threadVerifier.getThread(), collector)!=null)
+			if(openCollectors.put(threadVerifier, collector)!=null)
 				throw new QueryException(GlobalErrorCode.INVALID_INPUT,
 						"Thread already has an active collector: "+threadVerifier.getThread());
 		}
@@ -58,7 +59,7 @@ public abstract class AbstractOutput implements QueryOutput {
 	@Override
 	public final void closeTerminalCollector(ThreadVerifier threadVerifier) {
 		synchronized (collectorLock) {
-			MatchCollector collector = openCollectors.remove(threadVerifier.getThread());
+			MatchCollector collector = openCollectors.remove(threadVerifier);
 			if(collector==null)
 				throw new QueryException(GlobalErrorCode.INVALID_INPUT,
 						"No open collector available for thread: "+threadVerifier.getThread());
@@ -19,6 +19,7 @@
  */
 package de.ims.icarus2.query.api.exp;
 
+import static de.ims.icarus2.util.Conditions.checkArgument;
 import static de.ims.icarus2.util.Conditions.checkState;
 import static java.util.Objects.requireNonNull;
 
@@ -29,9 +30,19 @@ import java.util.function.ToLongFunction;
 
 import de.ims.icarus2.model.api.members.item.Item;
 import de.ims.icarus2.model.manifest.types.ValueType;
+import de.ims.icarus2.model.standard.members.container.FlyweightContainer;
+import de.ims.icarus2.model.standard.members.container.FlyweightContainer.FlyweightItem;
 import de.ims.icarus2.util.AbstractBuilder;
+import de.ims.icarus2.util.IcarusUtils;
 
 /**
+ * Describes a single annotation key and the sources to access its values.
+ * <p>
+ * If a {@link Builder#column(int) column slot} is defined, all sources get
+ * wrapped so that items backed by a {@link FlyweightContainer} with a matching
+ * column are served directly from the primitive column, bypassing the regular
+ * (and usually map-based) annotation storage. Other items fall back to the
+ * original sources.
  *
  * @author Markus Gärtner
  *
@@ -44,6 +55,7 @@ public class AnnotationInfo {
 	private final String key;
 	private final ValueType valueType;
 	private final TypeInfo type;
+	private final int column;
 
 	private Function<Item, Object> objectSource;
 	private ToLongFunction<Item> integerSource;
@@ -55,10 +67,61 @@ public class AnnotationInfo {
 		key = builder.key;
 		valueType = builder.valueType;
 		type = builder.type;
+		column = builder.column;
 		objectSource = builder.objectSource;
 		integerSource = builder.integerSource;
 		floatingPointSource = builder.floatingPointSource;
 		booleanSource = builder.booleanSource;
+
+		if(column!=IcarusUtils.UNSET_INT) {
+			wrapSources();
+		}
+	}
+
+	private static FlyweightContainer columnOwner(Item item, int column) {
+		if(item instanceof FlyweightItem) {
+			FlyweightContainer owner = ((FlyweightItem)item).getOwner();
+			if(owner.hasColumn(column)) {
+				return owner;
+			}
+		}
+		return null;
+	}
+
+	private void wrapSources() {
+		final int column = this.column;
+		if(objectSource!=null) {
+			final Function<Item, Object> source = objectSource;
+			objectSource = item -> {
+				FlyweightContainer owner = columnOwner(item, column);
+				return owner==null ? source.apply(item)
+						: owner.getValue(column, ((FlyweightItem)item).getPosition());
+			};
+		}
+		if(integerSource!=null) {
+			final ToLongFunction<Item> source = integerSource;
+			integerSource = item -> {
+				FlyweightContainer owner = columnOwner(item, column);
+				return owner==null ? source.applyAsLong(item)
+						: owner.getLong(column, ((FlyweightItem)item).getPosition());
+			};
+		}
+		if(floatingPointSource!=null) {
+			final ToDoubleFunction<Item> source = floatingPointSource;
+			floatingPointSource = item -> {
+				FlyweightContainer owner = columnOwner(item, column);
+				return owner==null ? source.applyAsDouble(item)
+						: owner.getDouble(column, ((FlyweightItem)item).getPosition());
+			};
+		}
+		if(booleanSource!=null) {
+			final Predicate<Item> source = booleanSource;
+			booleanSource = item -> {
+				FlyweightContainer owner = columnOwner(item, column);
+				return owner==null ? source.test(item)
+						: owner.getBoolean(column, ((FlyweightItem)item).getPosition());
+			};
+		}
 	}
 
 	public String getRawKey() { return rawKey; }
@@ -69,6 +132,10 @@ public class AnnotationInfo {
 
 	public TypeInfo getType() { return type; }
 
+	public boolean hasColumn() { return column!=IcarusUtils.UNSET_INT; }
+
+	public int getColumn() { return column; }
+
 
 	public Function<Item, Object> getObjectSource() {
 		checkState("No object source defined", objectSource!=null);
@@ -95,6 +162,7 @@ public class AnnotationInfo {
 		private String key;
 		private ValueType valueType;
 		private TypeInfo type;
+		private int column = IcarusUtils.UNSET_INT;
 
 		private Function<Item, Object> objectSource;
 		private ToLongFunction<Item> integerSource;
@@ -142,6 +210,17 @@ public class AnnotationInfo {
 			return this;
 		}
 
+		/**
+		 * Defines the slot of a primitive column in {@link FlyweightContainer}
+		 * instances that holds values for this annotation.
+		 */
+		public Builder column(int column) {
+			checkArgument("column slot must not be negative", column>=0);
+			checkState("column already set", this.column==IcarusUtils.UNSET_INT);
+			this.column = column;
+			return this;
+		}
+
 		public Builder objectSource(Function<Item, Object> objectSource) {
 			requireNonNull(objectSource);
 			checkState("object source already set", this.objectSource==null);
@@ -0,0 +1,165 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.query.api.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import de.ims.icarus2.model.api.members.container.Container;
+import de.ims.icarus2.model.api.view.streamed.StreamedCorpusView;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class AdaptiveBatchSizerTest {
+
+	@Test
+	void testInvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new AdaptiveBatchSizer(0, 1000));
+		assertThrows(IllegalArgumentException.class, () -> new AdaptiveBatchSizer(10, 0));
+	}
+
+	@Test
+	void testProbeBeforeFirstBatch() {
+		AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(1024, 1_000_000);
+		assertThat(sizer.nextItemBudget()).isEqualTo(Long.MAX_VALUE);
+		assertThat(sizer.nextContainerLimit(-1, 4)).isEqualTo(AdaptiveBatchSizer.PROBE_SIZE);
+
+		AdaptiveBatchSizer small = new AdaptiveBatchSizer(4, 1_000_000);
+		assertThat(small.nextContainerLimit(-1, 4)).isEqualTo(4);
+	}
+
+	@Test
+	void testBudgetFollowsRate() {
+		AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(1024, 1_000_000);
+		// 1 item per microsecond
+		sizer.record(1_000, 1_000_000);
+		assertThat(sizer.nextItemBudget()).isEqualTo(1_000);
+		assertThat(sizer.nextContainerLimit(-1, 4)).isEqualTo(1024);
+
+		// Faster batch raises the budget, but only partially
+		sizer.record(10_000, 1_000_000);
+		assertThat(sizer.nextItemBudget()).isBetween(1_001L, 9_999L);
+	}
+
+	@Test
+	void testEmptyObservationsIgnored() {
+		AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(1024, 1_000_000);
+		sizer.record(0, 1_000);
+		sizer.record(1_000, 0);
+		assertThat(sizer.getItemsPerNano()).isZero();
+	}
+
+	@Test
+	void testTailShrinking() {
+		AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(128, 1_000_000);
+		sizer.record(1_000, 1_000_000);
+
+		assertThat(sizer.nextContainerLimit(100_000, 4)).isEqualTo(128);
+		// 40 remaining for 4 workers -> at most 5 per batch
+		assertThat(sizer.nextContainerLimit(40, 4)).isEqualTo(5);
+		// Never drop below a single container
+		assertThat(sizer.nextContainerLimit(0, 4)).isEqualTo(1);
+	}
+
+	@Nested
+	class WithFixedInput {
+
+		@Test
+		void testItemBudget() throws Exception {
+			// Sentences with 5 items each
+			Container[] containers = QueryTestUtils.sentences("-----", "-----", "-----", "-----");
+			QueryInput input = QueryUtils.fixedInput(containers);
+			Container[] buffer = new Container[4];
+
+			assertThat(input.estimateRemaining()).isEqualTo(4);
+			// Budget is reached after the second container
+			assertThat(input.load(buffer, 4, 10)).isEqualTo(2);
+			assertThat(input.estimateRemaining()).isEqualTo(2);
+			// At least one container gets loaded, even if it exceeds the budget
+			assertThat(input.load(buffer, 4, 1)).isEqualTo(1);
+			assertThat(input.load(buffer, 1, Long.MAX_VALUE)).isEqualTo(1);
+			assertThat(input.load(buffer, 4, Long.MAX_VALUE)).isZero();
+		}
+	}
+
+	@Nested
+	class WithStreamedInput {
+
+		/** Creates a view that streams the given containers and reports their number as size */
+		@SuppressWarnings("boxing")
+		private StreamedCorpusView view(Container[] containers) {
+			StreamedCorpusView view = mock(StreamedCorpusView.class);
+			int[] cursor = {-1};
+			when(view.getSize()).thenReturn((long) containers.length);
+			when(view.advance()).thenAnswer(invoc -> ++cursor[0] < containers.length);
+			when(view.currentItem()).thenAnswer(invoc -> containers[cursor[0]]);
+			return view;
+		}
+
+		@Test
+		void testEstimateRemaining() throws Exception {
+			Container[] containers = QueryTestUtils.sentences("-----", "-----", "-----", "-----");
+			QueryInput input = QueryUtils.streamedInput(view(containers));
+			Container[] buffer = new Container[4];
+
+			assertThat(input.estimateRemaining()).isEqualTo(4);
+			assertThat(input.load(buffer, 3, Long.MAX_VALUE)).isEqualTo(3);
+			assertThat(input.estimateRemaining()).isEqualTo(1);
+			assertThat(input.load(buffer)).isEqualTo(1);
+			assertThat(input.estimateRemaining()).isZero();
+		}
+
+		@Test
+		void testUnknownSize() throws Exception {
+			StreamedCorpusView view = mock(StreamedCorpusView.class);
+			when(view.getSize()).thenReturn(-1L);
+
+			assertThat(QueryUtils.streamedInput(view).estimateRemaining()).isEqualTo(-1);
+		}
+
+		@Test
+		void testTailSplitting() throws Exception {
+			String[] sentences = new String[40];
+			Arrays.fill(sentences, "-----");
+			QueryInput input = QueryUtils.streamedInput(view(QueryTestUtils.sentences(sentences)));
+			Container[] buffer = new Container[128];
+
+			AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(128, 1_000_000);
+			sizer.record(1_000, 1_000_000);
+
+			// 40 remaining for 4 workers -> at most 5 per batch
+			assertThat(input.load(buffer, sizer.nextContainerLimit(input.estimateRemaining(), 4),
+					sizer.nextItemBudget())).isEqualTo(5);
+			// Batches keep shrinking as the stream nears its end
+			assertThat(input.load(buffer, sizer.nextContainerLimit(input.estimateRemaining(), 4),
+					sizer.nextItemBudget())).isEqualTo(5);
+			assertThat(input.estimateRemaining()).isEqualTo(30);
+		}
+	}
+}
@@ -410,6 +410,36 @@ class CorpusDataTest {
 					});
 			}
 
+			/**
+			 * Test method for {@link de.ims.icarus2.query.api.engine.CorpusData#findAnnotation(de.ims.icarus2.query.api.exp.ElementInfo, de.ims.icarus2.query.api.exp.QualifiedIdentifier)}.
+			 */
+			@Test
+			void testColumn() throws Exception {
+				Corpus corpus = DummyCorpus.createDummyCorpus(DummyType.FULL, 3);
+				CorpusData data = CorpusBacked.builder()
+						.scope(corpus.createCompleteScope())
+						.annotationColumn("counter", 2)
+						.build();
+
+				IqlLane lane = new IqlLane();
+				lane.setName(DummyCorpus.LAYER_SENTENCE);
+
+				LaneInfo laneInfo = data.resolveLane(lane);
+				ElementInfo elementInfo = data.resolveElement(laneInfo, new IqlNode(), null);
+
+				assertThat(data.findAnnotation(elementInfo, QualifiedIdentifier.of("counter")))
+					.hasValueSatisfying(anno -> {
+						assertThat(anno.hasColumn()).isTrue();
+						assertThat(anno.getColumn()).isEqualTo(2);
+						assertThat(anno.getObjectSource()).isNotNull();
+					});
+
+				String rawText = DummyCorpus.LAYER_ANNO_2+"::anno1";
+				QualifiedIdentifier identifier = QualifiedIdentifier.of(rawText, DummyCorpus.LAYER_ANNO_2, "anno1");
+				assertThat(data.findAnnotation(elementInfo, identifier))
+					.hasValueSatisfying(anno -> assertThat(anno.hasColumn()).isFalse());
+			}
+
 			/**
 			 * Test method for {@link de.ims.icarus2.query.api.engine.CorpusData#findAnnotation(de.ims.icarus2.query.api.exp.ElementInfo, de.ims.icarus2.query.api.exp.QualifiedIdentifier)}.
 			 */
@@ -25,12 +25,17 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.stream.LongStream;
 
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import de.ims.icarus2.model.api.driver.indices.IndexCollector;
 import de.ims.icarus2.model.api.driver.mapping.MappingReader;
@@ -99,6 +104,101 @@ class LaneMapperTest {
 			mapper.reset(123456);
 			assertMapping(mapper);
 		}
+
+		private MappingReader singleValueReader() throws Exception {
+			MappingReader reader = mock(MappingReader.class);
+			when(_boolean(reader.lookup(anyLong(), any(), any()))).thenAnswer(invoc -> {
+				IndexCollector collector = invoc.getArgument(1);
+				collector.add(((Number)invoc.getArgument(0)).longValue() * 10);
+				return Boolean.TRUE;
+			});
+			return reader;
+		}
+
+		@Test
+		public void testSharedCache() throws Exception {
+			LaneMapper.SharedCache cache = new LaneMapper.SharedCache(128);
+
+			MappingReader reader1 = singleValueReader();
+			LaneMapper mapper1 = LaneMapper.forMapping(reader1, 2, cache);
+			mapper1.reset(1);
+			assertMapping(mapper1, 10);
+			mapper1.reset(2);
+			assertMapping(mapper1, 20);
+
+			verify(reader1, times(2)).lookup(anyLong(), any(), any());
+			assertThat(cache.size()).isEqualTo(2);
+
+			// Second mapper should be served entirely from the cache
+			MappingReader reader2 = singleValueReader();
+			LaneMapper mapper2 = LaneMapper.forMapping(reader2, 2, cache);
+			mapper2.reset(2);
+			assertMapping(mapper2, 20);
+			mapper2.reset(1);
+			assertMapping(mapper2, 10);
+
+			verify(reader2, never()).lookup(anyLong(), any(), any());
+			verify(reader2, never()).begin();
+		}
+
+		@Test
+		public void testBatch() throws Exception {
+			MappingReader reader = singleValueReader();
+			LaneMapper mapper = LaneMapper.forMapping(reader, 2);
+
+			mapper.beginBatch();
+			for (int i = 0; i < 5; i++) {
+				mapper.reset(i);
+				assertMapping(mapper, i*10);
+			}
+			mapper.endBatch();
+
+			verify(reader, times(5)).lookup(anyLong(), any(), any());
+			verify(reader, times(1)).begin();
+			verify(reader, times(1)).end();
+		}
+	}
+
+	@Nested
+	class ForSharedCache {
+
+		@Test
+		public void testGetAndPut() throws Exception {
+			LaneMapper.SharedCache cache = new LaneMapper.SharedCache(64);
+			assertThat(cache.get(1)).isNull();
+
+			long[] targets = {1, 2, 3};
+			cache.put(1, targets);
+			assertThat(cache.get(1)).isSameAs(targets);
+			assertThat(cache.size()).isEqualTo(1);
+
+			cache.clear();
+			assertThat(cache.get(1)).isNull();
+			assertThat(cache.size()).isZero();
+		}
+
+		@Test
+		public void testBounded() throws Exception {
+			int capacity = 64;
+			LaneMapper.SharedCache cache = new LaneMapper.SharedCache(capacity);
+			for (int i = 0; i < capacity * 10; i++) {
+				cache.put(i, new long[] {i});
+			}
+			assertThat(cache.size()).isLessThanOrEqualTo(capacity);
+			// Most recently added entry must still be present
+			assertThat(cache.get(capacity * 10 - 1)).containsExactly(capacity * 10 - 1);
+		}
+
+		@ParameterizedTest
+		@ValueSource(ints = {1, 2, 3, 5, LaneMapper.SharedCache.SEGMENT_COUNT-1, LaneMapper.SharedCache.SEGMENT_COUNT+1})
+		public void testBoundedSmallCapacity(int capacity) throws Exception {
+			LaneMapper.SharedCache cache = new LaneMapper.SharedCache(capacity);
+			for (int i = 0; i < LaneMapper.SharedCache.SEGMENT_COUNT * 10; i++) {
+				cache.put(i, new long[] {i});
+				assertThat(cache.size()).isLessThanOrEqualTo(capacity);
+			}
+			assertThat(cache.size()).isPositive();
+		}
 	}
 
 	@Nested
@@ -0,0 +1,245 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.query.api.engine;
+
+import static de.ims.icarus2.util.IcarusUtils.UNSET_INT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import de.ims.icarus2.model.api.members.container.Container;
+import de.ims.icarus2.query.api.engine.QueryJob.JobController;
+import de.ims.icarus2.query.api.engine.QueryUtils.BufferedQueryOutput;
+import de.ims.icarus2.query.api.engine.matcher.StructurePattern;
+import de.ims.icarus2.query.api.engine.matcher.StructurePattern.Role;
+import de.ims.icarus2.query.api.engine.result.Match;
+import de.ims.icarus2.query.api.exp.EvaluationContext;
+import de.ims.icarus2.query.api.exp.EvaluationContext.LaneContext;
+import de.ims.icarus2.query.api.exp.EvaluationContext.RootContext;
+import de.ims.icarus2.query.api.exp.EvaluationUtils;
+import de.ims.icarus2.query.api.exp.env.SharedUtilityEnvironments;
+import de.ims.icarus2.query.api.iql.IqlLane;
+import de.ims.icarus2.query.api.iql.IqlPayload;
+import de.ims.icarus2.query.api.iql.IqlQuery;
+import de.ims.icarus2.util.MutablePrimitives.MutableInteger;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class MultiQueryJobTest {
+
+	private static final String[] SENTENCES = {
+			"X----",
+			"-Y---",
+			"--X--",
+			"---Y-",
+			"X---Y",
+			"-----",
+	};
+
+	private static StructurePattern pattern(CorpusData corpus, String query) {
+		IqlPayload payload = new QueryProcessor().processPayload(QueryTestUtils.expand(query));
+		IqlLane lane = payload.getLanes().get(0);
+
+		MutableInteger id = new MutableInteger(0);
+		EvaluationUtils.visitNodes(lane.getElement(), node -> {
+			assertThat(node.getMappingId()).isEqualTo(UNSET_INT);
+			node.setMappingId(id.getAndIncrement());
+		});
+
+		RootContext rootContext = EvaluationContext.rootBuilder(corpus)
+				.addEnvironment(SharedUtilityEnvironments.all())
+				.build();
+		LaneContext context = rootContext.derive()
+				.lane(lane)
+				.build();
+
+		return StructurePattern.builder()
+				.id(0)
+				.role(Role.SINGLETON)
+				.context(context)
+				.source(lane)
+				.build();
+	}
+
+	private static SingleStreamJob job(CorpusData corpus, QueryInput input,
+			QueryOutput output, String query) {
+		return SingleStreamJob.builder()
+				.addPattern(pattern(corpus, query))
+				.input(input)
+				.output(output)
+				.query(mock(IqlQuery.class)) // not needed for internal workings anyway
+				.batchSize(2)
+				.build();
+	}
+
+	private static List<Long> indices(BufferedQueryOutput output) {
+		return output.getMatches().stream()
+				.map(Match::getIndex)
+				.sorted()
+				.collect(Collectors.toList());
+	}
+
+	private static void run(QueryJob job, int workerLimit) throws InterruptedException {
+		run(job, workerLimit, ExecutionMode.PLATFORM);
+	}
+
+	private static void run(QueryJob job, int workerLimit, ExecutionMode mode) throws InterruptedException {
+		JobController controller = job.execute(workerLimit, mode);
+		assertThat(controller.getTotal()).isEqualTo(workerLimit);
+
+		controller.start();
+
+		assertThat(controller.awaitFinish(10, TimeUnit.SECONDS)).as("process timed out").isTrue();
+		assertThat(controller.getExceptions()).isEmpty();
+	}
+
+	@SuppressWarnings("boxing")
+	@ParameterizedTest
+	@ValueSource(ints = {1, 2, 4})
+	void testSharedScan(int workerLimit) throws Exception {
+		CorpusData corpus = QueryTestUtils.dummyCorpus();
+		QueryInput input = QueryUtils.fixedInput(QueryTestUtils.sentences(SENTENCES));
+
+		BufferedQueryOutput outX = QueryUtils.bufferedOutput(0);
+		BufferedQueryOutput outY = QueryUtils.bufferedOutput(1);
+
+		MultiQueryJob job = MultiQueryJob.builder()
+				.addJob(job(corpus, input, outX, "[$X]"))
+				.addJob(job(corpus, input, outY, "[$Y]"))
+				.build();
+
+		assertThat(job.getJobCount()).isEqualTo(2);
+
+		run(job, workerLimit);
+
+		assertThat(indices(outX)).containsExactly(0L, 2L, 4L);
+		assertThat(indices(outY)).containsExactly(1L, 3L, 4L);
+	}
+
+	@SuppressWarnings("boxing")
+	@ParameterizedTest
+	@ValueSource(ints = {1, 2, 4})
+	void testAdaptiveBatching(int workerLimit) throws Exception {
+		CorpusData corpus = QueryTestUtils.dummyCorpus();
+		QueryInput input = QueryUtils.fixedInput(QueryTestUtils.sentences(SENTENCES));
+
+		BufferedQueryOutput outX = QueryUtils.bufferedOutput(0);
+		BufferedQueryOutput outY = QueryUtils.bufferedOutput(1);
+
+		MultiQueryJob job = MultiQueryJob.builder()
+				.addJob(job(corpus, input, outX, "[$X]"))
+				.addJob(job(corpus, input, outY, "[$Y]"))
+				.batchTargetTime(1, TimeUnit.MILLISECONDS)
+				.build();
+
+		assertThat(job.getBatchTargetTime()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(1));
+
+		run(job, workerLimit);
+
+		assertThat(indices(outX)).containsExactly(0L, 2L, 4L);
+		assertThat(indices(outY)).containsExactly(1L, 3L, 4L);
+	}
+
+	@SuppressWarnings("boxing")
+	@ParameterizedTest
+	@ValueSource(ints = {1, 2, 4})
+	void testVirtualBatchThreads(int workerLimit) throws Exception {
+		CorpusData corpus = QueryTestUtils.dummyCorpus();
+		QueryInput input = QueryUtils.fixedInput(QueryTestUtils.sentences(SENTENCES));
+
+		BufferedQueryOutput outX = QueryUtils.bufferedOutput(0);
+		BufferedQueryOutput outY = QueryUtils.bufferedOutput(1);
+
+		MultiQueryJob job = MultiQueryJob.builder()
+				.addJob(job(corpus, input, outX, "[$X]"))
+				.addJob(job(corpus, input, outY, "[$Y]"))
+				.batchSize(1)
+				.build();
+
+		run(job, workerLimit, ExecutionMode.VIRTUAL);
+
+		assertThat(indices(outX)).containsExactly(0L, 2L, 4L);
+		assertThat(indices(outY)).containsExactly(1L, 3L, 4L);
+	}
+
+	@SuppressWarnings("boxing")
+	@ParameterizedTest
+	@ValueSource(ints = {1, 2, 4})
+	void testWorkStealing(int workerLimit) throws Exception {
+		CorpusData corpus = QueryTestUtils.dummyCorpus();
+		QueryInput input = QueryUtils.fixedInput(QueryTestUtils.sentences(SENTENCES));
+
+		BufferedQueryOutput outX = QueryUtils.bufferedOutput(0);
+		BufferedQueryOutput outY = QueryUtils.bufferedOutput(1);
+
+		// Batches large enough to be split into chunks for every worker
+		MultiQueryJob job = MultiQueryJob.builder()
+				.addJob(job(corpus, input, outX, "[$X]"))
+				.addJob(job(corpus, input, outY, "[$Y]"))
+				.build();
+
+		run(job, workerLimit, ExecutionMode.WORK_STEALING);
+
+		assertThat(indices(outX)).containsExactly(0L, 2L, 4L);
+		assertThat(indices(outY)).containsExactly(1L, 3L, 4L);
+	}
+
+	@SuppressWarnings("boxing")
+	@Test
+	void testFullQueryDropsOut() throws Exception {
+		CorpusData corpus = QueryTestUtils.dummyCorpus();
+		QueryInput input = QueryUtils.fixedInput(QueryTestUtils.sentences(SENTENCES));
+
+		BufferedQueryOutput outX = QueryUtils.bufferedOutput(0, 1);
+		BufferedQueryOutput outY = QueryUtils.bufferedOutput(1);
+
+		MultiQueryJob job = MultiQueryJob.builder()
+				.addJob(job(corpus, input, outX, "[$X]"))
+				.addJob(job(corpus, input, outY, "[$Y]"))
+				.build();
+
+		run(job, 1);
+
+		assertThat(indices(outX)).containsExactly(0L);
+		assertThat(indices(outY)).containsExactly(1L, 3L, 4L);
+	}
+
+	@Test
+	void testMixedInputs() throws Exception {
+		CorpusData corpus = QueryTestUtils.dummyCorpus();
+		Container[] containers = QueryTestUtils.sentences(SENTENCES);
+
+		MultiQueryJob.Builder builder = MultiQueryJob.builder()
+				.addJob(job(corpus, QueryUtils.fixedInput(containers), QueryUtils.bufferedOutput(0), "[$X]"))
+				.addJob(job(corpus, QueryUtils.fixedInput(containers), QueryUtils.bufferedOutput(1), "[$Y]"));
+
+		assertThatIllegalStateException().isThrownBy(builder::build);
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * ICARUS2 Corpus Modeling Framework
+ * Copyright (C) 2014-2025 Markus Gärtner <markus.gaertner@ims.uni-stuttgart.de>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ *
+ */
+package de.ims.icarus2.query.api.engine;
+
+import static de.ims.icarus2.model.api.ModelTestUtils.mockContainer;
+import static de.ims.icarus2.model.api.ModelTestUtils.mockItem;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import de.ims.icarus2.filedriver.compiled.CompiledCorpusReader;
+import de.ims.icarus2.filedriver.compiled.CompiledCorpusWriter;
+import de.ims.icarus2.model.api.driver.ChunkState;
+import de.ims.icarus2.model.api.layer.annotation.AnnotationStorage;
+import de.ims.icarus2.model.api.members.container.Container;
+import de.ims.icarus2.model.api.members.item.Item;
+import de.ims.icarus2.model.manifest.api.ContainerManifest;
+import de.ims.icarus2.model.standard.members.container.FlyweightContainer;
+import de.ims.icarus2.util.io.resource.VirtualIOResource;
+
+/**
+ * @author Markus Gärtner
+ *
+ */
+class QueryUtilsTest {
+
+	@Nested
+	class ForCompiledInput {
+
+		private CompiledCorpusReader reader;
+		private QueryInput input;
+
+		/** Compiles containers 10, 12 and 14 with sizes 2, 3 and 1 */
+		@SuppressWarnings("boxing")
+		@BeforeEach
+		void setUp() throws IOException {
+			Map<Item, Object> annotations = new HashMap<>();
+			AnnotationStorage storage = mock(AnnotationStorage.class);
+			when(storage.getValue(any(), anyString())).thenAnswer(
+					invoc -> annotations.get(invoc.getArgument(0)));
+
+			CompiledCorpusWriter writer = CompiledCorpusWriter.builder()
+					.annotation("pos", storage, "pos")
+					.build();
+			long itemIndex = 0;
+			int[] sizes = {2, 3, 1};
+			for (int c = 0; c < sizes.length; c++) {
+				Item[] items = new Item[sizes[c]];
+				for (int i = 0; i < items.length; i++) {
+					items[i] = mockItem();
+					when(items[i].getIndex()).thenReturn(itemIndex++);
+					annotations.put(items[i], "tag"+c+"_"+i);
+				}
+				writer.accept(10+c*2, mockContainer(items), ChunkState.VALID);
+			}
+
+			VirtualIOResource resource = new VirtualIOResource(Paths.get("."));
+			writer.writeTo(resource);
+			reader = CompiledCorpusReader.open(resource);
+			input = QueryUtils.compiledInput(reader, () -> reader.newScanner(
+					new FlyweightContainer(mock(ContainerManifest.class), null, null))
+					.column("pos", 0));
+		}
+
+		@AfterEach
+		void tearDown() {
+			input.close();
+			reader.close();
+		}
+
+		@Test
+		void testLoad() throws Exception {
+			Container[] buffer = new Container[2];
+			assertEquals(3, input.estimateRemaining());
+
+			assertEquals(2, input.load(buffer));
+			assertThat(buffer).allMatch(FlyweightContainer.class::isInstance);
+			assertNotSame(buffer[0], buffer[1]);
+			assertEquals(10, buffer[0].getIndex());
+			assertEquals(12, buffer[1].getIndex());
+			assertEquals(3, buffer[1].getItemCount());
+			assertEquals(2, buffer[1].getItemAt(0).getIndex());
+			assertEquals("tag1_2", ((FlyweightContainer)buffer[1]).getValue(0, 2));
+			assertEquals(1, input.estimateRemaining());
+
+			Container view = buffer[0];
+			assertEquals(1, input.load(buffer));
+			// Views get reused per buffer slot
+			assertSame(view, buffer[0]);
+			assertEquals(14, buffer[0].getIndex());
+			assertEquals("tag2_0", ((FlyweightContainer)buffer[0]).getValue(0, 0));
+
+			assertEquals(0, input.load(buffer));
+			assertEquals(0, input.estimateRemaining());
+		}
+
+		@Test
+		void testSeparateBuffers() throws Exception {
+			Container[] buffer1 = new Container[1];
+			Container[] buffer2 = new Container[1];
+
+			assertEquals(1, input.load(buffer1));
+			assertEquals(1, input.load(buffer2));
+			assertNotSame(buffer1[0], buffer2[0]);
+			assertEquals(10, buffer1[0].getIndex());
+			assertEquals(12, buffer2[0].getIndex());
+		}
+
+		@Test
+		void testItemBudget() throws Exception {
+			Container[] buffer = new Container[3];
+
+			// Budget is checked before each container, so the first one is always taken
+			assertEquals(1, input.load(buffer, 3, 1));
+			assertEquals(10, buffer[0].getIndex());
+			assertEquals(2, input.load(buffer, 3, 4));
+			assertEquals(12, buffer[0].getIndex());
+			assertEquals(14, buffer[1].getIndex());
+		}
+	}
+}
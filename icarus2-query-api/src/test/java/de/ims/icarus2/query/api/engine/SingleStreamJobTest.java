@@ -44,6 +44,7 @@ import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -91,6 +92,7 @@ class SingleStreamJobTest {
 			protected Integer batchSize;
 			protected Integer workerLimit;
 			protected Integer timeout;
+			protected ExecutionMode executionMode;
 
 			@SuppressWarnings("unchecked")
 			T thisAsCast() { return (T) this; }
@@ -149,6 +151,12 @@ class SingleStreamJobTest {
 				return thisAsCast();
 			}
 
+			T executionMode(ExecutionMode executionMode) {
+				checkState("'executionMode' value already set", this.executionMode==null);
+				this.executionMode = requireNonNull(executionMode);
+				return thisAsCast();
+			}
+
 			T config(Consumer<T> config) {
 				config.accept(thisAsCast());
 				return thisAsCast();
@@ -173,7 +181,8 @@ class SingleStreamJobTest {
 
 				QueryJob job = createJob();
 
-				JobController controller = job.execute(workerLimit.intValue());
+				JobController controller = job.execute(workerLimit.intValue(),
+						executionMode==null ? ExecutionMode.PLATFORM : executionMode);
 				assertThat(controller.getTotal()).as("Expecting %d created worker(s)", workerLimit).isEqualTo(workerLimit.intValue());
 				assertThat(controller.getActive()).as("Expecting no active worker yet").isEqualTo(0);
 
@@ -459,6 +468,32 @@ class SingleStreamJobTest {
 				.matches(sentences.length, i -> match(i).mapping(0, i))
 				.assertProcess();
 		}
+
+		@ParameterizedTest
+		@EnumSource(ExecutionMode.class)
+		public void testExecutionModes(ExecutionMode executionMode) throws Exception {
+			String[] sentences = {
+					"X----",
+					"-X---",
+					"--X--",
+					"---X--",
+					"----X--",
+					"-----X--",
+			};
+
+			singleTest()
+				.query("[$X]")
+				.promote(true)
+				.batchSize(2)
+				.workerLimit(3)
+				.timeout(10)
+				.executionMode(executionMode)
+				.input(QueryUtils.fixedInput(_containers(sentences)))
+				.output(QueryUtils.bufferedOutput(0))
+				.sortMatches(true)
+				.matches(sentences.length, i -> match(i).mapping(0, i))
+				.assertProcess();
+		}
 	}
 
 	private static Container[] _containers(String...sentences) {
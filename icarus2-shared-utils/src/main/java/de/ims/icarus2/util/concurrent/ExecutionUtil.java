@@ -64,10 +64,16 @@ public class ExecutionUtil {
 				handler = new ThreadPoolExecutor.AbortPolicy();
 			}
 
-			executorService = new ThreadPoolExecutor(1,
+			/*
+			 *  With an unbounded queue the pool never grows beyond its core size,
+			 *  so we use the maximum as core size and let idle threads time out.
+			 */
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(maxThreadCount,
 					maxThreadCount, 10L, TimeUnit.MINUTES,
 					new LinkedBlockingQueue<Runnable>(), threadFactory,
 					handler);
+			pool.allowCoreThreadTimeOut(true);
+			executorService = pool;
 
 			// Ensure that in case of a proper VM shutdown we also close the executor service
 			Runnable shutdownTask = () -> {
@@ -24,6 +24,12 @@ import java.util.concurrent.locks.Lock;
 
 /**
  * Models a highlevel view on a file system.
+ * <p>
+ * Lookups via {@link #exists(Path)}, {@link #isDirectory(Path)} and
+ * {@link #getResource(Path)} may be performed concurrently by multiple threads,
+ * as long as no modifications such as {@link #create(Path, boolean)} happen at
+ * the same time. Implementations are not required to support concurrent
+ * modifications.
  *
  * @author Markus Gärtner
  *
@@ -62,6 +62,9 @@ public interface Histogram extends LongConsumer {
 	 */
 	double average();
 
+	/** Returns the sum of all values in this histogram, {@code 0} if it is {@link #isEmpty() empty}. */
+	long sum();
+
 	/** Returns the smallest value encountered so far. Return value is undefined if
 	 * histogram is {@link #isEmpty() empty}! */
 	long min();
@@ -156,6 +159,9 @@ public interface Histogram extends LongConsumer {
 		@Override
 		public long max() { return max; }
 
+		@Override
+		public long sum() { return sum; }
+
 		@Override
 		public double average() {
 			return entries==0L ? Double.NaN : (double) sum / entries;
@@ -310,6 +310,7 @@ class HistogramTest {
 									sum += value*count;
 								}
 								// Verify
+								assertEquals(sum, hist.sum());
 								assertEquals((double)sum/hist.entries(), hist.average());
 							})))
 			);